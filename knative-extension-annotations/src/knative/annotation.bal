@@ -110,15 +110,39 @@ public const string IMAGE_PULL_POLICY_NEVER = "Never";
 # Image pull policy type field for kubernetes deployment and jobs.
 public type ImagePullPolicy IMAGE_PULL_POLICY_IF_NOT_PRESENT|IMAGE_PULL_POLICY_ALWAYS|IMAGE_PULL_POLICY_NEVER;
 
+# Probe by opening a tcp connection.
+public const string PROBE_TYPE_TCP = "tcp";
+
+# Probe by sending an http GET request.
+public const string PROBE_TYPE_HTTP = "http";
+
+# Probe by calling the grpc health checking protocol.
+public const string PROBE_TYPE_GRPC = "grpc";
+
+# Type of a probe.
+public type ProbeType PROBE_TYPE_TCP|PROBE_TYPE_HTTP|PROBE_TYPE_GRPC;
+
 # Probing configuration.
 #
-# + port - Port to check for tcp connection
-# + initialDelayInSeconds - Initial delay for pobing in seconds
-# + periodSeconds - Interval between probes in seconds
+# + probeType - Type of the probe. Default is `"http"` if `path` is set, otherwise `"tcp"`
+# + port - Port to probe. Default is the service port
+# + path - Path of the http probe. Default is `"/"`
+# + httpHeaders - Headers of the http probe
+# + grpcService - Service name of the grpc health check
+# + initialDelaySeconds - Initial delay for probing in seconds
+# + periodSeconds - Interval between probes in seconds. `0` enables aggressive probing of the readiness probe
+# + timeoutSeconds - Time after which a probe times out in seconds
+# + failureThreshold - Number of failed probes after which the probe is considered failed
 public type ProbeConfiguration record {|
+    ProbeType probeType?;
     int port?;
-    int initialDelayInSeconds?;
+    string path?;
+    map<string> httpHeaders?;
+    string grpcService?;
+    int initialDelaySeconds?;
     int periodSeconds?;
+    int timeoutSeconds?;
+    int failureThreshold?;
 |};
 
 public const string EXISTS_OPERATION = "Exists";
@@ -149,6 +173,250 @@ public type PodTolerationConfiguration record {|
     int tolerationSeconds = 0;
 |};
 
+# Keep warm pods and scale down slowly to avoid cold starts.
+public const string COLD_START_LATENCY_CRITICAL = "latency-critical";
+
+# Start with a single pod and scale to zero after a short delay.
+public const string COLD_START_BALANCED = "balanced";
+
+# Start with a single pod and scale to zero as soon as the revision is idle.
+public const string COLD_START_COST_SAVER = "cost-saver";
+
+# Cold start preset of a knative service.
+public type ColdStartPreset COLD_START_LATENCY_CRITICAL|COLD_START_BALANCED|COLD_START_COST_SAVER;
+
+# Cold start and scale to zero configuration. Values set explicitly override the values of the preset.
+#
+# + preset - Named group of cold start values
+# + initialScale - Number of pods a new revision starts with. `0` lets the revision start scaled to zero and requires `allow-zero-initial-scale: "true"` in the `config-autoscaler` ConfigMap
+# + activationScale - Minimum number of pods when the revision scales up from zero
+# + scaleDownDelay - Time to wait before scaling down. (e.g `"15m"`, between `"0s"` and `"1h"`)
+# + scaleToZeroPodRetentionPeriod - Minimum time the last pod is kept after the revision becomes idle. (e.g `"1m"`)
+public type ColdStartConfig record {|
+    ColdStartPreset preset?;
+    int initialScale?;
+    int activationScale?;
+    string scaleDownDelay?;
+    string scaleToZeroPodRetentionPeriod?;
+|};
+
+# Queue proxy sidecar configuration. Values are written as `queue.sidecar.serving.knative.dev/*` annotations on the
+# revision template.
+#
+# + cpuRequest - Cpu request of the sidecar. (e.g `"25m"`)
+# + cpuLimit - Cpu limit of the sidecar
+# + memoryRequest - Memory request of the sidecar. (e.g `"50Mi"`)
+# + memoryLimit - Memory limit of the sidecar
+# + resourcePercentage - Sidecar resources as a percentage of the container resources (1-100)
+public type QueueProxyConfig record {|
+    string cpuRequest?;
+    string cpuLimit?;
+    string memoryRequest?;
+    string memoryLimit?;
+    int resourcePercentage?;
+|};
+
+# Keep the activator in the request path at all times. Buffers bursts at the cost of an extra network hop.
+public const string DATA_PATH_ALWAYS_ACTIVATOR = "always-activator";
+
+# Let knative add the activator to the path when spare burst capacity is low.
+public const string DATA_PATH_AUTO = "auto";
+
+# Take the activator out of the path once the revision is warm. Lowest latency for steady high-RPS services.
+public const string DATA_PATH_DIRECT = "direct";
+
+# Data path mode of a knative service.
+public type DataPath DATA_PATH_ALWAYS_ACTIVATOR|DATA_PATH_AUTO|DATA_PATH_DIRECT;
+
+# Traffic target of a knative service.
+#
+# + revisionName - Name of the revision to pin the traffic to. Cannot be used with `latestRevision`
+# + latestRevision - Send the traffic to the latest ready revision. Default is `false`
+# + percent - Percentage of the traffic sent to the target
+# + tag - Tag of the target. Exposes the target on a dedicated url
+public type TrafficTargetConfig record {|
+    string revisionName?;
+    boolean latestRevision = false;
+    int percent?;
+    string tag?;
+|};
+
+# Cpu and memory quantities of a container.
+#
+# + cpu - Cpu quantity. (e.g `"500m"`, `"1"`)
+# + memory - Memory quantity. (e.g `"256Mi"`, `"1Gi"`)
+public type ResourceRequirementConfig record {|
+    string cpu?;
+    string memory?;
+|};
+
+# Set both requests and limits on the container.
+public const string RESOURCE_POLICY_REQUESTS_AND_LIMITS = "requests-and-limits";
+
+# Set requests and the memory limit only. Avoids cpu throttling of latency sensitive services.
+public const string RESOURCE_POLICY_NO_CPU_LIMIT = "requests-only-no-cpu-limit";
+
+# Policy used to set container resources.
+public type ResourcePolicy RESOURCE_POLICY_REQUESTS_AND_LIMITS|RESOURCE_POLICY_NO_CPU_LIMIT;
+
+# Container resource configuration.
+#
+# + requests - Minimum resources reserved for the container
+# + limits - Maximum resources the container is allowed to use
+# + autoSize - Derive the memory request and limit from the size of the executable jar and the number of dependency
+# jars. Values set in `requests` and `limits` are kept. Default is `false`
+# + policy - Policy used to set the resources. Default is `"requests-and-limits"`
+public type ResourceConfig record {|
+    ResourceRequirementConfig requests?;
+    ResourceRequirementConfig limits?;
+    boolean autoSize = false;
+    ResourcePolicy policy = RESOURCE_POLICY_REQUESTS_AND_LIMITS;
+|};
+
+public const string NODE_SELECTOR_OPERATOR_IN = "In";
+public const string NODE_SELECTOR_OPERATOR_NOT_IN = "NotIn";
+public const string NODE_SELECTOR_OPERATOR_EXISTS = "Exists";
+public const string NODE_SELECTOR_OPERATOR_DOES_NOT_EXIST = "DoesNotExist";
+public const string NODE_SELECTOR_OPERATOR_GT = "Gt";
+public const string NODE_SELECTOR_OPERATOR_LT = "Lt";
+
+# Operators between the key and values of a node affinity.
+public type NodeSelectorOperator NODE_SELECTOR_OPERATOR_IN|NODE_SELECTOR_OPERATOR_NOT_IN|NODE_SELECTOR_OPERATOR_EXISTS|
+    NODE_SELECTOR_OPERATOR_DOES_NOT_EXIST|NODE_SELECTOR_OPERATOR_GT|NODE_SELECTOR_OPERATOR_LT;
+
+# Node affinity configuration.
+#
+# + key - Node label key
+# + operator - Operator between the key and values. Default is `"In"`
+# + values - Node label values
+# + required - Whether the node must match. Preferred otherwise. Default is `true`
+# + weight - Weight of a preferred node affinity (1-100). Default is `1`
+public type NodeAffinityConfig record {|
+    string key;
+    NodeSelectorOperator operator = NODE_SELECTOR_OPERATOR_IN;
+    string[] values?;
+    boolean required = true;
+    int weight?;
+|};
+
+public const string SCHEDULE_ANYWAY = "ScheduleAnyway";
+public const string DO_NOT_SCHEDULE = "DoNotSchedule";
+
+# Action taken when a topology spread constraint cannot be satisfied.
+public type UnsatisfiableConstraintAction SCHEDULE_ANYWAY|DO_NOT_SCHEDULE;
+
+# Topology spread constraint configuration. Pods of the service are spread across the given topology.
+#
+# + topologyKey - Node label key of the topology. (e.g `"topology.kubernetes.io/zone"`)
+# + maxSkew - Maximum difference in the number of pods between two topology domains. Default is `1`
+# + whenUnsatisfiable - Action taken when the constraint cannot be satisfied. Default is `"ScheduleAnyway"`
+public type TopologySpreadConstraintConfig record {|
+    string topologyKey;
+    int maxSkew = 1;
+    UnsatisfiableConstraintAction whenUnsatisfiable = SCHEDULE_ANYWAY;
+|};
+
+# Spread pods across zones.
+public const string SPREAD_ZONE = "zone";
+
+# Spread pods across nodes.
+public const string SPREAD_NODE = "node";
+
+# Spread pods across zones and nodes.
+public const string SPREAD_ZONE_AND_NODE = "zone-and-node";
+
+# Topology spread preset of a knative service.
+public type SpreadPreset SPREAD_ZONE|SPREAD_NODE|SPREAD_ZONE_AND_NODE;
+
+# Serve the revision over HTTP/1.1.
+public const string PROTOCOL_HTTP1 = "http1";
+
+# Serve the revision over cleartext HTTP/2. Used by gRPC listeners and http listeners with `httpVersion` `"2.0"`.
+public const string PROTOCOL_H2C = "h2c";
+
+# Protocol of the container port of a knative service.
+public type Protocol PROTOCOL_HTTP1|PROTOCOL_H2C;
+
+# Expose the service only inside the cluster.
+public const string VISIBILITY_CLUSTER_LOCAL = "cluster-local";
+
+# Expose the service through the external ingress.
+public const string VISIBILITY_EXTERNAL = "external";
+
+# Visibility of a knative service.
+public type Visibility VISIBILITY_CLUSTER_LOCAL|VISIBILITY_EXTERNAL;
+
+# Do not wait for the dependent services. Requests to a dependent knative service are held by its activator until it
+# is ready, so the service only has to retry failed calls.
+public const string DEPENDENCY_WAIT_NONE = "none";
+
+# Wait for all dependent services in a single init container.
+public const string DEPENDENCY_WAIT_PARALLEL = "parallel";
+
+# Wait for each dependent service in its own init container, polling every 2 seconds.
+public const string DEPENDENCY_WAIT_SEQUENTIAL = "sequential";
+
+# Mode of waiting for the services a knative service depends on.
+public type DependencyWait DEPENDENCY_WAIT_NONE|DEPENDENCY_WAIT_PARALLEL|DEPENDENCY_WAIT_SEQUENTIAL;
+
+# Start up quickly with the C1 compiler and the serial collector. Suits short lived pods.
+public const string JVM_PROFILE_FAST_STARTUP = "fast-startup";
+
+# Use both compilers and the parallel collector when more than one processor is available. Suits long lived pods.
+public const string JVM_PROFILE_THROUGHPUT = "throughput";
+
+# Keep the footprint small with the C1 compiler, the serial collector and small thread stacks.
+public const string JVM_PROFILE_LOW_MEMORY = "low-memory";
+
+# JVM ergonomics profile of a knative service.
+public type JvmProfile JVM_PROFILE_FAST_STARTUP|JVM_PROFILE_THROUGHPUT|JVM_PROFILE_LOW_MEMORY;
+
+# Run the executable jar on the JVM of the base image.
+public const string BUILD_MODE_JVM = "jvm";
+
+# Compile the executable jar to a native executable with GraalVM native-image in a multi-stage docker build.
+public const string BUILD_MODE_NATIVE = "native";
+
+# Build mode of the docker image.
+public type BuildMode BUILD_MODE_JVM|BUILD_MODE_NATIVE;
+
+# Build the docker image with the docker daemon.
+public const string IMAGE_BUILDER_DOCKER = "docker";
+
+# Build the image without a docker daemon and write it as an OCI image layout directory.
+public const string IMAGE_BUILDER_OCI_LAYOUT = "oci-layout";
+
+# Build the image without a docker daemon and write it as a tarball for `docker load`.
+public const string IMAGE_BUILDER_DOCKER_ARCHIVE = "docker-archive";
+
+# Image builder of the docker image.
+public type ImageBuilder IMAGE_BUILDER_DOCKER|IMAGE_BUILDER_OCI_LAYOUT|IMAGE_BUILDER_DOCKER_ARCHIVE;
+
+# AppCDS training run of the docker image. Needs a base image with java 13 or later.
+#
+# + trainingCommand - Command that starts the service for the training run. Default is the `CMD` of the generated
+# Dockerfile
+# + warmUpCommand - Command run against the service once it accepts connections. (e.g `"wget -q -O- http://localhost:8080/hello"`)
+# + trainingSeconds - Max time to wait for the service to accept connections. Default is `20`
+public type AppCdsConfig record {|
+    string trainingCommand?;
+    string warmUpCommand?;
+    int trainingSeconds = 20;
+|};
+
+# Lazy pulling of the image layers as eStargz. Needs a lazy pulling snapshotter on the nodes, other nodes pull the
+# image as usual. Recording the startup profile runs the service during the build, in a container of the base image
+# when a docker daemon is reachable and otherwise with the local JVM.
+#
+# + recordProfile - Run the service during the build and fetch the jars it loads first
+# + profileSeconds - Max time to wait for the service to accept connections while recording. Default is `20`
+# + prefetchFiles - Absolute paths of other image files to fetch first
+public type LazyPullConfig record {|
+    boolean recordProfile = true;
+    int profileSeconds = 20;
+    string[] prefetchFiles = [];
+|};
+
 # Knative service configuration.
 #
 # + dockerHost - Docker host IP and docker PORT. ( e.g minikube IP and docker PORT)
@@ -171,15 +439,49 @@ public type PodTolerationConfiguration record {|
 # + replicas - Number of replicas. Default is `1`
 # + livenessProbe - Enable/Disable liveness probe and configure it. Default is `false`
 # + readinessProbe - Enable/Disable readiness probe and configure it. Default is `false`
+# + startupProbe - Enable/Disable startup probe and configure it. Default is `false`
 # + imagePullPolicy - Image pull policy. Default is `"IfNotPresent"`
 # + env - Environment variable map for containers
 # + podAnnotations - Map of annotations for pods
 # + podTolerations - Toleration for pods
-# + dependsOn - Services this deployment depends on
+# + dependsOn - Services this deployment depends on. The cluster local address of each service is set as the
+# `<SERVICE_NAME>_URL` environment variable
+# + dependencyWait - How the pods wait for the services in `dependsOn` before starting. Default is `"none"`
+# + jvm - JVM ergonomics profile. The heap, class space, processor count and collector are derived from `resources`
+# and set as the `JAVA_TOOL_OPTIONS` environment variable
+# + appCds - Add an AppCDS training run to the docker image so that pods start with an archive of the loaded classes
+# + buildMode - Build mode of the docker image. `"native"` starts in milliseconds with a fraction of the memory and
+# lowers the auto sized resources. Cannot be used with `jvm` or `appCds`. Default is `"jvm"`
+# + layeredImage - Copy the dependency jars in layers ordered by how often they change, so that a code only change
+# rebuilds and pushes only the top layers. Default is `false`
+# + imageBuilder - Image builder. `"oci-layout"` and `"docker-archive"` build the image without a docker daemon from
+# the cached base image layers. Cannot push the image or be used with `"native"` or `appCds`. Default is `"docker"`
+# + lazyPull - Write the image and base image layers as eStargz so that pods start before the whole image is pulled.
+# Requires imageBuilder `"oci-layout"`
 # + imagePullSecrets - Image pull secrets
 # + containerConcurrency - concurent request handle by one container instance
 # + timeoutSeconds - max time the instance is allowed for responding to a request
 # + port - containerPort value for Knative service
+# + coldStart - Cold start and scale to zero configuration
+# + resources - Cpu and memory requests and limits of the container
+# + revisionName - Name of the revision. Should be prefixed with the service name. (e.g `"<SERVICE_NAME>-v2"`)
+# + traffic - Traffic targets of the service. Percentages should add up to `100`
+# + rolloutDuration - Time taken to gradually move the traffic of the latest revision to a new revision. (e.g `"300s"`)
+# + dataPath - Whether requests go through the activator. Sets `autoscaling.knative.dev/target-burst-capacity`.
+# Default is `"auto"`
+# + queueProxy - Resources of the queue proxy sidecar
+# + nodeAffinity - Node affinities of the pods
+# + topologySpreadConstraints - Topology spread constraints of the pods
+# + priorityClassName - Priority class of the pods
+# + spread - Spread the pods across zones and/or nodes with `ScheduleAnyway` constraints of max skew `1`
+# + prePullImage - Generate a DaemonSet that pulls the service images on the nodes ahead of traffic. Default is `false`
+# + protocol - Protocol of the container port. Default is `"h2c"` for gRPC and HTTP/2 listeners, otherwise HTTP/1.1
+# + responseStartTimeoutSeconds - max time the instance is allowed to start responding to a request. Cannot exceed
+# `timeoutSeconds`
+# + idleTimeoutSeconds - max time a request is allowed to stay open without receiving or sending any bytes. Cannot
+# exceed `timeoutSeconds`
+# + visibility - Visibility of the service. Default is `"cluster-local"` for services that other modules depend on,
+# otherwise `"external"`
 public type ServiceConfiguration record{|
         *Metadata;
         string dockerHost?;
@@ -197,27 +499,100 @@ public type ServiceConfiguration record{|
         int replicas = 1;
         boolean|ProbeConfiguration livenessProbe = false;
         boolean|ProbeConfiguration readinessProbe = false;
+        boolean|ProbeConfiguration startupProbe = false;
         ImagePullPolicy imagePullPolicy = IMAGE_PULL_POLICY_IF_NOT_PRESENT;
         map<string|FieldRef|SecretKeyRef|ResourceFieldRef|ConfigMapKeyRef> env?;
         map<string> podAnnotations?;
         PodTolerationConfiguration[] podTolerations?;
         string[] dependsOn?;
+        DependencyWait dependencyWait = DEPENDENCY_WAIT_NONE;
+        JvmProfile jvm?;
+        AppCdsConfig appCds?;
+        BuildMode buildMode = BUILD_MODE_JVM;
+        boolean layeredImage = false;
+        ImageBuilder imageBuilder = IMAGE_BUILDER_DOCKER;
+        LazyPullConfig lazyPull?;
         string[] imagePullSecrets?;
         int containerConcurrency = 100;
         int timeoutSeconds = 60;
         int port = 8080;
+        ColdStartConfig coldStart?;
+        ResourceConfig resources?;
+        string revisionName?;
+        TrafficTargetConfig[] traffic?;
+        string rolloutDuration?;
+        DataPath dataPath = DATA_PATH_AUTO;
+        QueueProxyConfig queueProxy?;
+        NodeAffinityConfig[] nodeAffinity?;
+        TopologySpreadConstraintConfig[] topologySpreadConstraints?;
+        string priorityClassName?;
+        SpreadPreset spread?;
+        boolean prePullImage = false;
+        Protocol protocol?;
+        int responseStartTimeoutSeconds?;
+        int idleTimeoutSeconds?;
+        Visibility visibility?;
 
 |};
 public const annotation ServiceConfiguration Service on source service, source function, source listener;
 
-# Knative Horizontal Pod Autoscaler configuration.
+# Scale on the number of in-flight requests per pod.
+public const string KPA_METRIC_CONCURRENCY = "concurrency";
+
+# Scale on the number of requests per second per pod.
+public const string KPA_METRIC_RPS = "rps";
+
+# Metric used by the Knative Pod Autoscaler.
+public type KPAMetric KPA_METRIC_CONCURRENCY|KPA_METRIC_RPS;
+
+# Knative Pod Autoscaler (KPA) configuration. Values are written as `autoscaling.knative.dev/*` annotations on the
+# revision template.
+#
+# + metric - Metric to scale on. Default is `"concurrency"`
+# + target - Target value of the metric per pod. Cannot exceed `containerConcurrency` when scaling on concurrency
+# + targetUtilizationPercentage - Percentage of the target at which the autoscaler adds pods
+# + window - Stable window the metric is averaged over. (e.g `"60s"`, between `"6s"` and `"1h"`)
+# + panicWindowPercentage - Panic window as a percentage of the stable window (1-100)
+# + panicThresholdPercentage - Percentage of the target that triggers panic mode (110-1000)
+# + minScale - Minimum number of pods. `0` allows scale to zero
+# + maxScale - Maximum number of pods. `0` means unlimited
+public type AutoscalingConfig record {|
+    *Metadata;
+    KPAMetric metric?;
+    int target?;
+    int targetUtilizationPercentage?;
+    string window?;
+    int panicWindowPercentage?;
+    int panicThresholdPercentage?;
+    int minScale?;
+    int maxScale?;
+|};
+
+# @knative:Autoscaling annotation to configure the Knative Pod Autoscaler of the service revision.
+public const annotation AutoscalingConfig Autoscaling on source service, source function, source listener;
+
+# Scale on cpu utilization.
+public const string HPA_METRIC_CPU = "cpu";
+
+# Scale on memory usage.
+public const string HPA_METRIC_MEMORY = "memory";
+
+# Metric used by the Horizontal Pod Autoscaler.
+public type HPAMetric HPA_METRIC_CPU|HPA_METRIC_MEMORY;
+
+# Knative Horizontal Pod Autoscaler configuration. Sets the `hpa.autoscaling.knative.dev` autoscaler class on the
+# revision. HPA class revisions cannot scale to zero.
 #
-# + minReplicas - Minimum number of replicas
-# + maxReplicas - Maximum number of replicas
+# + metric - Metric to scale on. Default is `"cpu"`
+# + target - Target cpu utilization percentage for `"cpu"` or target memory usage in Mi for `"memory"`
+# + minReplicas - Minimum number of replicas. Should be at least `1`
+# + maxReplicas - Maximum number of replicas. Required, as the HPA class does not scale without a bound
 public type PodAutoscalerConfig record {|
     *Metadata;
+    HPAMetric metric = HPA_METRIC_CPU;
+    int target?;
     int minReplicas?;
-    int maxReplicas?;
+    int maxReplicas;
 |};
 
 # @knative:HPA annotation to configure horizontal pod autoscaler yaml.
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.test.handlers;
+
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.handlers.KnativeArtifactHandler;
+import org.ballerinax.knative.handlers.KnativeArtifactHandler.Model;
+import org.ballerinax.knative.handlers.KnativeArtifactTaskGraph;
+import org.ballerinax.knative.handlers.KnativeConfigMapHandler;
+import org.ballerinax.knative.handlers.KnativeContainerHandler;
+import org.ballerinax.knative.handlers.KnativeDockerHandler;
+import org.ballerinax.knative.handlers.KnativeImagePrePullHandler;
+import org.ballerinax.knative.handlers.KnativeServiceHandler;
+import org.ballerinax.knative.utils.TaskOutput;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Test cases for running artifact handlers in parallel.
+ */
+public class KnativeArtifactTaskGraphTest {
+
+    @Test
+    public void testOverlappingHandlersRunInOrder() throws KnativePluginException {
+        List<String> events = new CopyOnWriteArrayList<>();
+        new KnativeArtifactTaskGraph()
+                .add(new RecordingHandler("service", EnumSet.of(Model.SERVICE), EnumSet.of(Model.SERVICE), events))
+                .add(new RecordingHandler("secret", EnumSet.of(Model.SECRETS), EnumSet.noneOf(Model.class), events))
+                .add(new RecordingHandler("prePull", EnumSet.of(Model.SERVICE, Model.IMAGE),
+                        EnumSet.noneOf(Model.class), events))
+                .run();
+        // the pre-pull handler reads the service model, so it starts only after the service handler ends.
+        Assert.assertTrue(events.indexOf("service end") < events.indexOf("prePull start"), events.toString());
+        // the secret handler shares no model with the others.
+        Assert.assertTrue(events.indexOf("secret start") < events.indexOf("service end"), events.toString());
+    }
+
+    @Test
+    public void testIndependentHandlersRunInParallel() throws KnativePluginException {
+        List<String> events = new CopyOnWriteArrayList<>();
+        new KnativeArtifactTaskGraph()
+                .add(new RecordingHandler("secret", EnumSet.of(Model.SECRETS), EnumSet.noneOf(Model.class), events))
+                .add(new RecordingHandler("quota", EnumSet.of(Model.RESOURCE_QUOTAS), EnumSet.noneOf(Model.class),
+                        events))
+                .run();
+        Assert.assertTrue(events.indexOf("quota start") < events.indexOf("secret end"), events.toString());
+    }
+
+    @Test
+    public void testOutputIsPrintedInHandlerOrder() throws KnativePluginException {
+        TaskOutput.Buffer output = new TaskOutput.Buffer();
+        TaskOutput.route(output);
+        try {
+            new KnativeArtifactTaskGraph()
+                    .add(new RecordingHandler("slow", EnumSet.of(Model.SECRETS), EnumSet.noneOf(Model.class),
+                            new CopyOnWriteArrayList<>(), 300))
+                    .add(new RecordingHandler("fast", EnumSet.of(Model.CONFIG_MAPS), EnumSet.noneOf(Model.class),
+                            new CopyOnWriteArrayList<>(), 0))
+                    .run();
+        } finally {
+            TaskOutput.route(null);
+        }
+        Assert.assertEquals(output.toString().replace("\r", ""), "slow start\nslow end\nfast start\nfast end\n");
+    }
+
+    @Test
+    public void testHandlersAfterFailedHandlerAreSkipped() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        try {
+            new KnativeArtifactTaskGraph()
+                    .add(new FailingHandler())
+                    .add(new RecordingHandler("service", EnumSet.of(Model.SERVICE), EnumSet.of(Model.SERVICE),
+                            events))
+                    .run();
+            Assert.fail("failure of the handler is not thrown");
+        } catch (KnativePluginException e) {
+            Assert.assertEquals(e.getMessage(), "@knative:Service{} failed");
+        }
+        Assert.assertTrue(events.isEmpty(), events.toString());
+    }
+
+    @Test
+    public void testServiceAndDockerHandlersOverlap() throws KnativePluginException {
+        KnativeServiceHandler serviceHandler = new KnativeServiceHandler(null);
+        KnativeDockerHandler dockerHandler = new KnativeDockerHandler(null);
+        // the docker handler reads only the image options, which the service handler does not write.
+        Assert.assertTrue(Collections.disjoint(dockerHandler.getReads(), serviceHandler.getWrites()));
+        Assert.assertTrue(Collections.disjoint(serviceHandler.getReads(), dockerHandler.getWrites()));
+        KnativeImagePrePullHandler prePullHandler = new KnativeImagePrePullHandler(null);
+        Assert.assertFalse(Collections.disjoint(prePullHandler.getReads(), serviceHandler.getWrites()));
+        KnativeConfigMapHandler configMapHandler = new KnativeConfigMapHandler(null);
+        Assert.assertFalse(Collections.disjoint(serviceHandler.getReads(), configMapHandler.getWrites()));
+        KnativeContainerHandler containerHandler = new KnativeContainerHandler(null);
+        Assert.assertFalse(Collections.disjoint(dockerHandler.getReads(), containerHandler.getWrites()));
+
+        // the handlers in the order of the artifact manager, with the models the real handlers declare.
+        List<String> events = new CopyOnWriteArrayList<>();
+        new KnativeArtifactTaskGraph()
+                .add(new RecordingHandler("container", containerHandler, events))
+                .add(new RecordingHandler("configMap", configMapHandler, events))
+                .add(new RecordingHandler("service", serviceHandler, events))
+                .add(new RecordingHandler("prePull", prePullHandler, events))
+                .add(new RecordingHandler("docker", dockerHandler, events))
+                .run();
+        Assert.assertTrue(events.indexOf("docker start") < events.indexOf("service end"), events.toString());
+        Assert.assertTrue(events.indexOf("container end") < events.indexOf("docker start"), events.toString());
+        Assert.assertTrue(events.indexOf("service end") < events.indexOf("prePull start"), events.toString());
+    }
+
+    /**
+     * Handler that records when it starts and ends.
+     */
+    private static class RecordingHandler implements KnativeArtifactHandler {
+
+        private final String name;
+        private final Set<Model> reads;
+        private final Set<Model> writes;
+        private final List<String> events;
+        private final long millis;
+
+        RecordingHandler(String name, Set<Model> reads, Set<Model> writes, List<String> events) {
+            this(name, reads, writes, events, 200);
+        }
+
+        RecordingHandler(String name, KnativeArtifactHandler handler, List<String> events) {
+            this(name, handler.getReads(), handler.getWrites(), events, 200);
+        }
+
+        RecordingHandler(String name, Set<Model> reads, Set<Model> writes, List<String> events, long millis) {
+            this.name = name;
+            this.reads = reads;
+            this.writes = writes;
+            this.events = events;
+            this.millis = millis;
+        }
+
+        @Override
+        public void createArtifacts() throws KnativePluginException {
+            events.add(name + " start");
+            OUT.println(name + " start");
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new KnativePluginException("interrupted", e);
+            }
+            OUT.println(name + " end");
+            events.add(name + " end");
+        }
+
+        @Override
+        public Set<Model> getReads() {
+            return reads;
+        }
+
+        @Override
+        public Set<Model> getWrites() {
+            return writes;
+        }
+    }
+
+    /**
+     * Handler that fails.
+     */
+    private static class FailingHandler implements KnativeArtifactHandler {
+
+        @Override
+        public void createArtifacts() throws KnativePluginException {
+            throw new KnativePluginException("@knative:Service{} failed");
+        }
+
+        @Override
+        public Set<Model> getReads() {
+            return EnumSet.of(Model.SERVICE);
+        }
+
+        @Override
+        public Set<Model> getWrites() {
+            return EnumSet.of(Model.SERVICE);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.knative.test.samples;
+
+import io.fabric8.knative.serving.v1.Service;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.Handlers;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.test.utils.KnativeTestUtils;
+import org.ballerinax.knative.utils.KnativeUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.ballerinax.knative.KnativeConstants.DOCKER;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE;
+import static org.ballerinax.knative.KnativeConstants.KUBERNETES;
+
+/**
+ * Test cases for sample 10.
+ */
+public class Sample10Test extends SampleTest {
+
+    private static final Path SOURCE_DIR_PATH = SAMPLE_DIR.resolve("sample10");
+    private static final Path DOCKER_TARGET_PATH = SOURCE_DIR_PATH.resolve(DOCKER);
+    private static final Path KUBERNETES_TARGET_PATH = SOURCE_DIR_PATH.resolve(KUBERNETES);
+    private static final String DOCKER_IMAGE = "hello_world_knative_layered:latest";
+    private Service knativeService;
+
+    @BeforeClass
+    public void compileSample() throws IOException, InterruptedException {
+        Assert.assertEquals(KnativeTestUtils.compileBallerinaFile(SOURCE_DIR_PATH,
+                "hello_world_knative_layered.bal"), 0);
+        File artifactYaml = KUBERNETES_TARGET_PATH.resolve(KNATIVE).resolve("hello_world_knative_layered.yaml")
+                .toFile();
+        Assert.assertTrue(artifactYaml.exists());
+        Handlers.register(new KnativeTestUtils.ServiceHandler());
+        KubernetesClient client = new DefaultKubernetesClient();
+        List<HasMetadata> k8sItems = client.load(new FileInputStream(artifactYaml)).get();
+        for (HasMetadata data : k8sItems) {
+            if ("Service".equals(data.getKind())) {
+                this.knativeService = (Service) data;
+            } else {
+                Assert.fail("Unexpected k8s/knative resource found: " + data.getKind());
+            }
+        }
+    }
+
+    @Test
+    public void validateDockerfile() throws IOException {
+        Assert.assertNotNull(this.knativeService);
+        Path dockerfile = DOCKER_TARGET_PATH.resolve("Dockerfile");
+        Assert.assertTrue(Files.exists(dockerfile));
+        List<String> copies = new ArrayList<>();
+        for (String line : Files.readAllLines(dockerfile, StandardCharsets.UTF_8)) {
+            if (line.trim().startsWith("COPY ")) {
+                copies.add(line.trim());
+            }
+        }
+        Assert.assertTrue(copies.size() > 1);
+        Assert.assertTrue(copies.get(0).startsWith("COPY jars/runtime/ "));
+        Assert.assertTrue(copies.get(copies.size() - 1).startsWith("COPY hello_world_knative_layered.jar "));
+        Assert.assertTrue(Files.isDirectory(DOCKER_TARGET_PATH.resolve("jars").resolve("runtime")));
+    }
+
+    @AfterClass
+    public void cleanUp() throws KnativePluginException {
+        KnativeUtils.deleteDirectory(KUBERNETES_TARGET_PATH);
+        KnativeUtils.deleteDirectory(DOCKER_TARGET_PATH);
+        KnativeTestUtils.deleteDockerImage(DOCKER_IMAGE);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.knative.test.samples;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.knative.serving.v1.Service;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.Handlers;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.test.utils.KnativeTestUtils;
+import org.ballerinax.knative.utils.KnativeUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.ballerinax.knative.KnativeConstants.DOCKER;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE;
+import static org.ballerinax.knative.KnativeConstants.KUBERNETES;
+
+/**
+ * Test cases for sample 12.
+ */
+public class Sample12Test extends SampleTest {
+
+    private static final Path SOURCE_DIR_PATH = SAMPLE_DIR.resolve("sample12");
+    private static final Path DOCKER_TARGET_PATH = SOURCE_DIR_PATH.resolve(DOCKER);
+    private static final Path KUBERNETES_TARGET_PATH = SOURCE_DIR_PATH.resolve(KUBERNETES);
+    private static final String DOCKER_IMAGE = "hello_world_knative_lazy_pull:latest";
+    private Service knativeService;
+
+    @BeforeClass
+    public void compileSample() throws IOException, InterruptedException {
+        Assert.assertEquals(KnativeTestUtils.compileBallerinaFile(SOURCE_DIR_PATH,
+                "hello_world_knative_lazy_pull.bal"), 0);
+        File artifactYaml = KUBERNETES_TARGET_PATH.resolve(KNATIVE).resolve("hello_world_knative_lazy_pull.yaml")
+                .toFile();
+        Assert.assertTrue(artifactYaml.exists());
+        Handlers.register(new KnativeTestUtils.ServiceHandler());
+        KubernetesClient client = new DefaultKubernetesClient();
+        List<HasMetadata> k8sItems = client.load(new FileInputStream(artifactYaml)).get();
+        for (HasMetadata data : k8sItems) {
+            if ("Service".equals(data.getKind())) {
+                this.knativeService = (Service) data;
+            } else {
+                Assert.fail("Unexpected k8s/knative resource found: " + data.getKind());
+            }
+        }
+    }
+
+    @Test
+    public void validateEstargzLayers() throws IOException {
+        Assert.assertNotNull(this.knativeService);
+        Path layoutDir = DOCKER_TARGET_PATH.resolve("oci");
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode index = mapper.readTree(layoutDir.resolve("index.json").toFile());
+        Path blobsDir = layoutDir.resolve("blobs").resolve("sha256");
+        JsonNode manifest = mapper.readTree(blobsDir.resolve(blobName(index.get("manifests").get(0))).toFile());
+        Assert.assertTrue(manifest.get("layers").size() > 0);
+        for (JsonNode layer : manifest.get("layers")) {
+            Assert.assertEquals(layer.get("mediaType").asText(), "application/vnd.oci.image.layer.v1.tar+gzip");
+            Assert.assertTrue(layer.get("annotations").has("containerd.io/snapshot/stargz/toc.digest"));
+            Assert.assertTrue(layer.get("annotations").has("io.containers.estargz.uncompressed-size"));
+            // the footer is an empty gzip member with the offset of the table of contents.
+            byte[] blob = Files.readAllBytes(blobsDir.resolve(blobName(layer)));
+            String footer = new String(blob, blob.length - 51 + 16, 22, StandardCharsets.US_ASCII);
+            Assert.assertTrue(footer.endsWith("STARGZ"));
+        }
+    }
+
+    private String blobName(JsonNode descriptor) {
+        return descriptor.get("digest").asText().substring("sha256:".length());
+    }
+
+    @AfterClass
+    public void cleanUp() throws KnativePluginException {
+        KnativeUtils.deleteDirectory(KUBERNETES_TARGET_PATH);
+        KnativeUtils.deleteDirectory(DOCKER_TARGET_PATH);
+    }
+}
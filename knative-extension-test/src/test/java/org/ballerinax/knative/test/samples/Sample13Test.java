@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.test.samples;
+
+import io.fabric8.knative.serving.v1.Service;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.Handlers;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.test.utils.KnativeTestUtils;
+import org.ballerinax.knative.utils.KnativeUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.ballerinax.knative.KnativeConstants.CONFIG_MAP_FILE_POSTFIX;
+import static org.ballerinax.knative.KnativeConstants.DOCKER;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE_SVC_FILE_POSTFIX;
+import static org.ballerinax.knative.KnativeConstants.KUBERNETES;
+import static org.ballerinax.knative.KnativeConstants.YAML;
+
+/**
+ * Test cases for sample 13.
+ */
+public class Sample13Test extends SampleTest {
+
+    private static final Path SOURCE_DIR_PATH = SAMPLE_DIR.resolve("sample13");
+    private static final Path DOCKER_TARGET_PATH = SOURCE_DIR_PATH.resolve(DOCKER);
+    private static final Path KUBERNETES_TARGET_PATH = SOURCE_DIR_PATH.resolve(KUBERNETES);
+    private static final String ARTIFACT_NAME = "hello_world_knative_multi_yaml";
+    private Service knativeService;
+    private ConfigMap dataMap;
+
+    @BeforeClass
+    public void compileSample() throws IOException, InterruptedException {
+        Assert.assertEquals(KnativeTestUtils.compileBallerinaFile(SOURCE_DIR_PATH, ARTIFACT_NAME + ".bal"), 0);
+        Handlers.register(new KnativeTestUtils.ServiceHandler());
+        for (HasMetadata data : loadArtifacts(KNATIVE_SVC_FILE_POSTFIX)) {
+            if ("Service".equals(data.getKind())) {
+                this.knativeService = (Service) data;
+            } else {
+                Assert.fail("Unexpected k8s/knative resource found: " + data.getKind());
+            }
+        }
+        for (HasMetadata data : loadArtifacts(CONFIG_MAP_FILE_POSTFIX)) {
+            if ("ConfigMap".equals(data.getKind())) {
+                this.dataMap = (ConfigMap) data;
+            } else {
+                Assert.fail("Unexpected k8s resource found: " + data.getKind());
+            }
+        }
+    }
+
+    private List<HasMetadata> loadArtifacts(String filePostfix) throws IOException {
+        File artifactYaml = KUBERNETES_TARGET_PATH.resolve(KNATIVE).resolve(ARTIFACT_NAME + filePostfix + YAML)
+                .toFile();
+        Assert.assertTrue(artifactYaml.exists());
+        KubernetesClient client = new DefaultKubernetesClient();
+        try (FileInputStream inputStream = new FileInputStream(artifactYaml)) {
+            return client.load(inputStream).get();
+        }
+    }
+
+    @Test
+    public void validateArtifactFiles() {
+        Assert.assertFalse(KUBERNETES_TARGET_PATH.resolve(KNATIVE).resolve(ARTIFACT_NAME + YAML).toFile().exists());
+        Assert.assertNotNull(this.knativeService);
+        Assert.assertEquals(this.knativeService.getMetadata().getName(), "helloworldep-knative-svc");
+        Assert.assertNotNull(this.dataMap);
+        Assert.assertEquals(this.dataMap.getData().size(), 1);
+    }
+
+    @AfterClass
+    public void cleanUp() throws KnativePluginException {
+        KnativeUtils.deleteDirectory(KUBERNETES_TARGET_PATH);
+        KnativeUtils.deleteDirectory(DOCKER_TARGET_PATH);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.test.samples;
+
+import io.fabric8.knative.serving.v1.Service;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.Handlers;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.ballerinax.knative.KnativeConstants.ColdStartPreset;
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.test.utils.KnativeTestUtils;
+import org.ballerinax.knative.utils.KnativeUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_ACTIVATION_SCALE;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_INITIAL_SCALE;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_SCALE_DOWN_DELAY;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_SCALE_TO_ZERO_RETENTION;
+import static org.ballerinax.knative.KnativeConstants.DOCKER;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE;
+import static org.ballerinax.knative.KnativeConstants.KUBERNETES;
+
+/**
+ * Test cases for sample 15.
+ */
+public class Sample15Test extends SampleTest {
+
+    private static final Path SOURCE_DIR_PATH = SAMPLE_DIR.resolve("sample15");
+    private static final Path DOCKER_TARGET_PATH = SOURCE_DIR_PATH.resolve(DOCKER);
+    private static final Path KUBERNETES_TARGET_PATH = SOURCE_DIR_PATH.resolve(KUBERNETES);
+    private static final String SOURCE_FILE = "hello_world_knative_cold_start.bal";
+    private static final String PRESET = "preset: knative:COLD_START_COST_SAVER";
+    private Service knativeService;
+
+    @BeforeClass
+    public void compileSample() throws IOException, InterruptedException {
+        Assert.assertEquals(KnativeTestUtils.compileBallerinaFile(SOURCE_DIR_PATH, SOURCE_FILE), 0);
+        this.knativeService = loadService(SOURCE_DIR_PATH);
+    }
+
+    @Test
+    public void validateCostSaver() {
+        Assert.assertNotNull(this.knativeService);
+        Map<String, String> annotations = getAnnotations(this.knativeService);
+        // knative rejects an initial scale of 0 unless the cluster allows it.
+        Assert.assertEquals(annotations.get(AUTOSCALING_INITIAL_SCALE), "1");
+        assertPreset(annotations, ColdStartPreset.COST_SAVER);
+    }
+
+    @Test
+    public void validatePresets() throws IOException, InterruptedException, KnativePluginException {
+        for (ColdStartPreset preset : ColdStartPreset.values()) {
+            String constant = "knative:COLD_START_" + preset.name();
+            assertPreset(getAnnotations(compileWith("preset: " + constant)), preset);
+        }
+    }
+
+    @Test
+    public void validatePresetOverride() throws IOException, InterruptedException, KnativePluginException {
+        Map<String, String> annotations = getAnnotations(compileWith(PRESET + ",\n        initialScale: 0,\n" +
+                "        scaleDownDelay: \"5m\""));
+        Assert.assertEquals(annotations.get(AUTOSCALING_INITIAL_SCALE), "0");
+        Assert.assertEquals(annotations.get(AUTOSCALING_SCALE_DOWN_DELAY), "5m");
+        Assert.assertEquals(annotations.get(AUTOSCALING_ACTIVATION_SCALE), "1");
+    }
+
+    @Test
+    public void validateScaleDownDelayLimit() throws IOException, InterruptedException, KnativePluginException {
+        Path sourceDir = copySample(PRESET + ",\n        scaleDownDelay: \"2h\"");
+        try {
+            KnativeTestUtils.compileBallerinaFile(sourceDir, SOURCE_FILE);
+            Assert.assertFalse(Files.exists(sourceDir.resolve(KUBERNETES).resolve(KNATIVE)
+                    .resolve("hello_world_knative_cold_start.yaml")));
+        } finally {
+            KnativeUtils.deleteDirectory(sourceDir);
+        }
+    }
+
+    @AfterClass
+    public void cleanUp() throws KnativePluginException {
+        KnativeUtils.deleteDirectory(KUBERNETES_TARGET_PATH);
+        KnativeUtils.deleteDirectory(DOCKER_TARGET_PATH);
+    }
+
+    private void assertPreset(Map<String, String> annotations, ColdStartPreset preset) {
+        Assert.assertEquals(annotations.get(AUTOSCALING_INITIAL_SCALE), String.valueOf(preset.getInitialScale()),
+                preset.getValue());
+        Assert.assertTrue(preset.getInitialScale() > 0, preset.getValue());
+        Assert.assertEquals(annotations.get(AUTOSCALING_ACTIVATION_SCALE),
+                String.valueOf(preset.getActivationScale()), preset.getValue());
+        Assert.assertEquals(annotations.get(AUTOSCALING_SCALE_DOWN_DELAY), preset.getScaleDownDelay(),
+                preset.getValue());
+        Assert.assertEquals(annotations.get(AUTOSCALING_SCALE_TO_ZERO_RETENTION),
+                preset.getScaleToZeroPodRetentionPeriod(), preset.getValue());
+    }
+
+    // compiles a copy of the sample with a different cold start configuration.
+    private Service compileWith(String coldStart) throws IOException, InterruptedException,
+            KnativePluginException {
+        Path sourceDir = copySample(coldStart);
+        try {
+            Assert.assertEquals(KnativeTestUtils.compileBallerinaFile(sourceDir, SOURCE_FILE), 0);
+            return loadService(sourceDir);
+        } finally {
+            KnativeUtils.deleteDirectory(sourceDir);
+        }
+    }
+
+    private Path copySample(String coldStart) throws IOException {
+        Path sourceDir = Files.createTempDirectory("knative-sample15");
+        String source = new String(Files.readAllBytes(SOURCE_DIR_PATH.resolve(SOURCE_FILE)), StandardCharsets.UTF_8);
+        Assert.assertTrue(source.contains(PRESET));
+        Files.write(sourceDir.resolve(SOURCE_FILE), source.replace(PRESET, coldStart)
+                .getBytes(StandardCharsets.UTF_8));
+        return sourceDir;
+    }
+
+    private Service loadService(Path sourceDir) throws IOException {
+        File artifactYaml = sourceDir.resolve(KUBERNETES).resolve(KNATIVE)
+                .resolve("hello_world_knative_cold_start.yaml").toFile();
+        Assert.assertTrue(artifactYaml.exists());
+        Handlers.register(new KnativeTestUtils.ServiceHandler());
+        KubernetesClient client = new DefaultKubernetesClient();
+        Service service = null;
+        List<HasMetadata> k8sItems = client.load(new FileInputStream(artifactYaml)).get();
+        for (HasMetadata data : k8sItems) {
+            if ("Service".equals(data.getKind())) {
+                service = (Service) data;
+            } else {
+                Assert.fail("Unexpected k8s/knative resource found: " + data.getKind());
+            }
+        }
+        return service;
+    }
+
+    private Map<String, String> getAnnotations(Service service) {
+        Assert.assertNotNull(service);
+        return service.getSpec().getTemplate().getMetadata().getAnnotations();
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.test.samples;
+
+import io.fabric8.knative.serving.v1.Service;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.Handlers;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.test.utils.KnativeTestUtils;
+import org.ballerinax.knative.utils.KnativeUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.ballerinax.knative.KnativeConstants.KNATIVE;
+import static org.ballerinax.knative.KnativeConstants.KUBERNETES;
+import static org.ballerinax.knative.KnativeConstants.PARALLEL_MODULES_ENV;
+
+/**
+ * Test cases for sample 16.
+ */
+public class Sample16Test extends SampleTest {
+
+    private static final Path SOURCE_DIR_PATH = SAMPLE_DIR.resolve("sample16");
+    private static final Path TARGET_PATH = SOURCE_DIR_PATH.resolve("target");
+    private static final Path KUBERNETES_TARGET_PATH = TARGET_PATH.resolve(KUBERNETES);
+    private static final String PARALLEL_DEPENDENCY_WAIT = "    dependencyWait: knative:DEPENDENCY_WAIT_PARALLEL,\n";
+    private Map<String, String> serialArtifacts;
+
+    @BeforeClass
+    public void compileSample() throws IOException, InterruptedException {
+        Assert.assertEquals(KnativeTestUtils.compileBallerinaProject(SOURCE_DIR_PATH, true), 0);
+        this.serialArtifacts = readArtifacts();
+    }
+
+    @Test
+    public void validateModules() throws IOException {
+        Assert.assertEquals(loadService(KUBERNETES_TARGET_PATH, "greeter").getMetadata().getName(), "greeter");
+        Assert.assertEquals(loadService(KUBERNETES_TARGET_PATH, "hello").getMetadata().getName(), "hello");
+    }
+
+    @Test
+    public void validateParallelDependencyWait() throws IOException {
+        List<Container> initContainers = loadService(KUBERNETES_TARGET_PATH, "hello").getSpec().getTemplate()
+                .getSpec().getInitContainers();
+        Assert.assertEquals(initContainers.size(), 1);
+        Container initContainer = initContainers.get(0);
+        Assert.assertEquals(initContainer.getName(), "wait-for-dependencies");
+        Assert.assertEquals(initContainer.getImage(), "busybox");
+        Assert.assertEquals(initContainer.getCommand(), Arrays.asList("sh", "-c",
+                "(until nslookup greeter.default.svc.cluster.local > /dev/null 2>&1; do sleep 0.2; done) & wait"));
+        Assert.assertTrue(loadService(KUBERNETES_TARGET_PATH, "greeter").getSpec().getTemplate().getSpec()
+                .getInitContainers().isEmpty());
+    }
+
+    @Test
+    public void validateDefaultDependencyWait() throws IOException, InterruptedException, KnativePluginException {
+        // without dependencyWait, the pods start without waiting for the dependencies.
+        Path sourceDir = compileWithDependencyWait("");
+        try {
+            Assert.assertTrue(loadService(sourceDir.resolve("target").resolve(KUBERNETES), "hello").getSpec()
+                    .getTemplate().getSpec().getInitContainers().isEmpty());
+        } finally {
+            KnativeUtils.deleteDirectory(sourceDir);
+        }
+    }
+
+    @Test
+    public void validateSequentialDependencyWait() throws IOException, InterruptedException,
+            KnativePluginException {
+        Path sourceDir = compileWithDependencyWait("    dependencyWait: knative:DEPENDENCY_WAIT_SEQUENTIAL,\n");
+        try {
+            List<Container> initContainers = loadService(sourceDir.resolve("target").resolve(KUBERNETES), "hello")
+                    .getSpec().getTemplate().getSpec().getInitContainers();
+            Assert.assertEquals(initContainers.size(), 1);
+            Assert.assertEquals(initContainers.get(0).getName(), "wait-for-greeter");
+            Assert.assertEquals(initContainers.get(0).getImage(), "busybox");
+            Assert.assertEquals(initContainers.get(0).getCommand(), Arrays.asList("sh", "-c",
+                    "until nslookup greeter; do echo waiting for greeter; sleep 2; done;"));
+        } finally {
+            KnativeUtils.deleteDirectory(sourceDir);
+        }
+    }
+
+    @Test
+    public void validateParallelModules() throws IOException, InterruptedException, KnativePluginException {
+        KnativeUtils.deleteDirectory(TARGET_PATH);
+        Assert.assertEquals(KnativeTestUtils.compileBallerinaProject(SOURCE_DIR_PATH, true,
+                Collections.singletonMap(PARALLEL_MODULES_ENV, "true")), 0);
+        // the artifacts of every module are written before the build ends, and match the serial build.
+        Assert.assertEquals(readArtifacts(), this.serialArtifacts);
+    }
+
+    @AfterClass
+    public void cleanUp() throws KnativePluginException {
+        KnativeUtils.deleteDirectory(TARGET_PATH);
+    }
+
+    private Map<String, String> readArtifacts() throws IOException {
+        Map<String, String> artifacts = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(KUBERNETES_TARGET_PATH)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                artifacts.put(KUBERNETES_TARGET_PATH.relativize(file).toString(),
+                        new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            }
+        }
+        Assert.assertFalse(artifacts.isEmpty());
+        return artifacts;
+    }
+
+    // builds a copy of the project with a different dependencyWait field in the hello module.
+    private Path compileWithDependencyWait(String dependencyWait) throws IOException, InterruptedException {
+        Path sourceDir = Files.createTempDirectory("knative-sample16");
+        copyProject(sourceDir);
+        Path helloSource = sourceDir.resolve("src").resolve("hello").resolve("hello.bal");
+        String source = new String(Files.readAllBytes(helloSource), StandardCharsets.UTF_8);
+        Assert.assertTrue(source.contains(PARALLEL_DEPENDENCY_WAIT));
+        Files.write(helloSource, source.replace(PARALLEL_DEPENDENCY_WAIT, dependencyWait)
+                .getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(KnativeTestUtils.compileBallerinaProject(sourceDir, true), 0);
+        return sourceDir;
+    }
+
+    private void copyProject(Path sourceDir) throws IOException {
+        try (Stream<Path> files = Files.walk(SOURCE_DIR_PATH)) {
+            for (Path file : files.filter(file -> !file.startsWith(TARGET_PATH)).collect(Collectors.toList())) {
+                Path copy = sourceDir.resolve(SOURCE_DIR_PATH.relativize(file).toString());
+                if (Files.isDirectory(file)) {
+                    Files.createDirectories(copy);
+                } else {
+                    Files.copy(file, copy);
+                }
+            }
+        }
+    }
+
+    private Service loadService(Path kubernetesPath, String module) throws IOException {
+        Path artifactYaml = kubernetesPath.resolve(module).resolve(KNATIVE).resolve(module + ".yaml");
+        Assert.assertTrue(Files.exists(artifactYaml));
+        Handlers.register(new KnativeTestUtils.ServiceHandler());
+        KubernetesClient client = new DefaultKubernetesClient();
+        List<HasMetadata> k8sItems = client.load(new FileInputStream(artifactYaml.toFile())).get();
+        Service service = null;
+        for (HasMetadata data : k8sItems) {
+            if ("Service".equals(data.getKind())) {
+                service = (Service) data;
+            } else {
+                Assert.fail("Unexpected k8s/knative resource found: " + data.getKind());
+            }
+        }
+        Assert.assertNotNull(service);
+        return service;
+    }
+}
@@ -35,10 +35,13 @@ import org.testng.annotations.Test;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 
 import static org.ballerinax.knative.KnativeConstants.DOCKER;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_FINGERPRINT_LABEL;
 import static org.ballerinax.knative.KnativeConstants.KNATIVE;
 import static org.ballerinax.knative.KnativeConstants.KUBERNETES;
 import static org.ballerinax.knative.test.utils.KnativeTestUtils.getExposedPorts;
@@ -52,6 +55,7 @@ public class Sample1Test extends SampleTest {
     private static final Path DOCKER_TARGET_PATH = SOURCE_DIR_PATH.resolve(DOCKER);
     private static final Path KUBERNETES_TARGET_PATH = SOURCE_DIR_PATH.resolve(KUBERNETES);
     private static final String DOCKER_IMAGE = "hello_world_knative:latest";
+    private static final String CACHED_DOCKER_IMAGE = "hello_world_knative_cache:latest";
     private Service knativeService;
 
     @BeforeClass
@@ -100,6 +104,44 @@ public class Sample1Test extends SampleTest {
         Assert.assertEquals(ports.get(0), "8080/tcp");
     }
 
+    @Test
+    public void validateUnchangedImageIsNotRebuilt() throws IOException, InterruptedException,
+            KnativePluginException {
+        Path sourceDir = Files.createTempDirectory("knative-sample1");
+        Path balFile = sourceDir.resolve("hello_world_knative.bal");
+        String source = new String(Files.readAllBytes(SOURCE_DIR_PATH.resolve("hello_world_knative.bal")),
+                StandardCharsets.UTF_8);
+        try {
+            Files.write(balFile, source.replace("@knative:Service {}",
+                    "@knative:Service {\n    image: \"" + CACHED_DOCKER_IMAGE + "\"\n}")
+                    .getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(KnativeTestUtils.compileBallerinaFile(sourceDir, "hello_world_knative.bal"), 0);
+            String imageId = KnativeTestUtils.getDockerImage(CACHED_DOCKER_IMAGE).getId();
+            String fingerprint = getFingerprint();
+            Assert.assertNotNull(fingerprint);
+
+            // unchanged inputs skip the build and keep the image.
+            Assert.assertEquals(KnativeTestUtils.compileBallerinaFile(sourceDir, "hello_world_knative.bal"), 0);
+            Assert.assertEquals(KnativeTestUtils.getDockerImage(CACHED_DOCKER_IMAGE).getId(), imageId);
+            Assert.assertEquals(getFingerprint(), fingerprint);
+
+            // a changed source changes the executable jar, so the image is built again.
+            Files.write(balFile, new String(Files.readAllBytes(balFile), StandardCharsets.UTF_8)
+                    .replace("Hello, World", "Hello, Knative").getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(KnativeTestUtils.compileBallerinaFile(sourceDir, "hello_world_knative.bal"), 0);
+            Assert.assertNotEquals(KnativeTestUtils.getDockerImage(CACHED_DOCKER_IMAGE).getId(), imageId);
+            Assert.assertNotEquals(getFingerprint(), fingerprint);
+        } finally {
+            KnativeUtils.deleteDirectory(sourceDir);
+            KnativeTestUtils.deleteDockerImage(CACHED_DOCKER_IMAGE);
+        }
+    }
+
+    private String getFingerprint() {
+        return KnativeTestUtils.getDockerImage(CACHED_DOCKER_IMAGE).getConfig().getLabels()
+                .get(IMAGE_FINGERPRINT_LABEL);
+    }
+
     @AfterClass
     public void cleanUp() throws KnativePluginException {
         KnativeUtils.deleteDirectory(KUBERNETES_TARGET_PATH);
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.knative.test.samples;
+
+import io.fabric8.knative.serving.v1.RevisionSpec;
+import io.fabric8.knative.serving.v1.Service;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.Handlers;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.test.utils.KnativeTestUtils;
+import org.ballerinax.knative.utils.KnativeUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.ballerinax.knative.KnativeConstants.DOCKER;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE;
+import static org.ballerinax.knative.KnativeConstants.KUBERNETES;
+
+/**
+ * Test cases for sample 3.
+ */
+public class Sample3Test extends SampleTest {
+
+    private static final Path SOURCE_DIR_PATH = SAMPLE_DIR.resolve("sample3");
+    private static final Path DOCKER_TARGET_PATH = SOURCE_DIR_PATH.resolve(DOCKER);
+    private static final Path KUBERNETES_TARGET_PATH = SOURCE_DIR_PATH.resolve(KUBERNETES);
+    private static final String DOCKER_IMAGE = "hello_world_knative_autoscaling:latest";
+    private Service knativeService;
+
+    @BeforeClass
+    public void compileSample() throws IOException, InterruptedException {
+        Assert.assertEquals(KnativeTestUtils.compileBallerinaFile(SOURCE_DIR_PATH,
+                "hello_world_knative_autoscaling.bal"), 0);
+        File artifactYaml = KUBERNETES_TARGET_PATH.resolve(KNATIVE).resolve("hello_world_knative_autoscaling.yaml")
+                .toFile();
+        Assert.assertTrue(artifactYaml.exists());
+        Handlers.register(new KnativeTestUtils.ServiceHandler());
+        KubernetesClient client = new DefaultKubernetesClient();
+        List<HasMetadata> k8sItems = client.load(new FileInputStream(artifactYaml)).get();
+        for (HasMetadata data : k8sItems) {
+            if ("Service".equals(data.getKind())) {
+                this.knativeService = (Service) data;
+            } else {
+                Assert.fail("Unexpected k8s/knative resource found: " + data.getKind());
+            }
+        }
+    }
+
+    @Test
+    public void validateAutoscaling() {
+        Assert.assertNotNull(this.knativeService);
+        Assert.assertEquals(this.knativeService.getSpec().getTemplate().getSpec().getContainerConcurrency().longValue(),
+                50);
+        Map<String, String> annotations = this.knativeService.getSpec().getTemplate().getMetadata().getAnnotations();
+        Assert.assertEquals(annotations.get("autoscaling.knative.dev/class"), "kpa.autoscaling.knative.dev");
+        Assert.assertEquals(annotations.get("autoscaling.knative.dev/metric"), "concurrency");
+        Assert.assertEquals(annotations.get("autoscaling.knative.dev/target"), "40");
+        Assert.assertEquals(annotations.get("autoscaling.knative.dev/target-utilization-percentage"), "70");
+        Assert.assertEquals(annotations.get("autoscaling.knative.dev/window"), "60s");
+        Assert.assertEquals(annotations.get("autoscaling.knative.dev/panic-window-percentage"), "10");
+        Assert.assertEquals(annotations.get("autoscaling.knative.dev/panic-threshold-percentage"), "200");
+        Assert.assertEquals(annotations.get("autoscaling.knative.dev/min-scale"), "1");
+        Assert.assertEquals(annotations.get("autoscaling.knative.dev/max-scale"), "10");
+        Assert.assertEquals(annotations.get("autoscaling.knative.dev/target-burst-capacity"), "0");
+    }
+
+    @Test
+    public void validateScheduling() {
+        Assert.assertNotNull(this.knativeService);
+        RevisionSpec revisionSpec = this.knativeService.getSpec().getTemplate().getSpec();
+        Assert.assertEquals(revisionSpec.getTopologySpreadConstraints().size(), 2);
+        Assert.assertEquals(revisionSpec.getTopologySpreadConstraints().get(0).getTopologyKey(),
+                "topology.kubernetes.io/zone");
+        Assert.assertEquals(revisionSpec.getTopologySpreadConstraints().get(1).getTopologyKey(),
+                "kubernetes.io/hostname");
+        Assert.assertEquals(revisionSpec.getTopologySpreadConstraints().get(0).getWhenUnsatisfiable(),
+                "ScheduleAnyway");
+        Assert.assertEquals(revisionSpec.getTolerations().size(), 1);
+        Assert.assertEquals(revisionSpec.getTolerations().get(0).getKey(), "dedicated");
+        Assert.assertEquals(revisionSpec.getTolerations().get(0).getEffect(), "NoSchedule");
+        Assert.assertNull(revisionSpec.getTolerations().get(0).getTolerationSeconds());
+        Assert.assertEquals(this.knativeService.getSpec().getTemplate().getMetadata().getAnnotations()
+                .get("sidecar.istio.io/inject"), "false");
+    }
+
+    @AfterClass
+    public void cleanUp() throws KnativePluginException {
+        KnativeUtils.deleteDirectory(KUBERNETES_TARGET_PATH);
+        KnativeUtils.deleteDirectory(DOCKER_TARGET_PATH);
+        KnativeTestUtils.deleteDockerImage(DOCKER_IMAGE);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.knative.test.samples;
+
+import io.fabric8.knative.serving.v1.Service;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.Handlers;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.test.utils.KnativeTestUtils;
+import org.ballerinax.knative.utils.KnativeUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.ballerinax.knative.KnativeConstants.DOCKER;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE;
+import static org.ballerinax.knative.KnativeConstants.KUBERNETES;
+
+/**
+ * Test cases for sample 4.
+ */
+public class Sample4Test extends SampleTest {
+
+    private static final Path SOURCE_DIR_PATH = SAMPLE_DIR.resolve("sample4");
+    private static final Path DOCKER_TARGET_PATH = SOURCE_DIR_PATH.resolve(DOCKER);
+    private static final Path KUBERNETES_TARGET_PATH = SOURCE_DIR_PATH.resolve(KUBERNETES);
+    private static final String DOCKER_IMAGE = "hello_world_knative_resources:latest";
+    private Service knativeService;
+
+    @BeforeClass
+    public void compileSample() throws IOException, InterruptedException {
+        Assert.assertEquals(KnativeTestUtils.compileBallerinaFile(SOURCE_DIR_PATH,
+                "hello_world_knative_resources.bal"), 0);
+        File artifactYaml = KUBERNETES_TARGET_PATH.resolve(KNATIVE).resolve("hello_world_knative_resources.yaml")
+                .toFile();
+        Assert.assertTrue(artifactYaml.exists());
+        Handlers.register(new KnativeTestUtils.ServiceHandler());
+        KubernetesClient client = new DefaultKubernetesClient();
+        List<HasMetadata> k8sItems = client.load(new FileInputStream(artifactYaml)).get();
+        for (HasMetadata data : k8sItems) {
+            if ("Service".equals(data.getKind())) {
+                this.knativeService = (Service) data;
+            } else {
+                Assert.fail("Unexpected k8s/knative resource found: " + data.getKind());
+            }
+        }
+    }
+
+    @Test
+    public void validateResources() {
+        Assert.assertNotNull(this.knativeService);
+        Container container = this.knativeService.getSpec().getTemplate().getSpec().getContainers().get(0);
+        Map<String, Quantity> requests = container.getResources().getRequests();
+        Map<String, Quantity> limits = container.getResources().getLimits();
+        Assert.assertEquals(requests.get("cpu").getAmount() + requests.get("cpu").getFormat(), "250m");
+        Assert.assertNotNull(requests.get("memory"));
+        Assert.assertEquals(requests.get("memory").getFormat(), "Mi");
+        Assert.assertNull(limits.get("cpu"));
+        Assert.assertEquals(limits.get("memory").getAmount(), requests.get("memory").getAmount());
+    }
+
+    @Test
+    public void validateQueueProxy() {
+        Assert.assertNotNull(this.knativeService);
+        Map<String, String> annotations = this.knativeService.getSpec().getTemplate().getMetadata().getAnnotations();
+        Assert.assertEquals(annotations.get("queue.sidecar.serving.knative.dev/cpu-resource-request"), "25m");
+        Assert.assertEquals(annotations.get("queue.sidecar.serving.knative.dev/memory-resource-request"), "50Mi");
+        Assert.assertEquals(annotations.get("queue.sidecar.serving.knative.dev/memory-resource-limit"), "100Mi");
+        Assert.assertNull(annotations.get("queue.sidecar.serving.knative.dev/cpu-resource-limit"));
+    }
+
+    @Test
+    public void validateJvmProfile() {
+        Assert.assertNotNull(this.knativeService);
+        Container container = this.knativeService.getSpec().getTemplate().getSpec().getContainers().get(0);
+        String jvmOptions = null;
+        for (EnvVar envVar : container.getEnv()) {
+            if ("JAVA_TOOL_OPTIONS".equals(envVar.getName())) {
+                jvmOptions = envVar.getValue();
+            }
+        }
+        Assert.assertNotNull(jvmOptions);
+        Assert.assertTrue(jvmOptions.contains("-XX:MaxRAMPercentage="));
+        Assert.assertTrue(jvmOptions.contains("-XX:ActiveProcessorCount=1"));
+        Assert.assertTrue(jvmOptions.contains("-XX:+UseSerialGC"));
+        Assert.assertTrue(jvmOptions.contains("-XX:TieredStopAtLevel=1"));
+    }
+
+    @AfterClass
+    public void cleanUp() throws KnativePluginException {
+        KnativeUtils.deleteDirectory(KUBERNETES_TARGET_PATH);
+        KnativeUtils.deleteDirectory(DOCKER_TARGET_PATH);
+        KnativeTestUtils.deleteDockerImage(DOCKER_IMAGE);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.knative.test.samples;
+
+import io.fabric8.knative.serving.v1.Service;
+import io.fabric8.knative.serving.v1.TrafficTarget;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.PodSpec;
+import io.fabric8.kubernetes.api.model.apps.DaemonSet;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.Handlers;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.test.utils.KnativeTestUtils;
+import org.ballerinax.knative.utils.KnativeUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.ballerinax.knative.KnativeConstants.DOCKER;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE;
+import static org.ballerinax.knative.KnativeConstants.KUBERNETES;
+
+/**
+ * Test cases for sample 5.
+ */
+public class Sample5Test extends SampleTest {
+
+    private static final Path SOURCE_DIR_PATH = SAMPLE_DIR.resolve("sample5");
+    private static final Path DOCKER_TARGET_PATH = SOURCE_DIR_PATH.resolve(DOCKER);
+    private static final Path KUBERNETES_TARGET_PATH = SOURCE_DIR_PATH.resolve(KUBERNETES);
+    private static final String DOCKER_IMAGE = "hello_world_knative_traffic:latest";
+    private Service knativeService;
+    private DaemonSet prePullDaemonSet;
+
+    @BeforeClass
+    public void compileSample() throws IOException, InterruptedException {
+        Assert.assertEquals(KnativeTestUtils.compileBallerinaFile(SOURCE_DIR_PATH,
+                "hello_world_knative_traffic.bal"), 0);
+        File artifactYaml = KUBERNETES_TARGET_PATH.resolve(KNATIVE).resolve("hello_world_knative_traffic.yaml")
+                .toFile();
+        Assert.assertTrue(artifactYaml.exists());
+        Handlers.register(new KnativeTestUtils.ServiceHandler());
+        KubernetesClient client = new DefaultKubernetesClient();
+        List<HasMetadata> k8sItems = client.load(new FileInputStream(artifactYaml)).get();
+        for (HasMetadata data : k8sItems) {
+            if ("Service".equals(data.getKind())) {
+                this.knativeService = (Service) data;
+            } else if ("DaemonSet".equals(data.getKind())) {
+                this.prePullDaemonSet = (DaemonSet) data;
+            } else {
+                Assert.fail("Unexpected k8s/knative resource found: " + data.getKind());
+            }
+        }
+    }
+
+    @Test
+    public void validateTraffic() {
+        Assert.assertNotNull(this.knativeService);
+        Assert.assertEquals(this.knativeService.getMetadata().getAnnotations()
+                .get("serving.knative.dev/rollout-duration"), "300s");
+        Assert.assertEquals(this.knativeService.getSpec().getTemplate().getMetadata().getName(), "hello-v2");
+        List<TrafficTarget> traffic = this.knativeService.getSpec().getTraffic();
+        Assert.assertEquals(traffic.size(), 2);
+        Assert.assertEquals(traffic.get(0).getRevisionName(), "hello-v1");
+        Assert.assertFalse(traffic.get(0).getLatestRevision());
+        Assert.assertEquals(traffic.get(0).getPercent().longValue(), 90);
+        Assert.assertEquals(traffic.get(0).getTag(), "stable");
+        Assert.assertNull(traffic.get(1).getRevisionName());
+        Assert.assertTrue(traffic.get(1).getLatestRevision());
+        Assert.assertEquals(traffic.get(1).getPercent().longValue(), 10);
+        Assert.assertEquals(traffic.get(1).getTag(), "canary");
+    }
+
+    @Test
+    public void validatePrePullDaemonSet() {
+        Assert.assertNotNull(this.prePullDaemonSet);
+        Assert.assertEquals(this.prePullDaemonSet.getMetadata().getName(), "hello-image-pre-pull");
+        PodSpec podSpec = this.prePullDaemonSet.getSpec().getTemplate().getSpec();
+        Assert.assertEquals(podSpec.getInitContainers().size(), 2);
+        Container tools = podSpec.getInitContainers().get(0);
+        Assert.assertEquals(tools.getImage(), "busybox");
+        Assert.assertEquals(tools.getCommand(), Arrays.asList("cp", "/bin/busybox", "/pre-pull/busybox"));
+        Container image = podSpec.getInitContainers().get(1);
+        Assert.assertEquals(image.getImage(), DOCKER_IMAGE);
+        Assert.assertEquals(image.getImagePullPolicy(), "Always");
+        Assert.assertEquals(image.getCommand(), Arrays.asList("/pre-pull/busybox", "true"));
+        Assert.assertEquals(image.getVolumeMounts().get(0).getMountPath(), "/pre-pull");
+        Assert.assertNotNull(podSpec.getVolumes().get(0).getEmptyDir());
+        Assert.assertEquals(podSpec.getContainers().get(0).getName(), "pause");
+        Assert.assertTrue(this.prePullDaemonSet.getSpec().getTemplate().getMetadata().getAnnotations()
+                .get("knative.ballerina.io/image-fingerprint").matches("[0-9a-f]{64}"));
+    }
+
+    @AfterClass
+    public void cleanUp() throws KnativePluginException {
+        KnativeUtils.deleteDirectory(KUBERNETES_TARGET_PATH);
+        KnativeUtils.deleteDirectory(DOCKER_TARGET_PATH);
+        KnativeTestUtils.deleteDockerImage(DOCKER_IMAGE);
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinax.knative.test.samples;
+
+import io.fabric8.knative.serving.v1.RevisionSpec;
+import io.fabric8.knative.serving.v1.Service;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.Handlers;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.test.utils.KnativeTestUtils;
+import org.ballerinax.knative.utils.KnativeUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.ballerinax.knative.KnativeConstants.DOCKER;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE;
+import static org.ballerinax.knative.KnativeConstants.KUBERNETES;
+
+/**
+ * Test cases for sample 7.
+ */
+public class Sample7Test extends SampleTest {
+
+    private static final Path SOURCE_DIR_PATH = SAMPLE_DIR.resolve("sample7");
+    private static final Path DOCKER_TARGET_PATH = SOURCE_DIR_PATH.resolve(DOCKER);
+    private static final Path KUBERNETES_TARGET_PATH = SOURCE_DIR_PATH.resolve(KUBERNETES);
+    private static final String DOCKER_IMAGE = "hello_world_knative_h2c:latest";
+    private static final String SOURCE_FILE = "hello_world_knative_h2c.bal";
+    private static final Path CLUSTER_LOCAL_PROJECT_DIR = Paths.get("src", "test", "resources",
+            "cluster-local-project").toAbsolutePath();
+    private final List<String> output = new ArrayList<>();
+    private Service knativeService;
+
+    @BeforeClass
+    public void compileSample() throws IOException, InterruptedException {
+        Assert.assertEquals(KnativeTestUtils.compileBallerinaFile(SOURCE_DIR_PATH, SOURCE_FILE, new HashMap<>(),
+                this.output), 0);
+        File artifactYaml = KUBERNETES_TARGET_PATH.resolve(KNATIVE).resolve("hello_world_knative_h2c.yaml")
+                .toFile();
+        Assert.assertTrue(artifactYaml.exists());
+        Handlers.register(new KnativeTestUtils.ServiceHandler());
+        KubernetesClient client = new DefaultKubernetesClient();
+        List<HasMetadata> k8sItems = client.load(new FileInputStream(artifactYaml)).get();
+        for (HasMetadata data : k8sItems) {
+            if ("Service".equals(data.getKind())) {
+                this.knativeService = (Service) data;
+            } else {
+                Assert.fail("Unexpected k8s/knative resource found: " + data.getKind());
+            }
+        }
+    }
+
+    @Test
+    public void validatePort() {
+        Assert.assertNotNull(this.knativeService);
+        Assert.assertEquals(this.knativeService.getMetadata().getName(), "hello-h2c");
+        Container container = this.knativeService.getSpec().getTemplate().getSpec().getContainers().get(0);
+        Assert.assertEquals(container.getPorts().size(), 1);
+        Assert.assertEquals(container.getPorts().get(0).getContainerPort().intValue(), 8080);
+        Assert.assertEquals(container.getPorts().get(0).getName(), "h2c");
+    }
+
+    @Test
+    public void validateTimeouts() {
+        Assert.assertNotNull(this.knativeService);
+        RevisionSpec revisionSpec = this.knativeService.getSpec().getTemplate().getSpec();
+        Assert.assertEquals(revisionSpec.getTimeoutSeconds().longValue(), 600);
+        Assert.assertEquals(revisionSpec.getAdditionalProperties().get("responseStartTimeoutSeconds"), 30);
+        Assert.assertEquals(revisionSpec.getAdditionalProperties().get("idleTimeoutSeconds"), 120);
+        // the timeouts are shorter than the listener timeout of 180000ms.
+        Assert.assertFalse(this.output.stream().anyMatch(line -> line.contains("timeoutInMillis")), output.toString());
+    }
+
+    @Test
+    public void validateListenerTimeoutWarning() throws IOException, InterruptedException, KnativePluginException {
+        List<String> buildOutput = new ArrayList<>();
+        Service service = compileWith("timeoutInMillis: 180000", "timeoutInMillis: 20000", buildOutput);
+        Assert.assertNotNull(service);
+        Assert.assertTrue(buildOutput.stream().anyMatch(line -> line.contains("responseStartTimeoutSeconds (30s) is " +
+                "longer than the listener timeoutInMillis (20000ms)")), buildOutput.toString());
+        Assert.assertTrue(buildOutput.stream().anyMatch(line -> line.contains("idleTimeoutSeconds (120s) is " +
+                "longer than the listener timeoutInMillis (20000ms)")), buildOutput.toString());
+    }
+
+    @Test
+    public void validateNonLiteralHttpVersion() throws IOException, InterruptedException, KnativePluginException {
+        List<String> buildOutput = new ArrayList<>();
+        Service service = compileWith("listener http:Listener helloEP = new(8080, {\n    httpVersion: \"2.0\",",
+                "string httpVersion = \"2.0\";\n\nlistener http:Listener helloEP = new(8080, {\n" +
+                        "    httpVersion: httpVersion,", buildOutput);
+        Assert.assertNotNull(service, buildOutput.toString());
+        // the http version is unknown at compile time, so the port keeps the default naming.
+        Container container = service.getSpec().getTemplate().getSpec().getContainers().get(0);
+        Assert.assertEquals(container.getPorts().get(0).getContainerPort().intValue(), 8080);
+        Assert.assertNull(container.getPorts().get(0).getName());
+    }
+
+    @Test
+    public void validateNonLiteralListenerTimeout() throws IOException, InterruptedException,
+            KnativePluginException {
+        List<String> buildOutput = new ArrayList<>();
+        Service service = compileWith("timeoutInMillis: 180000", "timeoutInMillis: 60000 * 3", buildOutput);
+        Assert.assertNotNull(service, buildOutput.toString());
+        Assert.assertEquals(service.getSpec().getTemplate().getSpec().getTimeoutSeconds().longValue(), 600);
+        // the timeout is unknown at compile time, so it is not validated.
+        Assert.assertFalse(buildOutput.stream().anyMatch(line -> line.contains("timeoutInMillis")),
+                buildOutput.toString());
+    }
+
+    @Test
+    public void validateResponseStartTimeoutAboveTimeout() throws IOException, InterruptedException,
+            KnativePluginException {
+        List<String> buildOutput = new ArrayList<>();
+        Assert.assertNull(compileWith("responseStartTimeoutSeconds: 30", "responseStartTimeoutSeconds: 900",
+                buildOutput));
+        Assert.assertTrue(buildOutput.stream().anyMatch(line -> line.contains("@knative:Service{} " +
+                "responseStartTimeoutSeconds should be between 0 and timeoutSeconds (600): 900")),
+                buildOutput.toString());
+    }
+
+    @Test
+    public void validateIdleTimeoutAboveTimeout() throws IOException, InterruptedException, KnativePluginException {
+        List<String> buildOutput = new ArrayList<>();
+        Assert.assertNull(compileWith("idleTimeoutSeconds: 120", "idleTimeoutSeconds: 900", buildOutput));
+        Assert.assertTrue(buildOutput.stream().anyMatch(line -> line.contains("@knative:Service{} " +
+                "idleTimeoutSeconds should be between 0 and timeoutSeconds (600): 900")), buildOutput.toString());
+    }
+
+    @Test
+    public void validateVisibility() {
+        Assert.assertNotNull(this.knativeService);
+        Assert.assertEquals(this.knativeService.getMetadata().getLabels().get("networking.knative.dev/visibility"),
+                "cluster-local");
+    }
+
+    @Test
+    public void validateClusterLocalAddress() throws IOException, InterruptedException, KnativePluginException {
+        // the sample is the h2c module of a project, and the hello module depends on its listener.
+        Path projectDir = Files.createTempDirectory("knative-cluster-local");
+        try {
+            copyProject(projectDir);
+            String source = new String(Files.readAllBytes(SOURCE_DIR_PATH.resolve(SOURCE_FILE)),
+                    StandardCharsets.UTF_8);
+            Assert.assertTrue(source.contains(",\n    visibility: knative:VISIBILITY_CLUSTER_LOCAL\n"));
+            Path moduleDir = Files.createDirectories(projectDir.resolve("src").resolve("h2c"));
+            Files.write(moduleDir.resolve(SOURCE_FILE), source.replace(",\n    visibility: " +
+                    "knative:VISIBILITY_CLUSTER_LOCAL\n", ",\n    namespace: \"greeting\",\n    buildImage: false\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(KnativeTestUtils.compileBallerinaProject(projectDir, true), 0);
+
+            Path kubernetesPath = projectDir.resolve("target").resolve(KUBERNETES);
+            Service h2cService = loadService(kubernetesPath.resolve("h2c").resolve(KNATIVE).resolve("h2c.yaml")
+                    .toFile());
+            Assert.assertNotNull(h2cService);
+            // a service that other modules depend on is cluster local by default.
+            Assert.assertEquals(h2cService.getMetadata().getLabels().get("networking.knative.dev/visibility"),
+                    "cluster-local");
+
+            Service helloService = loadService(kubernetesPath.resolve("hello").resolve(KNATIVE)
+                    .resolve("hello.yaml").toFile());
+            Assert.assertNotNull(helloService);
+            Map<String, String> helloLabels = helloService.getMetadata().getLabels();
+            Assert.assertTrue(null == helloLabels || !helloLabels.containsKey("networking.knative.dev/visibility"));
+            List<EnvVar> env = helloService.getSpec().getTemplate().getSpec().getContainers().get(0).getEnv();
+            Assert.assertTrue(env.stream().anyMatch(envVar -> "HELLO_H2C_URL".equals(envVar.getName()) &&
+                    "http://hello-h2c.greeting.svc.cluster.local".equals(envVar.getValue())), env.toString());
+        } finally {
+            KnativeUtils.deleteDirectory(projectDir);
+        }
+    }
+
+    @AfterClass
+    public void cleanUp() throws KnativePluginException {
+        KnativeUtils.deleteDirectory(KUBERNETES_TARGET_PATH);
+        KnativeUtils.deleteDirectory(DOCKER_TARGET_PATH);
+        KnativeTestUtils.deleteDockerImage(DOCKER_IMAGE);
+    }
+
+    // compiles a copy of the sample without building the image, and returns the service or null if none is generated.
+    private Service compileWith(String field, String replacement, List<String> buildOutput) throws IOException,
+            InterruptedException, KnativePluginException {
+        Path sourceDir = Files.createTempDirectory("knative-sample7");
+        String source = new String(Files.readAllBytes(SOURCE_DIR_PATH.resolve(SOURCE_FILE)), StandardCharsets.UTF_8);
+        Assert.assertTrue(source.contains(field));
+        try {
+            Files.write(sourceDir.resolve(SOURCE_FILE), source.replace(field, replacement)
+                    .replace("name: \"hello-h2c\",", "name: \"hello-h2c\",\n    buildImage: false,")
+                    .getBytes(StandardCharsets.UTF_8));
+            KnativeTestUtils.compileBallerinaFile(sourceDir, SOURCE_FILE, new HashMap<>(), buildOutput);
+            return loadService(sourceDir.resolve(KUBERNETES).resolve(KNATIVE).resolve("hello_world_knative_h2c.yaml")
+                    .toFile());
+        } finally {
+            KnativeUtils.deleteDirectory(sourceDir);
+        }
+    }
+
+    private Service loadService(File artifactYaml) throws IOException {
+        if (!artifactYaml.exists()) {
+            return null;
+        }
+        KubernetesClient client = new DefaultKubernetesClient();
+        for (HasMetadata data : client.load(new FileInputStream(artifactYaml)).get()) {
+            if ("Service".equals(data.getKind())) {
+                return (Service) data;
+            }
+        }
+        return null;
+    }
+
+    private void copyProject(Path projectDir) throws IOException {
+        try (Stream<Path> files = Files.walk(CLUSTER_LOCAL_PROJECT_DIR)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Path copy = projectDir.resolve(CLUSTER_LOCAL_PROJECT_DIR.relativize(file).toString());
+                if (Files.isDirectory(file)) {
+                    Files.createDirectories(copy);
+                } else {
+                    Files.copy(file, copy);
+                }
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.ballerinax.knative.test.samples;
 import org.apache.commons.io.FilenameUtils;
 import org.ballerinax.knative.exceptions.KnativePluginException;
 import org.ballerinax.knative.test.utils.DockerTestException;
+import org.ballerinax.knative.utils.KnativeUtils;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 
@@ -28,6 +29,9 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import static org.ballerinax.knative.KnativeConstants.DOCKER;
+import static org.ballerinax.knative.KnativeConstants.KUBERNETES;
+
 /**
  * Base test case for samples.
  */
@@ -38,10 +42,27 @@ public abstract class SampleTest {
     protected static final Path SAMPLE_DIR = Paths.get(FilenameUtils.separatorsToSystem(
             System.getProperty("sampleDir")));
 
+    /**
+     * Location of the samples that are expected to fail.
+     */
+    protected static final Path INVALID_SAMPLE_DIR = Paths.get("src", "test", "resources", "invalid-samples")
+            .toAbsolutePath();
+
     @BeforeClass
     abstract void compileSample() throws IOException, InterruptedException;
 
     @AfterClass
     abstract void cleanUp() throws KnativePluginException, InterruptedException, DockerTestException, IOException;
 
+    /**
+     * Delete the artifacts generated for the ballerina files of a directory.
+     *
+     * @param sourceDir Ballerina source directory
+     * @throws KnativePluginException If the artifacts cannot be deleted.
+     */
+    protected void deleteArtifacts(Path sourceDir) throws KnativePluginException {
+        KnativeUtils.deleteDirectory(sourceDir.resolve(KUBERNETES));
+        KnativeUtils.deleteDirectory(sourceDir.resolve(DOCKER));
+    }
+
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.test.utils;
+
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.utils.ArtifactManifest;
+import org.ballerinax.knative.utils.KnativeUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.ballerinax.knative.KnativeConstants.ARTIFACT_MANIFEST_FILE;
+
+/**
+ * Test cases for writing only the artifacts that changed.
+ */
+public class ArtifactManifestTest {
+
+    private Path outputDir;
+    private Path serviceYaml;
+    private Path secretYaml;
+
+    @BeforeMethod
+    public void createOutputDir() throws IOException {
+        outputDir = Files.createTempDirectory("knative-artifacts");
+        serviceYaml = outputDir.resolve("knative").resolve("hello.yaml");
+        secretYaml = outputDir.resolve("knative").resolve("hello_secret.yaml");
+    }
+
+    @Test
+    public void testUnchangedArtifactsAreSkipped() throws IOException {
+        Map<Path, String> artifacts = new LinkedHashMap<>();
+        artifacts.put(serviceYaml, "kind: Service\n");
+        artifacts.put(secretYaml, "kind: Secret\n");
+        Assert.assertEquals(ArtifactManifest.load(outputDir).write(artifacts), 2);
+        FileTime modified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(serviceYaml, modified);
+
+        Assert.assertEquals(ArtifactManifest.load(outputDir).write(artifacts), 0);
+        Assert.assertEquals(Files.getLastModifiedTime(serviceYaml), modified);
+
+        artifacts.put(serviceYaml, "kind: Service\nmetadata: {}\n");
+        Assert.assertEquals(ArtifactManifest.load(outputDir).write(artifacts), 1);
+        Assert.assertEquals(read(serviceYaml), "kind: Service\nmetadata: {}\n");
+    }
+
+    @Test
+    public void testStaleArtifactsAreDeleted() throws IOException {
+        Map<Path, String> artifacts = new LinkedHashMap<>();
+        artifacts.put(serviceYaml, "kind: Service\n");
+        artifacts.put(secretYaml, "kind: Secret\n");
+        ArtifactManifest.load(outputDir).write(artifacts);
+
+        artifacts.remove(secretYaml);
+        ArtifactManifest.load(outputDir).write(artifacts);
+        Assert.assertTrue(Files.exists(serviceYaml));
+        Assert.assertFalse(Files.exists(secretYaml));
+    }
+
+    @Test
+    public void testArtifactsAreReplacedAtomically() throws IOException {
+        Map<Path, String> artifacts = new LinkedHashMap<>();
+        artifacts.put(serviceYaml, "kind: Service\n");
+        ArtifactManifest.load(outputDir).write(artifacts);
+
+        // an artifact changed outside of the build is written again.
+        Files.write(serviceYaml, "kind: Service\nedited: true\n".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(ArtifactManifest.load(outputDir).write(artifacts), 1);
+        Assert.assertEquals(read(serviceYaml), "kind: Service\n");
+        // no temporary file is left next to the replaced artifact.
+        Assert.assertEquals(list(serviceYaml.getParent()), Collections.singletonList("hello.yaml"));
+        Assert.assertTrue(Files.exists(outputDir.resolve(ARTIFACT_MANIFEST_FILE)));
+    }
+
+    @Test
+    public void testUnreadableManifestWritesEveryArtifact() throws IOException {
+        Files.write(outputDir.resolve(ARTIFACT_MANIFEST_FILE), "{".getBytes(StandardCharsets.UTF_8));
+        Map<Path, String> artifacts = new LinkedHashMap<>();
+        artifacts.put(serviceYaml, "kind: Service\n");
+        Assert.assertEquals(ArtifactManifest.load(outputDir).write(artifacts), 1);
+    }
+
+    @Test
+    public void testCleanRemovesArtifacts() throws IOException {
+        Map<Path, String> artifacts = new LinkedHashMap<>();
+        artifacts.put(serviceYaml, "kind: Service\n");
+        ArtifactManifest.load(outputDir).write(artifacts);
+
+        ArtifactManifest.load(outputDir).clean();
+        Assert.assertFalse(Files.exists(serviceYaml));
+        Assert.assertFalse(Files.exists(outputDir.resolve(ARTIFACT_MANIFEST_FILE)));
+    }
+
+    @AfterMethod
+    public void cleanUp() throws KnativePluginException {
+        KnativeUtils.deleteDirectory(outputDir);
+    }
+
+    private String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    private List<String> list(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+}
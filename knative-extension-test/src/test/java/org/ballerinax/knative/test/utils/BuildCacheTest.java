@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.test.utils;
+
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.utils.BuildCache;
+import org.ballerinax.knative.utils.KnativeUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Test cases for the fingerprint of the image build inputs.
+ */
+public class BuildCacheTest {
+
+    private Path workDir;
+    private Path cacheFile;
+    private Path jar;
+
+    @BeforeMethod
+    public void createInputs() throws IOException {
+        workDir = Files.createTempDirectory("knative-build-cache");
+        cacheFile = workDir.resolve("docker").resolve("build-cache.json");
+        jar = workDir.resolve("hello.jar");
+        Files.write(jar, "hello".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testUnchangedInputsAreBuilt() throws IOException {
+        BuildCache buildCache = BuildCache.load(cacheFile);
+        String fingerprint = buildCache.fingerprint(getValues(), getFiles());
+        Assert.assertFalse(buildCache.isBuilt(fingerprint));
+        buildCache.save(fingerprint, true);
+
+        BuildCache nextBuild = BuildCache.load(cacheFile);
+        String nextFingerprint = nextBuild.fingerprint(getValues(), getFiles());
+        Assert.assertEquals(nextFingerprint, fingerprint);
+        Assert.assertTrue(nextBuild.isBuilt(nextFingerprint));
+        Assert.assertTrue(nextBuild.isPushed());
+    }
+
+    @Test
+    public void testChangedValueIsRebuilt() throws IOException {
+        BuildCache buildCache = BuildCache.load(cacheFile);
+        buildCache.save(buildCache.fingerprint(getValues(), getFiles()), false);
+
+        for (String name : new String[]{"imageBuilder", "registry", "lazyPull", "plugin"}) {
+            Map<String, String> values = getValues();
+            values.put(name, values.get(name) + "-changed");
+            BuildCache nextBuild = BuildCache.load(cacheFile);
+            Assert.assertFalse(nextBuild.isBuilt(nextBuild.fingerprint(values, getFiles())), name);
+        }
+    }
+
+    @Test
+    public void testChangedFileIsRebuilt() throws IOException {
+        BuildCache buildCache = BuildCache.load(cacheFile);
+        buildCache.save(buildCache.fingerprint(getValues(), getFiles()), false);
+
+        Files.write(jar, "hello, world".getBytes(StandardCharsets.UTF_8));
+        BuildCache nextBuild = BuildCache.load(cacheFile);
+        Assert.assertFalse(nextBuild.isBuilt(nextBuild.fingerprint(getValues(), getFiles())));
+    }
+
+    @Test
+    public void testUnreadableCacheIsRebuilt() throws IOException {
+        Files.createDirectories(cacheFile.getParent());
+        Files.write(cacheFile, "{".getBytes(StandardCharsets.UTF_8));
+        BuildCache buildCache = BuildCache.load(cacheFile);
+        Assert.assertFalse(buildCache.isBuilt(buildCache.fingerprint(getValues(), getFiles())));
+    }
+
+    @AfterMethod
+    public void cleanUp() throws KnativePluginException {
+        KnativeUtils.deleteDirectory(workDir);
+    }
+
+    private Map<String, String> getValues() {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("plugin", "");
+        values.put("image", "hello:latest");
+        values.put("imageBuilder", "docker");
+        values.put("registry", "");
+        values.put("lazyPull", "null");
+        return values;
+    }
+
+    private Map<String, Path> getFiles() {
+        Map<String, Path> files = new LinkedHashMap<>();
+        files.put("jar", jar);
+        return files;
+    }
+}
@@ -75,10 +75,17 @@ public class KnativeTestUtils {
     private static final String EXIT_CODE = "Exit code: ";
 
     private static void logOutput(InputStream inputStream) throws IOException {
+        logOutput(inputStream, new ArrayList<>());
+    }
+
+    private static void logOutput(InputStream inputStream, List<String> output) throws IOException {
         try (
                 BufferedReader br = new BufferedReader(new InputStreamReader(inputStream))
         ) {
-            br.lines().forEach(log::info);
+            br.lines().forEach(line -> {
+                log.info(line);
+                output.add(line);
+            });
         }
     }
 
@@ -149,6 +156,22 @@ public class KnativeTestUtils {
     public static int compileBallerinaFile(Path sourceDirectory, String fileName, Map<String, String> envVar)
             throws InterruptedException,
             IOException {
+        return compileBallerinaFile(sourceDirectory, fileName, envVar, new ArrayList<>());
+    }
+
+    /**
+     * Compile a ballerina file in a given directory and collect the console output of the build.
+     *
+     * @param sourceDirectory Ballerina source directory
+     * @param fileName        Ballerina source file name
+     * @param envVar          Environment variables of the build
+     * @param output          Lines printed by the build
+     * @return Exit code
+     * @throws InterruptedException if an error occurs while compiling
+     * @throws IOException          if an error occurs while writing file
+     */
+    public static int compileBallerinaFile(Path sourceDirectory, String fileName, Map<String, String> envVar,
+                                           List<String> output) throws InterruptedException, IOException {
         Path ballerinaInternalLog = Paths.get(sourceDirectory.toAbsolutePath().toString(), "ballerina-internal.log");
         if (ballerinaInternalLog.toFile().exists()) {
             log.warn("Deleting already existing ballerina-internal.log file.");
@@ -166,8 +189,8 @@ public class KnativeTestUtils {
         Process process = pb.start();
         int exitCode = process.waitFor();
         log.info(EXIT_CODE + exitCode);
-        logOutput(process.getInputStream());
-        logOutput(process.getErrorStream());
+        logOutput(process.getInputStream(), output);
+        logOutput(process.getErrorStream(), output);
 
         // log ballerina-internal.log content
         if (Files.exists(ballerinaInternalLog)) {
@@ -201,6 +224,21 @@ public class KnativeTestUtils {
      */
     public static int compileBallerinaProject(Path sourceDirectory, boolean skipTests) throws InterruptedException,
             IOException {
+        return compileBallerinaProject(sourceDirectory, skipTests, new HashMap<>());
+    }
+
+    /**
+     * Compile a ballerina project in a given directory.
+     *
+     * @param sourceDirectory Ballerina source directory
+     * @param skipTests       Skip the tests of the project
+     * @param envVar          Environment variables of the build
+     * @return Exit code
+     * @throws InterruptedException if an error occurs while compiling
+     * @throws IOException          if an error occurs while writing file
+     */
+    public static int compileBallerinaProject(Path sourceDirectory, boolean skipTests, Map<String, String> envVar)
+            throws InterruptedException, IOException {
         Path ballerinaInternalLog = Paths.get(sourceDirectory.toAbsolutePath().toString(), "ballerina-internal.log");
         if (ballerinaInternalLog.toFile().exists()) {
             log.warn("Deleting already existing ballerina-internal.log file.");
@@ -219,6 +257,7 @@ public class KnativeTestUtils {
         pb.directory(sourceDirectory.toFile());
         Map<String, String> environment = pb.environment();
         addJavaAgents(environment);
+        environment.putAll(envVar);
 
         Process process = pb.start();
         int exitCode = process.waitFor();
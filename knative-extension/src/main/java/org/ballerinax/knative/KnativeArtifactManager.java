@@ -19,22 +19,30 @@
 package org.ballerinax.knative;
 
 import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.handlers.KnativeArtifactTaskGraph;
 import org.ballerinax.knative.handlers.KnativeConfigMapHandler;
 import org.ballerinax.knative.handlers.KnativeContainerHandler;
 import org.ballerinax.knative.handlers.KnativeDockerHandler;
+import org.ballerinax.knative.handlers.KnativeImagePrePullHandler;
 import org.ballerinax.knative.handlers.KnativeResourceQuotaHandler;
 import org.ballerinax.knative.handlers.KnativeSecretHandler;
 import org.ballerinax.knative.handlers.KnativeServiceHandler;
-import org.ballerinax.knative.models.KnativeContext;
 import org.ballerinax.knative.models.KnativeDataHolder;
 import org.ballerinax.knative.models.ServiceModel;
+import org.ballerinax.knative.utils.TaskOutput;
 
 import java.io.PrintStream;
+import java.nio.file.Path;
 
 import static org.ballerinax.docker.generator.utils.DockerGenUtils.extractJarName;
 import static org.ballerinax.knative.KnativeConstants.DEPLOYMENT_POSTFIX;
+import static org.ballerinax.knative.KnativeConstants.DOCKER_ARCHIVE_FILE;
 import static org.ballerinax.knative.KnativeConstants.DOCKER_LATEST_TAG;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_BUILDER_DOCKER;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_BUILDER_DOCKER_ARCHIVE;
 import static org.ballerinax.knative.KnativeConstants.KNATIVE;
+import static org.ballerinax.knative.KnativeConstants.OCI_LAYOUT_DIR;
+import static org.ballerinax.knative.utils.KnativeUtils.getDeploymentImageName;
 import static org.ballerinax.knative.utils.KnativeUtils.getValidName;
 import static org.ballerinax.knative.utils.KnativeUtils.isBlank;
 import static org.ballerinax.knative.utils.KnativeUtils.printInstruction;
@@ -44,11 +52,11 @@ import static org.ballerinax.knative.utils.KnativeUtils.printInstruction;
  */
 public class KnativeArtifactManager {
 
-    private static final PrintStream OUT = System.out;
+    private static final PrintStream OUT = TaskOutput.OUT;
     private KnativeDataHolder knativeDataHolder;
 
-    KnativeArtifactManager() {
-        this.knativeDataHolder = KnativeContext.getInstance().getDataHolder();
+    KnativeArtifactManager(KnativeDataHolder knativeDataHolder) {
+        this.knativeDataHolder = knativeDataHolder;
     }
 
     /**
@@ -58,18 +66,37 @@ public class KnativeArtifactManager {
      */
     void createArtifacts() throws KnativePluginException {
         OUT.println("\nGenerating Knative artifacts...");
-        new KnativeContainerHandler().createArtifacts();
-        new KnativeSecretHandler().createArtifacts();
-        new KnativeResourceQuotaHandler().createArtifacts();
-        new KnativeConfigMapHandler().createArtifacts();
-        new KnativeServiceHandler().createArtifacts();
-        new KnativeDockerHandler().createArtifacts();
+        // handlers that do not share models run in parallel, so the image is built while the yaml is generated.
+        new KnativeArtifactTaskGraph()
+                .add(new KnativeContainerHandler(knativeDataHolder))
+                .add(new KnativeSecretHandler(knativeDataHolder))
+                .add(new KnativeResourceQuotaHandler(knativeDataHolder))
+                .add(new KnativeConfigMapHandler(knativeDataHolder))
+                .add(new KnativeServiceHandler(knativeDataHolder))
+                .add(new KnativeImagePrePullHandler(knativeDataHolder))
+                .add(new KnativeDockerHandler(knativeDataHolder))
+                .run();
         printInstructions();
     }
 
     private void printInstructions() {
         printInstruction("");
         printInstruction("");
+        ServiceModel serviceModel = this.knativeDataHolder.getServiceModel();
+        if (this.knativeDataHolder.getDockerModel().isBuildImage() &&
+                !IMAGE_BUILDER_DOCKER.equals(serviceModel.getImageBuilder())) {
+            Path dockerDir = this.knativeDataHolder.getDockerArtifactOutputPath().toAbsolutePath();
+            String imageName = getDeploymentImageName(serviceModel);
+            if (IMAGE_BUILDER_DOCKER_ARCHIVE.equals(serviceModel.getImageBuilder())) {
+                printInstruction("\tExecute the below command to load the docker image: ");
+                printInstruction("\tdocker load -i " + dockerDir.resolve(DOCKER_ARCHIVE_FILE));
+            } else {
+                printInstruction("\tExecute the below command to push the OCI image: ");
+                printInstruction("\tskopeo copy oci:" + dockerDir.resolve(OCI_LAYOUT_DIR) + ":" + imageName +
+                        " docker://" + imageName);
+            }
+            printInstruction("");
+        }
         printInstruction("\tExecute the below command to deploy the Knative artifacts: ");
         printInstruction("\tkubectl apply -f " + this.knativeDataHolder.getK8sArtifactOutputPath().resolve(KNATIVE)
                 .toAbsolutePath());
@@ -36,7 +36,9 @@ public class KnativeConstants {
     public static final String CONFIG_MAP_FILE_POSTFIX = "_config_map";
     public static final String RESOURCE_QUOTA_FILE_POSTFIX = "_resource_quota";
     public static final String KNATIVE_SVC_FILE_POSTFIX = "_knative_svc";
+    public static final String IMAGE_PRE_PULL_FILE_POSTFIX = "_image_pre_pull";
     public static final String YAML = ".yaml";
+    public static final String ARTIFACT_MANIFEST_FILE = ".knative-artifacts.json";
     public static final String DOCKER_LATEST_TAG = ":latest";
     public static final String BALLERINA_HOME = "/home/ballerina";
     public static final String BALLERINA_RUNTIME = "/ballerina/runtime";
@@ -44,8 +46,123 @@ public class KnativeConstants {
     public static final String BALLERINA_CONF_FILE_NAME = "ballerina.conf";
     public static final String DOCKER_HOST = "DOCKER_HOST";
     public static final String DOCKER_CERT_PATH = "DOCKER_CERT_PATH";
+    public static final String PARALLEL_MODULES_ENV = "BAL_KNATIVE_PARALLEL_MODULES";
     public static final String KNATIVE_SVC_POSTFIX = "-knative-svc";
     public static final String VOLUME_DEFINE = "-volume";
+    public static final String PRE_PULL_POSTFIX = "-image-pre-pull";
+    public static final String IMAGE_FINGERPRINT_ANNOTATION = "knative.ballerina.io/image-fingerprint";
+    public static final String INIT_CONTAINER_IMAGE = "busybox";
+    public static final String DEPENDENCY_WAIT_NONE = "none";
+    public static final String DEPENDENCY_WAIT_PARALLEL = "parallel";
+    public static final String DEPENDENCY_WAIT_SEQUENTIAL = "sequential";
+    public static final String PAUSE_IMAGE = "k8s.gcr.io/pause:3.2";
+    public static final String AUTOSCALING_CLASS = "autoscaling.knative.dev/class";
+    public static final String AUTOSCALING_METRIC = "autoscaling.knative.dev/metric";
+    public static final String AUTOSCALING_TARGET = "autoscaling.knative.dev/target";
+    public static final String AUTOSCALING_TARGET_UTILIZATION = "autoscaling.knative.dev/target-utilization-percentage";
+    public static final String AUTOSCALING_WINDOW = "autoscaling.knative.dev/window";
+    public static final String AUTOSCALING_PANIC_WINDOW = "autoscaling.knative.dev/panic-window-percentage";
+    public static final String AUTOSCALING_PANIC_THRESHOLD = "autoscaling.knative.dev/panic-threshold-percentage";
+    public static final String AUTOSCALING_MIN_SCALE = "autoscaling.knative.dev/min-scale";
+    public static final String AUTOSCALING_MAX_SCALE = "autoscaling.knative.dev/max-scale";
+    public static final String AUTOSCALING_INITIAL_SCALE = "autoscaling.knative.dev/initial-scale";
+    public static final String AUTOSCALING_ACTIVATION_SCALE = "autoscaling.knative.dev/activation-scale";
+    public static final String AUTOSCALING_SCALE_DOWN_DELAY = "autoscaling.knative.dev/scale-down-delay";
+    public static final String AUTOSCALING_SCALE_TO_ZERO_RETENTION =
+            "autoscaling.knative.dev/scale-to-zero-pod-retention-period";
+    public static final String AUTOSCALING_TARGET_BURST_CAPACITY = "autoscaling.knative.dev/target-burst-capacity";
+    public static final String QUEUE_SIDECAR_CPU_REQUEST = "queue.sidecar.serving.knative.dev/cpu-resource-request";
+    public static final String QUEUE_SIDECAR_CPU_LIMIT = "queue.sidecar.serving.knative.dev/cpu-resource-limit";
+    public static final String QUEUE_SIDECAR_MEMORY_REQUEST =
+            "queue.sidecar.serving.knative.dev/memory-resource-request";
+    public static final String QUEUE_SIDECAR_MEMORY_LIMIT = "queue.sidecar.serving.knative.dev/memory-resource-limit";
+    public static final String QUEUE_SIDECAR_RESOURCE_PERCENTAGE =
+            "queue.sidecar.serving.knative.dev/resource-percentage";
+    public static final int QUEUE_SIDECAR_MAX_SHARE_PERCENTAGE = 25;
+    public static final String ROLLOUT_DURATION = "serving.knative.dev/rollout-duration";
+    public static final String KPA_CLASS = "kpa.autoscaling.knative.dev";
+    public static final String KPA_METRIC_CONCURRENCY = "concurrency";
+    public static final String KPA_METRIC_RPS = "rps";
+    public static final String HPA_CLASS = "hpa.autoscaling.knative.dev";
+    public static final String HPA_METRIC_CPU = "cpu";
+    public static final String HPA_METRIC_MEMORY = "memory";
+    public static final String PROTOCOL_HTTP1 = "http1";
+    public static final String PROTOCOL_H2C = "h2c";
+    public static final String HTTP2_VERSION = "2.0";
+    public static final String GRPC_MODULE = "grpc";
+    public static final long LISTENER_DEFAULT_TIMEOUT_MILLIS = 120000;
+    public static final String RESPONSE_START_TIMEOUT_SECONDS = "responseStartTimeoutSeconds";
+    public static final String IDLE_TIMEOUT_SECONDS = "idleTimeoutSeconds";
+    public static final String HTTP_MODULE = "http";
+    public static final String PROBE_TYPE_TCP = "tcp";
+    public static final String PROBE_TYPE_HTTP = "http";
+    public static final String PROBE_TYPE_GRPC = "grpc";
+    public static final String VISIBILITY_LABEL = "networking.knative.dev/visibility";
+    public static final String VISIBILITY_CLUSTER_LOCAL = "cluster-local";
+    public static final String VISIBILITY_EXTERNAL = "external";
+    public static final String CLUSTER_LOCAL_DOMAIN = ".svc.cluster.local";
+    public static final String DEFAULT_NAMESPACE = "default";
+    public static final String SERVICE_URL_ENV_POSTFIX = "_URL";
+    public static final String KNATIVE_SERVICE_LABEL = "serving.knative.dev/service";
+    public static final String TOPOLOGY_ZONE_KEY = "topology.kubernetes.io/zone";
+    public static final String TOPOLOGY_HOSTNAME_KEY = "kubernetes.io/hostname";
+    public static final String SPREAD_ZONE = "zone";
+    public static final String SPREAD_NODE = "node";
+    public static final String SPREAD_ZONE_AND_NODE = "zone-and-node";
+    public static final String RESOURCE_CPU = "cpu";
+    public static final String RESOURCE_MEMORY = "memory";
+    public static final String RESOURCE_POLICY_REQUESTS_AND_LIMITS = "requests-and-limits";
+    public static final String RESOURCE_POLICY_NO_CPU_LIMIT = "requests-only-no-cpu-limit";
+    public static final long JVM_BASE_MEMORY_MI = 160;
+    public static final long JVM_MEMORY_PER_JAR_MB_MI = 3;
+    public static final long JVM_MEMORY_PER_DEPENDENCY_MI = 4;
+    public static final long JVM_MIN_MEMORY_MI = 256;
+    public static final long JVM_MEMORY_STEP_MI = 64;
+    public static final String JVM_OPTIONS_ENV = "JAVA_TOOL_OPTIONS";
+    public static final long JVM_MIN_RAM_PERCENTAGE = 25;
+    public static final long JVM_MAX_RAM_PERCENTAGE = 80;
+    public static final long JVM_MIN_CLASS_SPACE_MI = 32;
+    public static final String APPCDS_ARCHIVE = "/home/ballerina/app.jsa";
+    public static final String APPCDS_TRAINING_SCRIPT = "appcds-train.sh";
+    public static final String APPCDS_LAUNCHER_SCRIPT = "appcds-run.sh";
+    public static final String APPCDS_JVM_OPTIONS = "-XX:+IgnoreUnrecognizedVMOptions -XX:SharedArchiveFile=" +
+            APPCDS_ARCHIVE + " -Xshare:auto";
+    public static final int APPCDS_MIN_JAVA_VERSION = 13;
+    public static final String BUILD_MODE_JVM = "jvm";
+    public static final String BUILD_MODE_NATIVE = "native";
+    public static final String NATIVE_BUILDER_IMAGE = "ghcr.io/graalvm/native-image:ol8-java11-22.3.3";
+    public static final String NATIVE_BASE_IMAGE = "gcr.io/distroless/base-debian11:nonroot";
+    public static final String NATIVE_EXECUTABLE = "app";
+    public static final String NATIVE_CONFIG_DIR = "native-image";
+    public static final String NATIVE_IMAGE_OPTIONS = "--no-fallback --allow-incomplete-classpath " +
+            "--enable-url-protocols=http,https --report-unsupported-elements-at-runtime " +
+            "--initialize-at-run-time=io.netty -H:+AddAllCharsets -H:+ReportExceptionStackTraces";
+    public static final String NATIVE_RESOURCE_CONFIG = "resource-config.json";
+    public static final String NATIVE_TRACE_SCRIPT = "native-image-trace.sh";
+    public static final int NATIVE_TRACE_SECONDS = 20;
+    public static final long NATIVE_BASE_MEMORY_MI = 32;
+    public static final long NATIVE_MEMORY_PER_JAR_MB_MI = 1;
+    public static final long NATIVE_MIN_MEMORY_MI = 64;
+    public static final long NATIVE_MEMORY_STEP_MI = 32;
+    public static final String BALLERINA_HOME_PROPERTY = "ballerina.home";
+    public static final String DOCKER_JARS_DIR = "jars";
+    public static final String IMAGE_LAYER_RUNTIME = "runtime";
+    public static final String IMAGE_LAYER_LIBS = "libs";
+    public static final String IMAGE_LAYER_MODULES = "modules";
+    public static final String[] IMAGE_LAYERS = {IMAGE_LAYER_RUNTIME, IMAGE_LAYER_LIBS, IMAGE_LAYER_MODULES};
+    public static final String IMAGE_BUILDER_DOCKER = "docker";
+    public static final String IMAGE_BUILDER_OCI_LAYOUT = "oci-layout";
+    public static final String IMAGE_BUILDER_DOCKER_ARCHIVE = "docker-archive";
+    public static final String OCI_LAYOUT_DIR = "oci";
+    public static final String DOCKER_ARCHIVE_FILE = "image.tar";
+    public static final String OCI_CACHE_DIR = ".ballerina/knative/oci-cache";
+    public static final String BUILD_CACHE_FILE = ".knative-build-cache.json";
+    public static final String IMAGE_FINGERPRINT_LABEL = "io.ballerina.knative.fingerprint";
+    public static final String[] LAZY_PULL_RUNTIME_FILES = {"**/ld-musl-x86_64.so.1", "**/ld-linux-x86-64.so.2",
+            "**/libc.so.6", "**/libpthread.so.0", "**/libdl.so.2", "**/libz.so.1", "**/bin/java", "**/libjli.so",
+            "**/jvm.cfg", "**/server/libjvm.so", "**/libverify.so", "**/libjava.so", "**/libjimage.so",
+            "**/libzip.so", "**/libnio.so", "**/libnet.so", "**/lib/modules", "**/lib/rt.jar",
+            "**/server/classes.jsa"};
 
 
     /**
@@ -61,4 +178,170 @@ public class KnativeConstants {
     public enum ServiceType {
         ClusterIP
     }
+
+    /**
+     * Data path mode enum. Each mode holds the target-burst-capacity it applies and the trade-off printed as a
+     * diagnostic.
+     */
+    public enum DataPathMode {
+        ALWAYS_ACTIVATOR("always-activator", "-1", "every request goes through the activator. Adds a network hop " +
+                "and lowers throughput, but the activator buffers bursts and balances load across pods."),
+        AUTO("auto", null, "the activator is added to the path when spare burst capacity is low. Default knative " +
+                "behaviour."),
+        DIRECT("direct", "0", "the activator is only in the path while the revision is scaled to zero. Lowest " +
+                "latency and highest throughput once warm, but bursts are not buffered and may queue on busy pods.");
+
+        private final String value;
+        private final String targetBurstCapacity;
+        private final String description;
+
+        DataPathMode(String value, String targetBurstCapacity, String description) {
+            this.value = value;
+            this.targetBurstCapacity = targetBurstCapacity;
+            this.description = description;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public String getTargetBurstCapacity() {
+            return targetBurstCapacity;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public static DataPathMode fromValue(String value) {
+            for (DataPathMode mode : values()) {
+                if (mode.value.equals(value)) {
+                    return mode;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * JVM ergonomics profile enum. Each profile holds the memory reserved for the JVM outside the heap, the heap
+     * percentage used when the container memory is not known, the maximum compressed class space, whether only the
+     * C1 compiler is used, whether the serial collector is always used and any extra options.
+     */
+    public enum JvmProfile {
+        FAST_STARTUP("fast-startup", 96, 75, 128, true, true, "-Xshare:auto"),
+        THROUGHPUT("throughput", 128, 75, 256, false, false),
+        LOW_MEMORY("low-memory", 64, 70, 64, true, true, "-Xss256k", "-XX:ReservedCodeCacheSize=32m");
+
+        private final String value;
+        private final long nonHeapMi;
+        private final long defaultRamPercentage;
+        private final long classSpaceMi;
+        private final boolean c1Only;
+        private final boolean serialGc;
+        private final String[] extraOptions;
+
+        JvmProfile(String value, long nonHeapMi, long defaultRamPercentage, long classSpaceMi, boolean c1Only,
+                   boolean serialGc, String... extraOptions) {
+            this.value = value;
+            this.nonHeapMi = nonHeapMi;
+            this.defaultRamPercentage = defaultRamPercentage;
+            this.classSpaceMi = classSpaceMi;
+            this.c1Only = c1Only;
+            this.serialGc = serialGc;
+            this.extraOptions = extraOptions;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public long getNonHeapMi() {
+            return nonHeapMi;
+        }
+
+        public long getDefaultRamPercentage() {
+            return defaultRamPercentage;
+        }
+
+        public long getClassSpaceMi() {
+            return classSpaceMi;
+        }
+
+        public boolean isC1Only() {
+            return c1Only;
+        }
+
+        public boolean isSerialGc() {
+            return serialGc;
+        }
+
+        public String[] getExtraOptions() {
+            return extraOptions.clone();
+        }
+
+        public static JvmProfile fromValue(String value) {
+            for (JvmProfile profile : values()) {
+                if (profile.value.equals(value)) {
+                    return profile;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Cold start preset enum. Each preset holds the initial-scale, activation-scale, scale-down-delay and
+     * scale-to-zero-pod-retention-period values it applies. Knative rejects an initial-scale of 0 unless the cluster
+     * sets allow-zero-initial-scale, so every preset starts a revision with at least one pod.
+     */
+    public enum ColdStartPreset {
+        LATENCY_CRITICAL("latency-critical", 2, 2, "15m", "10m"),
+        BALANCED("balanced", 1, 1, "2m", "1m"),
+        COST_SAVER("cost-saver", 1, 1, "0s", "0s");
+
+        private final String value;
+        private final int initialScale;
+        private final int activationScale;
+        private final String scaleDownDelay;
+        private final String scaleToZeroPodRetentionPeriod;
+
+        ColdStartPreset(String value, int initialScale, int activationScale, String scaleDownDelay,
+                        String scaleToZeroPodRetentionPeriod) {
+            this.value = value;
+            this.initialScale = initialScale;
+            this.activationScale = activationScale;
+            this.scaleDownDelay = scaleDownDelay;
+            this.scaleToZeroPodRetentionPeriod = scaleToZeroPodRetentionPeriod;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public int getInitialScale() {
+            return initialScale;
+        }
+
+        public int getActivationScale() {
+            return activationScale;
+        }
+
+        public String getScaleDownDelay() {
+            return scaleDownDelay;
+        }
+
+        public String getScaleToZeroPodRetentionPeriod() {
+            return scaleToZeroPodRetentionPeriod;
+        }
+
+        public static ColdStartPreset fromValue(String value) {
+            for (ColdStartPreset preset : values()) {
+                if (preset.value.equals(value)) {
+                    return preset;
+                }
+            }
+            return null;
+        }
+    }
 }
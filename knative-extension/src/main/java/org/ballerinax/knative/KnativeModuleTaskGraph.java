@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative;
+
+import org.ballerinax.knative.utils.TaskOutput;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates the artifacts of modules in parallel. A module is generated after the modules it depends on, and the
+ * console output of the modules is printed in the order they were added.
+ */
+class KnativeModuleTaskGraph {
+
+    private final Map<String, CompletableFuture<Void>> modules = new ConcurrentHashMap<>();
+    private final Set<String> added = new HashSet<>();
+    private final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        // the plugin joins the modules after the last module, so the threads never hold the build open.
+        Thread thread = new Thread(runnable, "knative-module");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private CompletableFuture<Void> output = CompletableFuture.completedFuture(null);
+
+    /**
+     * Add a module. The module starts once the modules it depends on are generated or skipped.
+     *
+     * @param module       Module name
+     * @param dependencies Names of the modules the module depends on
+     * @param task         Generates the artifacts of the module
+     */
+    synchronized void add(String module, Set<String> dependencies, Runnable task) {
+        List<CompletableFuture<Void>> dependencyTasks = new ArrayList<>();
+        for (String dependency : dependencies) {
+            if (!dependency.equals(module)) {
+                dependencyTasks.add(getModule(dependency));
+            }
+        }
+        added.add(module);
+        TaskOutput.Buffer buffer = new TaskOutput.Buffer();
+        CompletableFuture<Void> done = getModule(module);
+        CompletableFuture<Void> moduleTask = CompletableFuture.allOf(dependencyTasks.toArray(new CompletableFuture[0]))
+                .thenRunAsync(() -> run(task, buffer), executor)
+                .whenComplete((result, error) -> done.complete(null));
+        tasks.add(moduleTask);
+        output = output.thenRun(buffer::goLive).thenCombine(done, (previous, current) -> null);
+    }
+
+    /**
+     * Mark a module that is not generated, so the modules that depend on it are not held back.
+     *
+     * @param module Module name
+     */
+    synchronized void skip(String module) {
+        added.add(module);
+        getModule(module).complete(null);
+    }
+
+    /**
+     * Wait until the added modules are generated and their output is printed. Modules that were depended on but never
+     * added are skipped.
+     */
+    synchronized void join() {
+        modules.forEach((name, module) -> {
+            if (!added.contains(name)) {
+                module.complete(null);
+            }
+        });
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).exceptionally(error -> null).join();
+            output.join();
+        } finally {
+            tasks.clear();
+            executor.shutdown();
+        }
+    }
+
+    private CompletableFuture<Void> getModule(String module) {
+        return modules.computeIfAbsent(module, name -> new CompletableFuture<>());
+    }
+
+    private void run(Runnable task, TaskOutput.Buffer buffer) {
+        TaskOutput.Buffer previousOutput = TaskOutput.getRoute();
+        TaskOutput.route(buffer);
+        try {
+            task.run();
+        } finally {
+            TaskOutput.route(previousOutput);
+        }
+    }
+}
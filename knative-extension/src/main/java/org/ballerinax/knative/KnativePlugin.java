@@ -34,14 +34,17 @@ import org.ballerinax.knative.exceptions.KnativePluginException;
 import org.ballerinax.knative.models.KnativeContext;
 import org.ballerinax.knative.models.KnativeDataHolder;
 import org.ballerinax.knative.processors.KnativeAnnotationProcessorFactory;
+import org.ballerinax.knative.utils.ArtifactManifest;
+import org.ballerinax.knative.utils.ArtifactSink;
 import org.ballerinax.knative.utils.DependencyValidator;
-import org.ballerinax.knative.utils.KnativeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.ballerinalang.compiler.SourceDirectory;
 import org.wso2.ballerinalang.compiler.tree.BLangPackage;
 import org.wso2.ballerinalang.compiler.util.CompilerContext;
+import org.wso2.ballerinalang.compiler.util.Names;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -49,11 +52,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.ballerinalang.compiler.JarResolver.JAR_RESOLVER_KEY;
 import static org.ballerinax.docker.generator.utils.DockerGenUtils.extractJarName;
 import static org.ballerinax.knative.KnativeConstants.DOCKER;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE;
 import static org.ballerinax.knative.KnativeConstants.KUBERNETES;
+import static org.ballerinax.knative.KnativeConstants.PARALLEL_MODULES_ENV;
 import static org.ballerinax.knative.utils.KnativeUtils.printError;
 
 /**
@@ -68,6 +74,10 @@ public class KnativePlugin extends AbstractCompilerPlugin {
     private static final Logger pluginLog = LoggerFactory.getLogger(KnativePlugin.class);
     private DiagnosticLog dlog;
     private SourceDirectory sourceDirectory;
+    // annotations are processed one module at a time.
+    private KnativeDataHolder moduleDataHolder;
+    private KnativeModuleTaskGraph moduleTaskGraph;
+    private final Set<PackageID> generatedModules = new HashSet<>();
 
     @Override
     public void setCompilerContext(CompilerContext context) {
@@ -89,13 +99,14 @@ public class KnativePlugin extends AbstractCompilerPlugin {
         if (this.sourceDirectory == null) {
             throw new IllegalArgumentException("source directory has not been initialized");
         }
-        KnativeContext.getInstance().addDataHolder(bPackage.packageID, sourceDirectory.getPath());
+        moduleDataHolder = KnativeContext.getInstance().addDataHolder(bPackage.packageID,
+                sourceDirectory.getPath());
         //Get dependency jar paths
         JarResolver jarResolver = KnativeContext.getInstance().getCompilerContext().get(JAR_RESOLVER_KEY);
         if (jarResolver != null) {
             Set<Path> dependencyJarPaths = new HashSet<>(jarResolver.allDependencies(bPackage));
-            KnativeContext.getInstance().getDataHolder(bPackage.packageID).getDockerModel()
-                    .addDependencyJarPaths(dependencyJarPaths);
+            moduleDataHolder.getDockerModel().addDependencyJarPaths(dependencyJarPaths);
+            moduleDataHolder.addDependencyJarPaths(dependencyJarPaths);
         }
     }
 
@@ -104,8 +115,8 @@ public class KnativePlugin extends AbstractCompilerPlugin {
         for (AnnotationAttachmentNode attachmentNode : annotations) {
             String annotationKey = attachmentNode.getAnnotationName().getValue();
             try {
-                KnativeAnnotationProcessorFactory.getAnnotationProcessorInstance(annotationKey).processAnnotation
-                        (serviceNode, attachmentNode);
+                KnativeAnnotationProcessorFactory.getAnnotationProcessorInstance(annotationKey, moduleDataHolder)
+                        .processAnnotation(serviceNode, attachmentNode);
             } catch (KnativePluginException e) {
                 dlog.logDiagnostic(Diagnostic.Kind.ERROR, serviceNode.getPosition(), e.getMessage());
             }
@@ -122,8 +133,8 @@ public class KnativePlugin extends AbstractCompilerPlugin {
         for (AnnotationAttachmentNode attachmentNode : annotations) {
             String annotationKey = attachmentNode.getAnnotationName().getValue();
             try {
-                KnativeAnnotationProcessorFactory.getAnnotationProcessorInstance(annotationKey).processAnnotation
-                        (variableNode, attachmentNode);
+                KnativeAnnotationProcessorFactory.getAnnotationProcessorInstance(annotationKey, moduleDataHolder)
+                        .processAnnotation(variableNode, attachmentNode);
             } catch (KnativePluginException e) {
                 dlog.logDiagnostic(Diagnostic.Kind.ERROR, variableNode.getPosition(), e.getMessage());
             }
@@ -135,8 +146,8 @@ public class KnativePlugin extends AbstractCompilerPlugin {
         for (AnnotationAttachmentNode attachmentNode : annotations) {
             String annotationKey = attachmentNode.getAnnotationName().getValue();
             try {
-                KnativeAnnotationProcessorFactory.getAnnotationProcessorInstance(annotationKey).processAnnotation
-                        (functionNode, attachmentNode);
+                KnativeAnnotationProcessorFactory.getAnnotationProcessorInstance(annotationKey, moduleDataHolder)
+                        .processAnnotation(functionNode, attachmentNode);
             } catch (KnativePluginException e) {
                 dlog.logDiagnostic(Diagnostic.Kind.ERROR, functionNode.getPosition(), e.getMessage());
             }
@@ -145,61 +156,134 @@ public class KnativePlugin extends AbstractCompilerPlugin {
 
     @Override
     public void codeGenerated(PackageID moduleID, Path executableJarFile) {
-        KnativeContext.getInstance().setCurrentPackage(moduleID);
-        KnativeDataHolder dataHolder = KnativeContext.getInstance().getDataHolder();
+        KnativeDataHolder dataHolder = KnativeContext.getInstance().getDataHolder(moduleID);
         dataHolder.getDockerModel().setPkgId(moduleID);
         if (dataHolder.isCanProcess()) {
-            executableJarFile = executableJarFile.toAbsolutePath();
-            if (executableJarFile != null && Files.exists(executableJarFile)) {
-                Path parent = executableJarFile.getParent();
-                // artifacts location for a single bal file.
-                Path knativeOutputPath = parent != null ? parent.resolve(KUBERNETES) : null;
-                Path dockerOutputPath = parent != null ? parent.resolve(DOCKER) : null;
-                if (Files.exists(executableJarFile)) {
-                    // if executable came from a ballerina project
-                    Path projectRoot = executableJarFile;
-                    if (Files.exists(projectRoot.resolve("Ballerina.toml"))) {
-                        dataHolder.setProject(true);
-                        knativeOutputPath = projectRoot.resolve("target")
-                                .resolve(KUBERNETES)
-                                .resolve(extractJarName(executableJarFile));
-                        dockerOutputPath = projectRoot.resolve("target")
-                                .resolve(DOCKER)
-                                .resolve(extractJarName(executableJarFile));
-                    }
+            if (isParallelModules() && null == moduleTaskGraph) {
+                moduleTaskGraph = new KnativeModuleTaskGraph();
+            }
+            try {
+                generateArtifacts(moduleID, dataHolder, executableJarFile);
+            } finally {
+                generatedModules.add(moduleID);
+                if (null != moduleTaskGraph && isLastModule()) {
+                    moduleTaskGraph.join();
+                    moduleTaskGraph = null;
                 }
-                if (!dataHolder.getDockerModel().isUberJar()) {
-                    JarResolver jarResolver =
-                            KnativeContext.getInstance().getCompilerContext().get(JAR_RESOLVER_KEY);
-                    executableJarFile = jarResolver.moduleJar(moduleID);
+            }
+        }
+    }
+
+    private void generateArtifacts(PackageID moduleID, KnativeDataHolder dataHolder, Path executableJarFile) {
+        executableJarFile = executableJarFile.toAbsolutePath();
+        if (executableJarFile != null && Files.exists(executableJarFile)) {
+            Path parent = executableJarFile.getParent();
+            // artifacts location for a single bal file.
+            Path knativeOutputPath = parent != null ? parent.resolve(KUBERNETES) : null;
+            Path dockerOutputPath = parent != null ? parent.resolve(DOCKER) : null;
+            if (Files.exists(executableJarFile)) {
+                // if executable came from a ballerina project
+                Path projectRoot = executableJarFile;
+                if (Files.exists(projectRoot.resolve("Ballerina.toml"))) {
+                    dataHolder.setProject(true);
+                    knativeOutputPath = projectRoot.resolve("target")
+                            .resolve(KUBERNETES)
+                            .resolve(extractJarName(executableJarFile));
+                    dockerOutputPath = projectRoot.resolve("target")
+                            .resolve(DOCKER)
+                            .resolve(extractJarName(executableJarFile));
                 }
+            }
+            if (!dataHolder.getDockerModel().isUberJar()) {
+                JarResolver jarResolver =
+                        KnativeContext.getInstance().getCompilerContext().get(JAR_RESOLVER_KEY);
+                executableJarFile = jarResolver.moduleJar(moduleID);
+            }
 
-                dataHolder.setUberJarPath(executableJarFile);
-                dataHolder.setK8sArtifactOutputPath(knativeOutputPath);
-                dataHolder.setDockerArtifactOutputPath(dockerOutputPath);
-                KnativeArtifactManager knativeArtifactManager = new KnativeArtifactManager();
-                try {
-                    KnativeUtils.deleteDirectory(knativeOutputPath);
-                    knativeArtifactManager.populateDeploymentModel();
-                    validateDeploymentDependencies();
-                    knativeArtifactManager.createArtifacts();
-                } catch (KnativePluginException e) {
-                    String errorMessage = "module [" + moduleID + "] " + e.getMessage();
-                    printError(errorMessage);
-                    pluginLog.error(errorMessage, e);
-                    try {
-                        KnativeUtils.deleteDirectory(knativeOutputPath);
-                    } catch (KnativePluginException ignored) {
-                        //ignored
-                    }
+            dataHolder.setUberJarPath(executableJarFile);
+            dataHolder.setK8sArtifactOutputPath(knativeOutputPath);
+            dataHolder.setDockerArtifactOutputPath(dockerOutputPath);
+            dataHolder.setArtifactSink(new ArtifactSink(knativeOutputPath.resolve(KNATIVE),
+                    extractJarName(executableJarFile), dataHolder.getServiceModel().isSingleYAML()));
+            KnativeArtifactManager knativeArtifactManager = new KnativeArtifactManager(dataHolder);
+            ArtifactManifest artifactManifest = ArtifactManifest.load(knativeOutputPath);
+            try {
+                knativeArtifactManager.populateDeploymentModel();
+                validateDeploymentDependencies();
+            } catch (KnativePluginException e) {
+                handleError(moduleID, artifactManifest, e);
+                if (null != moduleTaskGraph) {
+                    moduleTaskGraph.skip(moduleID.name.value);
                 }
+                return;
+            }
+            if (null == moduleTaskGraph) {
+                writeArtifacts(moduleID, dataHolder, knativeArtifactManager, artifactManifest);
             } else {
-                printError("error in resolving docker generation location.");
-                pluginLog.error("error in resolving docker generation location.");
+                // the models of other modules are read only from here on, so the module is generated in parallel.
+                moduleTaskGraph.add(moduleID.name.value, getDependencyModules(dataHolder),
+                        () -> writeArtifacts(moduleID, dataHolder, knativeArtifactManager, artifactManifest));
+            }
+        } else {
+            printError("error in resolving docker generation location.");
+            pluginLog.error("error in resolving docker generation location.");
+            if (null != moduleTaskGraph) {
+                moduleTaskGraph.skip(moduleID.name.value);
             }
         }
     }
 
+    private void writeArtifacts(PackageID moduleID, KnativeDataHolder dataHolder,
+                                KnativeArtifactManager knativeArtifactManager, ArtifactManifest artifactManifest) {
+        try {
+            knativeArtifactManager.createArtifacts();
+            artifactManifest.write(dataHolder.getArtifactSink().getArtifacts());
+        } catch (KnativePluginException | IOException e) {
+            handleError(moduleID, artifactManifest, e);
+        }
+    }
+
+    private void handleError(PackageID moduleID, ArtifactManifest artifactManifest, Exception e) {
+        String errorMessage = "module [" + moduleID + "] " + e.getMessage();
+        printError(errorMessage);
+        pluginLog.error(errorMessage, e);
+        try {
+            artifactManifest.clean();
+        } catch (IOException ignored) {
+            //ignored
+        }
+    }
+
+    /**
+     * Check whether the artifacts of independent modules are generated in parallel, which is enabled with the
+     * "BAL_KNATIVE_PARALLEL_MODULES=true" environment variable.
+     *
+     * @return true if modules are generated in parallel
+     */
+    private boolean isParallelModules() {
+        return Boolean.parseBoolean(System.getenv(PARALLEL_MODULES_ENV));
+    }
+
+    /**
+     * Check whether the code of every module with knative annotations is generated, so that the modules generated in
+     * parallel can be joined before the build continues.
+     *
+     * @return true if no other module with knative annotations is left
+     */
+    private boolean isLastModule() {
+        return KnativeContext.getInstance().getPackageIDtoDataHolderMap().entrySet().stream()
+                .allMatch(entry -> !entry.getValue().isCanProcess() || generatedModules.contains(entry.getKey()));
+    }
+
+    private Set<String> getDependencyModules(KnativeDataHolder dataHolder) {
+        return dataHolder.getServiceModel().getDependsOn().stream()
+                .map(dependsOn -> dependsOn.substring(0, dependsOn.indexOf(Names.VERSION_SEPARATOR.value)))
+                .filter(module -> KnativeContext.getInstance().getPackageIDtoDataHolderMap().entrySet().stream()
+                        .anyMatch(entry -> module.equals(entry.getKey().name.value) &&
+                                entry.getValue().isCanProcess()))
+                .collect(Collectors.toSet());
+    }
+
     private void validateDeploymentDependencies() throws KnativePluginException {
         KnativeContext context = KnativeContext.getInstance();
         Map<PackageID, KnativeDataHolder> packageToDataHolderMap = context.getPackageIDtoDataHolderMap();
@@ -18,7 +18,6 @@
 
 package org.ballerinax.knative.handlers;
 
-import org.ballerinax.knative.models.KnativeContext;
 import org.ballerinax.knative.models.KnativeDataHolder;
 
 /**
@@ -28,7 +27,7 @@ public abstract class KnativeAbstractArtifactHandler implements KnativeArtifactH
 
     protected KnativeDataHolder knativeDataHolder;
 
-    public KnativeAbstractArtifactHandler() {
-        knativeDataHolder = KnativeContext.getInstance().getDataHolder();
+    public KnativeAbstractArtifactHandler(KnativeDataHolder knativeDataHolder) {
+        this.knativeDataHolder = knativeDataHolder;
     }
 }
@@ -19,15 +19,56 @@
 package org.ballerinax.knative.handlers;
 
 import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.utils.TaskOutput;
 
 import java.io.PrintStream;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Artifact generator interface.
  */
 public interface KnativeArtifactHandler {
 
-    PrintStream OUT = System.out;
+    PrintStream OUT = TaskOutput.OUT;
 
     void createArtifacts() throws KnativePluginException;
+
+    /**
+     * Get the models read by the handler. A handler runs after the handlers added before it that write these models.
+     * By default a handler reads and writes every model, so it does not run in parallel with other handlers.
+     *
+     * @return Models read by the handler
+     */
+    default Set<Model> getReads() {
+        return EnumSet.allOf(Model.class);
+    }
+
+    /**
+     * Get the models written by the handler.
+     *
+     * @return Models written by the handler
+     */
+    default Set<Model> getWrites() {
+        return EnumSet.allOf(Model.class);
+    }
+
+    /**
+     * Models of the data holder shared by the handlers.
+     */
+    enum Model {
+        LISTENERS,
+        SECRETS,
+        CONFIG_MAPS,
+        RESOURCE_QUOTAS,
+        POD_AUTOSCALER,
+        // pod template of the knative service: env, resources, probes and scheduling.
+        SERVICE,
+        // image of the knative service: image, base image, build mode, image builder, registry and push, appCds,
+        // lazy pull, copied files, ports and command arguments.
+        IMAGE,
+        // docker model of the module: docker artifacts and the image build. the module id is set before the handlers
+        // run, so it is not shared through this model.
+        DOCKER
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.handlers;
+
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.utils.TaskOutput;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs artifact handlers in parallel. A handler runs after the handlers added before it that write a model it reads,
+ * or read or write a model it writes. The console output of the handlers is printed in the order they were added.
+ */
+public class KnativeArtifactTaskGraph {
+
+    private final List<KnativeArtifactHandler> handlers = new ArrayList<>();
+
+    /**
+     * Add a handler.
+     *
+     * @param handler Artifact handler
+     * @return Task graph
+     */
+    public KnativeArtifactTaskGraph add(KnativeArtifactHandler handler) {
+        handlers.add(handler);
+        return this;
+    }
+
+    /**
+     * Run the handlers. Once a handler fails, the handlers that have not started are skipped and the error of the
+     * first handler that failed is thrown after the running handlers complete.
+     *
+     * @throws KnativePluginException If a handler fails.
+     */
+    public void run() throws KnativePluginException {
+        if (handlers.isEmpty()) {
+            return;
+        }
+        // handlers mostly wait for the file system and the docker daemon, so each gets a thread.
+        ExecutorService executor = Executors.newFixedThreadPool(handlers.size());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        List<TaskOutput.Buffer> outputs = new ArrayList<>();
+        AtomicBoolean failed = new AtomicBoolean();
+        try {
+            for (int i = 0; i < handlers.size(); i++) {
+                KnativeArtifactHandler handler = handlers.get(i);
+                List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+                for (int j = 0; j < i; j++) {
+                    if (dependsOn(handler, handlers.get(j))) {
+                        dependencies.add(futures.get(j));
+                    }
+                }
+                TaskOutput.Buffer output = new TaskOutput.Buffer();
+                outputs.add(output);
+                futures.add(CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]))
+                        .thenRunAsync(() -> run(handler, output, failed), executor));
+            }
+            Throwable error = null;
+            for (int i = 0; i < handlers.size(); i++) {
+                outputs.get(i).goLive();
+                try {
+                    futures.get(i).join();
+                } catch (CompletionException e) {
+                    // skipped handlers are not reported, the handler that failed is.
+                    if (null == error && !(e.getCause() instanceof CancellationException)) {
+                        error = e.getCause();
+                    }
+                }
+            }
+            if (error instanceof KnativePluginException) {
+                throw (KnativePluginException) error;
+            } else if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            } else if (error instanceof Error) {
+                throw (Error) error;
+            } else if (null != error) {
+                throw new KnativePluginException(error.getMessage(), error);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void run(KnativeArtifactHandler handler, TaskOutput.Buffer output, AtomicBoolean failed) {
+        if (failed.get()) {
+            throw new CancellationException("skipped after a failed handler");
+        }
+        TaskOutput.Buffer previousOutput = TaskOutput.getRoute();
+        TaskOutput.route(output);
+        try {
+            handler.createArtifacts();
+        } catch (KnativePluginException e) {
+            failed.set(true);
+            throw new CompletionException(e);
+        } catch (RuntimeException | Error e) {
+            failed.set(true);
+            throw e;
+        } finally {
+            TaskOutput.route(previousOutput);
+        }
+    }
+
+    private boolean dependsOn(KnativeArtifactHandler handler, KnativeArtifactHandler previous) {
+        return !Collections.disjoint(handler.getReads(), previous.getWrites()) ||
+                !Collections.disjoint(handler.getWrites(), previous.getWrites()) ||
+                !Collections.disjoint(handler.getWrites(), previous.getReads());
+    }
+}
@@ -24,13 +24,16 @@ import io.fabric8.kubernetes.client.internal.SerializationUtils;
 import org.ballerinax.knative.exceptions.KnativePluginException;
 import org.ballerinax.knative.models.ConfigMapModel;
 import org.ballerinax.knative.models.EnvVarValueModel;
+import org.ballerinax.knative.models.KnativeDataHolder;
 import org.ballerinax.knative.models.ServiceModel;
-import org.ballerinax.knative.utils.KnativeUtils;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
 
 import static org.ballerinax.knative.KnativeConstants.BALLERINA_CONF_FILE_NAME;
+import static org.ballerinax.knative.KnativeConstants.CONFIG_MAP_FILE_POSTFIX;
 import static org.ballerinax.knative.utils.KnativeUtils.isBlank;
 
 /**
@@ -38,6 +41,10 @@ import static org.ballerinax.knative.utils.KnativeUtils.isBlank;
  */
 public class KnativeConfigMapHandler extends KnativeAbstractArtifactHandler {
 
+    public KnativeConfigMapHandler(KnativeDataHolder knativeDataHolder) {
+        super(knativeDataHolder);
+    }
+
     private void generate(ConfigMapModel configMapModel) throws KnativePluginException {
         ConfigMap configMap = new ConfigMapBuilder()
                 .withNewMetadata()
@@ -48,7 +55,7 @@ public class KnativeConfigMapHandler extends KnativeAbstractArtifactHandler {
                 .build();
         try {
             String configMapContent = SerializationUtils.dumpWithoutRuntimeStateAsYaml(configMap);
-            KnativeUtils.writeToFile(configMapContent);
+            knativeDataHolder.getArtifactSink().add(CONFIG_MAP_FILE_POSTFIX, configMapContent);
         } catch (IOException e) {
             String errorMessage = "Error while parsing yaml file for config map: " + configMapModel.getName();
             throw new KnativePluginException(errorMessage, e);
@@ -80,4 +87,14 @@ public class KnativeConfigMapHandler extends KnativeAbstractArtifactHandler {
             OUT.print("\t@knative:ConfigMap \t\t\t - complete " + count + "/" + configMapModels.size() + "\r");
         }
     }
+
+    @Override
+    public Set<Model> getReads() {
+        return EnumSet.of(Model.CONFIG_MAPS);
+    }
+
+    @Override
+    public Set<Model> getWrites() {
+        return EnumSet.of(Model.SERVICE, Model.IMAGE);
+    }
 }
@@ -21,10 +21,12 @@ package org.ballerinax.knative.handlers;
 import org.ballerinax.knative.KnativeConstants;
 import org.ballerinax.knative.exceptions.KnativePluginException;
 import org.ballerinax.knative.models.KnativeContainerModel;
-import org.ballerinax.knative.models.KnativeContext;
+import org.ballerinax.knative.models.KnativeDataHolder;
 import org.ballerinax.knative.models.ServiceModel;
 
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
 
 import static org.ballerinax.docker.generator.utils.DockerGenUtils.extractJarName;
 
@@ -33,6 +35,10 @@ import static org.ballerinax.docker.generator.utils.DockerGenUtils.extractJarNam
  */
 public class KnativeContainerHandler extends KnativeAbstractArtifactHandler {
 
+    public KnativeContainerHandler(KnativeDataHolder knativeDataHolder) {
+        super(knativeDataHolder);
+    }
+
     /**
      * Generate kubernetes service definition from annotation.
      *
@@ -49,7 +55,7 @@ public class KnativeContainerHandler extends KnativeAbstractArtifactHandler {
         int count = 0;
         for (KnativeContainerModel serviceModel : serviceModels.values()) {
             count++;
-            String balxFileName = extractJarName(KnativeContext.getInstance().getDataHolder()
+            String balxFileName = extractJarName(knativeDataHolder
                     .getUberJarPath());
             serviceModel.addLabel(KnativeConstants.KUBERNETES_SELECTOR_KEY, balxFileName);
             serviceModel.setSelector(balxFileName);
@@ -57,4 +63,14 @@ public class KnativeContainerHandler extends KnativeAbstractArtifactHandler {
             deploymentModel.addPort(serviceModel.getTargetPort());
         }
     }
+
+    @Override
+    public Set<Model> getReads() {
+        return EnumSet.of(Model.LISTENERS);
+    }
+
+    @Override
+    public Set<Model> getWrites() {
+        return EnumSet.of(Model.LISTENERS, Model.IMAGE);
+    }
 }
@@ -18,17 +18,172 @@
 
 package org.ballerinax.knative.handlers;
 
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.AccessMode;
+import com.github.dockerjava.api.model.AuthConfig;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.BuildResponseItem;
+import com.github.dockerjava.api.model.ContainerConfig;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.Volume;
+import com.github.dockerjava.core.DefaultDockerClientConfig;
+import com.github.dockerjava.core.DockerClientBuilder;
+import com.github.dockerjava.core.command.BuildImageResultCallback;
+import com.github.dockerjava.core.command.LogContainerResultCallback;
+import com.github.dockerjava.core.command.PullImageResultCallback;
+import com.github.dockerjava.core.command.PushImageResultCallback;
 import org.ballerinax.docker.generator.DockerArtifactHandler;
 import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.CopyFileModel;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.ballerinax.knative.KnativeArtifactManager;
 import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.models.AppCdsModel;
+import org.ballerinax.knative.models.KnativeDataHolder;
+import org.ballerinax.knative.models.LazyPullModel;
+import org.ballerinax.knative.models.ServiceModel;
+import org.ballerinax.knative.utils.BuildCache;
+import org.ballerinax.knative.utils.OciImageBuilder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.ballerinax.docker.generator.DockerGenConstants.OPENJDK_8_JRE_ALPINE_BASE_IMAGE;
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.extractJarName;
+import static org.ballerinax.knative.KnativeConstants.APPCDS_ARCHIVE;
+import static org.ballerinax.knative.KnativeConstants.APPCDS_JVM_OPTIONS;
+import static org.ballerinax.knative.KnativeConstants.APPCDS_LAUNCHER_SCRIPT;
+import static org.ballerinax.knative.KnativeConstants.APPCDS_MIN_JAVA_VERSION;
+import static org.ballerinax.knative.KnativeConstants.APPCDS_TRAINING_SCRIPT;
+import static org.ballerinax.knative.KnativeConstants.BALLERINA_HOME;
+import static org.ballerinax.knative.KnativeConstants.BALLERINA_HOME_PROPERTY;
+import static org.ballerinax.knative.KnativeConstants.BUILD_CACHE_FILE;
+import static org.ballerinax.knative.KnativeConstants.BUILD_MODE_JVM;
+import static org.ballerinax.knative.KnativeConstants.BUILD_MODE_NATIVE;
+import static org.ballerinax.knative.KnativeConstants.DOCKER_ARCHIVE_FILE;
+import static org.ballerinax.knative.KnativeConstants.DOCKER_JARS_DIR;
+import static org.ballerinax.knative.KnativeConstants.EXECUTABLE_JAR;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_BUILDER_DOCKER;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_BUILDER_DOCKER_ARCHIVE;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_FINGERPRINT_LABEL;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_LAYERS;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_LAYER_LIBS;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_LAYER_MODULES;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_LAYER_RUNTIME;
+import static org.ballerinax.knative.KnativeConstants.LAZY_PULL_RUNTIME_FILES;
+import static org.ballerinax.knative.KnativeConstants.NATIVE_BASE_IMAGE;
+import static org.ballerinax.knative.KnativeConstants.NATIVE_BUILDER_IMAGE;
+import static org.ballerinax.knative.KnativeConstants.NATIVE_CONFIG_DIR;
+import static org.ballerinax.knative.KnativeConstants.NATIVE_EXECUTABLE;
+import static org.ballerinax.knative.KnativeConstants.NATIVE_IMAGE_OPTIONS;
+import static org.ballerinax.knative.KnativeConstants.NATIVE_RESOURCE_CONFIG;
+import static org.ballerinax.knative.KnativeConstants.NATIVE_TRACE_SCRIPT;
+import static org.ballerinax.knative.KnativeConstants.NATIVE_TRACE_SECONDS;
+import static org.ballerinax.knative.KnativeConstants.OCI_CACHE_DIR;
+import static org.ballerinax.knative.KnativeConstants.OCI_LAYOUT_DIR;
+import static org.ballerinax.knative.utils.KnativeUtils.deleteDirectory;
+import static org.ballerinax.knative.utils.KnativeUtils.getDeploymentImageName;
+import static org.ballerinax.knative.utils.KnativeUtils.isBlank;
+import static org.ballerinax.knative.utils.KnativeUtils.printWarning;
 
 /**
  * Wrapper handler for creating docker artifacts.
  */
 public class KnativeDockerHandler extends KnativeAbstractArtifactHandler {
 
+    private static final Pattern JAVA_VERSION_IN_NAME = Pattern.compile("(?:jdk|jre|java)-?(\\d+)");
+    private static final Pattern JAVA_IMAGE_NAME = Pattern.compile("jdk|jre|java|temurin|corretto|zulu");
+    private static final Pattern LEADING_NUMBER = Pattern.compile("^(\\d+)");
+    private static final Pattern STARTUP_DELTA = Pattern.compile("appcds startup: (\\d+)ms -> (\\d+)ms");
+    private static final Pattern ENV_VARIABLE = Pattern.compile("([^\\s=]+)=(\"[^\"]*\"|\\S*)");
+    private static final Pattern LISTENER_STARTED = Pattern.compile("\\] started .*listener");
+    private static final Pattern CLASS_SOURCE = Pattern.compile("(?:^\\[Loaded \\S+ from |source: )([^\\]]+)");
+    private static final Pattern COMMAND_ARG = Pattern.compile("'([^']*)'|\"([^\"]*)\"|(\\S+)");
+    private static final String[] NATIVE_LIBRARY_EXTENSIONS = {".so", ".dll", ".dylib", ".jnilib"};
+    private static final Map<String, String> CLASS_GENERATION_LIBRARIES = new LinkedHashMap<>();
+    private static final Object STARTUP_PROFILE_LOCK = new Object();
+
+    static {
+        CLASS_GENERATION_LIBRARIES.put("net/bytebuddy/", "byte buddy");
+        CLASS_GENERATION_LIBRARIES.put("javassist/", "javassist");
+        CLASS_GENERATION_LIBRARIES.put("net/sf/cglib/", "cglib");
+    }
+
+    public KnativeDockerHandler(KnativeDataHolder knativeDataHolder) {
+        super(knativeDataHolder);
+    }
+
     @Override
     public void createArtifacts() throws KnativePluginException {
+        ServiceModel serviceModel = knativeDataHolder.getServiceModel();
+        DockerModel dockerModel;
+        try {
+            dockerModel = getDockerModel(serviceModel);
+        } catch (DockerGenException e) {
+            throw new KnativePluginException("error occurred creating docker image.", e);
+        }
+        knativeDataHolder.setDockerModel(dockerModel);
+        boolean nativeBuild = BUILD_MODE_NATIVE.equals(serviceModel.getBuildMode());
+        if (nativeBuild) {
+            checkNativeDependencies();
+        }
+        AppCdsModel appCdsModel = getAppCdsModel(serviceModel, dockerModel);
+        boolean ociBuild = !IMAGE_BUILDER_DOCKER.equals(serviceModel.getImageBuilder());
+        boolean layeredImage = !ociBuild && isLayeredImage(serviceModel, dockerModel);
+        boolean buildImage = dockerModel.isBuildImage();
+        boolean push = dockerModel.isPush();
+        boolean patchDockerfile = nativeBuild || null != appCdsModel || layeredImage;
+        boolean dockerBuild = buildImage && !ociBuild;
+        if (patchDockerfile || ociBuild || dockerBuild) {
+            // the image is built once the generated Dockerfile is patched and labeled or by the daemonless builder.
+            dockerModel.setBuildImage(false);
+            dockerModel.setPush(false);
+        }
+        Path dockerDir = knativeDataHolder.getDockerArtifactOutputPath();
+        BuildCache buildCache = null;
+        String fingerprint = null;
+        if (dockerBuild) {
+            // the inputs are fingerprinted before the generator replaces the docker artifacts.
+            buildCache = BuildCache.load(dockerDir.resolve(BUILD_CACHE_FILE));
+            fingerprint = getFingerprint(buildCache, dockerModel, serviceModel, appCdsModel, layeredImage);
+        }
         try {
             // Generate docker artifacts
             DockerArtifactHandler dockerArtifactHandler = new DockerArtifactHandler(knativeDataHolder.getDockerModel());
@@ -37,6 +192,1207 @@ public class KnativeDockerHandler extends KnativeAbstractArtifactHandler {
                     knativeDataHolder.getDockerArtifactOutputPath());
         } catch (DockerGenException e) {
             throw new KnativePluginException(e.getMessage(), e);
+        } finally {
+            dockerModel.setBuildImage(buildImage);
+            dockerModel.setPush(push);
+        }
+        if (ociBuild) {
+            if (buildImage) {
+                buildOciImage(dockerDir, dockerModel, serviceModel);
+            }
+            return;
+        }
+        if (!patchDockerfile && !buildImage) {
+            return;
+        }
+        String progressPrefix = "\t@knative:DockerImage \t\t - complete ";
+        if (nativeBuild) {
+            writeNativeDockerfile(dockerDir, dockerModel, serviceModel);
+            progressPrefix = "\t@knative:NativeImage \t\t - complete ";
+        } else if (patchDockerfile) {
+            progressPrefix = "\t@knative:LayeredImage \t\t - complete ";
+            if (layeredImage) {
+                layerDockerfile(dockerDir, dockerModel);
+            }
+            if (null != appCdsModel) {
+                addAppCdsStage(dockerDir, dockerModel, appCdsModel);
+                progressPrefix = "\t@knative:AppCDS \t\t\t - complete ";
+            }
+        }
+        OUT.println();
+        OUT.print(progressPrefix + "1/" + (buildImage ? (push ? 3 : 2) : 1));
+        if (!buildImage) {
+            return;
+        }
+        String imageName = getDeploymentImageName(serviceModel);
+        addFingerprintLabel(dockerDir, fingerprint);
+        DockerClient dockerClient = createDockerClient(dockerModel);
+        boolean upToDate = hasFingerprint(dockerClient, imageName, fingerprint);
+        String startupDelta = upToDate ? null : buildImage(dockerClient, dockerDir, imageName);
+        OUT.print("\r" + progressPrefix + "2/" + (push ? 3 : 2));
+        boolean pushed = upToDate && buildCache.isBuilt(fingerprint) && buildCache.isPushed();
+        if (push) {
+            if (!pushed) {
+                pushImage(dockerClient, dockerModel, imageName);
+                pushed = true;
+            }
+            OUT.print("\r" + progressPrefix + "3/3");
+        }
+        try {
+            buildCache.save(fingerprint, pushed);
+        } catch (IOException e) {
+            printWarning("unable to write the docker build cache: " + e.getMessage());
+        }
+        if (upToDate) {
+            OUT.println();
+            OUT.print("\t\timage " + imageName + " is up to date. " + (push ? "build and push" : "build") +
+                    " skipped.");
+        } else if (null != appCdsModel) {
+            OUT.println();
+            OUT.print("\t\t" + (null == startupDelta ? "appcds startup time was not measured. check the training " +
+                    "command and the service port." : startupDelta));
+        }
+    }
+
+    @Override
+    public Set<Model> getReads() {
+        // only the image options of the service model are read, so the image is built while the yaml is generated.
+        return EnumSet.of(Model.IMAGE);
+    }
+
+    @Override
+    public Set<Model> getWrites() {
+        return EnumSet.of(Model.DOCKER);
+    }
+
+    /**
+     * Populate the docker model from the service model.
+     *
+     * @param serviceModel Service model
+     * @return Docker model
+     * @throws DockerGenException If the docker model is invalid.
+     */
+    private DockerModel getDockerModel(ServiceModel serviceModel) throws DockerGenException {
+        DockerModel dockerModel = knativeDataHolder.getDockerModel();
+        String dockerImage = serviceModel.getImage();
+        String imageTag = "latest";
+        if (dockerImage.contains(":")) {
+            imageTag = dockerImage.substring(dockerImage.lastIndexOf(":") + 1);
+            dockerImage = dockerImage.substring(0, dockerImage.lastIndexOf(":"));
+        }
+        dockerModel.setBaseImage(serviceModel.getBaseImage());
+        dockerModel.setRegistry(serviceModel.getRegistry());
+        dockerModel.setName(dockerImage);
+        dockerModel.setTag(imageTag);
+        dockerModel.setEnableDebug(false);
+        dockerModel.setUsername(serviceModel.getUsername());
+        dockerModel.setPassword(serviceModel.getPassword());
+        dockerModel.setPush(serviceModel.isPush());
+        dockerModel.setJarFileName(extractJarName(knativeDataHolder.getUberJarPath()) + EXECUTABLE_JAR);
+        dockerModel.setPorts(serviceModel.getPorts());
+        dockerModel.setService(true);
+        dockerModel.setDockerHost(serviceModel.getDockerHost());
+        dockerModel.setDockerCertPath(serviceModel.getDockerCertPath());
+        dockerModel.setBuildImage(serviceModel.isBuildImage());
+        dockerModel.addCommandArg(serviceModel.getCommandArgs());
+        dockerModel.setCopyFiles(serviceModel.getCopyFiles());
+        return dockerModel;
+    }
+
+    /**
+     * Get the fingerprint of the image inputs: the plugin, the executable jar, the dependency jars, the copied files,
+     * the options that change the generated Dockerfile and the image builder and registry the image is built for.
+     *
+     * @param buildCache   Build cache with the hashes of the files of the last build
+     * @param dockerModel  Docker model
+     * @param serviceModel Service model
+     * @param appCdsModel  AppCDS model or null if the training stage is not added
+     * @param layeredImage Whether the dependency jars are copied in layers
+     * @return Fingerprint
+     * @throws KnativePluginException If an input file cannot be read.
+     */
+    private String getFingerprint(BuildCache buildCache, DockerModel dockerModel, ServiceModel serviceModel,
+                                  AppCdsModel appCdsModel, boolean layeredImage) throws KnativePluginException {
+        Map<String, String> values = new LinkedHashMap<>();
+        String pluginVersion = getClass().getPackage().getImplementationVersion();
+        values.put("plugin", null == pluginVersion ? "" : pluginVersion);
+        values.put("image", getDeploymentImageName(serviceModel));
+        values.put("imageBuilder", serviceModel.getImageBuilder());
+        values.put("registry", serviceModel.getRegistry());
+        values.put("baseImage", dockerModel.getBaseImage());
+        values.put("jarFileName", dockerModel.getJarFileName());
+        values.put("cmd", dockerModel.getCmd());
+        values.put("commandArg", dockerModel.getCommandArg());
+        values.put("ports", null == dockerModel.getPorts() ? "" : new TreeSet<>(dockerModel.getPorts()).toString());
+        values.put("uberJar", String.valueOf(dockerModel.isUberJar()));
+        values.put("enableDebug", String.valueOf(dockerModel.isEnableDebug()));
+        values.put("buildMode", serviceModel.getBuildMode());
+        values.put("appCds", String.valueOf(appCdsModel));
+        values.put("layeredImage", String.valueOf(layeredImage));
+        values.put("lazyPull", String.valueOf(serviceModel.getLazyPullModel()));
+        Map<String, Path> files = new LinkedHashMap<>();
+        try {
+            if (null == pluginVersion) {
+                // the plugin runs from an unpacked classpath, so an upgrade is detected from its classes.
+                addPluginFiles(files);
+            }
+            files.put("jar", knativeDataHolder.getUberJarPath());
+            if (!dockerModel.isUberJar()) {
+                List<Path> jars = new ArrayList<>(knativeDataHolder.getDependencyJarPaths());
+                jars.sort(Comparator.comparing(Path::toString));
+                for (Path jar : jars) {
+                    String name = DOCKER_JARS_DIR + "/" + jar.getFileName();
+                    // jars with the same name are copied over each other, so the last one is in the image.
+                    files.put(name, jar);
+                }
+            }
+            if (null != dockerModel.getCopyFiles()) {
+                for (CopyFileModel copyFile : dockerModel.getCopyFiles()) {
+                    Path source = Paths.get(copyFile.getSource());
+                    if (Files.isDirectory(source)) {
+                        try (Stream<Path> sourceFiles = Files.walk(source)) {
+                            for (Path file : sourceFiles.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                                files.put(copyFile.getTarget() + "/" + source.relativize(file).toString()
+                                        .replace(File.separatorChar, '/'), file);
+                            }
+                        }
+                    } else {
+                        files.put(copyFile.getTarget(), source);
+                    }
+                }
+            }
+            return buildCache.fingerprint(values, files);
+        } catch (IOException e) {
+            throw new KnativePluginException("unable to read the docker image inputs: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Add the jar or the class files the plugin is loaded from to the image inputs.
+     *
+     * @param files Input files by name
+     * @throws IOException If the plugin location cannot be read.
+     */
+    private void addPluginFiles(Map<String, Path> files) throws IOException {
+        CodeSource codeSource = getClass().getProtectionDomain().getCodeSource();
+        if (null == codeSource || null == codeSource.getLocation()) {
+            return;
+        }
+        Path location;
+        try {
+            location = Paths.get(codeSource.getLocation().toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return;
+        }
+        if (!Files.isDirectory(location)) {
+            files.put("plugin", location);
+            return;
+        }
+        Path pluginClasses = location.resolve(KnativeArtifactManager.class.getPackage().getName().replace('.', '/'));
+        if (!Files.isDirectory(pluginClasses)) {
+            return;
+        }
+        try (Stream<Path> classFiles = Files.walk(pluginClasses)) {
+            for (Path file : classFiles.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                files.put("plugin/" + location.relativize(file).toString().replace(File.separatorChar, '/'), file);
+            }
+        }
+    }
+
+    /**
+     * Label the image with the fingerprint of its inputs.
+     *
+     * @param dockerDir   Docker artifact directory
+     * @param fingerprint Fingerprint of the image inputs
+     * @throws KnativePluginException If the Dockerfile cannot be written.
+     */
+    private void addFingerprintLabel(Path dockerDir, String fingerprint) throws KnativePluginException {
+        Path dockerfile = dockerDir.resolve("Dockerfile");
+        try {
+            Files.write(dockerfile, ("\nLABEL " + IMAGE_FINGERPRINT_LABEL + "=\"" + fingerprint + "\"\n")
+                    .getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new KnativePluginException("error while labeling the Dockerfile: " + dockerfile, e);
+        }
+    }
+
+    /**
+     * Check whether the local image was built from the same inputs.
+     *
+     * @param dockerClient Docker client
+     * @param imageName    Image name with tag
+     * @param fingerprint  Fingerprint of the image inputs
+     * @return true if the local image has the fingerprint label
+     */
+    private boolean hasFingerprint(DockerClient dockerClient, String imageName, String fingerprint) {
+        try {
+            ContainerConfig config = dockerClient.inspectImageCmd(imageName).exec().getConfig();
+            return null != config && null != config.getLabels() &&
+                    fingerprint.equals(config.getLabels().get(IMAGE_FINGERPRINT_LABEL));
+        } catch (RuntimeException e) {
+            // a missing image or an unreachable daemon is reported by the build.
+            return false;
+        }
+    }
+
+    /**
+     * Check whether the image layout can be layered. The uber jar has the dependencies inside it and the native
+     * build only copies the native executable to the final image, so neither has dependency jars to layer.
+     *
+     * @param serviceModel Service model
+     * @param dockerModel  Docker model
+     * @return true if the dependency jars are copied in layers
+     */
+    private boolean isLayeredImage(ServiceModel serviceModel, DockerModel dockerModel) {
+        if (!serviceModel.isLayeredImage()) {
+            return false;
+        }
+        if (dockerModel.isUberJar() || BUILD_MODE_NATIVE.equals(serviceModel.getBuildMode())) {
+            printWarning("@knative:Service{} layeredImage is ignored as the image has no dependency jars to layer.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Build the image without a docker daemon from the files of the generated Dockerfile. The dependency jars are
+     * added in the layers of {@link #getJarLayers()} followed by the copied files and the executable jar, so the
+     * layers that change with the code are on top. The image is written to the docker artifact directory as an OCI
+     * image layout or as a tarball for {@code docker load}.
+     *
+     * @param dockerDir    Docker artifact directory
+     * @param dockerModel  Docker model
+     * @param serviceModel Service model
+     * @throws KnativePluginException If the base image cannot be pulled or the image cannot be written.
+     */
+    private void buildOciImage(Path dockerDir, DockerModel dockerModel, ServiceModel serviceModel)
+            throws KnativePluginException {
+        String imageName = getDeploymentImageName(serviceModel);
+        String baseImage = dockerModel.getBaseImage();
+        boolean baseImageRegistry = !isBlank(dockerModel.getRegistry()) &&
+                baseImage.startsWith(dockerModel.getRegistry() + "/");
+        OciImageBuilder imageBuilder = new OciImageBuilder(Paths.get(System.getProperty("user.home"), OCI_CACHE_DIR),
+                baseImageRegistry ? dockerModel.getUsername() : null,
+                baseImageRegistry ? dockerModel.getPassword() : null);
+        String jarsPath = BALLERINA_HOME + "/" + DOCKER_JARS_DIR + "/";
+        Map<String, List<Path>> jarLayers = getJarLayers();
+        if (dockerModel.isUberJar()) {
+            // the dependencies are inside the executable jar.
+            jarLayers.values().forEach(List::clear);
+        }
+        Map<String, Path> imageFiles = new LinkedHashMap<>();
+        imageFiles.putAll(addJarLayer(imageBuilder, IMAGE_LAYER_RUNTIME, jarLayers.get(IMAGE_LAYER_RUNTIME), jarsPath));
+        imageFiles.putAll(addJarLayer(imageBuilder, IMAGE_LAYER_LIBS, jarLayers.get(IMAGE_LAYER_LIBS), jarsPath));
+        Path dockerfile = dockerDir.resolve("Dockerfile");
+        try {
+            Map<String, Path> copyFiles = new LinkedHashMap<>();
+            if (null != dockerModel.getCopyFiles()) {
+                for (CopyFileModel copyFile : dockerModel.getCopyFiles()) {
+                    Path source = Paths.get(copyFile.getSource());
+                    String target = copyFile.getTarget();
+                    if (Files.isDirectory(source)) {
+                        String targetDir = target.endsWith("/") ? target : target + "/";
+                        try (Stream<Path> files = Files.walk(source)) {
+                            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                                copyFiles.put(targetDir + source.relativize(file).toString()
+                                        .replace(File.separatorChar, '/'), file);
+                            }
+                        }
+                    } else {
+                        copyFiles.put(target.endsWith("/") ? target + source.getFileName() : target, source);
+                    }
+                }
+            }
+            imageBuilder.addLayer("files", copyFiles);
+            imageFiles.putAll(copyFiles);
+            imageFiles.putAll(addJarLayer(imageBuilder, IMAGE_LAYER_MODULES, jarLayers.get(IMAGE_LAYER_MODULES),
+                    jarsPath));
+            Map<String, Path> appFiles = Collections.singletonMap(BALLERINA_HOME + "/" +
+                    dockerModel.getJarFileName(), dockerDir.resolve(dockerModel.getJarFileName()));
+            imageBuilder.addLayer("app", appFiles);
+            imageFiles.putAll(appFiles);
+
+            List<String> lines = Files.readAllLines(dockerfile, StandardCharsets.UTF_8);
+            getEnv(lines).forEach(imageBuilder::addEnv);
+            imageBuilder.setCmd(getImageCommand(lines));
+            imageBuilder.setWorkingDir(BALLERINA_HOME);
+            if (null != dockerModel.getPorts()) {
+                imageBuilder.addPorts(dockerModel.getPorts());
+            }
+            LazyPullModel lazyPullModel = serviceModel.getLazyPullModel();
+            if (null != lazyPullModel) {
+                Set<String> prefetchFiles = new LinkedHashSet<>(Arrays.asList(LAZY_PULL_RUNTIME_FILES));
+                if (lazyPullModel.isRecordProfile()) {
+                    List<String> profile;
+                    // services of modules generated in parallel may listen on the same port.
+                    synchronized (STARTUP_PROFILE_LOCK) {
+                        profile = recordStartupProfile(dockerDir, lines, dockerModel, lazyPullModel, imageFiles);
+                    }
+                    prefetchFiles.addAll(profile);
+                    OUT.println();
+                    OUT.print("\t\tstartup profile: " + profile.size() + " files accessed");
+                }
+                prefetchFiles.add(BALLERINA_HOME + "/" + dockerModel.getJarFileName());
+                prefetchFiles.addAll(lazyPullModel.getPrefetchFiles());
+                imageBuilder.setPrefetchFiles(new ArrayList<>(prefetchFiles));
+            }
+        } catch (IOException e) {
+            throw new KnativePluginException("error while reading the image files of the Dockerfile: " + dockerfile,
+                    e);
+        }
+        OUT.println();
+        OUT.print("\t@knative:OCI \t\t\t - complete 0/1");
+        if (IMAGE_BUILDER_DOCKER_ARCHIVE.equals(serviceModel.getImageBuilder())) {
+            imageBuilder.writeDockerArchive(baseImage, imageName, dockerDir.resolve(DOCKER_ARCHIVE_FILE));
+        } else {
+            imageBuilder.writeImageLayout(baseImage, imageName, dockerDir.resolve(OCI_LAYOUT_DIR));
+        }
+        OUT.print("\r\t@knative:OCI \t\t\t - complete 1/1");
+        if (dockerModel.isPush()) {
+            printWarning("@knative:Service{} push is not supported by imageBuilder \"" +
+                    serviceModel.getImageBuilder() + "\". copy the image to the registry with skopeo or crane.");
+        }
+    }
+
+    /**
+     * Record the jars and runtime files loaded while the service starts. Recording runs the service: the java command
+     * of the generated Dockerfile is started with class loading traced until the service accepts connections. When a
+     * docker daemon is reachable the service runs in a container of the base image with the image files mounted at
+     * their image paths, so the profile has the paths of the image. Otherwise it runs with the local JVM in the docker
+     * artifact directory, the image files are mapped back to their image path and files of the local JVM to the same
+     * path relative to the JVM of the base image.
+     *
+     * @param dockerDir     Docker artifact directory
+     * @param lines         Dockerfile lines
+     * @param dockerModel   Docker model
+     * @param lazyPullModel Lazy pulling model
+     * @param imageFiles    Local files of the image layers by their image path
+     * @return Image paths in the order they are accessed
+     * @throws KnativePluginException If the service cannot be started.
+     */
+    private List<String> recordStartupProfile(Path dockerDir, List<String> lines, DockerModel dockerModel,
+                                              LazyPullModel lazyPullModel, Map<String, Path> imageFiles)
+            throws KnativePluginException {
+        List<String> command = getCommand(lines);
+        if (command.isEmpty() || !"java".equals(command.get(0))) {
+            printWarning("@knative:Service{} lazyPull startup profile is skipped as the generated Dockerfile has no " +
+                    "java command.");
+            return Collections.emptyList();
+        }
+        List<String> traceCommand = new ArrayList<>();
+        traceCommand.add("java");
+        traceCommand.add("-verbose:class");
+        traceCommand.addAll(command.subList(1, command.size()));
+        DockerClient dockerClient = createDockerClient(dockerModel);
+        Set<String> profile = new LinkedHashSet<>();
+        if (isDockerAvailable(dockerClient)) {
+            for (String source : traceInContainer(dockerClient, dockerModel.getBaseImage(), traceCommand,
+                    getEnv(lines), imageFiles, lazyPullModel.getProfileSeconds())) {
+                String imagePath = getImagePath(source, null, null, null);
+                if (null != imagePath) {
+                    profile.add(imagePath);
+                }
+            }
+            return new ArrayList<>(profile);
+        }
+        printWarning("@knative:Service{} lazyPull startup profile is recorded with the local JVM as no docker daemon " +
+                "is reachable. runtime files are matched by their path relative to the java home.");
+        Path javaHome = Paths.get(System.getProperty("java.home")).toAbsolutePath().normalize();
+        traceCommand.set(0, javaHome.resolve("bin").resolve("java").toString());
+        Map<Path, String> localFiles = new LinkedHashMap<>();
+        imageFiles.forEach((imagePath, file) -> localFiles.put(file.toAbsolutePath().normalize(), imagePath));
+        Path localDockerDir = dockerDir.toAbsolutePath().normalize();
+        for (String source : traceLocally(dockerDir, traceCommand, dockerModel, lazyPullModel.getProfileSeconds())) {
+            String imagePath = getImagePath(source, localFiles, localDockerDir, javaHome);
+            if (null != imagePath) {
+                profile.add(imagePath);
+            }
+        }
+        return new ArrayList<>(profile);
+    }
+
+    /**
+     * Run the service in a container of the base image and trace the class sources until the service starts its
+     * listener. The image files are mounted read only at their image paths.
+     *
+     * @param dockerClient   Docker client
+     * @param baseImage      Base image
+     * @param command        Traced java command
+     * @param env            Environment variables of the image
+     * @param imageFiles     Local files of the image layers by their image path
+     * @param profileSeconds Max time to wait for the listener
+     * @return Class sources in the order they are loaded
+     * @throws KnativePluginException If the container cannot be started.
+     */
+    private Set<String> traceInContainer(DockerClient dockerClient, String baseImage, List<String> command,
+                                         Map<String, String> env, Map<String, Path> imageFiles, int profileSeconds)
+            throws KnativePluginException {
+        Set<String> sources = Collections.synchronizedSet(new LinkedHashSet<>());
+        AtomicBoolean started = new AtomicBoolean();
+        String containerId = null;
+        try {
+            try {
+                dockerClient.inspectImageCmd(baseImage).exec();
+            } catch (NotFoundException e) {
+                dockerClient.pullImageCmd(baseImage).exec(new PullImageResultCallback()).awaitCompletion();
+            }
+            List<Bind> binds = new ArrayList<>();
+            imageFiles.forEach((imagePath, file) -> binds.add(new Bind(file.toAbsolutePath().normalize().toString(),
+                    new Volume(imagePath), AccessMode.ro)));
+            List<String> envVariables = new ArrayList<>();
+            env.forEach((name, value) -> envVariables.add(name + "=" + value));
+            containerId = dockerClient.createContainerCmd(baseImage)
+                    .withCmd(command)
+                    .withEnv(envVariables)
+                    .withWorkingDir(BALLERINA_HOME)
+                    .withHostConfig(HostConfig.newHostConfig().withBinds(binds))
+                    .exec().getId();
+            dockerClient.startContainerCmd(containerId).exec();
+            LogContainerResultCallback logs = dockerClient.logContainerCmd(containerId)
+                    .withStdOut(true)
+                    .withStdErr(true)
+                    .withFollowStream(true)
+                    .exec(new LogContainerResultCallback() {
+                        private final StringBuilder line = new StringBuilder();
+
+                        @Override
+                        public void onNext(Frame frame) {
+                            for (char c : new String(frame.getPayload(), StandardCharsets.UTF_8).toCharArray()) {
+                                if (c != '\n') {
+                                    line.append(c);
+                                    continue;
+                                }
+                                Matcher matcher = CLASS_SOURCE.matcher(line);
+                                if (matcher.find()) {
+                                    sources.add(matcher.group(1).trim());
+                                } else if (LISTENER_STARTED.matcher(line).find()) {
+                                    started.set(true);
+                                }
+                                line.setLength(0);
+                            }
+                        }
+                    });
+            long deadline = System.currentTimeMillis() + profileSeconds * 1000L;
+            while (System.currentTimeMillis() < deadline && !started.get() &&
+                    Boolean.TRUE.equals(dockerClient.inspectContainerCmd(containerId).exec().getState().getRunning())) {
+                Thread.sleep(200);
+            }
+            logs.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KnativePluginException("interrupted while recording the lazyPull startup profile", e);
+        } catch (IOException | RuntimeException e) {
+            throw new KnativePluginException("unable to start the service in the base image to record the lazyPull " +
+                    "startup profile: " + e.getMessage(), e);
+        } finally {
+            if (null != containerId) {
+                try {
+                    dockerClient.removeContainerCmd(containerId).withForce(true).exec();
+                } catch (RuntimeException e) {
+                    // the container is already removed.
+                }
+            }
+        }
+        synchronized (sources) {
+            return new LinkedHashSet<>(sources);
+        }
+    }
+
+    /**
+     * Run the service with the local JVM in the docker artifact directory and trace the class sources until the
+     * service accepts connections.
+     *
+     * @param dockerDir      Docker artifact directory
+     * @param command        Traced java command
+     * @param dockerModel    Docker model
+     * @param profileSeconds Max time to wait for the service to accept connections
+     * @return Class sources in the order they are loaded
+     * @throws KnativePluginException If the service cannot be started.
+     */
+    private Set<String> traceLocally(Path dockerDir, List<String> command, DockerModel dockerModel,
+                                     int profileSeconds) throws KnativePluginException {
+        int port = null == dockerModel.getPorts() || dockerModel.getPorts().isEmpty() ? -1 :
+                dockerModel.getPorts().iterator().next();
+        // a port that is already in use cannot tell when the service started.
+        boolean waitForPort = port != -1 && !isListening(port);
+        Set<String> sources = Collections.synchronizedSet(new LinkedHashSet<>());
+        Process process;
+        try {
+            process = new ProcessBuilder(command).directory(dockerDir.toFile()).redirectErrorStream(true).start();
+        } catch (IOException e) {
+            throw new KnativePluginException("unable to start the service to record the lazyPull startup profile: " +
+                    e.getMessage(), e);
+        }
+        Thread reader = new Thread(() -> {
+            try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while (null != (line = output.readLine())) {
+                    Matcher matcher = CLASS_SOURCE.matcher(line);
+                    if (matcher.find()) {
+                        sources.add(matcher.group(1).trim());
+                    }
+                }
+            } catch (IOException e) {
+                // the output is closed once the service is stopped.
+            }
+        });
+        reader.start();
+        try {
+            long deadline = System.currentTimeMillis() + profileSeconds * 1000L;
+            while (System.currentTimeMillis() < deadline && process.isAlive()) {
+                if (waitForPort && isListening(port)) {
+                    break;
+                }
+                Thread.sleep(200);
+            }
+            process.destroy();
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+            reader.join(5000);
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new KnativePluginException("interrupted while recording the lazyPull startup profile", e);
+        }
+        synchronized (sources) {
+            return new LinkedHashSet<>(sources);
+        }
+    }
+
+    private boolean isDockerAvailable(DockerClient dockerClient) {
+        try {
+            dockerClient.pingCmd().exec();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get the image path of a traced class source.
+     *
+     * @param source     Class source of the trace
+     * @param localFiles Image paths by local file, or null if the source was traced in the image
+     * @param dockerDir  Local docker artifact directory, or null if the source was traced in the image
+     * @param javaHome   Local java home, or null if the source was traced in the image
+     * @return Image path or glob, or null if the source is not a file of the image
+     */
+    private String getImagePath(String source, Map<Path, String> localFiles, Path dockerDir, Path javaHome) {
+        if (source.startsWith("jrt:/")) {
+            return "**/lib/modules";
+        }
+        if (source.startsWith("shared objects file")) {
+            return "**/server/classes.jsa";
+        }
+        Path path = getJarPath(source);
+        if (null == path) {
+            return null;
+        }
+        String location = path.toString().replace(File.separatorChar, '/');
+        if (null == localFiles) {
+            return location.startsWith("/") ? location : null;
+        }
+        path = path.toAbsolutePath().normalize();
+        if (localFiles.containsKey(path)) {
+            return localFiles.get(path);
+        }
+        if (path.startsWith(dockerDir)) {
+            return BALLERINA_HOME + "/" + dockerDir.relativize(path).toString().replace(File.separatorChar, '/');
+        }
+        if (path.startsWith(javaHome)) {
+            return "**/" + javaHome.relativize(path).toString().replace(File.separatorChar, '/');
+        }
+        return null;
+    }
+
+    private Path getJarPath(String source) {
+        String location = source.startsWith("jar:") ? source.substring(4) : source;
+        if (location.contains("!/")) {
+            location = location.substring(0, location.indexOf("!/"));
+        }
+        if (!location.endsWith(".jar")) {
+            return null;
+        }
+        try {
+            return location.startsWith("file:") ? Paths.get(URI.create(location)) : Paths.get(location);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private boolean isListening(int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", port), 200);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Map<String, Path> addJarLayer(OciImageBuilder imageBuilder, String layer, List<Path> jars,
+                                          String jarsPath) {
+        Map<String, Path> files = new LinkedHashMap<>();
+        for (Path jar : jars) {
+            files.put(jarsPath + jar.getFileName(), jar);
+        }
+        imageBuilder.addLayer(layer, files);
+        return files;
+    }
+
+    /**
+     * Get the environment variables set by the ENV instructions of the generated Dockerfile.
+     *
+     * @param lines Dockerfile lines
+     * @return Environment variables in the order they are set
+     */
+    private Map<String, String> getEnv(List<String> lines) {
+        Map<String, String> env = new LinkedHashMap<>();
+        for (String line : lines) {
+            String trimmedLine = line.trim();
+            if (!trimmedLine.startsWith("ENV ")) {
+                continue;
+            }
+            String variables = trimmedLine.substring(4).trim();
+            if (!variables.contains("=")) {
+                String[] variable = variables.split("\\s+", 2);
+                env.put(variable[0], variable.length > 1 ? unquote(variable[1]) : "");
+                continue;
+            }
+            Matcher matcher = ENV_VARIABLE.matcher(variables);
+            while (matcher.find()) {
+                env.put(matcher.group(1), unquote(matcher.group(2)));
+            }
+        }
+        return env;
+    }
+
+    private String unquote(String value) {
+        return value.length() > 1 && value.startsWith("\"") && value.endsWith("\"") ?
+                value.substring(1, value.length() - 1) : value;
+    }
+
+    /**
+     * Get the command of the image from the last CMD of the generated Dockerfile. A shell form CMD runs with
+     * /bin/sh as it does in a docker build.
+     *
+     * @param lines Dockerfile lines
+     * @return Command of the image
+     * @throws KnativePluginException If the Dockerfile has no CMD.
+     */
+    private List<String> getImageCommand(List<String> lines) throws KnativePluginException {
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            String line = lines.get(i).trim();
+            if (!line.startsWith("CMD ")) {
+                continue;
+            }
+            String command = line.substring(4).trim();
+            return command.startsWith("[") ? getCommand(lines) : Arrays.asList("/bin/sh", "-c", command);
+        }
+        throw new KnativePluginException("@knative:Service{} imageBuilder requires a CMD in the generated Dockerfile.");
+    }
+
+    /**
+     * Group the dependency jars by how often they change. The ballerina runtime and standard library jars change
+     * with the ballerina version, third party jars with the dependencies and the jars of the other project modules
+     * with the code, so a code only change rebuilds and pushes only the top layers.
+     *
+     * @return Jars in name order by layer
+     */
+    private Map<String, List<Path>> getJarLayers() {
+        String ballerinaHome = System.getProperty(BALLERINA_HOME_PROPERTY);
+        Path runtimeHome = isBlank(ballerinaHome) ? null : Paths.get(ballerinaHome).toAbsolutePath().normalize();
+        Path sourceRoot = null == knativeDataHolder.getSourceRoot() ? null :
+                knativeDataHolder.getSourceRoot().toAbsolutePath().normalize();
+        Map<String, List<Path>> layers = new LinkedHashMap<>();
+        for (String layer : IMAGE_LAYERS) {
+            layers.put(layer, new ArrayList<>());
+        }
+        for (Path jar : knativeDataHolder.getDependencyJarPaths()) {
+            Path jarPath = jar.toAbsolutePath().normalize();
+            String layer = IMAGE_LAYER_LIBS;
+            if (null != runtimeHome && jarPath.startsWith(runtimeHome)) {
+                layer = IMAGE_LAYER_RUNTIME;
+            } else if (null != sourceRoot && jarPath.startsWith(sourceRoot)) {
+                layer = IMAGE_LAYER_MODULES;
+            }
+            layers.get(layer).add(jarPath);
+        }
+        for (List<Path> jars : layers.values()) {
+            jars.sort(Comparator.comparing(jar -> jar.getFileName().toString()));
+        }
+        return layers;
+    }
+
+    /**
+     * Copy the dependency jars in the layers of {@link #getJarLayers()}. Jars are copied with their attributes and in
+     * name order so that unchanged layers have the same digest on every build. The layer directories are cleared
+     * first, as the docker directory is kept between builds and a removed dependency must not stay in its layer.
+     *
+     * @param dockerDir   Docker artifact directory
+     * @param dockerModel Docker model
+     * @throws KnativePluginException If the jars cannot be copied or the Dockerfile cannot be read or written.
+     */
+    private void layerDockerfile(Path dockerDir, DockerModel dockerModel) throws KnativePluginException {
+        Path jarsDir = dockerDir.resolve(DOCKER_JARS_DIR);
+        Map<String, List<Path>> layers = getJarLayers();
+        Path dockerfile = dockerDir.resolve("Dockerfile");
+        for (String layer : layers.keySet()) {
+            deleteDirectory(jarsDir.resolve(layer));
+        }
+        try {
+            List<String> layerCopies = new ArrayList<>();
+            for (Map.Entry<String, List<Path>> layer : layers.entrySet()) {
+                if (layer.getValue().isEmpty()) {
+                    continue;
+                }
+                Path layerDir = jarsDir.resolve(layer.getKey());
+                Files.createDirectories(layerDir);
+                for (Path jar : layer.getValue()) {
+                    Files.copy(jar, layerDir.resolve(jar.getFileName()), StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.COPY_ATTRIBUTES);
+                    // the flat copy of the generated Dockerfile is no longer part of the build context.
+                    Files.deleteIfExists(jarsDir.resolve(jar.getFileName()));
+                }
+                layerCopies.add("COPY " + DOCKER_JARS_DIR + "/" + layer.getKey() + "/ " + BALLERINA_HOME + "/" +
+                        DOCKER_JARS_DIR + "/");
+            }
+            List<String> lines = Files.readAllLines(dockerfile, StandardCharsets.UTF_8);
+            List<String> fileCopies = new ArrayList<>();
+            List<String> jarCopies = new ArrayList<>();
+            List<String> layeredLines = new ArrayList<>();
+            int copyIndex = -1;
+            for (String line : lines) {
+                String trimmedLine = line.trim();
+                if (!trimmedLine.startsWith("COPY ")) {
+                    layeredLines.add(line);
+                    continue;
+                }
+                if (copyIndex == -1) {
+                    copyIndex = layeredLines.size();
+                }
+                String source = trimmedLine.substring(5).trim();
+                if (source.startsWith(DOCKER_JARS_DIR)) {
+                    continue;
+                }
+                if (source.startsWith(dockerModel.getJarFileName())) {
+                    jarCopies.add(trimmedLine);
+                } else {
+                    fileCopies.add(trimmedLine);
+                }
+            }
+            List<String> copies = new ArrayList<>(layerCopies);
+            copies.addAll(fileCopies);
+            copies.addAll(jarCopies);
+            layeredLines.addAll(copyIndex == -1 ? layeredLines.size() : copyIndex, copies);
+            Files.write(dockerfile, layeredLines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new KnativePluginException("error while layering the dependency jars of the Dockerfile: " +
+                    dockerfile, e);
+        }
+    }
+
+    /**
+     * Check the executable jar and its dependencies for libraries that cannot be compiled to a native executable.
+     * Libraries that generate classes at runtime fail once the executable starts, so they are reported before the
+     * native build. Bundled native libraries are not loaded by the native executable, which only works for libraries
+     * with a java fallback, so they are reported as a warning.
+     *
+     * @throws KnativePluginException If a library that generates classes at runtime is found.
+     */
+    private void checkNativeDependencies() throws KnativePluginException {
+        List<Path> jars = new ArrayList<>();
+        if (null != knativeDataHolder.getUberJarPath()) {
+            jars.add(knativeDataHolder.getUberJarPath());
+        }
+        jars.addAll(knativeDataHolder.getDependencyJarPaths());
+        List<String> unsupported = new ArrayList<>();
+        for (Path jar : jars) {
+            if (!Files.exists(jar)) {
+                continue;
+            }
+            Set<String> classGenerators = new TreeSet<>();
+            int nativeLibraries = 0;
+            try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+                Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                while (entries.hasMoreElements()) {
+                    String entry = entries.nextElement().getName();
+                    String lowerCaseEntry = entry.toLowerCase(Locale.ENGLISH);
+                    for (String extension : NATIVE_LIBRARY_EXTENSIONS) {
+                        if (lowerCaseEntry.endsWith(extension)) {
+                            nativeLibraries++;
+                        }
+                    }
+                    for (Map.Entry<String, String> library : CLASS_GENERATION_LIBRARIES.entrySet()) {
+                        if (entry.startsWith(library.getKey())) {
+                            classGenerators.add(library.getValue());
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new KnativePluginException("unable to read jar for the native build: " + jar, e);
+            }
+            for (String classGenerator : classGenerators) {
+                unsupported.add(jar.getFileName() + ": " + classGenerator + " generates classes at runtime");
+            }
+            if (nativeLibraries > 0) {
+                printWarning("@knative:Service{} " + nativeLibraries + " native libraries bundled in " +
+                        jar.getFileName() + " are not loaded by the native executable.");
+            }
+        }
+        if (!unsupported.isEmpty()) {
+            throw new KnativePluginException("@knative:Service{} buildMode \"" + BUILD_MODE_NATIVE + "\" does not " +
+                    "support the following dependencies. use buildMode \"" + BUILD_MODE_JVM + "\" instead.\n\t" +
+                    String.join("\n\t", unsupported));
+        }
+    }
+
+    /**
+     * Replace the generated Dockerfile with a multi-stage Dockerfile. The first stage runs the service with the
+     * native image agent to record the reflection and resource access of the ballerina runtime and compiles the
+     * java command of the generated Dockerfile with native-image. The final stage only has the native executable
+     * and the copied files on a minimal base image.
+     *
+     * @param dockerDir    Docker artifact directory
+     * @param dockerModel  Docker model
+     * @param serviceModel Service model
+     * @throws KnativePluginException If the Dockerfile cannot be read or written or has no java command.
+     */
+    private void writeNativeDockerfile(Path dockerDir, DockerModel dockerModel, ServiceModel serviceModel)
+            throws KnativePluginException {
+        Path dockerfile = dockerDir.resolve("Dockerfile");
+        try {
+            List<String> lines = Files.readAllLines(dockerfile, StandardCharsets.UTF_8);
+            List<String> command = getCommand(lines);
+            if (command.isEmpty() || !"java".equals(command.get(0))) {
+                throw new KnativePluginException("@knative:Service{} buildMode \"" + BUILD_MODE_NATIVE + "\" " +
+                        "requires a java command in the generated Dockerfile.");
+            }
+            List<String> buildArgs = new ArrayList<>();
+            List<String> programArgs = new ArrayList<>();
+            boolean mainFound = false;
+            for (int i = 1; i < command.size(); i++) {
+                String arg = command.get(i);
+                if (mainFound) {
+                    programArgs.add(arg);
+                } else if ("-jar".equals(arg) || "-cp".equals(arg) || "-classpath".equals(arg)) {
+                    buildArgs.add(arg);
+                    if (i + 1 < command.size()) {
+                        buildArgs.add(command.get(++i));
+                    }
+                    mainFound = "-jar".equals(arg);
+                } else if (arg.startsWith("-D") || !arg.startsWith("-")) {
+                    buildArgs.add(arg);
+                    mainFound = !arg.startsWith("-");
+                }
+                // other jvm options do not apply to the native executable.
+            }
+            Path configDir = dockerDir.resolve(NATIVE_CONFIG_DIR);
+            Files.createDirectories(configDir);
+            Files.write(configDir.resolve(NATIVE_RESOURCE_CONFIG),
+                    readResource(NATIVE_CONFIG_DIR + "/" + NATIVE_RESOURCE_CONFIG).getBytes(StandardCharsets.UTF_8));
+            int port = null == dockerModel.getPorts() || dockerModel.getPorts().isEmpty() ? -1 :
+                    dockerModel.getPorts().iterator().next();
+            String configPath = BALLERINA_HOME + "/" + NATIVE_CONFIG_DIR;
+            String scriptPath = BALLERINA_HOME + "/" + NATIVE_TRACE_SCRIPT;
+            String traceCommand = "java -agentlib:native-image-agent=config-merge-dir=" + configPath + " " +
+                    command.subList(1, command.size()).stream().map(this::quote).collect(Collectors.joining(" "));
+            String script = "#!/bin/sh\n" +
+                    "PORT=" + port + "\n" +
+                    "TRACE_SECONDS=" + NATIVE_TRACE_SECONDS + "\n" +
+                    "TRACE_COMMAND=" + quote(traceCommand) + "\n" +
+                    readResource(NATIVE_CONFIG_DIR + "/" + NATIVE_TRACE_SCRIPT);
+            Files.write(dockerDir.resolve(NATIVE_TRACE_SCRIPT), script.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder content = new StringBuilder("# Auto Generated Dockerfile\n");
+            content.append("FROM ").append(NATIVE_BUILDER_IMAGE).append(" AS native-build\n");
+            content.append("WORKDIR ").append(BALLERINA_HOME).append("\n");
+            for (String line : lines) {
+                String trimmedLine = line.trim();
+                if (trimmedLine.startsWith("COPY ") && !trimmedLine.startsWith("COPY --from")) {
+                    content.append(trimmedLine).append("\n");
+                }
+            }
+            content.append("COPY ").append(NATIVE_CONFIG_DIR).append("/ ").append(configPath).append("/\n");
+            content.append("COPY ").append(NATIVE_TRACE_SCRIPT).append(" ").append(scriptPath).append("\n");
+            content.append("RUN sh ").append(scriptPath).append("\n");
+            content.append("RUN native-image ").append(NATIVE_IMAGE_OPTIONS).append(" -H:ConfigurationFileDirectories=")
+                    .append(configPath).append(" ")
+                    .append(buildArgs.stream().map(this::quote).collect(Collectors.joining(" ")))
+                    .append(" ").append(NATIVE_EXECUTABLE).append("\n\n");
+
+            String executable = BALLERINA_HOME + "/" + NATIVE_EXECUTABLE;
+            String baseImage = OPENJDK_8_JRE_ALPINE_BASE_IMAGE.equals(serviceModel.getBaseImage()) ?
+                    NATIVE_BASE_IMAGE : serviceModel.getBaseImage();
+            content.append("FROM ").append(baseImage).append("\n");
+            content.append("WORKDIR ").append(BALLERINA_HOME).append("\n");
+            content.append("COPY --from=native-build ").append(executable).append(" ").append(executable).append("\n");
+            if (null != dockerModel.getCopyFiles()) {
+                for (CopyFileModel copyFile : dockerModel.getCopyFiles()) {
+                    content.append("COPY --from=native-build ").append(copyFile.getTarget()).append(" ")
+                            .append(copyFile.getTarget()).append("\n");
+                }
+            }
+            if (null != dockerModel.getPorts() && !dockerModel.getPorts().isEmpty()) {
+                content.append("EXPOSE ").append(dockerModel.getPorts().stream().map(String::valueOf)
+                        .collect(Collectors.joining(" "))).append("\n");
+            }
+            List<String> cmd = new ArrayList<>();
+            cmd.add(executable);
+            cmd.addAll(programArgs);
+            content.append("CMD [").append(cmd.stream().map(arg -> "\"" + arg.replace("\"", "\\\"") + "\"")
+                    .collect(Collectors.joining(", "))).append("]\n");
+            Files.write(dockerfile, content.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new KnativePluginException("error while writing the native build Dockerfile: " + dockerfile, e);
+        }
+    }
+
+    /**
+     * Get the arguments of the last CMD of the generated Dockerfile in shell or exec form.
+     *
+     * @param lines Dockerfile lines
+     * @return Command arguments or an empty list if the Dockerfile has no CMD
+     */
+    private List<String> getCommand(List<String> lines) {
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            String line = lines.get(i).trim();
+            if (!line.startsWith("CMD ")) {
+                continue;
+            }
+            String command = line.substring(4).trim();
+            if (command.startsWith("[") && command.endsWith("]")) {
+                command = command.substring(1, command.length() - 1).replace("\",", "\" ");
+            }
+            List<String> args = new ArrayList<>();
+            Matcher matcher = COMMAND_ARG.matcher(command);
+            while (matcher.find()) {
+                args.add(null != matcher.group(1) ? matcher.group(1) :
+                        null != matcher.group(2) ? matcher.group(2) : matcher.group(3));
+            }
+            return args;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Get the AppCDS configuration if the base image can create a dynamic archive. Dynamic archives need JDK 13 or
+     * later, so the image is built without the training stage when the base image is known to run an older JDK.
+     *
+     * @param serviceModel Service model
+     * @param dockerModel  Docker model
+     * @return AppCDS model or null if the training stage is not added
+     */
+    private AppCdsModel getAppCdsModel(ServiceModel serviceModel, DockerModel dockerModel) {
+        AppCdsModel appCdsModel = serviceModel.getAppCdsModel();
+        if (null == appCdsModel) {
+            return null;
+        }
+        int javaVersion = getJavaVersion(dockerModel.getBaseImage());
+        if (javaVersion != -1 && javaVersion < APPCDS_MIN_JAVA_VERSION) {
+            printWarning("@knative:Service{} appCds is skipped as the base image " + dockerModel.getBaseImage() +
+                    " runs java " + javaVersion + ". use a base image with java " + APPCDS_MIN_JAVA_VERSION +
+                    " or later.");
+            return null;
+        }
+        return appCdsModel;
+    }
+
+    /**
+     * Get the java version of a base image from its name.
+     *
+     * @param baseImage Base image name
+     * @return Java version or -1 if it cannot be derived from the name
+     */
+    private int getJavaVersion(String baseImage) {
+        if (isBlank(baseImage)) {
+            return -1;
+        }
+        String image = baseImage.substring(baseImage.lastIndexOf('/') + 1);
+        String repository = image.contains(":") ? image.substring(0, image.indexOf(':')) : image;
+        String tag = image.contains(":") ? image.substring(image.indexOf(':') + 1) : "";
+        Matcher nameMatcher = JAVA_VERSION_IN_NAME.matcher(repository);
+        if (nameMatcher.find()) {
+            return Integer.parseInt(nameMatcher.group(1));
+        }
+        Matcher tagMatcher = LEADING_NUMBER.matcher(tag);
+        if (JAVA_IMAGE_NAME.matcher(repository).find() && tagMatcher.find()) {
+            return Integer.parseInt(tagMatcher.group(1));
+        }
+        return -1;
+    }
+
+    /**
+     * Add the AppCDS training stage to the generated Dockerfile. The training script runs the service and dumps the
+     * loaded classes to an archive. The command of the image is started by a launcher that adds the archive options
+     * to JAVA_TOOL_OPTIONS only when the archive was created and skips the options that are already set, so the
+     * container also starts when the training run created no archive. The options are ignored by JVMs that do not
+     * support them.
+     *
+     * @param dockerDir   Docker artifact directory
+     * @param dockerModel Docker model
+     * @param appCdsModel AppCDS model
+     * @throws KnativePluginException If the Dockerfile cannot be read or written.
+     */
+    private void addAppCdsStage(Path dockerDir, DockerModel dockerModel, AppCdsModel appCdsModel)
+            throws KnativePluginException {
+        Path dockerfile = dockerDir.resolve("Dockerfile");
+        try {
+            List<String> lines = Files.readAllLines(dockerfile, StandardCharsets.UTF_8);
+            String trainingCommand = appCdsModel.getTrainingCommand();
+            if (isBlank(trainingCommand)) {
+                trainingCommand = getShellCommand(lines);
+            }
+            int port = null == dockerModel.getPorts() || dockerModel.getPorts().isEmpty() ? -1 :
+                    dockerModel.getPorts().iterator().next();
+            String archiveVariables = "ARCHIVE=" + quote(APPCDS_ARCHIVE) + "\n" +
+                    "ARCHIVE_OPTIONS=" + quote(APPCDS_JVM_OPTIONS) + "\n";
+            String script = "#!/bin/sh\n" +
+                    archiveVariables +
+                    "PORT=" + port + "\n" +
+                    "TRAINING_SECONDS=" + appCdsModel.getTrainingSeconds() + "\n" +
+                    "TRAINING_COMMAND=" + quote(trainingCommand) + "\n" +
+                    "WARM_UP_COMMAND=" + quote(isBlank(appCdsModel.getWarmUpCommand()) ? "" :
+                    appCdsModel.getWarmUpCommand()) + "\n" +
+                    readResource("appcds/" + APPCDS_TRAINING_SCRIPT);
+            Files.write(dockerDir.resolve(APPCDS_TRAINING_SCRIPT), script.getBytes(StandardCharsets.UTF_8));
+            String launcher = "#!/bin/sh\n" + archiveVariables + readResource("appcds/" + APPCDS_LAUNCHER_SCRIPT);
+            Files.write(dockerDir.resolve(APPCDS_LAUNCHER_SCRIPT), launcher.getBytes(StandardCharsets.UTF_8));
+            String scriptPath = BALLERINA_HOME + "/" + APPCDS_TRAINING_SCRIPT;
+            String launcherPath = BALLERINA_HOME + "/" + APPCDS_LAUNCHER_SCRIPT;
+            String stage = "\n# AppCDS training run\n" +
+                    "COPY " + APPCDS_TRAINING_SCRIPT + " " + APPCDS_LAUNCHER_SCRIPT + " " + BALLERINA_HOME + "/\n" +
+                    "RUN sh " + scriptPath + "\n" +
+                    getLauncherCommand(lines, launcherPath) + "\n";
+            Files.write(dockerfile, stage.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new KnativePluginException("error while adding the appCds stage to the Dockerfile: " + dockerfile,
+                    e);
+        }
+    }
+
+    /**
+     * Get the shell form CMD of the generated Dockerfile to use as the training command.
+     *
+     * @param lines Dockerfile lines
+     * @return Command
+     * @throws KnativePluginException If the Dockerfile has no shell form CMD.
+     */
+    private String getShellCommand(List<String> lines) throws KnativePluginException {
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            String line = lines.get(i).trim();
+            if (line.startsWith("CMD ") && !line.substring(4).trim().startsWith("[")) {
+                return line.substring(4).trim();
+            }
+        }
+        throw new KnativePluginException("@knative:Service{} appCds trainingCommand is required as the command of " +
+                "the generated Dockerfile cannot be used for training.");
+    }
+
+    /**
+     * Get the CMD that starts the command of the generated Dockerfile through the appCds launcher.
+     *
+     * @param lines        Dockerfile lines
+     * @param launcherPath Path of the launcher in the image
+     * @return CMD instruction
+     * @throws KnativePluginException If the Dockerfile has no CMD.
+     */
+    private String getLauncherCommand(List<String> lines, String launcherPath) throws KnativePluginException {
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            String line = lines.get(i).trim();
+            if (!line.startsWith("CMD ")) {
+                continue;
+            }
+            String command = line.substring(4).trim();
+            if (command.startsWith("[") && command.endsWith("]")) {
+                return "CMD [\"sh\", \"" + launcherPath + "\", " + command.substring(1);
+            }
+            return "CMD sh " + launcherPath + " " + command;
+        }
+        throw new KnativePluginException("@knative:Service{} appCds cannot be used as the generated Dockerfile has " +
+                "no command.");
+    }
+
+    private String readResource(String resource) throws IOException {
+        InputStream resourceStream = getClass().getClassLoader().getResourceAsStream(resource);
+        if (null == resourceStream) {
+            throw new IOException("unable to find resource: " + resource);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resourceStream,
+                StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.joining("\n")) + "\n";
+        }
+    }
+
+    private String quote(String value) {
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+
+    private DockerClient createDockerClient(DockerModel dockerModel) {
+        DefaultDockerClientConfig.Builder configBuilder = DefaultDockerClientConfig.createDefaultConfigBuilder();
+        if (!isBlank(dockerModel.getDockerHost())) {
+            configBuilder.withDockerHost(dockerModel.getDockerHost());
+        }
+        if (!isBlank(dockerModel.getDockerCertPath())) {
+            configBuilder.withDockerTlsVerify(true).withDockerCertPath(dockerModel.getDockerCertPath());
+        }
+        return DockerClientBuilder.getInstance(configBuilder.build()).build();
+    }
+
+    /**
+     * Build the image with the training stage.
+     *
+     * @param dockerClient Docker client
+     * @param dockerDir    Docker artifact directory
+     * @param imageName    Image name with tag
+     * @return Measured startup delta or null if it was not measured
+     * @throws KnativePluginException If the image cannot be built.
+     */
+    private String buildImage(DockerClient dockerClient, Path dockerDir, String imageName)
+            throws KnativePluginException {
+        final String[] startupDelta = new String[1];
+        try {
+            dockerClient.buildImageCmd(dockerDir.toFile())
+                    .withTags(Collections.singleton(imageName))
+                    .exec(new BuildImageResultCallback() {
+                        @Override
+                        public void onNext(BuildResponseItem item) {
+                            if (null != item.getStream()) {
+                                Matcher matcher = STARTUP_DELTA.matcher(item.getStream());
+                                if (matcher.find()) {
+                                    long without = Long.parseLong(matcher.group(1));
+                                    long with = Long.parseLong(matcher.group(2));
+                                    startupDelta[0] = "appcds startup " + without + "ms -> " + with + "ms (" +
+                                            (with - without) + "ms)";
+                                }
+                            }
+                            super.onNext(item);
+                        }
+                    })
+                    .awaitImageId();
+        } catch (RuntimeException e) {
+            throw new KnativePluginException("unable to build docker image " + imageName + ": " + e.getMessage(), e);
+        }
+        return startupDelta[0];
+    }
+
+    private void pushImage(DockerClient dockerClient, DockerModel dockerModel, String imageName)
+            throws KnativePluginException {
+        AuthConfig authConfig = new AuthConfig()
+                .withUsername(dockerModel.getUsername())
+                .withPassword(dockerModel.getPassword())
+                .withRegistryAddress(dockerModel.getRegistry());
+        try {
+            dockerClient.pushImageCmd(imageName)
+                    .withAuthConfig(authConfig)
+                    .exec(new PushImageResultCallback())
+                    .awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KnativePluginException("interrupted while pushing docker image " + imageName, e);
+        } catch (RuntimeException e) {
+            throw new KnativePluginException("unable to push docker image " + imageName + ": " + e.getMessage(), e);
         }
     }
 }
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.handlers;
+
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.ContainerBuilder;
+import io.fabric8.kubernetes.api.model.apps.DaemonSet;
+import io.fabric8.kubernetes.api.model.apps.DaemonSetBuilder;
+import io.fabric8.kubernetes.client.internal.SerializationUtils;
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.models.KnativeDataHolder;
+import org.ballerinax.knative.models.ServiceModel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.ballerinax.knative.KnativeConstants.DEPENDENCY_WAIT_NONE;
+import static org.ballerinax.knative.KnativeConstants.DOCKER_LATEST_TAG;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_FINGERPRINT_ANNOTATION;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_PRE_PULL_FILE_POSTFIX;
+import static org.ballerinax.knative.KnativeConstants.INIT_CONTAINER_IMAGE;
+import static org.ballerinax.knative.KnativeConstants.KUBERNETES_SELECTOR_KEY;
+import static org.ballerinax.knative.KnativeConstants.PAUSE_IMAGE;
+import static org.ballerinax.knative.KnativeConstants.PRE_PULL_POSTFIX;
+import static org.ballerinax.knative.utils.KnativeUtils.getDeploymentImageName;
+import static org.ballerinax.knative.utils.KnativeUtils.populateImagePullSecrets;
+import static org.ballerinax.knative.utils.KnativeUtils.populateNodeAffinity;
+import static org.ballerinax.knative.utils.KnativeUtils.populatePodTolerations;
+
+/**
+ * Generates a DaemonSet that pre-pulls the images of the knative service on the nodes it can be scheduled on.
+ */
+public class KnativeImagePrePullHandler extends KnativeAbstractArtifactHandler {
+
+    private static final String TOOLS_VOLUME = "pre-pull-tools";
+    private static final String TOOLS_PATH = "/pre-pull";
+    private static final String TOOLS_BINARY = TOOLS_PATH + "/busybox";
+
+    public KnativeImagePrePullHandler(KnativeDataHolder knativeDataHolder) {
+        super(knativeDataHolder);
+    }
+
+    private void generate(ServiceModel serviceModel) throws KnativePluginException {
+        Set<String> images = new LinkedHashSet<>();
+        images.add(getDeploymentImageName(serviceModel));
+        if (!serviceModel.getDependsOn().isEmpty() && !DEPENDENCY_WAIT_NONE.equals(serviceModel.getDependencyWait())) {
+            images.add(INIT_CONTAINER_IMAGE);
+        }
+        // each image is pulled by an init container that exits right away. the images may not have a shell, such as
+        // the distroless image of the native build mode, so the first init container copies the static busybox
+        // binary to a shared volume and the others run it from there. the pause container keeps the pod alive.
+        List<Container> initContainers = new ArrayList<>();
+        initContainers.add(new ContainerBuilder()
+                .withName("pre-pull-0")
+                .withImage(INIT_CONTAINER_IMAGE)
+                .withImagePullPolicy(getImagePullPolicy(INIT_CONTAINER_IMAGE))
+                .withCommand(Arrays.asList("cp", "/bin/busybox", TOOLS_BINARY))
+                .addNewVolumeMount()
+                .withName(TOOLS_VOLUME)
+                .withMountPath(TOOLS_PATH)
+                .endVolumeMount()
+                .build());
+        int index = 1;
+        for (String image : images) {
+            if (INIT_CONTAINER_IMAGE.equals(image)) {
+                continue;
+            }
+            initContainers.add(new ContainerBuilder()
+                    .withName("pre-pull-" + index++)
+                    .withImage(image)
+                    .withImagePullPolicy(getImagePullPolicy(image))
+                    .withCommand(Arrays.asList(TOOLS_BINARY, "true"))
+                    .addNewVolumeMount()
+                    .withName(TOOLS_VOLUME)
+                    .withMountPath(TOOLS_PATH)
+                    .withReadOnly(true)
+                    .endVolumeMount()
+                    .build());
+        }
+        String name = serviceModel.getName() + PRE_PULL_POSTFIX;
+        DaemonSet daemonSet = new DaemonSetBuilder()
+                .withNewMetadata()
+                .withName(name)
+                .withNamespace(knativeDataHolder.getNamespace())
+                .addToLabels(KUBERNETES_SELECTOR_KEY, name)
+                .endMetadata()
+                .withNewSpec()
+                .withNewSelector()
+                .addToMatchLabels(KUBERNETES_SELECTOR_KEY, name)
+                .endSelector()
+                .withNewTemplate()
+                .withNewMetadata()
+                .addToLabels(KUBERNETES_SELECTOR_KEY, name)
+                .addToAnnotations(IMAGE_FINGERPRINT_ANNOTATION, getImageFingerprint(images))
+                .endMetadata()
+                .withNewSpec()
+                .withInitContainers(initContainers)
+                .addNewContainer()
+                .withName("pause")
+                .withImage(PAUSE_IMAGE)
+                .endContainer()
+                .addNewVolume()
+                .withName(TOOLS_VOLUME)
+                .withNewEmptyDir()
+                .endEmptyDir()
+                .endVolume()
+                .withTolerations(populatePodTolerations(serviceModel.getPodTolerations()))
+                .withAffinity(populateNodeAffinity(serviceModel.getNodeAffinity()))
+                .withImagePullSecrets(populateImagePullSecrets(serviceModel))
+                .endSpec()
+                .endTemplate()
+                .endSpec()
+                .build();
+        try {
+            String daemonSetContent = SerializationUtils.dumpWithoutRuntimeStateAsYaml(daemonSet);
+            knativeDataHolder.getArtifactSink().add(IMAGE_PRE_PULL_FILE_POSTFIX, daemonSetContent);
+        } catch (IOException e) {
+            String errorMessage = "error while generating yaml file for image pre-pull daemon set: " + name;
+            throw new KnativePluginException(errorMessage, e);
+        }
+    }
+
+    private String getImagePullPolicy(String image) {
+        String imageName = image.substring(image.lastIndexOf('/') + 1);
+        boolean mutableTag = !imageName.contains(":") || imageName.endsWith(DOCKER_LATEST_TAG);
+        return mutableTag ? "Always" : "IfNotPresent";
+    }
+
+    /**
+     * Get a fingerprint of the images and the executable jar. The fingerprint is set on the pod template, so the
+     * DaemonSet rolls out and pulls the images again whenever a build changes the image tag or its content.
+     *
+     * @param images Images to pull
+     * @return Hex encoded sha-256 fingerprint
+     * @throws KnativePluginException If the executable jar cannot be read.
+     */
+    private String getImageFingerprint(Set<String> images) throws KnativePluginException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String image : images) {
+                digest.update(image.getBytes(StandardCharsets.UTF_8));
+            }
+            Path executableJar = knativeDataHolder.getUberJarPath();
+            if (null != executableJar && Files.exists(executableJar)) {
+                byte[] buffer = new byte[8192];
+                try (InputStream inputStream = Files.newInputStream(executableJar)) {
+                    int read;
+                    while ((read = inputStream.read(buffer)) != -1) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            }
+            StringBuilder fingerprint = new StringBuilder();
+            for (byte b : digest.digest()) {
+                fingerprint.append(String.format("%02x", b));
+            }
+            return fingerprint.toString();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new KnativePluginException("error while generating the image fingerprint", e);
+        }
+    }
+
+    @Override
+    public void createArtifacts() throws KnativePluginException {
+        ServiceModel serviceModel = knativeDataHolder.getServiceModel();
+        if (!serviceModel.isPrePullImage()) {
+            return;
+        }
+        generate(serviceModel);
+        OUT.println();
+        OUT.print("\t@knative:ImagePrePull \t\t - complete 1/1");
+    }
+
+    @Override
+    public Set<Model> getReads() {
+        return EnumSet.of(Model.SERVICE, Model.IMAGE);
+    }
+
+    @Override
+    public Set<Model> getWrites() {
+        return EnumSet.noneOf(Model.class);
+    }
+}
@@ -24,20 +24,27 @@ import io.fabric8.kubernetes.api.model.ResourceQuota;
 import io.fabric8.kubernetes.api.model.ResourceQuotaBuilder;
 import io.fabric8.kubernetes.client.internal.SerializationUtils;
 import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.models.KnativeDataHolder;
 import org.ballerinax.knative.models.ResourceQuotaModel;
-import org.ballerinax.knative.utils.KnativeUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import static org.ballerinax.knative.KnativeConstants.RESOURCE_QUOTA_FILE_POSTFIX;
+
 /**
  * Generates kubernetes resource quotas.
  */
 public class KnativeResourceQuotaHandler extends KnativeAbstractArtifactHandler {
 
+    public KnativeResourceQuotaHandler(KnativeDataHolder knativeDataHolder) {
+        super(knativeDataHolder);
+    }
+
     private void generate(ResourceQuotaModel resourceQuotaModel) throws KnativePluginException {
         ResourceQuota resourceQuota = new ResourceQuotaBuilder()
                 .withNewMetadata()
@@ -52,7 +59,7 @@ public class KnativeResourceQuotaHandler extends KnativeAbstractArtifactHandler
                 .build();
         try {
             String resourceQuotaContent = SerializationUtils.dumpWithoutRuntimeStateAsYaml(resourceQuota);
-            KnativeUtils.writeToFile(resourceQuotaContent);
+            knativeDataHolder.getArtifactSink().add(RESOURCE_QUOTA_FILE_POSTFIX, resourceQuotaContent);
         } catch (IOException e) {
             String errorMessage = "error while generating yaml file for resource quotas: " +
                     resourceQuotaModel.getName();
@@ -88,4 +95,14 @@ public class KnativeResourceQuotaHandler extends KnativeAbstractArtifactHandler
             OUT.print("\t@kubernetes:ResourceQuota \t\t - complete " + count + "/" + resourceQuotas.size() + "\r");
         }
     }
+
+    @Override
+    public Set<Model> getReads() {
+        return EnumSet.of(Model.RESOURCE_QUOTAS);
+    }
+
+    @Override
+    public Set<Model> getWrites() {
+        return EnumSet.noneOf(Model.class);
+    }
 }
@@ -22,17 +22,25 @@ import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.SecretBuilder;
 import io.fabric8.kubernetes.client.internal.SerializationUtils;
 import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.models.KnativeDataHolder;
 import org.ballerinax.knative.models.SecretModel;
-import org.ballerinax.knative.utils.KnativeUtils;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.ballerinax.knative.KnativeConstants.SECRET_FILE_POSTFIX;
 
 /**
  * Generates knative secret.
  */
 public class KnativeSecretHandler extends KnativeAbstractArtifactHandler {
 
+    public KnativeSecretHandler(KnativeDataHolder knativeDataHolder) {
+        super(knativeDataHolder);
+    }
+
     private void generate(SecretModel secretModel) throws KnativePluginException {
         Secret secret = new SecretBuilder()
                 .withNewMetadata()
@@ -43,7 +51,7 @@ public class KnativeSecretHandler extends KnativeAbstractArtifactHandler {
                 .build();
         try {
             String secretContent = SerializationUtils.dumpWithoutRuntimeStateAsYaml(secret);
-            KnativeUtils.writeToFile(secretContent);
+            knativeDataHolder.getArtifactSink().add(SECRET_FILE_POSTFIX, secretContent);
         } catch (IOException e) {
             String errorMessage = "error while generating yaml file for secret: " + secretModel.getName();
             throw new KnativePluginException(errorMessage, e);
@@ -64,4 +72,14 @@ public class KnativeSecretHandler extends KnativeAbstractArtifactHandler {
             OUT.print("\t@kubernetes:Secret \t\t\t - complete " + count + "/" + secretModels.size() + "\r");
         }
     }
+
+    @Override
+    public Set<Model> getReads() {
+        return EnumSet.of(Model.SECRETS);
+    }
+
+    @Override
+    public Set<Model> getWrites() {
+        return EnumSet.noneOf(Model.class);
+    }
 }
@@ -18,52 +18,150 @@
 
 package org.ballerinax.knative.handlers;
 
+import io.fabric8.knative.serving.v1.RevisionSpec;
 import io.fabric8.knative.serving.v1.Service;
 import io.fabric8.knative.serving.v1.ServiceBuilder;
+import io.fabric8.knative.serving.v1.TrafficTarget;
+import io.fabric8.knative.serving.v1.TrafficTargetBuilder;
 import io.fabric8.kubernetes.api.model.Container;
 import io.fabric8.kubernetes.api.model.ContainerBuilder;
 import io.fabric8.kubernetes.api.model.ContainerPort;
 import io.fabric8.kubernetes.api.model.ContainerPortBuilder;
+import io.fabric8.kubernetes.api.model.HTTPGetAction;
+import io.fabric8.kubernetes.api.model.HTTPGetActionBuilder;
+import io.fabric8.kubernetes.api.model.HTTPHeader;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
 import io.fabric8.kubernetes.api.model.Probe;
 import io.fabric8.kubernetes.api.model.ProbeBuilder;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.ResourceRequirements;
+import io.fabric8.kubernetes.api.model.ResourceRequirementsBuilder;
 import io.fabric8.kubernetes.api.model.TCPSocketAction;
 import io.fabric8.kubernetes.api.model.TCPSocketActionBuilder;
+import io.fabric8.kubernetes.api.model.TopologySpreadConstraint;
+import io.fabric8.kubernetes.api.model.TopologySpreadConstraintBuilder;
 import io.fabric8.kubernetes.api.model.Volume;
 import io.fabric8.kubernetes.api.model.VolumeBuilder;
 import io.fabric8.kubernetes.api.model.VolumeMount;
 import io.fabric8.kubernetes.api.model.VolumeMountBuilder;
 import io.fabric8.kubernetes.client.internal.SerializationUtils;
-import org.ballerinax.docker.generator.exceptions.DockerGenException;
-import org.ballerinax.docker.generator.models.DockerModel;
 import org.ballerinax.knative.KnativeConstants;
 import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.models.ColdStartModel;
 import org.ballerinax.knative.models.ConfigMapModel;
+import org.ballerinax.knative.models.EnvVarValueModel;
 import org.ballerinax.knative.models.KnativeContext;
+import org.ballerinax.knative.models.KnativeDataHolder;
+import org.ballerinax.knative.models.PodAutoscalerModel;
 import org.ballerinax.knative.models.ProbeModel;
+import org.ballerinax.knative.models.QueueProxyModel;
+import org.ballerinax.knative.models.ResourceModel;
 import org.ballerinax.knative.models.SecretModel;
 import org.ballerinax.knative.models.ServiceModel;
-import org.ballerinax.knative.utils.KnativeUtils;
+import org.ballerinax.knative.models.TopologySpreadConstraintModel;
+import org.ballerinax.knative.models.TrafficTargetModel;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
-import static org.ballerinax.docker.generator.DockerGenConstants.REGISTRY_SEPARATOR;
-import static org.ballerinax.docker.generator.utils.DockerGenUtils.extractJarName;
-import static org.ballerinax.knative.KnativeConstants.EXECUTABLE_JAR;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_ACTIVATION_SCALE;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_CLASS;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_INITIAL_SCALE;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_MAX_SCALE;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_METRIC;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_MIN_SCALE;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_PANIC_THRESHOLD;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_PANIC_WINDOW;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_SCALE_DOWN_DELAY;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_SCALE_TO_ZERO_RETENTION;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_TARGET;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_TARGET_BURST_CAPACITY;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_TARGET_UTILIZATION;
+import static org.ballerinax.knative.KnativeConstants.AUTOSCALING_WINDOW;
+import static org.ballerinax.knative.KnativeConstants.BUILD_MODE_NATIVE;
+import static org.ballerinax.knative.KnativeConstants.DEPENDENCY_WAIT_NONE;
+import static org.ballerinax.knative.KnativeConstants.DEPENDENCY_WAIT_PARALLEL;
+import static org.ballerinax.knative.KnativeConstants.HPA_CLASS;
+import static org.ballerinax.knative.KnativeConstants.HPA_METRIC_CPU;
+import static org.ballerinax.knative.KnativeConstants.HPA_METRIC_MEMORY;
+import static org.ballerinax.knative.KnativeConstants.IDLE_TIMEOUT_SECONDS;
+import static org.ballerinax.knative.KnativeConstants.INIT_CONTAINER_IMAGE;
+import static org.ballerinax.knative.KnativeConstants.JVM_BASE_MEMORY_MI;
+import static org.ballerinax.knative.KnativeConstants.JVM_MAX_RAM_PERCENTAGE;
+import static org.ballerinax.knative.KnativeConstants.JVM_MEMORY_PER_DEPENDENCY_MI;
+import static org.ballerinax.knative.KnativeConstants.JVM_MEMORY_PER_JAR_MB_MI;
+import static org.ballerinax.knative.KnativeConstants.JVM_MEMORY_STEP_MI;
+import static org.ballerinax.knative.KnativeConstants.JVM_MIN_CLASS_SPACE_MI;
+import static org.ballerinax.knative.KnativeConstants.JVM_MIN_MEMORY_MI;
+import static org.ballerinax.knative.KnativeConstants.JVM_MIN_RAM_PERCENTAGE;
+import static org.ballerinax.knative.KnativeConstants.JVM_OPTIONS_ENV;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE_SERVICE_LABEL;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE_SVC_FILE_POSTFIX;
+import static org.ballerinax.knative.KnativeConstants.KPA_METRIC_CONCURRENCY;
+import static org.ballerinax.knative.KnativeConstants.KPA_METRIC_RPS;
+import static org.ballerinax.knative.KnativeConstants.NATIVE_BASE_MEMORY_MI;
+import static org.ballerinax.knative.KnativeConstants.NATIVE_MEMORY_PER_JAR_MB_MI;
+import static org.ballerinax.knative.KnativeConstants.NATIVE_MEMORY_STEP_MI;
+import static org.ballerinax.knative.KnativeConstants.NATIVE_MIN_MEMORY_MI;
+import static org.ballerinax.knative.KnativeConstants.PROBE_TYPE_GRPC;
+import static org.ballerinax.knative.KnativeConstants.PROBE_TYPE_HTTP;
+import static org.ballerinax.knative.KnativeConstants.PROTOCOL_H2C;
+import static org.ballerinax.knative.KnativeConstants.QUEUE_SIDECAR_CPU_LIMIT;
+import static org.ballerinax.knative.KnativeConstants.QUEUE_SIDECAR_CPU_REQUEST;
+import static org.ballerinax.knative.KnativeConstants.QUEUE_SIDECAR_MAX_SHARE_PERCENTAGE;
+import static org.ballerinax.knative.KnativeConstants.QUEUE_SIDECAR_MEMORY_LIMIT;
+import static org.ballerinax.knative.KnativeConstants.QUEUE_SIDECAR_MEMORY_REQUEST;
+import static org.ballerinax.knative.KnativeConstants.QUEUE_SIDECAR_RESOURCE_PERCENTAGE;
+import static org.ballerinax.knative.KnativeConstants.RESOURCE_CPU;
+import static org.ballerinax.knative.KnativeConstants.RESOURCE_MEMORY;
+import static org.ballerinax.knative.KnativeConstants.RESOURCE_POLICY_NO_CPU_LIMIT;
+import static org.ballerinax.knative.KnativeConstants.RESPONSE_START_TIMEOUT_SECONDS;
+import static org.ballerinax.knative.KnativeConstants.ROLLOUT_DURATION;
+import static org.ballerinax.knative.KnativeConstants.SERVICE_URL_ENV_POSTFIX;
+import static org.ballerinax.knative.KnativeConstants.SPREAD_NODE;
+import static org.ballerinax.knative.KnativeConstants.SPREAD_ZONE;
+import static org.ballerinax.knative.KnativeConstants.SPREAD_ZONE_AND_NODE;
+import static org.ballerinax.knative.KnativeConstants.TOPOLOGY_HOSTNAME_KEY;
+import static org.ballerinax.knative.KnativeConstants.TOPOLOGY_ZONE_KEY;
+import static org.ballerinax.knative.KnativeConstants.VISIBILITY_CLUSTER_LOCAL;
+import static org.ballerinax.knative.KnativeConstants.VISIBILITY_LABEL;
 import static org.ballerinax.knative.KnativeConstants.VOLUME_DEFINE;
+import static org.ballerinax.knative.utils.KnativeUtils.getDeploymentImageName;
+import static org.ballerinax.knative.utils.KnativeUtils.getDurationInSeconds;
+import static org.ballerinax.knative.utils.KnativeUtils.isBlank;
 import static org.ballerinax.knative.utils.KnativeUtils.populateEnvVar;
+import static org.ballerinax.knative.utils.KnativeUtils.populateImagePullSecrets;
+import static org.ballerinax.knative.utils.KnativeUtils.populateNodeAffinity;
+import static org.ballerinax.knative.utils.KnativeUtils.populatePodTolerations;
+import static org.ballerinax.knative.utils.KnativeUtils.printWarning;
 
 /**
  * Generates knative service from annotations.
  */
 public class KnativeServiceHandler extends KnativeAbstractArtifactHandler {
 
-    private List<ContainerPort> populatePorts(Set<Integer> ports) {
+    public KnativeServiceHandler(KnativeDataHolder knativeDataHolder) {
+        super(knativeDataHolder);
+    }
+
+    private List<ContainerPort> populatePorts(Set<Integer> ports, String portName) {
         List<ContainerPort> containerPorts = new ArrayList<>();
         for (int port : ports) {
             ContainerPort containerPort = new ContainerPortBuilder()
+                    .withName(portName)
                     .withContainerPort(port)
                     .withProtocol(KnativeConstants.KUBERNETES_SVC_PROTOCOL)
                     .build();
@@ -93,8 +191,35 @@ public class KnativeServiceHandler extends KnativeAbstractArtifactHandler {
         return volumeMounts;
     }
 
+    /**
+     * Generate the init containers that wait for the dependent services. No init container is added by default, as
+     * requests to a dependent knative service are held by its activator until it is ready, so the service only has
+     * to retry failed calls. "parallel" waits for all dependencies in a single container with a short backoff.
+     * "sequential" adds one container per dependency that polls every 2 seconds.
+     *
+     * @param serviceModel Service model
+     * @return List of init containers
+     * @throws KnativePluginException If a dependent service is not found.
+     */
     private List<Container> generateInitContainer(ServiceModel serviceModel) throws KnativePluginException {
         List<Container> initContainers = new ArrayList<>();
+        if (serviceModel.getDependsOn().isEmpty() || DEPENDENCY_WAIT_NONE.equals(serviceModel.getDependencyWait())) {
+            return initContainers;
+        }
+        if (DEPENDENCY_WAIT_PARALLEL.equals(serviceModel.getDependencyWait())) {
+            StringBuilder command = new StringBuilder();
+            for (String dependsOn : serviceModel.getDependsOn()) {
+                String host = KnativeContext.getInstance().getClusterLocalHost(dependsOn);
+                command.append("(until nslookup ").append(host).append(" > /dev/null 2>&1; do sleep 0.2; done) & ");
+            }
+            command.append("wait");
+            initContainers.add(new ContainerBuilder()
+                    .withName("wait-for-dependencies")
+                    .withImage(INIT_CONTAINER_IMAGE)
+                    .withCommand(Arrays.asList("sh", "-c", command.toString()))
+                    .build());
+            return initContainers;
+        }
         for (String dependsOn : serviceModel.getDependsOn()) {
             String serviceName = KnativeContext.getInstance().getServiceName(dependsOn);
             List<String> commands = new ArrayList<>();
@@ -103,30 +228,362 @@ public class KnativeServiceHandler extends KnativeAbstractArtifactHandler {
             commands.add("until nslookup " + serviceName + "; do echo waiting for " + serviceName + "; sleep 2; done;");
             initContainers.add(new ContainerBuilder()
                     .withName("wait-for-" + serviceName)
-                    .withImage("busybox")
+                    .withImage(INIT_CONTAINER_IMAGE)
                     .withCommand(commands)
                     .build());
         }
         return initContainers;
     }
 
-    private Container generateContainer(ServiceModel serviceModel, List<ContainerPort> containerPorts) {
-        String dockerRegistry = serviceModel.getRegistry();
-        String deploymentImageName = serviceModel.getImage();
-        if (null != dockerRegistry && !"".equals(dockerRegistry)) {
-            deploymentImageName = dockerRegistry + REGISTRY_SEPARATOR + deploymentImageName;
-        }
+    private Container generateContainer(ServiceModel serviceModel, List<ContainerPort> containerPorts)
+            throws KnativePluginException {
         return new ContainerBuilder()
                 .withName(serviceModel.getName())
-                .withImage(deploymentImageName)
+                .withImage(getDeploymentImageName(serviceModel))
                 .withPorts(containerPorts)
                 .withEnv(populateEnvVar(serviceModel.getEnv()))
                 .withVolumeMounts(populateVolumeMounts(serviceModel))
-                .withLivenessProbe(generateProbe(serviceModel.getLivenessProbe()))
-                .withReadinessProbe(generateProbe(serviceModel.getReadinessProbe()))
+                .withLivenessProbe(generateProbe(serviceModel.getLivenessProbe(), "livenessProbe"))
+                .withReadinessProbe(generateProbe(serviceModel.getReadinessProbe(), "readinessProbe"))
+                .withStartupProbe(generateProbe(serviceModel.getStartupProbe(), "startupProbe"))
+                .withResources(generateResources(serviceModel.getResourceModel()))
                 .build();
     }
 
+    /**
+     * Generate the resource requirements of the container.
+     *
+     * @param resourceModel Resource model
+     * @return Resource requirements or null if no resources are set
+     * @throws KnativePluginException If a quantity is invalid or a limit is lower than its request.
+     */
+    private ResourceRequirements generateResources(ResourceModel resourceModel) throws KnativePluginException {
+        if (null == resourceModel) {
+            return null;
+        }
+        Map<String, Quantity> requests = new LinkedHashMap<>();
+        Map<String, Quantity> limits = new LinkedHashMap<>();
+        putQuantity(requests, RESOURCE_CPU, resourceModel.getCpuRequest());
+        putQuantity(requests, RESOURCE_MEMORY, resourceModel.getMemoryRequest());
+        if (!RESOURCE_POLICY_NO_CPU_LIMIT.equals(resourceModel.getPolicy())) {
+            putQuantity(limits, RESOURCE_CPU, resourceModel.getCpuLimit());
+        } else if (!isBlank(resourceModel.getCpuLimit())) {
+            printWarning("@knative:Service{} cpu limit (" + resourceModel.getCpuLimit() + ") is ignored as the " +
+                    "resource policy is \"" + RESOURCE_POLICY_NO_CPU_LIMIT + "\".");
+        }
+        putQuantity(limits, RESOURCE_MEMORY, resourceModel.getMemoryLimit());
+
+        for (Map.Entry<String, Quantity> limit : limits.entrySet()) {
+            Quantity request = requests.get(limit.getKey());
+            if (null != request && Quantity.getAmountInBytes(limit.getValue())
+                    .compareTo(Quantity.getAmountInBytes(request)) < 0) {
+                throw new KnativePluginException("@knative:Service{} " + limit.getKey() + " limit (" +
+                        limit.getValue().getAmount() + limit.getValue().getFormat() + ") cannot be lower than the " +
+                        "request (" + request.getAmount() + request.getFormat() + ")");
+            }
+        }
+        if (requests.isEmpty() && limits.isEmpty()) {
+            return null;
+        }
+        return new ResourceRequirementsBuilder()
+                .withRequests(requests.isEmpty() ? null : requests)
+                .withLimits(limits.isEmpty() ? null : limits)
+                .build();
+    }
+
+    private void putQuantity(Map<String, Quantity> quantities, String resource, String value)
+            throws KnativePluginException {
+        if (isBlank(value)) {
+            return;
+        }
+        quantities.put(resource, new Quantity(value));
+        getQuantityAmount(resource, value);
+    }
+
+    /**
+     * Get the amount of a resource quantity.
+     *
+     * @param resource Name of the resource used in error messages
+     * @param value    Quantity. (e.g 500m, 256Mi)
+     * @return Amount of the quantity or null if the value is not set
+     * @throws KnativePluginException If the quantity is invalid or not greater than 0.
+     */
+    private BigDecimal getQuantityAmount(String resource, String value) throws KnativePluginException {
+        if (isBlank(value)) {
+            return null;
+        }
+        BigDecimal amount;
+        try {
+            amount = Quantity.getAmountInBytes(new Quantity(value));
+        } catch (ArithmeticException | IllegalArgumentException e) {
+            throw new KnativePluginException("@knative:Service{} invalid " + resource + " quantity: " + value, e);
+        }
+        if (amount.signum() <= 0) {
+            throw new KnativePluginException("@knative:Service{} " + resource + " should be greater than 0: " + value);
+        }
+        return amount;
+    }
+
+    /**
+     * Set the options of the jvm profile as the JAVA_TOOL_OPTIONS environment variable, which the JVM reads on start
+     * up regardless of the image command. The heap percentage and compressed class space are derived from the
+     * container memory and the processor count and collector from the container cpu.
+     *
+     * @param serviceModel Service model
+     * @throws KnativePluginException If a resource quantity is invalid.
+     */
+    private void addJvmOptions(ServiceModel serviceModel) throws KnativePluginException {
+        KnativeConstants.JvmProfile profile = KnativeConstants.JvmProfile.fromValue(serviceModel.getJvmProfile());
+        if (null == profile) {
+            return;
+        }
+        if (serviceModel.getEnv().containsKey(JVM_OPTIONS_ENV)) {
+            printWarning("@knative:Service{} jvm profile \"" + profile.getValue() + "\" is ignored as the " +
+                    JVM_OPTIONS_ENV + " environment variable is set.");
+            return;
+        }
+        ResourceModel resourceModel = serviceModel.getResourceModel();
+        BigDecimal memory = null;
+        BigDecimal cpu = null;
+        if (null != resourceModel) {
+            memory = getQuantityAmount(RESOURCE_MEMORY, isBlank(resourceModel.getMemoryLimit()) ?
+                    resourceModel.getMemoryRequest() : resourceModel.getMemoryLimit());
+            boolean cpuLimited = !isBlank(resourceModel.getCpuLimit()) &&
+                    !RESOURCE_POLICY_NO_CPU_LIMIT.equals(resourceModel.getPolicy());
+            cpu = getQuantityAmount(RESOURCE_CPU, cpuLimited ? resourceModel.getCpuLimit() :
+                    resourceModel.getCpuRequest());
+        }
+        List<String> options = new ArrayList<>();
+        long ramPercentage = profile.getDefaultRamPercentage();
+        long classSpaceMi = profile.getClassSpaceMi();
+        if (null != memory) {
+            long memoryMi = memory.divide(BigDecimal.valueOf(1024 * 1024), 0, RoundingMode.DOWN).longValue();
+            ramPercentage = (memoryMi - profile.getNonHeapMi()) * 100 / Math.max(memoryMi, 1);
+            ramPercentage = Math.min(JVM_MAX_RAM_PERCENTAGE, Math.max(JVM_MIN_RAM_PERCENTAGE, ramPercentage));
+            classSpaceMi = Math.min(classSpaceMi, Math.max(JVM_MIN_CLASS_SPACE_MI, memoryMi / 8));
+        }
+        options.add("-XX:MaxRAMPercentage=" + ramPercentage + ".0");
+        options.add("-XX:CompressedClassSpaceSize=" + classSpaceMi + "m");
+        if (null != cpu) {
+            int processors = cpu.setScale(0, RoundingMode.CEILING).intValue();
+            options.add("-XX:ActiveProcessorCount=" + processors);
+            // the parallel collector has no benefit on a single processor.
+            options.add(profile.isSerialGc() || processors < 2 ? "-XX:+UseSerialGC" : "-XX:+UseParallelGC");
+        } else if (profile.isSerialGc()) {
+            options.add("-XX:+UseSerialGC");
+        }
+        if (profile.isC1Only()) {
+            options.add("-XX:TieredStopAtLevel=1");
+        }
+        // the appCds launcher of the image adds the archive options that are not set here.
+        options.addAll(Arrays.asList(profile.getExtraOptions()));
+        serviceModel.addEnv(JVM_OPTIONS_ENV, new EnvVarValueModel(String.join(" ", options)));
+    }
+
+    /**
+     * Get the queue proxy sidecar annotations of the revision template.
+     *
+     * @param serviceModel    Service model
+     * @param queueProxyModel Queue proxy model
+     * @return Map of queue proxy annotations
+     * @throws KnativePluginException If the queue proxy configuration is invalid.
+     */
+    private Map<String, String> getQueueProxyAnnotations(ServiceModel serviceModel, QueueProxyModel queueProxyModel)
+            throws KnativePluginException {
+        validateQueueProxy(serviceModel, queueProxyModel);
+        Map<String, String> queueProxyAnnotations = new LinkedHashMap<>();
+        if (!isBlank(queueProxyModel.getCpuRequest())) {
+            queueProxyAnnotations.put(QUEUE_SIDECAR_CPU_REQUEST, queueProxyModel.getCpuRequest());
+        }
+        if (!isBlank(queueProxyModel.getCpuLimit())) {
+            queueProxyAnnotations.put(QUEUE_SIDECAR_CPU_LIMIT, queueProxyModel.getCpuLimit());
+        }
+        if (!isBlank(queueProxyModel.getMemoryRequest())) {
+            queueProxyAnnotations.put(QUEUE_SIDECAR_MEMORY_REQUEST, queueProxyModel.getMemoryRequest());
+        }
+        if (!isBlank(queueProxyModel.getMemoryLimit())) {
+            queueProxyAnnotations.put(QUEUE_SIDECAR_MEMORY_LIMIT, queueProxyModel.getMemoryLimit());
+        }
+        if (queueProxyModel.getResourcePercentage() != -1) {
+            queueProxyAnnotations.put(QUEUE_SIDECAR_RESOURCE_PERCENTAGE,
+                    String.valueOf(queueProxyModel.getResourcePercentage()));
+        }
+        return queueProxyAnnotations;
+    }
+
+    /**
+     * Validate the queue proxy sidecar configuration and check that the sidecar fits next to the application
+     * container. The sidecar requests are either set explicitly or derived from the application requests with the
+     * resource percentage.
+     *
+     * @param serviceModel    Service model
+     * @param queueProxyModel Queue proxy model
+     * @throws KnativePluginException If the queue proxy configuration is invalid.
+     */
+    private void validateQueueProxy(ServiceModel serviceModel, QueueProxyModel queueProxyModel)
+            throws KnativePluginException {
+        int resourcePercentage = queueProxyModel.getResourcePercentage();
+        if (resourcePercentage != -1 && (resourcePercentage < 1 || resourcePercentage > 100)) {
+            throw new KnativePluginException("@knative:Service{} queueProxy resourcePercentage should be between 1 " +
+                    "and 100: " + resourcePercentage);
+        }
+        BigDecimal sidecarCpuRequest = getQuantityAmount("queueProxy cpuRequest", queueProxyModel.getCpuRequest());
+        BigDecimal sidecarCpuLimit = getQuantityAmount("queueProxy cpuLimit", queueProxyModel.getCpuLimit());
+        BigDecimal sidecarMemoryRequest = getQuantityAmount("queueProxy memoryRequest",
+                queueProxyModel.getMemoryRequest());
+        BigDecimal sidecarMemoryLimit = getQuantityAmount("queueProxy memoryLimit", queueProxyModel.getMemoryLimit());
+        if (null != sidecarCpuRequest && null != sidecarCpuLimit && sidecarCpuLimit.compareTo(sidecarCpuRequest) < 0) {
+            throw new KnativePluginException("@knative:Service{} queueProxy cpuLimit (" + queueProxyModel.getCpuLimit()
+                    + ") cannot be lower than the cpuRequest (" + queueProxyModel.getCpuRequest() + ")");
+        }
+        if (null != sidecarMemoryRequest && null != sidecarMemoryLimit &&
+                sidecarMemoryLimit.compareTo(sidecarMemoryRequest) < 0) {
+            throw new KnativePluginException("@knative:Service{} queueProxy memoryLimit (" +
+                    queueProxyModel.getMemoryLimit() + ") cannot be lower than the memoryRequest (" +
+                    queueProxyModel.getMemoryRequest() + ")");
+        }
+
+        ResourceModel resourceModel = serviceModel.getResourceModel();
+        BigDecimal appCpuRequest = null == resourceModel ? null : getQuantityAmount(RESOURCE_CPU,
+                resourceModel.getCpuRequest());
+        BigDecimal appMemoryRequest = null == resourceModel ? null : getQuantityAmount(RESOURCE_MEMORY,
+                resourceModel.getMemoryRequest());
+        if (resourcePercentage != -1) {
+            if (null == appCpuRequest && null == appMemoryRequest) {
+                printWarning("@knative:Service{} queueProxy resourcePercentage has no effect as the container does " +
+                        "not have resource requests.");
+            }
+            BigDecimal percentage = BigDecimal.valueOf(resourcePercentage).movePointLeft(2);
+            if (null == sidecarCpuRequest && null != appCpuRequest) {
+                sidecarCpuRequest = appCpuRequest.multiply(percentage);
+            }
+            if (null == sidecarMemoryRequest && null != appMemoryRequest) {
+                sidecarMemoryRequest = appMemoryRequest.multiply(percentage);
+            }
+        }
+        checkQueueProxyShare(RESOURCE_CPU, sidecarCpuRequest, appCpuRequest);
+        checkQueueProxyShare(RESOURCE_MEMORY, sidecarMemoryRequest, appMemoryRequest);
+    }
+
+    private void checkQueueProxyShare(String resource, BigDecimal sidecarRequest, BigDecimal appRequest) {
+        if (null == sidecarRequest || null == appRequest) {
+            return;
+        }
+        BigDecimal podRequest = sidecarRequest.add(appRequest);
+        int share = sidecarRequest.multiply(BigDecimal.valueOf(100)).divide(podRequest, 0, RoundingMode.UP)
+                .intValue();
+        if (share > QUEUE_SIDECAR_MAX_SHARE_PERCENTAGE) {
+            printWarning("@knative:Service{} queueProxy takes " + share + "% of the pod " + resource + " request. " +
+                    "the sidecar competes with the application for " + resource + ", consider lowering the " +
+                    "queueProxy request or raising the container request.");
+        }
+    }
+
+    /**
+     * Derive the memory baseline of the ballerina JVM from the size of the executable jar and the number of
+     * dependency jars. The baseline covers the runtime, class metadata of the loaded jars and is rounded up to a
+     * multiple of 64Mi. A native executable has no JIT or class metadata, so its baseline covers the image heap
+     * that grows with the compiled code and is rounded up to a multiple of 32Mi.
+     *
+     * @param executableJar      Executable jar
+     * @param dependencyJarCount Number of dependency jars
+     * @param nativeBuild        Whether the executable jar is compiled to a native executable
+     * @return Memory baseline in Mi
+     * @throws KnativePluginException If the size of the executable jar cannot be read.
+     */
+    private long getAutoSizedMemory(Path executableJar, int dependencyJarCount, boolean nativeBuild)
+            throws KnativePluginException {
+        long jarSizeInMb;
+        try {
+            jarSizeInMb = (long) Math.ceil(Files.size(executableJar) / (1024.0 * 1024.0));
+        } catch (IOException e) {
+            throw new KnativePluginException("unable to read the size of executable jar: " + executableJar, e);
+        }
+        if (nativeBuild) {
+            long memory = NATIVE_BASE_MEMORY_MI + jarSizeInMb * NATIVE_MEMORY_PER_JAR_MB_MI;
+            memory = ((memory + NATIVE_MEMORY_STEP_MI - 1) / NATIVE_MEMORY_STEP_MI) * NATIVE_MEMORY_STEP_MI;
+            return Math.max(memory, NATIVE_MIN_MEMORY_MI);
+        }
+        long memory = JVM_BASE_MEMORY_MI + jarSizeInMb * JVM_MEMORY_PER_JAR_MB_MI +
+                dependencyJarCount * JVM_MEMORY_PER_DEPENDENCY_MI;
+        memory = ((memory + JVM_MEMORY_STEP_MI - 1) / JVM_MEMORY_STEP_MI) * JVM_MEMORY_STEP_MI;
+        return Math.max(memory, JVM_MIN_MEMORY_MI);
+    }
+
+    /**
+     * Fill the memory request and limit of the auto sized resource configuration. Values set explicitly are kept.
+     * The memory limit equals the request as the JVM does not release heap back to the node.
+     *
+     * @param resourceModel Resource model
+     * @param nativeBuild   Whether the executable jar is compiled to a native executable
+     * @throws KnativePluginException If the size of the executable jar cannot be read.
+     */
+    private void autoSizeResources(ResourceModel resourceModel, boolean nativeBuild) throws KnativePluginException {
+        Path executableJar = knativeDataHolder.getUberJarPath();
+        if (null == executableJar || !Files.exists(executableJar)) {
+            printWarning("@knative:Service{} unable to auto size resources as the executable jar is not available.");
+            return;
+        }
+        String memory = getAutoSizedMemory(executableJar, knativeDataHolder.getDependencyJarPaths().size(),
+                nativeBuild) + "Mi";
+        if (isBlank(resourceModel.getMemoryRequest())) {
+            resourceModel.setMemoryRequest(memory);
+        }
+        if (isBlank(resourceModel.getMemoryLimit())) {
+            resourceModel.setMemoryLimit(resourceModel.getMemoryRequest());
+        }
+    }
+
+    /**
+     * Generate the topology spread constraints of the revision pods. Constraints of the spread preset are added for
+     * topology keys that are not set explicitly.
+     *
+     * @param serviceModel Service model
+     * @return List of topology spread constraints or null if none are set
+     * @throws KnativePluginException If a topology spread constraint is invalid.
+     */
+    private List<TopologySpreadConstraint> generateTopologySpreadConstraints(ServiceModel serviceModel)
+            throws KnativePluginException {
+        Map<String, TopologySpreadConstraintModel> constraintModels = new LinkedHashMap<>();
+        if (null != serviceModel.getTopologySpreadConstraints()) {
+            for (TopologySpreadConstraintModel constraintModel : serviceModel.getTopologySpreadConstraints()) {
+                constraintModels.put(constraintModel.getTopologyKey(), constraintModel);
+            }
+        }
+        String spread = serviceModel.getSpread();
+        if (SPREAD_ZONE.equals(spread) || SPREAD_ZONE_AND_NODE.equals(spread)) {
+            constraintModels.putIfAbsent(TOPOLOGY_ZONE_KEY, new TopologySpreadConstraintModel(TOPOLOGY_ZONE_KEY));
+        }
+        if (SPREAD_NODE.equals(spread) || SPREAD_ZONE_AND_NODE.equals(spread)) {
+            constraintModels.putIfAbsent(TOPOLOGY_HOSTNAME_KEY,
+                    new TopologySpreadConstraintModel(TOPOLOGY_HOSTNAME_KEY));
+        }
+        if (constraintModels.isEmpty()) {
+            return null;
+        }
+        List<TopologySpreadConstraint> topologySpreadConstraints = new ArrayList<>();
+        for (TopologySpreadConstraintModel constraintModel : constraintModels.values()) {
+            if (constraintModel.getMaxSkew() < 1) {
+                throw new KnativePluginException("@knative:Service{} topology spread constraint maxSkew should be " +
+                        "at least 1: " + constraintModel.getMaxSkew());
+            }
+            if (!"ScheduleAnyway".equals(constraintModel.getWhenUnsatisfiable()) &&
+                    !"DoNotSchedule".equals(constraintModel.getWhenUnsatisfiable())) {
+                throw new KnativePluginException("@knative:Service{} topology spread constraint whenUnsatisfiable " +
+                        "should be ScheduleAnyway or DoNotSchedule: " + constraintModel.getWhenUnsatisfiable());
+            }
+            topologySpreadConstraints.add(new TopologySpreadConstraintBuilder()
+                    .withTopologyKey(constraintModel.getTopologyKey())
+                    .withMaxSkew(constraintModel.getMaxSkew())
+                    .withWhenUnsatisfiable(constraintModel.getWhenUnsatisfiable())
+                    .withNewLabelSelector()
+                    .addToMatchLabels(KNATIVE_SERVICE_LABEL, serviceModel.getName())
+                    .endLabelSelector()
+                    .build());
+        }
+        return topologySpreadConstraints;
+    }
+
     private List<Volume> populateVolume(ServiceModel serviceModel) {
         List<Volume> volumes = new ArrayList<>();
         for (SecretModel secretModel : serviceModel.getSecretModels()) {
@@ -150,20 +607,577 @@ public class KnativeServiceHandler extends KnativeAbstractArtifactHandler {
         return volumes;
     }
 
-    private Probe generateProbe(ProbeModel probeModel) {
+    /**
+     * Generate a container probe.
+     *
+     * @param probeModel Probe model
+     * @param probeName  Name of the probe field used in error messages
+     * @return Probe or null if the probe is not enabled
+     * @throws KnativePluginException If the probe configuration is invalid.
+     */
+    private Probe generateProbe(ProbeModel probeModel, String probeName) throws KnativePluginException {
         if (null == probeModel) {
             return null;
         }
+        validateProbe(probeModel, probeName);
+        ProbeBuilder probeBuilder = new ProbeBuilder()
+                .withInitialDelaySeconds(getProbeValue(probeModel.getInitialDelaySeconds()))
+                .withPeriodSeconds(getProbeValue(probeModel.getPeriodSeconds()))
+                .withTimeoutSeconds(getProbeValue(probeModel.getTimeoutSeconds()))
+                .withFailureThreshold(getProbeValue(probeModel.getFailureThreshold()));
+        if (PROBE_TYPE_HTTP.equals(probeModel.getProbeType())) {
+            List<HTTPHeader> httpHeaders = new ArrayList<>();
+            if (null != probeModel.getHttpHeaders()) {
+                for (Map.Entry<String, String> header : probeModel.getHttpHeaders().entrySet()) {
+                    httpHeaders.add(new HTTPHeader(header.getKey(), header.getValue()));
+                }
+            }
+            HTTPGetAction httpGetAction = new HTTPGetActionBuilder()
+                    .withPath(isBlank(probeModel.getPath()) ? "/" : probeModel.getPath())
+                    .withNewPort(probeModel.getPort())
+                    .withHttpHeaders(httpHeaders.isEmpty() ? null : httpHeaders)
+                    .build();
+            return probeBuilder.withHttpGet(httpGetAction).build();
+        }
+        if (PROBE_TYPE_GRPC.equals(probeModel.getProbeType())) {
+            // grpc action is set on the generated service. see setGrpcAction.
+            return probeBuilder.build();
+        }
         TCPSocketAction tcpSocketAction = new TCPSocketActionBuilder()
                 .withNewPort(probeModel.getPort())
                 .build();
-        return new ProbeBuilder()
-                .withInitialDelaySeconds(probeModel.getInitialDelaySeconds())
-                .withPeriodSeconds(probeModel.getPeriodSeconds())
-                .withTcpSocket(tcpSocketAction)
+        return probeBuilder.withTcpSocket(tcpSocketAction).build();
+    }
+
+    /**
+     * Set the grpc action of a generated probe. The kubernetes model in use does not have the grpc probe action and
+     * its builders do not copy additional properties, so the action is set on the built probe.
+     *
+     * @param probe      Generated probe
+     * @param probeModel Probe model
+     */
+    private void setGrpcAction(Probe probe, ProbeModel probeModel) {
+        if (null == probe || null == probeModel || !PROBE_TYPE_GRPC.equals(probeModel.getProbeType())) {
+            return;
+        }
+        Map<String, Object> grpcAction = new LinkedHashMap<>();
+        grpcAction.put("port", probeModel.getPort());
+        if (!isBlank(probeModel.getGrpcService())) {
+            grpcAction.put("service", probeModel.getGrpcService());
+        }
+        probe.setAdditionalProperty(PROBE_TYPE_GRPC, grpcAction);
+    }
+
+    /**
+     * Set the response start and idle timeouts of the revision. The knative model in use does not have these fields
+     * and its builders do not copy additional properties, so they are set on the built revision spec. The timeouts
+     * are compared against the idle timeout of the http listener, which closes connections that are silent for
+     * longer than it.
+     *
+     * @param revisionSpec Generated revision spec
+     * @param serviceModel Service model
+     * @throws KnativePluginException When the timeouts are invalid.
+     */
+    private void setRequestTimeouts(RevisionSpec revisionSpec, ServiceModel serviceModel)
+            throws KnativePluginException {
+        int timeoutSeconds = serviceModel.getTimeoutSeconds();
+        int responseStartTimeoutSeconds = serviceModel.getResponseStartTimeoutSeconds();
+        int idleTimeoutSeconds = serviceModel.getIdleTimeoutSeconds();
+        if (responseStartTimeoutSeconds != -1) {
+            if (responseStartTimeoutSeconds < 0 || responseStartTimeoutSeconds > timeoutSeconds) {
+                throw new KnativePluginException("@knative:Service{} responseStartTimeoutSeconds should be between " +
+                        "0 and timeoutSeconds (" + timeoutSeconds + "): " + responseStartTimeoutSeconds);
+            }
+            revisionSpec.setAdditionalProperty(RESPONSE_START_TIMEOUT_SECONDS, responseStartTimeoutSeconds);
+        }
+        if (idleTimeoutSeconds != -1) {
+            if (idleTimeoutSeconds < 0 || idleTimeoutSeconds > timeoutSeconds) {
+                throw new KnativePluginException("@knative:Service{} idleTimeoutSeconds should be between 0 and " +
+                        "timeoutSeconds (" + timeoutSeconds + "): " + idleTimeoutSeconds);
+            }
+            revisionSpec.setAdditionalProperty(IDLE_TIMEOUT_SECONDS, idleTimeoutSeconds);
+        }
+        long listenerTimeout = serviceModel.getListenerTimeout();
+        if (listenerTimeout <= 0) {
+            return;
+        }
+        if (responseStartTimeoutSeconds * 1000L > listenerTimeout) {
+            printWarning("@knative:Service{} responseStartTimeoutSeconds (" + responseStartTimeoutSeconds + "s) is " +
+                    "longer than the listener timeoutInMillis (" + listenerTimeout + "ms). the listener closes the " +
+                    "connection before knative times out the request.");
+        }
+        if (idleTimeoutSeconds * 1000L > listenerTimeout) {
+            printWarning("@knative:Service{} idleTimeoutSeconds (" + idleTimeoutSeconds + "s) is longer than the " +
+                    "listener timeoutInMillis (" + listenerTimeout + "ms). streams that are idle for longer than " +
+                    "the listener timeout are closed by the listener.");
+        }
+    }
+
+    private Integer getProbeValue(int value) {
+        return value == -1 ? null : value;
+    }
+
+    /**
+     * Validate a probe configuration. A period of 0 seconds enables the aggressive readiness probing of knative and
+     * is only allowed on the readiness probe.
+     *
+     * @param probeModel Probe model
+     * @param probeName  Name of the probe field used in error messages
+     * @throws KnativePluginException If the probe configuration is invalid.
+     */
+    private void validateProbe(ProbeModel probeModel, String probeName) throws KnativePluginException {
+        if (!PROBE_TYPE_HTTP.equals(probeModel.getProbeType()) && (!isBlank(probeModel.getPath()) ||
+                null != probeModel.getHttpHeaders())) {
+            throw new KnativePluginException("@knative:Service{} " + probeName + " path and httpHeaders are only " +
+                    "supported with http probes");
+        }
+        if (!PROBE_TYPE_GRPC.equals(probeModel.getProbeType()) && !isBlank(probeModel.getGrpcService())) {
+            throw new KnativePluginException("@knative:Service{} " + probeName + " grpcService is only supported " +
+                    "with grpc probes");
+        }
+        if (probeModel.getInitialDelaySeconds() < -1) {
+            throw new KnativePluginException("@knative:Service{} " + probeName + " initialDelaySeconds cannot be " +
+                    "negative: " + probeModel.getInitialDelaySeconds());
+        }
+        if (probeModel.getTimeoutSeconds() == 0 || probeModel.getTimeoutSeconds() < -1) {
+            throw new KnativePluginException("@knative:Service{} " + probeName + " timeoutSeconds should be at " +
+                    "least 1: " + probeModel.getTimeoutSeconds());
+        }
+        if (probeModel.getFailureThreshold() == 0 || probeModel.getFailureThreshold() < -1) {
+            throw new KnativePluginException("@knative:Service{} " + probeName + " failureThreshold should be at " +
+                    "least 1: " + probeModel.getFailureThreshold());
+        }
+        if (probeModel.getPeriodSeconds() == 0) {
+            if (!"readinessProbe".equals(probeName)) {
+                throw new KnativePluginException("@knative:Service{} periodSeconds 0 is only supported with the " +
+                        "readinessProbe");
+            }
+            if (probeModel.getTimeoutSeconds() != -1 || probeModel.getFailureThreshold() != -1) {
+                throw new KnativePluginException("@knative:Service{} readinessProbe timeoutSeconds and " +
+                        "failureThreshold cannot be set when periodSeconds is 0");
+            }
+        } else if (probeModel.getPeriodSeconds() < -1) {
+            throw new KnativePluginException("@knative:Service{} " + probeName + " periodSeconds cannot be " +
+                    "negative: " + probeModel.getPeriodSeconds());
+        }
+        if ("readinessProbe".equals(probeName) && probeModel.getInitialDelaySeconds() > 0) {
+            printWarning("@knative:Service{} readinessProbe initialDelaySeconds (" +
+                    probeModel.getInitialDelaySeconds() + ") is added to every cold start. use a startupProbe " +
+                    "or periodSeconds 0 instead.");
+        }
+    }
+
+    /**
+     * Generate the metadata of the revision template.
+     *
+     * @param serviceModel Service model
+     * @return Revision template metadata or null if there is nothing to set
+     * @throws KnativePluginException If the autoscaling configuration is invalid.
+     */
+    private ObjectMeta generateRevisionMetadata(ServiceModel serviceModel) throws KnativePluginException {
+        Map<String, String> revisionAnnotations = new LinkedHashMap<>();
+        if (null != serviceModel.getPodAnnotations()) {
+            revisionAnnotations.putAll(serviceModel.getPodAnnotations());
+        }
+        PodAutoscalerModel podAutoscalerModel = serviceModel.getPodAutoscalerModel();
+        if (null != podAutoscalerModel) {
+            validatePodAutoscaler(serviceModel, podAutoscalerModel);
+            revisionAnnotations.putAll(getAutoscalingAnnotations(podAutoscalerModel));
+        }
+        if (null != serviceModel.getColdStartModel()) {
+            revisionAnnotations.putAll(getColdStartAnnotations(serviceModel, serviceModel.getColdStartModel()));
+        }
+        if (null != serviceModel.getQueueProxyModel()) {
+            revisionAnnotations.putAll(getQueueProxyAnnotations(serviceModel, serviceModel.getQueueProxyModel()));
+        }
+        KnativeConstants.DataPathMode dataPathMode = KnativeConstants.DataPathMode.fromValue(serviceModel
+                .getDataPath());
+        if (null != dataPathMode && null != dataPathMode.getTargetBurstCapacity()) {
+            revisionAnnotations.put(AUTOSCALING_TARGET_BURST_CAPACITY, dataPathMode.getTargetBurstCapacity());
+        }
+        String revisionName = serviceModel.getRevisionName();
+        if (!isBlank(revisionName) && !revisionName.startsWith(serviceModel.getName() + "-")) {
+            throw new KnativePluginException("@knative:Service{} revisionName should be prefixed with the service " +
+                    "name: " + serviceModel.getName() + "-");
+        }
+        if (revisionAnnotations.isEmpty() && isBlank(revisionName)) {
+            return null;
+        }
+        return new ObjectMetaBuilder()
+                .withName(isBlank(revisionName) ? null : revisionName)
+                .withAnnotations(revisionAnnotations.isEmpty() ? null : revisionAnnotations)
                 .build();
     }
 
+    /**
+     * Get the labels of the knative service. Adds the cluster local visibility label when visibility is set to
+     * cluster local, or when it is not set and another module depends on this service.
+     *
+     * @param serviceModel Service model
+     * @return Map of service labels
+     */
+    private Map<String, String> getServiceLabels(ServiceModel serviceModel) {
+        String visibility = serviceModel.getVisibility();
+        if (null == visibility &&
+                KnativeContext.getInstance().hasDependents(knativeDataHolder.getDockerModel().getPkgId())) {
+            visibility = VISIBILITY_CLUSTER_LOCAL;
+        }
+        if (!VISIBILITY_CLUSTER_LOCAL.equals(visibility)) {
+            return serviceModel.getLabels();
+        }
+        Map<String, String> serviceLabels = new LinkedHashMap<>();
+        if (null != serviceModel.getLabels()) {
+            serviceLabels.putAll(serviceModel.getLabels());
+        }
+        serviceLabels.put(VISIBILITY_LABEL, VISIBILITY_CLUSTER_LOCAL);
+        return serviceLabels;
+    }
+
+    /**
+     * Add an environment variable with the cluster local address of each dependent service, so that calls between
+     * services do not go through the external ingress. Environment variables set by the user are not replaced.
+     *
+     * @param serviceModel Service model
+     * @throws KnativePluginException If a dependent service is not found.
+     */
+    private void addDependencyAddresses(ServiceModel serviceModel) throws KnativePluginException {
+        KnativeContext context = KnativeContext.getInstance();
+        for (String dependsOn : serviceModel.getDependsOn()) {
+            String envName = context.getServiceName(dependsOn).toUpperCase(Locale.getDefault())
+                    .replaceAll("[^A-Z0-9]", "_") + SERVICE_URL_ENV_POSTFIX;
+            if (!serviceModel.getEnv().containsKey(envName)) {
+                serviceModel.addEnv(envName, new EnvVarValueModel(context.getClusterLocalAddress(dependsOn)));
+            }
+        }
+    }
+
+    /**
+     * Get the annotations of the knative service. Adds the rollout duration to the user defined annotations.
+     *
+     * @param serviceModel Service model
+     * @return Map of service annotations
+     * @throws KnativePluginException If the rollout duration is invalid.
+     */
+    private Map<String, String> getServiceAnnotations(ServiceModel serviceModel) throws KnativePluginException {
+        String rolloutDuration = serviceModel.getRolloutDuration();
+        if (isBlank(rolloutDuration)) {
+            return serviceModel.getAnnotations();
+        }
+        getDurationInSeconds(rolloutDuration);
+        Map<String, String> serviceAnnotations = new LinkedHashMap<>();
+        if (null != serviceModel.getAnnotations()) {
+            serviceAnnotations.putAll(serviceModel.getAnnotations());
+        }
+        serviceAnnotations.put(ROLLOUT_DURATION, rolloutDuration);
+        return serviceAnnotations;
+    }
+
+    /**
+     * Generate the traffic targets of the knative service.
+     *
+     * @param serviceModel Service model
+     * @return List of traffic targets or null if no traffic is configured
+     * @throws KnativePluginException If the traffic configuration is invalid.
+     */
+    private List<TrafficTarget> generateTraffic(ServiceModel serviceModel) throws KnativePluginException {
+        List<TrafficTargetModel> trafficTargetModels = serviceModel.getTrafficTargets();
+        if (null == trafficTargetModels || trafficTargetModels.isEmpty()) {
+            if (!isBlank(serviceModel.getRolloutDuration())) {
+                printWarning("@knative:Service{} rolloutDuration only applies to traffic that follows the latest " +
+                        "revision.");
+            }
+            return null;
+        }
+        List<TrafficTarget> trafficTargets = new ArrayList<>();
+        Set<String> tags = new HashSet<>();
+        int totalPercent = 0;
+        boolean followsLatest = false;
+        for (TrafficTargetModel trafficTargetModel : trafficTargetModels) {
+            boolean hasRevisionName = !isBlank(trafficTargetModel.getRevisionName());
+            if (hasRevisionName == trafficTargetModel.isLatestRevision()) {
+                throw new KnativePluginException("@knative:Service{} traffic target should either set revisionName " +
+                        "or set latestRevision to true");
+            }
+            int percent = trafficTargetModel.getPercent();
+            if (percent < -1 || percent > 100) {
+                throw new KnativePluginException("@knative:Service{} traffic percent should be between 0 and 100: " +
+                        percent);
+            }
+            String tag = trafficTargetModel.getTag();
+            if (!isBlank(tag) && !tags.add(tag)) {
+                throw new KnativePluginException("@knative:Service{} duplicate traffic tag found: " + tag);
+            }
+            if (percent > 0) {
+                totalPercent += percent;
+                followsLatest = followsLatest || trafficTargetModel.isLatestRevision();
+            }
+            trafficTargets.add(new TrafficTargetBuilder()
+                    .withRevisionName(hasRevisionName ? trafficTargetModel.getRevisionName() : null)
+                    .withLatestRevision(trafficTargetModel.isLatestRevision())
+                    .withPercent(percent == -1 ? null : (long) percent)
+                    .withTag(isBlank(tag) ? null : tag)
+                    .build());
+        }
+        if (totalPercent != 100) {
+            throw new KnativePluginException("@knative:Service{} traffic percentages should add up to 100: " +
+                    totalPercent);
+        }
+        if (!isBlank(serviceModel.getRolloutDuration()) && !followsLatest) {
+            printWarning("@knative:Service{} rolloutDuration only applies to traffic that follows the latest " +
+                    "revision.");
+        }
+        return trafficTargets;
+    }
+
+    /**
+     * Get the autoscaling annotations of the revision template.
+     *
+     * @param podAutoscalerModel Pod autoscaler model
+     * @return Map of autoscaling annotations
+     */
+    private Map<String, String> getAutoscalingAnnotations(PodAutoscalerModel podAutoscalerModel) {
+        Map<String, String> autoscalingAnnotations = new LinkedHashMap<>();
+        if (!isBlank(podAutoscalerModel.getAutoscalerClass())) {
+            autoscalingAnnotations.put(AUTOSCALING_CLASS, podAutoscalerModel.getAutoscalerClass());
+        }
+        if (!isBlank(podAutoscalerModel.getMetric())) {
+            autoscalingAnnotations.put(AUTOSCALING_METRIC, podAutoscalerModel.getMetric());
+        }
+        if (podAutoscalerModel.getTarget() != -1) {
+            autoscalingAnnotations.put(AUTOSCALING_TARGET, String.valueOf(podAutoscalerModel.getTarget()));
+        }
+        if (podAutoscalerModel.getTargetUtilizationPercentage() != -1) {
+            autoscalingAnnotations.put(AUTOSCALING_TARGET_UTILIZATION,
+                    String.valueOf(podAutoscalerModel.getTargetUtilizationPercentage()));
+        }
+        if (!isBlank(podAutoscalerModel.getWindow())) {
+            autoscalingAnnotations.put(AUTOSCALING_WINDOW, podAutoscalerModel.getWindow());
+        }
+        if (podAutoscalerModel.getPanicWindowPercentage() != -1) {
+            autoscalingAnnotations.put(AUTOSCALING_PANIC_WINDOW,
+                    String.valueOf(podAutoscalerModel.getPanicWindowPercentage()));
+        }
+        if (podAutoscalerModel.getPanicThresholdPercentage() != -1) {
+            autoscalingAnnotations.put(AUTOSCALING_PANIC_THRESHOLD,
+                    String.valueOf(podAutoscalerModel.getPanicThresholdPercentage()));
+        }
+        if (podAutoscalerModel.getMinReplicas() != -1) {
+            autoscalingAnnotations.put(AUTOSCALING_MIN_SCALE, String.valueOf(podAutoscalerModel.getMinReplicas()));
+        }
+        if (podAutoscalerModel.getMaxReplicas() != -1) {
+            autoscalingAnnotations.put(AUTOSCALING_MAX_SCALE, String.valueOf(podAutoscalerModel.getMaxReplicas()));
+        }
+        return autoscalingAnnotations;
+    }
+
+    /**
+     * Get the cold start annotations of the revision template. Values of the preset are overridden by the values
+     * set explicitly.
+     *
+     * @param serviceModel   Service model
+     * @param coldStartModel Cold start model
+     * @return Map of cold start annotations
+     * @throws KnativePluginException If the cold start configuration is invalid.
+     */
+    private Map<String, String> getColdStartAnnotations(ServiceModel serviceModel, ColdStartModel coldStartModel)
+            throws KnativePluginException {
+        int initialScale = coldStartModel.getInitialScale();
+        int activationScale = coldStartModel.getActivationScale();
+        String scaleDownDelay = coldStartModel.getScaleDownDelay();
+        String retentionPeriod = coldStartModel.getScaleToZeroPodRetentionPeriod();
+        KnativeConstants.ColdStartPreset preset = KnativeConstants.ColdStartPreset.fromValue(coldStartModel
+                .getPreset());
+        if (null != preset) {
+            initialScale = initialScale == -1 ? preset.getInitialScale() : initialScale;
+            activationScale = activationScale == -1 ? preset.getActivationScale() : activationScale;
+            scaleDownDelay = isBlank(scaleDownDelay) ? preset.getScaleDownDelay() : scaleDownDelay;
+            retentionPeriod = isBlank(retentionPeriod) ? preset.getScaleToZeroPodRetentionPeriod() : retentionPeriod;
+        }
+
+        if (initialScale < -1) {
+            throw new KnativePluginException("@knative:Service{} coldStart initialScale cannot be negative: " +
+                    initialScale);
+        }
+        if (activationScale != -1 && activationScale < 1) {
+            throw new KnativePluginException("@knative:Service{} coldStart activationScale should be at least 1: " +
+                    activationScale);
+        }
+        if (!isBlank(scaleDownDelay) && getDurationInSeconds(scaleDownDelay) > 3600) {
+            throw new KnativePluginException("@knative:Service{} coldStart scaleDownDelay should be between 0s " +
+                    "and 1h: " + scaleDownDelay);
+        }
+        if (!isBlank(retentionPeriod)) {
+            getDurationInSeconds(retentionPeriod);
+        }
+
+        PodAutoscalerModel podAutoscalerModel = serviceModel.getPodAutoscalerModel();
+        if (null != podAutoscalerModel) {
+            if (HPA_CLASS.equals(podAutoscalerModel.getAutoscalerClass()) && initialScale == 0) {
+                throw new KnativePluginException("@knative:HPA{} does not support scale to zero. coldStart " +
+                        "initialScale should be at least 1.");
+            }
+            int maxScale = podAutoscalerModel.getMaxReplicas();
+            if (maxScale > 0 && (initialScale > maxScale || activationScale > maxScale)) {
+                throw new KnativePluginException("@knative:Service{} coldStart initialScale and activationScale " +
+                        "cannot exceed the autoscaler max scale (" + maxScale + ")");
+            }
+        }
+
+        if (initialScale == 0) {
+            printWarning("@knative:Service{} coldStart initialScale 0 is rejected by knative unless " +
+                    "\"allow-zero-initial-scale\" is set to \"true\" in the config-autoscaler ConfigMap.");
+        }
+
+        // replicas is not used by knative. warn if the preset would start fewer pods than requested.
+        int replicas = serviceModel.getReplicas();
+        boolean minScaleSet = null != podAutoscalerModel && podAutoscalerModel.getMinReplicas() != -1;
+        if (null != preset && replicas > 1 && initialScale < replicas && !minScaleSet) {
+            printWarning("@knative:Service{} replicas (" + replicas + ") is not used by knative and coldStart " +
+                    "preset \"" + preset.getValue() + "\" starts revisions with " + initialScale + " pod(s) and " +
+                    "allows scaling below " + replicas + ". use @knative:Autoscaling{minScale: " + replicas +
+                    "} to keep them.");
+        }
+
+        Map<String, String> coldStartAnnotations = new LinkedHashMap<>();
+        if (initialScale != -1) {
+            coldStartAnnotations.put(AUTOSCALING_INITIAL_SCALE, String.valueOf(initialScale));
+        }
+        if (activationScale != -1) {
+            coldStartAnnotations.put(AUTOSCALING_ACTIVATION_SCALE, String.valueOf(activationScale));
+        }
+        if (!isBlank(scaleDownDelay)) {
+            coldStartAnnotations.put(AUTOSCALING_SCALE_DOWN_DELAY, scaleDownDelay);
+        }
+        if (!isBlank(retentionPeriod)) {
+            coldStartAnnotations.put(AUTOSCALING_SCALE_TO_ZERO_RETENTION, retentionPeriod);
+        }
+        return coldStartAnnotations;
+    }
+
+    /**
+     * Validate the autoscaling configuration against itself and the service configuration.
+     *
+     * @param serviceModel       Service model
+     * @param podAutoscalerModel Pod autoscaler model
+     * @throws KnativePluginException If the configuration is inconsistent.
+     */
+    private void validatePodAutoscaler(ServiceModel serviceModel, PodAutoscalerModel podAutoscalerModel)
+            throws KnativePluginException {
+        if (HPA_CLASS.equals(podAutoscalerModel.getAutoscalerClass())) {
+            validateHPA(podAutoscalerModel);
+            return;
+        }
+        String metric = podAutoscalerModel.getMetric();
+        if (!isBlank(metric) && !KPA_METRIC_CONCURRENCY.equals(metric) && !KPA_METRIC_RPS.equals(metric)) {
+            throw new KnativePluginException("@knative:Autoscaling{} metric should be \"" + KPA_METRIC_CONCURRENCY +
+                    "\" or \"" + KPA_METRIC_RPS + "\": " + metric);
+        }
+        int target = podAutoscalerModel.getTarget();
+        if (target != -1 && target <= 0) {
+            throw new KnativePluginException("@knative:Autoscaling{} target should be greater than 0: " + target);
+        }
+        boolean concurrencyMetric = isBlank(metric) || KPA_METRIC_CONCURRENCY.equals(metric);
+        int containerConcurrency = serviceModel.getContainerConcurrency();
+        if (concurrencyMetric && target > 0 && containerConcurrency > 0 && target > containerConcurrency) {
+            throw new KnativePluginException("@knative:Autoscaling{} target (" + target + ") cannot exceed " +
+                    "containerConcurrency (" + containerConcurrency + ")");
+        }
+        int utilization = podAutoscalerModel.getTargetUtilizationPercentage();
+        if (utilization != -1 && (utilization < 1 || utilization > 100)) {
+            throw new KnativePluginException("@knative:Autoscaling{} targetUtilizationPercentage should be " +
+                    "between 1 and 100: " + utilization);
+        }
+        if (!isBlank(podAutoscalerModel.getWindow())) {
+            long window = getDurationInSeconds(podAutoscalerModel.getWindow());
+            if (window < 6 || window > 3600) {
+                throw new KnativePluginException("@knative:Autoscaling{} window should be between 6s and 1h: " +
+                        podAutoscalerModel.getWindow());
+            }
+        }
+        int panicWindow = podAutoscalerModel.getPanicWindowPercentage();
+        if (panicWindow != -1 && (panicWindow < 1 || panicWindow > 100)) {
+            throw new KnativePluginException("@knative:Autoscaling{} panicWindowPercentage should be between 1 " +
+                    "and 100: " + panicWindow);
+        }
+        int panicThreshold = podAutoscalerModel.getPanicThresholdPercentage();
+        if (panicThreshold != -1 && (panicThreshold < 110 || panicThreshold > 1000)) {
+            throw new KnativePluginException("@knative:Autoscaling{} panicThresholdPercentage should be between " +
+                    "110 and 1000: " + panicThreshold);
+        }
+        int minScale = podAutoscalerModel.getMinReplicas();
+        int maxScale = podAutoscalerModel.getMaxReplicas();
+        if (minScale < -1 || maxScale < -1) {
+            throw new KnativePluginException("@knative:Autoscaling{} minScale and maxScale cannot be negative.");
+        }
+        if (minScale > 0 && maxScale > 0 && minScale > maxScale) {
+            throw new KnativePluginException("@knative:Autoscaling{} minScale (" + minScale + ") cannot exceed " +
+                    "maxScale (" + maxScale + ")");
+        }
+    }
+
+    /**
+     * Validate a HPA class autoscaling configuration.
+     *
+     * @param podAutoscalerModel Pod autoscaler model
+     * @throws KnativePluginException If the configuration is not supported by HPA class revisions.
+     */
+    private void validateHPA(PodAutoscalerModel podAutoscalerModel) throws KnativePluginException {
+        String metric = podAutoscalerModel.getMetric();
+        if (!HPA_METRIC_CPU.equals(metric) && !HPA_METRIC_MEMORY.equals(metric)) {
+            throw new KnativePluginException("@knative:HPA{} metric should be \"" + HPA_METRIC_CPU + "\" or \"" +
+                    HPA_METRIC_MEMORY + "\": " + metric);
+        }
+        int target = podAutoscalerModel.getTarget();
+        if (target != -1 && target <= 0) {
+            throw new KnativePluginException("@knative:HPA{} target should be greater than 0: " + target);
+        }
+        if (HPA_METRIC_CPU.equals(metric) && target > 100) {
+            throw new KnativePluginException("@knative:HPA{} target is a cpu utilization percentage and should be " +
+                    "between 1 and 100: " + target);
+        }
+        int minReplicas = podAutoscalerModel.getMinReplicas();
+        int maxReplicas = podAutoscalerModel.getMaxReplicas();
+        if (minReplicas == 0) {
+            throw new KnativePluginException("@knative:HPA{} does not support scale to zero. minReplicas should be " +
+                    "at least 1.");
+        }
+        if (minReplicas < -1) {
+            throw new KnativePluginException("@knative:HPA{} minReplicas cannot be negative.");
+        }
+        if (maxReplicas <= 0) {
+            throw new KnativePluginException("@knative:HPA{} requires a bounded maxReplicas greater than 0.");
+        }
+        if (minReplicas > 0 && maxReplicas > 0 && minReplicas > maxReplicas) {
+            throw new KnativePluginException("@knative:HPA{} minReplicas (" + minReplicas + ") cannot exceed " +
+                    "maxReplicas (" + maxReplicas + ")");
+        }
+    }
+
+    /**
+     * Get the name of the container port. Knative serves the revision over h2c only when the port is named "h2c".
+     * The port is left unnamed for http/1.1 listeners unless the protocol is set explicitly.
+     *
+     * @param serviceModel Service model.
+     * @return Port name or null.
+     */
+    private String getPortName(ServiceModel serviceModel) {
+        String protocol = serviceModel.getProtocol();
+        String listenerProtocol = serviceModel.getListenerProtocol();
+        if (null == protocol) {
+            return PROTOCOL_H2C.equals(listenerProtocol) ? PROTOCOL_H2C : null;
+        }
+        if (null != listenerProtocol && !protocol.equals(listenerProtocol)) {
+            if (PROTOCOL_H2C.equals(listenerProtocol)) {
+                printWarning("@knative:Service{} protocol is \"" + protocol + "\" but the listener serves h2c. " +
+                        "requests will not be multiplexed at the queue proxy and activator.");
+            } else {
+                printWarning("@knative:Service{} protocol is \"" + protocol + "\" but the listener serves " +
+                        "http/1.1. set httpVersion \"2.0\" in the listener configuration or requests will fail.");
+            }
+        }
+        return protocol;
+    }
+
     /**
      * Generate kubernetes deployment definition from annotation.
      *
@@ -173,32 +1187,44 @@ public class KnativeServiceHandler extends KnativeAbstractArtifactHandler {
     private void generate(ServiceModel serviceModel) throws KnativePluginException {
         List<ContainerPort> containerPorts = null;
         if (serviceModel.getPorts() != null) {
-            containerPorts = populatePorts(serviceModel.getPorts());
+            containerPorts = populatePorts(serviceModel.getPorts(), getPortName(serviceModel));
         }
         Container container = generateContainer(serviceModel, containerPorts);
         Service knativeSvc = new ServiceBuilder()
                 .withNewMetadata()
                 .withName(serviceModel.getName())
                 .withNamespace(knativeDataHolder.getNamespace())
-                .withAnnotations(serviceModel.getAnnotations())
-                .withLabels(serviceModel.getLabels())
+                .withAnnotations(getServiceAnnotations(serviceModel))
+                .withLabels(getServiceLabels(serviceModel))
                 .endMetadata()
                 .withNewSpec()
+                .withTraffic(generateTraffic(serviceModel))
                 .withNewTemplate()
+                .withMetadata(generateRevisionMetadata(serviceModel))
                 .withNewSpec()
                 .withContainerConcurrency((long) serviceModel.getContainerConcurrency())
                 .withTimeoutSeconds((long) serviceModel.getTimeoutSeconds())
                 .withContainers(container)
                 .withInitContainers(generateInitContainer(serviceModel))
                 .withVolumes(populateVolume(serviceModel))
+                .withTolerations(populatePodTolerations(serviceModel.getPodTolerations()))
+                .withAffinity(populateNodeAffinity(serviceModel.getNodeAffinity()))
+                .withTopologySpreadConstraints(generateTopologySpreadConstraints(serviceModel))
+                .withPriorityClassName(serviceModel.getPriorityClassName())
+                .withImagePullSecrets(populateImagePullSecrets(serviceModel))
                 .endSpec()
                 .endTemplate()
                 .endSpec()
                 .build();
+        Container generatedContainer = knativeSvc.getSpec().getTemplate().getSpec().getContainers().get(0);
+        setGrpcAction(generatedContainer.getLivenessProbe(), serviceModel.getLivenessProbe());
+        setGrpcAction(generatedContainer.getReadinessProbe(), serviceModel.getReadinessProbe());
+        setGrpcAction(generatedContainer.getStartupProbe(), serviceModel.getStartupProbe());
+        setRequestTimeouts(knativeSvc.getSpec().getTemplate().getSpec(), serviceModel);
 
         try {
             String knativeSvcContent = SerializationUtils.dumpWithoutRuntimeStateAsYaml(knativeSvc);
-            KnativeUtils.writeToFile(knativeSvcContent);
+            knativeDataHolder.getArtifactSink().add(KNATIVE_SVC_FILE_POSTFIX, knativeSvcContent);
         } catch (IOException e) {
             String errorMessage = "error while generating yaml file for deployment: " + serviceModel.getName();
             throw new KnativePluginException(errorMessage, e);
@@ -207,58 +1233,100 @@ public class KnativeServiceHandler extends KnativeAbstractArtifactHandler {
 
     @Override
     public void createArtifacts() throws KnativePluginException {
-        try {
-            ServiceModel serviceModel = knativeDataHolder.getServiceModel();
-            serviceModel.setPodAutoscalerModel(knativeDataHolder.getPodAutoscalerModel());
-            serviceModel.setSecretModels(knativeDataHolder.getSecretModelSet());
-            serviceModel.setConfigMapModels(knativeDataHolder.getConfigMapModelSet());
-            if (null != serviceModel.getLivenessProbe() && serviceModel.getLivenessProbe().getPort() == 0) {
-                //set first port as liveness port
-                serviceModel.getLivenessProbe().setPort(serviceModel.getPorts().iterator().next());
-            }
+        ServiceModel serviceModel = knativeDataHolder.getServiceModel();
+        serviceModel.setPodAutoscalerModel(knativeDataHolder.getPodAutoscalerModel());
+        serviceModel.setSecretModels(knativeDataHolder.getSecretModelSet());
+        serviceModel.setConfigMapModels(knativeDataHolder.getConfigMapModelSet());
+        boolean nativeBuild = BUILD_MODE_NATIVE.equals(serviceModel.getBuildMode());
+        if (nativeBuild && null == serviceModel.getResourceModel()) {
+            // native executables need a fraction of the JVM memory, so the defaults are lowered to match.
+            ResourceModel resourceModel = new ResourceModel();
+            resourceModel.setAutoSize(true);
+            serviceModel.setResourceModel(resourceModel);
+        }
+        if (null != serviceModel.getResourceModel() && serviceModel.getResourceModel().isAutoSize()) {
+            autoSizeResources(serviceModel.getResourceModel(), nativeBuild);
+        }
+        if (null != serviceModel.getLivenessProbe() && serviceModel.getLivenessProbe().getPort() == 0) {
+            //set first port as liveness port
+            serviceModel.getLivenessProbe().setPort(serviceModel.getPorts().iterator().next());
+        }
 
-            if (null != serviceModel.getReadinessProbe() && serviceModel.getReadinessProbe().getPort() == 0) {
-                //set first port as readiness port
-                serviceModel.getReadinessProbe().setPort(serviceModel.getPorts().iterator().next());
-            }
-            generate(serviceModel);
+        if (null != serviceModel.getReadinessProbe() && serviceModel.getReadinessProbe().getPort() == 0) {
+            //set first port as readiness port
+            serviceModel.getReadinessProbe().setPort(serviceModel.getPorts().iterator().next());
+        }
+
+        if (null != serviceModel.getStartupProbe() && serviceModel.getStartupProbe().getPort() == 0) {
+            //set first port as startup port
+            serviceModel.getStartupProbe().setPort(serviceModel.getPorts().iterator().next());
+        }
+        addDependencyAddresses(serviceModel);
+        addJvmOptions(serviceModel);
+        generate(serviceModel);
+        OUT.println();
+        OUT.print("\t@knative:Service \t\t\t - complete 1/1");
+        printDataPathDiagnostics(serviceModel);
+        printSchedulingFeatureFlags(serviceModel);
+    }
+
+    @Override
+    public Set<Model> getReads() {
+        return EnumSet.of(Model.SERVICE, Model.IMAGE, Model.SECRETS, Model.CONFIG_MAPS, Model.POD_AUTOSCALER);
+    }
+
+    @Override
+    public Set<Model> getWrites() {
+        return EnumSet.of(Model.SERVICE);
+    }
+
+    /**
+     * Print the throughput and latency trade-off of the selected data path mode.
+     *
+     * @param serviceModel Service model
+     */
+    private void printDataPathDiagnostics(ServiceModel serviceModel) {
+        KnativeConstants.DataPathMode dataPathMode = KnativeConstants.DataPathMode.fromValue(serviceModel
+                .getDataPath());
+        if (null == dataPathMode) {
+            return;
+        }
+        OUT.println();
+        OUT.print("\t\tdata path [" + dataPathMode.getValue() + "]: " + dataPathMode.getDescription());
+        if (KnativeConstants.DataPathMode.DIRECT == dataPathMode && serviceModel.getContainerConcurrency() > 0 &&
+                serviceModel.getContainerConcurrency() < 10) {
             OUT.println();
-            OUT.print("\t@knative:Service \t\t\t - complete 1/1");
-            knativeDataHolder.setDockerModel(getDockerModel(serviceModel));
-        } catch (DockerGenException e) {
-            throw new KnativePluginException("error occurred creating docker image.", e);
+            printWarning("@knative:Service{} \"" + dataPathMode.getValue() + "\" data path with a low " +
+                    "containerConcurrency (" + serviceModel.getContainerConcurrency() + ") may queue requests on " +
+                    "busy pods. consider \"" + KnativeConstants.DataPathMode.AUTO.getValue() + "\".");
         }
     }
 
     /**
-     * Create docker artifacts.
+     * Print the knative feature flags required by the scheduling controls in use. Knative rejects these pod spec
+     * fields unless the flags are enabled in the config-features config map.
      *
      * @param serviceModel Service model
      */
-    private DockerModel getDockerModel(ServiceModel serviceModel) throws DockerGenException {
-        DockerModel dockerModel = knativeDataHolder.getDockerModel();
-        String dockerImage = serviceModel.getImage();
-        String imageTag = "latest";
-        if (dockerImage.contains(":")) {
-            imageTag = dockerImage.substring(dockerImage.lastIndexOf(":") + 1);
-            dockerImage = dockerImage.substring(0, dockerImage.lastIndexOf(":"));
-        }
-        dockerModel.setBaseImage(serviceModel.getBaseImage());
-        dockerModel.setRegistry(serviceModel.getRegistry());
-        dockerModel.setName(dockerImage);
-        dockerModel.setTag(imageTag);
-        dockerModel.setEnableDebug(false);
-        dockerModel.setUsername(serviceModel.getUsername());
-        dockerModel.setPassword(serviceModel.getPassword());
-        dockerModel.setPush(serviceModel.isPush());
-        dockerModel.setJarFileName(extractJarName(knativeDataHolder.getUberJarPath()) + EXECUTABLE_JAR);
-        dockerModel.setPorts(serviceModel.getPorts());
-        dockerModel.setService(true);
-        dockerModel.setDockerHost(serviceModel.getDockerHost());
-        dockerModel.setDockerCertPath(serviceModel.getDockerCertPath());
-        dockerModel.setBuildImage(serviceModel.isBuildImage());
-        dockerModel.addCommandArg(serviceModel.getCommandArgs());
-        dockerModel.setCopyFiles(serviceModel.getCopyFiles());
-        return dockerModel;
+    private void printSchedulingFeatureFlags(ServiceModel serviceModel) {
+        List<String> featureFlags = new ArrayList<>();
+        if (null != serviceModel.getPodTolerations() && !serviceModel.getPodTolerations().isEmpty()) {
+            featureFlags.add("kubernetes.podspec-tolerations");
+        }
+        if (null != serviceModel.getNodeAffinity() && !serviceModel.getNodeAffinity().isEmpty()) {
+            featureFlags.add("kubernetes.podspec-affinity");
+        }
+        if (!isBlank(serviceModel.getSpread()) || (null != serviceModel.getTopologySpreadConstraints() &&
+                !serviceModel.getTopologySpreadConstraints().isEmpty())) {
+            featureFlags.add("kubernetes.podspec-topologyspreadconstraints");
+        }
+        if (!isBlank(serviceModel.getPriorityClassName())) {
+            featureFlags.add("kubernetes.podspec-priorityclassname");
+        }
+        if (featureFlags.isEmpty()) {
+            return;
+        }
+        OUT.println();
+        OUT.print("\t\tenable " + String.join(", ", featureFlags) + " in the knative config-features config map.");
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.models;
+
+/**
+ * AppCDS training run configuration for the docker image.
+ */
+public class AppCdsModel {
+
+    private String trainingCommand;
+    private String warmUpCommand;
+    private int trainingSeconds = 20;
+
+    public String getTrainingCommand() {
+        return trainingCommand;
+    }
+
+    public void setTrainingCommand(String trainingCommand) {
+        this.trainingCommand = trainingCommand;
+    }
+
+    public String getWarmUpCommand() {
+        return warmUpCommand;
+    }
+
+    public void setWarmUpCommand(String warmUpCommand) {
+        this.warmUpCommand = warmUpCommand;
+    }
+
+    public int getTrainingSeconds() {
+        return trainingSeconds;
+    }
+
+    public void setTrainingSeconds(int trainingSeconds) {
+        this.trainingSeconds = trainingSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "AppCdsModel{" +
+                "trainingCommand='" + trainingCommand + '\'' +
+                ", warmUpCommand='" + warmUpCommand + '\'' +
+                ", trainingSeconds=" + trainingSeconds +
+                '}';
+    }
+}
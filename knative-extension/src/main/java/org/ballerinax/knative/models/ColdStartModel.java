@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.models;
+
+/**
+ * Cold start configuration for knative.
+ */
+public class ColdStartModel {
+
+    private String preset;
+    private int initialScale = -1;
+    private int activationScale = -1;
+    private String scaleDownDelay;
+    private String scaleToZeroPodRetentionPeriod;
+
+    public String getPreset() {
+        return preset;
+    }
+
+    public void setPreset(String preset) {
+        this.preset = preset;
+    }
+
+    public int getInitialScale() {
+        return initialScale;
+    }
+
+    public void setInitialScale(int initialScale) {
+        this.initialScale = initialScale;
+    }
+
+    public int getActivationScale() {
+        return activationScale;
+    }
+
+    public void setActivationScale(int activationScale) {
+        this.activationScale = activationScale;
+    }
+
+    public String getScaleDownDelay() {
+        return scaleDownDelay;
+    }
+
+    public void setScaleDownDelay(String scaleDownDelay) {
+        this.scaleDownDelay = scaleDownDelay;
+    }
+
+    public String getScaleToZeroPodRetentionPeriod() {
+        return scaleToZeroPodRetentionPeriod;
+    }
+
+    public void setScaleToZeroPodRetentionPeriod(String scaleToZeroPodRetentionPeriod) {
+        this.scaleToZeroPodRetentionPeriod = scaleToZeroPodRetentionPeriod;
+    }
+
+    @Override
+    public String toString() {
+        return "ColdStartModel{" +
+                "preset='" + preset + '\'' +
+                ", initialScale=" + initialScale +
+                ", activationScale=" + activationScale +
+                ", scaleDownDelay='" + scaleDownDelay + '\'' +
+                ", scaleToZeroPodRetentionPeriod='" + scaleToZeroPodRetentionPeriod + '\'' +
+                '}';
+    }
+}
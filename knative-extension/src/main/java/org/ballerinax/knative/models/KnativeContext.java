@@ -24,45 +24,35 @@ import org.wso2.ballerinalang.compiler.util.CompilerContext;
 import org.wso2.ballerinalang.compiler.util.Names;
 
 import java.nio.file.Path;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import static org.ballerinax.knative.KnativeConstants.CLUSTER_LOCAL_DOMAIN;
+import static org.ballerinax.knative.KnativeConstants.DEFAULT_NAMESPACE;
 import static org.ballerinax.knative.utils.KnativeUtils.isBlank;
 
 /**
- * Class to hold Kubernetes data holder against package id.
+ * Class to hold Kubernetes data holder against package id. The data holder of a module is passed to the processors
+ * and handlers of the module, so modules can be generated in parallel.
  */
 public class KnativeContext {
 
-    private static KnativeContext instance;
+    private static final KnativeContext INSTANCE = new KnativeContext();
     private final Map<PackageID, KnativeDataHolder> packageIDtoDataHolderMap;
-    private PackageID currentPackage;
-    private CompilerContext compilerContext;
+    private volatile CompilerContext compilerContext;
 
     private KnativeContext() {
-        packageIDtoDataHolderMap = new HashMap<>();
+        packageIDtoDataHolderMap = new ConcurrentHashMap<>();
     }
 
     public static KnativeContext getInstance() {
-        synchronized (KnativeDataHolder.class) {
-            if (instance == null) {
-                instance = new KnativeContext();
-            }
-        }
-        return instance;
+        return INSTANCE;
     }
 
-    public void addDataHolder(PackageID packageID, Path sourcePath) {
-        this.currentPackage = packageID;
-        this.packageIDtoDataHolderMap.put(packageID, new KnativeDataHolder(sourcePath));
-    }
-
-    public void setCurrentPackage(PackageID packageID) {
-        this.currentPackage = packageID;
-    }
-
-    public KnativeDataHolder getDataHolder() {
-        return this.packageIDtoDataHolderMap.get(this.currentPackage);
+    public KnativeDataHolder addDataHolder(PackageID packageID, Path sourcePath) {
+        KnativeDataHolder dataHolder = new KnativeDataHolder(sourcePath);
+        this.packageIDtoDataHolderMap.put(packageID, dataHolder);
+        return dataHolder;
     }
 
     public KnativeDataHolder getDataHolder(PackageID packageID) {
@@ -74,15 +64,60 @@ public class KnativeContext {
     }
 
     public String getServiceName(String dependsOn) throws KnativePluginException {
+        return getDependencyDataHolder(dependsOn).getServiceModel().getName();
+    }
+
+    /**
+     * Get the cluster local address of a dependent knative service.
+     *
+     * @param dependsOn Dependent listener in "module:listener" format.
+     * @return Address of the service in the form of http://name.namespace.svc.cluster.local
+     * @throws KnativePluginException If the dependent module is not annotated with @knative:Service{}.
+     */
+    public String getClusterLocalAddress(String dependsOn) throws KnativePluginException {
+        return "http://" + getClusterLocalHost(dependsOn);
+    }
+
+    /**
+     * Get the cluster local host name of a dependent knative service.
+     *
+     * @param dependsOn Dependent listener in "module:listener" format.
+     * @return Host name in the form of name.namespace.svc.cluster.local
+     * @throws KnativePluginException If the dependent module is not annotated with @knative:Service{}.
+     */
+    public String getClusterLocalHost(String dependsOn) throws KnativePluginException {
+        KnativeDataHolder dataHolder = getDependencyDataHolder(dependsOn);
+        String namespace = isBlank(dataHolder.getNamespace()) ? DEFAULT_NAMESPACE : dataHolder.getNamespace();
+        return dataHolder.getServiceModel().getName() + "." + namespace + CLUSTER_LOCAL_DOMAIN;
+    }
+
+    /**
+     * Check whether a module is referred by the dependsOn of another module.
+     *
+     * @param packageID Module to check.
+     * @return true if another module depends on a listener of the module.
+     */
+    public boolean hasDependents(PackageID packageID) {
+        for (KnativeDataHolder dataHolder : packageIDtoDataHolderMap.values()) {
+            for (String dependsOn : dataHolder.getServiceModel().getDependsOn()) {
+                if (dependsOn.startsWith(packageID.name.value + Names.VERSION_SEPARATOR.value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private KnativeDataHolder getDependencyDataHolder(String dependsOn) throws KnativePluginException {
         String packageName = dependsOn.substring(0, dependsOn.indexOf(Names.VERSION_SEPARATOR.value));
-        String listener = dependsOn.substring(dependsOn.indexOf(Names.VERSION_SEPARATOR.value) + 1);
         for (PackageID packageID : packageIDtoDataHolderMap.keySet()) {
-            if (packageName.equals(packageID.name.value)) {
-                return getDataHolder(packageID).getbListenerToK8sServiceMap().get(listener).getName();
+            KnativeDataHolder dataHolder = getDataHolder(packageID);
+            if (packageName.equals(packageID.name.value) && null != dataHolder.getServiceModel().getName()) {
+                return dataHolder;
             }
         }
         throw new KnativePluginException("dependent listener " + dependsOn + " is not annotated with " +
-                "@kubernetes:Service{}");
+                "@knative:Service{}");
     }
 
     public String getDeploymentNameFromListener(String dependsOn) throws KnativePluginException {
@@ -19,6 +19,7 @@
 package org.ballerinax.knative.models;
 
 import org.ballerinax.docker.generator.models.DockerModel;
+import org.ballerinax.knative.utils.ArtifactSink;
 
 import java.nio.file.Path;
 import java.util.HashMap;
@@ -34,6 +35,7 @@ public class KnativeDataHolder {
     private boolean canProcess;
     private ServiceModel serviceModel;
     private DockerModel dockerModel;
+    private Set<Path> dependencyJarPaths;
     private PodAutoscalerModel podAutoscalerModel;
     private Map<String, KnativeContainerModel> bListenerToK8sServiceMap;
     private Map<String, Set<SecretModel>> bListenerToSecretMap;
@@ -43,6 +45,7 @@ public class KnativeDataHolder {
     private Path uberJarPath;
     private Path k8sArtifactOutputPath;
     private Path dockerArtifactOutputPath;
+    private ArtifactSink artifactSink;
     private String namespace;
     private Path sourceRoot;
     private boolean isProject = false;
@@ -56,6 +59,7 @@ public class KnativeDataHolder {
         this.serviceModel = new ServiceModel();
         this.resourceQuotaModels = new HashSet<>();
         this.dockerModel = new DockerModel();
+        this.dependencyJarPaths = new HashSet<>();
     }
 
     public Path getSourceRoot() {
@@ -163,6 +167,14 @@ public class KnativeDataHolder {
         this.dockerArtifactOutputPath = dockerArtifactOutputPath;
     }
 
+    public ArtifactSink getArtifactSink() {
+        return artifactSink;
+    }
+
+    public void setArtifactSink(ArtifactSink artifactSink) {
+        this.artifactSink = artifactSink;
+    }
+
     public DockerModel getDockerModel() {
         return dockerModel;
     }
@@ -171,6 +183,14 @@ public class KnativeDataHolder {
         this.dockerModel = dockerModel;
     }
 
+    public Set<Path> getDependencyJarPaths() {
+        return dependencyJarPaths;
+    }
+
+    public void addDependencyJarPaths(Set<Path> dependencyJarPaths) {
+        this.dependencyJarPaths.addAll(dependencyJarPaths);
+    }
+
     public String getNamespace() {
         return namespace;
     }
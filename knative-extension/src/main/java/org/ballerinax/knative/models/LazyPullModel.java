@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lazy pulling configuration for the image layers.
+ */
+public class LazyPullModel {
+
+    private boolean recordProfile = true;
+    private int profileSeconds = 20;
+    private List<String> prefetchFiles = new ArrayList<>();
+
+    public boolean isRecordProfile() {
+        return recordProfile;
+    }
+
+    public void setRecordProfile(boolean recordProfile) {
+        this.recordProfile = recordProfile;
+    }
+
+    public int getProfileSeconds() {
+        return profileSeconds;
+    }
+
+    public void setProfileSeconds(int profileSeconds) {
+        this.profileSeconds = profileSeconds;
+    }
+
+    public List<String> getPrefetchFiles() {
+        return prefetchFiles;
+    }
+
+    public void setPrefetchFiles(List<String> prefetchFiles) {
+        this.prefetchFiles = prefetchFiles;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyPullModel{" +
+                "recordProfile=" + recordProfile +
+                ", profileSeconds=" + profileSeconds +
+                ", prefetchFiles=" + prefetchFiles +
+                '}';
+    }
+}
@@ -25,12 +25,81 @@ import java.util.HashMap;
  */
 public class PodAutoscalerModel extends KnativeModel {
 
+    private String autoscalerClass;
+    private String metric;
+    private int target;
+    private int targetUtilizationPercentage;
+    private String window;
+    private int panicWindowPercentage;
+    private int panicThresholdPercentage;
     private int minReplicas;
     private int maxReplicas;
     private String deployment;
 
     public PodAutoscalerModel() {
         labels = new HashMap<>();
+        target = -1;
+        targetUtilizationPercentage = -1;
+        panicWindowPercentage = -1;
+        panicThresholdPercentage = -1;
+        minReplicas = -1;
+        maxReplicas = -1;
+    }
+
+    public String getAutoscalerClass() {
+        return autoscalerClass;
+    }
+
+    public void setAutoscalerClass(String autoscalerClass) {
+        this.autoscalerClass = autoscalerClass;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public void setTarget(int target) {
+        this.target = target;
+    }
+
+    public int getTargetUtilizationPercentage() {
+        return targetUtilizationPercentage;
+    }
+
+    public void setTargetUtilizationPercentage(int targetUtilizationPercentage) {
+        this.targetUtilizationPercentage = targetUtilizationPercentage;
+    }
+
+    public String getWindow() {
+        return window;
+    }
+
+    public void setWindow(String window) {
+        this.window = window;
+    }
+
+    public int getPanicWindowPercentage() {
+        return panicWindowPercentage;
+    }
+
+    public void setPanicWindowPercentage(int panicWindowPercentage) {
+        this.panicWindowPercentage = panicWindowPercentage;
+    }
+
+    public int getPanicThresholdPercentage() {
+        return panicThresholdPercentage;
+    }
+
+    public void setPanicThresholdPercentage(int panicThresholdPercentage) {
+        this.panicThresholdPercentage = panicThresholdPercentage;
     }
 
     public int getMinReplicas() {
@@ -60,4 +129,19 @@ public class PodAutoscalerModel extends KnativeModel {
     public void addLabel(String key, String value) {
         this.labels.put(key, value);
     }
+
+    @Override
+    public String toString() {
+        return "PodAutoscalerModel{" +
+                "autoscalerClass='" + autoscalerClass + '\'' +
+                ", metric='" + metric + '\'' +
+                ", target=" + target +
+                ", targetUtilizationPercentage=" + targetUtilizationPercentage +
+                ", window='" + window + '\'' +
+                ", panicWindowPercentage=" + panicWindowPercentage +
+                ", panicThresholdPercentage=" + panicThresholdPercentage +
+                ", minReplicas=" + minReplicas +
+                ", maxReplicas=" + maxReplicas +
+                '}';
+    }
 }
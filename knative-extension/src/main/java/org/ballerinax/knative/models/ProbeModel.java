@@ -18,14 +18,30 @@
 
 package org.ballerinax.knative.models;
 
+import java.util.Map;
+
 /**
  * Probe configuration for knative.
  */
 public class ProbeModel {
 
+    private String probeType;
     private int port;
+    private String path;
+    private Map<String, String> httpHeaders;
+    private String grpcService;
     private int initialDelaySeconds = -1;
     private int periodSeconds = -1;
+    private int timeoutSeconds = -1;
+    private int failureThreshold = -1;
+
+    public String getProbeType() {
+        return probeType;
+    }
+
+    public void setProbeType(String probeType) {
+        this.probeType = probeType;
+    }
 
     public int getPort() {
         return port;
@@ -35,6 +51,30 @@ public class ProbeModel {
         this.port = port;
     }
 
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Map<String, String> getHttpHeaders() {
+        return httpHeaders;
+    }
+
+    public void setHttpHeaders(Map<String, String> httpHeaders) {
+        this.httpHeaders = httpHeaders;
+    }
+
+    public String getGrpcService() {
+        return grpcService;
+    }
+
+    public void setGrpcService(String grpcService) {
+        this.grpcService = grpcService;
+    }
+
     public int getInitialDelaySeconds() {
         return initialDelaySeconds;
     }
@@ -50,4 +90,20 @@ public class ProbeModel {
     public void setPeriodSeconds(int periodSeconds) {
         this.periodSeconds = periodSeconds;
     }
+
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public void setTimeoutSeconds(int timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
 }
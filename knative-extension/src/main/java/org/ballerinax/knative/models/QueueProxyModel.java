@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.models;
+
+/**
+ * Queue proxy sidecar configuration for knative.
+ */
+public class QueueProxyModel {
+
+    private String cpuRequest;
+    private String cpuLimit;
+    private String memoryRequest;
+    private String memoryLimit;
+    private int resourcePercentage = -1;
+
+    public String getCpuRequest() {
+        return cpuRequest;
+    }
+
+    public void setCpuRequest(String cpuRequest) {
+        this.cpuRequest = cpuRequest;
+    }
+
+    public String getCpuLimit() {
+        return cpuLimit;
+    }
+
+    public void setCpuLimit(String cpuLimit) {
+        this.cpuLimit = cpuLimit;
+    }
+
+    public String getMemoryRequest() {
+        return memoryRequest;
+    }
+
+    public void setMemoryRequest(String memoryRequest) {
+        this.memoryRequest = memoryRequest;
+    }
+
+    public String getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public void setMemoryLimit(String memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    public int getResourcePercentage() {
+        return resourcePercentage;
+    }
+
+    public void setResourcePercentage(int resourcePercentage) {
+        this.resourcePercentage = resourcePercentage;
+    }
+
+    @Override
+    public String toString() {
+        return "QueueProxyModel{" +
+                "cpuRequest='" + cpuRequest + '\'' +
+                ", cpuLimit='" + cpuLimit + '\'' +
+                ", memoryRequest='" + memoryRequest + '\'' +
+                ", memoryLimit='" + memoryLimit + '\'' +
+                ", resourcePercentage=" + resourcePercentage +
+                '}';
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.models;
+
+/**
+ * Container resource configuration for knative.
+ */
+public class ResourceModel {
+
+    private String cpuRequest;
+    private String memoryRequest;
+    private String cpuLimit;
+    private String memoryLimit;
+    private boolean autoSize;
+    private String policy;
+
+    public ResourceModel() {
+        this.autoSize = false;
+    }
+
+    public String getCpuRequest() {
+        return cpuRequest;
+    }
+
+    public void setCpuRequest(String cpuRequest) {
+        this.cpuRequest = cpuRequest;
+    }
+
+    public String getMemoryRequest() {
+        return memoryRequest;
+    }
+
+    public void setMemoryRequest(String memoryRequest) {
+        this.memoryRequest = memoryRequest;
+    }
+
+    public String getCpuLimit() {
+        return cpuLimit;
+    }
+
+    public void setCpuLimit(String cpuLimit) {
+        this.cpuLimit = cpuLimit;
+    }
+
+    public String getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public void setMemoryLimit(String memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    public boolean isAutoSize() {
+        return autoSize;
+    }
+
+    public void setAutoSize(boolean autoSize) {
+        this.autoSize = autoSize;
+    }
+
+    public String getPolicy() {
+        return policy;
+    }
+
+    public void setPolicy(String policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceModel{" +
+                "cpuRequest='" + cpuRequest + '\'' +
+                ", memoryRequest='" + memoryRequest + '\'' +
+                ", cpuLimit='" + cpuLimit + '\'' +
+                ", memoryLimit='" + memoryLimit + '\'' +
+                ", autoSize=" + autoSize +
+                ", policy='" + policy + '\'' +
+                '}';
+    }
+}
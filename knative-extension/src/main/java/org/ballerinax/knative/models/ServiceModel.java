@@ -37,6 +37,7 @@ public class ServiceModel extends KnativeModel {
     private int replicas;
     private ProbeModel livenessProbe;
     private ProbeModel readinessProbe;
+    private ProbeModel startupProbe;
     private String namespace;
     private String imagePullPolicy;
     private String image;
@@ -63,6 +64,31 @@ public class ServiceModel extends KnativeModel {
     private List<PodTolerationModel> podTolerations;
     private int containerConcurrency;
     private int timeoutSeconds;
+    private ColdStartModel coldStartModel;
+    private ResourceModel resourceModel;
+    private String revisionName;
+    private List<TrafficTargetModel> trafficTargets;
+    private String rolloutDuration;
+    private String dataPath;
+    private QueueProxyModel queueProxyModel;
+    private List<NodeAffinityModel> nodeAffinity;
+    private List<TopologySpreadConstraintModel> topologySpreadConstraints;
+    private String priorityClassName;
+    private String spread;
+    private boolean prePullImage;
+    private String protocol;
+    private String listenerProtocol;
+    private int responseStartTimeoutSeconds;
+    private int idleTimeoutSeconds;
+    private long listenerTimeout;
+    private String visibility;
+    private String dependencyWait;
+    private String jvmProfile;
+    private AppCdsModel appCdsModel;
+    private String buildMode;
+    private boolean layeredImage;
+    private String imageBuilder;
+    private LazyPullModel lazyPullModel;
 
     public ServiceModel() {
         this.replicas = 1;
@@ -85,6 +111,12 @@ public class ServiceModel extends KnativeModel {
         this.registry = "";
         this.containerConcurrency = 100;
         this.timeoutSeconds = 60;
+        this.responseStartTimeoutSeconds = -1;
+        this.idleTimeoutSeconds = -1;
+        this.listenerTimeout = -1;
+        this.dependencyWait = KnativeConstants.DEPENDENCY_WAIT_NONE;
+        this.buildMode = KnativeConstants.BUILD_MODE_JVM;
+        this.imageBuilder = KnativeConstants.IMAGE_BUILDER_DOCKER;
     }
 
     public int getPort() {
@@ -137,9 +169,10 @@ public class ServiceModel extends KnativeModel {
     public void setReadinessProbe(ProbeModel readinessProbe) {
         this.readinessProbe = readinessProbe;
 
-        // setting default values
+        // setting default values. http and grpc probes only pass once the service is up, so no delay is needed.
         if (null != this.readinessProbe) {
-            if (this.readinessProbe.getInitialDelaySeconds() == -1) {
+            if (this.readinessProbe.getInitialDelaySeconds() == -1 &&
+                    KnativeConstants.PROBE_TYPE_TCP.equals(this.readinessProbe.getProbeType())) {
                 this.readinessProbe.setInitialDelaySeconds(3);
             }
 
@@ -149,6 +182,25 @@ public class ServiceModel extends KnativeModel {
         }
     }
 
+    public ProbeModel getStartupProbe() {
+        return startupProbe;
+    }
+
+    public void setStartupProbe(ProbeModel startupProbe) {
+        this.startupProbe = startupProbe;
+
+        // setting default values
+        if (null != this.startupProbe) {
+            if (this.startupProbe.getPeriodSeconds() == -1) {
+                this.startupProbe.setPeriodSeconds(1);
+            }
+
+            if (this.startupProbe.getFailureThreshold() == -1) {
+                this.startupProbe.setFailureThreshold(120);
+            }
+        }
+    }
+
     public String getImagePullPolicy() {
         return imagePullPolicy;
     }
@@ -361,6 +413,206 @@ public class ServiceModel extends KnativeModel {
         this.timeoutSeconds = timeoutSeconds;
     }
 
+    public ColdStartModel getColdStartModel() {
+        return coldStartModel;
+    }
+
+    public void setColdStartModel(ColdStartModel coldStartModel) {
+        this.coldStartModel = coldStartModel;
+    }
+
+    public ResourceModel getResourceModel() {
+        return resourceModel;
+    }
+
+    public void setResourceModel(ResourceModel resourceModel) {
+        this.resourceModel = resourceModel;
+    }
+
+    public String getRevisionName() {
+        return revisionName;
+    }
+
+    public void setRevisionName(String revisionName) {
+        this.revisionName = revisionName;
+    }
+
+    public List<TrafficTargetModel> getTrafficTargets() {
+        return trafficTargets;
+    }
+
+    public void setTrafficTargets(List<TrafficTargetModel> trafficTargets) {
+        this.trafficTargets = trafficTargets;
+    }
+
+    public String getRolloutDuration() {
+        return rolloutDuration;
+    }
+
+    public void setRolloutDuration(String rolloutDuration) {
+        this.rolloutDuration = rolloutDuration;
+    }
+
+    public String getDataPath() {
+        return dataPath;
+    }
+
+    public void setDataPath(String dataPath) {
+        this.dataPath = dataPath;
+    }
+
+    public QueueProxyModel getQueueProxyModel() {
+        return queueProxyModel;
+    }
+
+    public void setQueueProxyModel(QueueProxyModel queueProxyModel) {
+        this.queueProxyModel = queueProxyModel;
+    }
+
+    public List<NodeAffinityModel> getNodeAffinity() {
+        return nodeAffinity;
+    }
+
+    public void setNodeAffinity(List<NodeAffinityModel> nodeAffinity) {
+        this.nodeAffinity = nodeAffinity;
+    }
+
+    public List<TopologySpreadConstraintModel> getTopologySpreadConstraints() {
+        return topologySpreadConstraints;
+    }
+
+    public void setTopologySpreadConstraints(List<TopologySpreadConstraintModel> topologySpreadConstraints) {
+        this.topologySpreadConstraints = topologySpreadConstraints;
+    }
+
+    public String getPriorityClassName() {
+        return priorityClassName;
+    }
+
+    public void setPriorityClassName(String priorityClassName) {
+        this.priorityClassName = priorityClassName;
+    }
+
+    public String getSpread() {
+        return spread;
+    }
+
+    public void setSpread(String spread) {
+        this.spread = spread;
+    }
+
+    public boolean isPrePullImage() {
+        return prePullImage;
+    }
+
+    public void setPrePullImage(boolean prePullImage) {
+        this.prePullImage = prePullImage;
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(String protocol) {
+        this.protocol = protocol;
+    }
+
+    public String getListenerProtocol() {
+        return listenerProtocol;
+    }
+
+    public void setListenerProtocol(String listenerProtocol) {
+        this.listenerProtocol = listenerProtocol;
+    }
+
+    public int getResponseStartTimeoutSeconds() {
+        return responseStartTimeoutSeconds;
+    }
+
+    public void setResponseStartTimeoutSeconds(int responseStartTimeoutSeconds) {
+        this.responseStartTimeoutSeconds = responseStartTimeoutSeconds;
+    }
+
+    public int getIdleTimeoutSeconds() {
+        return idleTimeoutSeconds;
+    }
+
+    public void setIdleTimeoutSeconds(int idleTimeoutSeconds) {
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
+    }
+
+    public long getListenerTimeout() {
+        return listenerTimeout;
+    }
+
+    public void setListenerTimeout(long listenerTimeout) {
+        this.listenerTimeout = listenerTimeout;
+    }
+
+    public String getVisibility() {
+        return visibility;
+    }
+
+    public void setVisibility(String visibility) {
+        this.visibility = visibility;
+    }
+
+    public String getDependencyWait() {
+        return dependencyWait;
+    }
+
+    public void setDependencyWait(String dependencyWait) {
+        this.dependencyWait = dependencyWait;
+    }
+
+    public String getJvmProfile() {
+        return jvmProfile;
+    }
+
+    public void setJvmProfile(String jvmProfile) {
+        this.jvmProfile = jvmProfile;
+    }
+
+    public AppCdsModel getAppCdsModel() {
+        return appCdsModel;
+    }
+
+    public void setAppCdsModel(AppCdsModel appCdsModel) {
+        this.appCdsModel = appCdsModel;
+    }
+
+    public String getBuildMode() {
+        return buildMode;
+    }
+
+    public void setBuildMode(String buildMode) {
+        this.buildMode = buildMode;
+    }
+
+    public boolean isLayeredImage() {
+        return layeredImage;
+    }
+
+    public void setLayeredImage(boolean layeredImage) {
+        this.layeredImage = layeredImage;
+    }
+
+    public String getImageBuilder() {
+        return imageBuilder;
+    }
+
+    public void setImageBuilder(String imageBuilder) {
+        this.imageBuilder = imageBuilder;
+    }
+
+    public LazyPullModel getLazyPullModel() {
+        return lazyPullModel;
+    }
+
+    public void setLazyPullModel(LazyPullModel lazyPullModel) {
+        this.lazyPullModel = lazyPullModel;
+    }
+
     @Override
     public String toString() {
         return "DeploymentModel{" +
@@ -390,6 +642,31 @@ public class ServiceModel extends KnativeModel {
                 ", registry='" + registry +
                 ", podTolerations=" + podTolerations +
                 ", containerConcurrency" + containerConcurrency +
+                ", coldStartModel=" + coldStartModel +
+                ", resourceModel=" + resourceModel +
+                ", revisionName='" + revisionName + '\'' +
+                ", trafficTargets=" + trafficTargets +
+                ", rolloutDuration='" + rolloutDuration + '\'' +
+                ", dataPath='" + dataPath + '\'' +
+                ", queueProxyModel=" + queueProxyModel +
+                ", nodeAffinity=" + nodeAffinity +
+                ", topologySpreadConstraints=" + topologySpreadConstraints +
+                ", priorityClassName='" + priorityClassName + '\'' +
+                ", spread='" + spread + '\'' +
+                ", prePullImage=" + prePullImage +
+                ", protocol='" + protocol + '\'' +
+                ", listenerProtocol='" + listenerProtocol + '\'' +
+                ", responseStartTimeoutSeconds=" + responseStartTimeoutSeconds +
+                ", idleTimeoutSeconds=" + idleTimeoutSeconds +
+                ", listenerTimeout=" + listenerTimeout +
+                ", visibility='" + visibility + '\'' +
+                ", dependencyWait='" + dependencyWait + '\'' +
+                ", jvmProfile='" + jvmProfile + '\'' +
+                ", appCdsModel=" + appCdsModel +
+                ", buildMode='" + buildMode + '\'' +
+                ", layeredImage=" + layeredImage +
+                ", imageBuilder='" + imageBuilder + '\'' +
+                ", lazyPullModel=" + lazyPullModel +
                 '}';
     }
 }
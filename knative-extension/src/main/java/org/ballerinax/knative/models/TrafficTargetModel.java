@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.models;
+
+/**
+ * Traffic target model for knative service.
+ */
+public class TrafficTargetModel {
+
+    private String revisionName;
+    private boolean latestRevision;
+    private int percent = -1;
+    private String tag;
+
+    public String getRevisionName() {
+        return revisionName;
+    }
+
+    public void setRevisionName(String revisionName) {
+        this.revisionName = revisionName;
+    }
+
+    public boolean isLatestRevision() {
+        return latestRevision;
+    }
+
+    public void setLatestRevision(boolean latestRevision) {
+        this.latestRevision = latestRevision;
+    }
+
+    public int getPercent() {
+        return percent;
+    }
+
+    public void setPercent(int percent) {
+        this.percent = percent;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    @Override
+    public String toString() {
+        return "TrafficTargetModel{" +
+                "revisionName='" + revisionName + '\'' +
+                ", latestRevision=" + latestRevision +
+                ", percent=" + percent +
+                ", tag='" + tag + '\'' +
+                '}';
+    }
+}
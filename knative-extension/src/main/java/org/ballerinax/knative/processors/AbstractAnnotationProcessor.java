@@ -22,12 +22,19 @@ import org.ballerinalang.model.tree.FunctionNode;
 import org.ballerinalang.model.tree.ServiceNode;
 import org.ballerinalang.model.tree.SimpleVariableNode;
 import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.models.KnativeDataHolder;
 
 /**
  * Abstract Annotation processor class.
  */
 public abstract class AbstractAnnotationProcessor implements AnnotationProcessor {
 
+    protected final KnativeDataHolder knativeDataHolder;
+
+    AbstractAnnotationProcessor(KnativeDataHolder knativeDataHolder) {
+        this.knativeDataHolder = knativeDataHolder;
+    }
+
     @Override
     public void processAnnotation(ServiceNode serviceNode, AnnotationAttachmentNode attachmentNode) throws
             KnativePluginException {
@@ -20,26 +20,31 @@ package org.ballerinax.knative.processors;
 
 
 import org.ballerinax.knative.exceptions.KnativePluginException;
-import org.ballerinax.knative.models.KnativeContext;
+import org.ballerinax.knative.models.KnativeDataHolder;
 
 /**
  * Annotation processor factory for knative.
  */
 public class KnativeAnnotationProcessorFactory {
 
-    public static AnnotationProcessor getAnnotationProcessorInstance(String type) throws KnativePluginException {
+    public static AnnotationProcessor getAnnotationProcessorInstance(String type, KnativeDataHolder knativeDataHolder)
+            throws KnativePluginException {
         // set can process to true so that this value can be accessed from code generated method.
-        KnativeContext.getInstance().getDataHolder().setCanProcess(true);
+        knativeDataHolder.setCanProcess(true);
         KnativeAnnotation knativeAnnotation = KnativeAnnotation.valueOf(type);
         switch (knativeAnnotation) {
             case Service:
-                return new KnativeServiceAnnotationProcessor();
+                return new KnativeServiceAnnotationProcessor(knativeDataHolder);
             case Secret:
-                return new KnativeSecretAnnotationProcesser();
+                return new KnativeSecretAnnotationProcesser(knativeDataHolder);
             case ConfigMap:
-                return new KnativeConfigMapAnnotationProcessor();
+                return new KnativeConfigMapAnnotationProcessor(knativeDataHolder);
+            case Autoscaling:
+                return new KnativeAutoscalingAnnotationProcessor(knativeDataHolder);
+            case HPA:
+                return new KnativeHPAAnnotationProcessor(knativeDataHolder);
             default:
-                KnativeContext.getInstance().getDataHolder().setCanProcess(false);
+                knativeDataHolder.setCanProcess(false);
                 throw new KnativePluginException("error while getting annotation processor for type: " + type);
         }
     }
@@ -48,5 +53,7 @@ public class KnativeAnnotationProcessorFactory {
         Service,
         Secret,
         ConfigMap,
+        Autoscaling,
+        HPA,
     }
 }
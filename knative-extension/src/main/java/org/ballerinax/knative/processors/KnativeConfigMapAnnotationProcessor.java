@@ -24,7 +24,7 @@ import org.ballerinalang.model.tree.IdentifierNode;
 import org.ballerinalang.model.tree.ServiceNode;
 import org.ballerinax.knative.exceptions.KnativePluginException;
 import org.ballerinax.knative.models.ConfigMapModel;
-import org.ballerinax.knative.models.KnativeContext;
+import org.ballerinax.knative.models.KnativeDataHolder;
 import org.ballerinax.knative.utils.KnativeUtils;
 import org.wso2.ballerinalang.compiler.tree.BLangAnnotationAttachment;
 import org.wso2.ballerinalang.compiler.tree.expressions.BLangExpression;
@@ -59,6 +59,10 @@ import static org.ballerinax.knative.utils.KnativeUtils.isBlank;
  */
 public class KnativeConfigMapAnnotationProcessor extends AbstractAnnotationProcessor {
 
+    KnativeConfigMapAnnotationProcessor(KnativeDataHolder knativeDataHolder) {
+        super(knativeDataHolder);
+    }
+
     @Override
     public void processAnnotation(ServiceNode serviceNode, AnnotationAttachmentNode attachmentNode) throws
             KnativePluginException {
@@ -155,7 +159,7 @@ public class KnativeConfigMapAnnotationProcessor extends AbstractAnnotationProce
                     break;
             }
         }
-        KnativeContext.getInstance().getDataHolder().addConfigMaps(configMapModels);
+        knativeDataHolder.addConfigMaps(configMapModels);
     }
 
     private Map<String, String> getDataForConfigMap(List<BLangExpression> data) throws KnativePluginException {
@@ -163,7 +167,7 @@ public class KnativeConfigMapAnnotationProcessor extends AbstractAnnotationProce
         for (BLangExpression bLangExpression : data) {
             Path dataFilePath = Paths.get(((BLangLiteral) bLangExpression).getValue().toString());
             if (!dataFilePath.isAbsolute()) {
-                dataFilePath = KnativeContext.getInstance().getDataHolder().getSourceRoot().resolve(dataFilePath);
+                dataFilePath = knativeDataHolder.getSourceRoot().resolve(dataFilePath);
             }
             String key = String.valueOf(dataFilePath.getFileName());
             String content = new String(KnativeUtils.readFileContent(dataFilePath), StandardCharsets.UTF_8);
@@ -180,7 +184,7 @@ public class KnativeConfigMapAnnotationProcessor extends AbstractAnnotationProce
         configMapModel.setMountPath(BALLERINA_CONF_MOUNT_PATH);
         Path dataFilePath = Paths.get(configFilePath);
         if (!dataFilePath.isAbsolute()) {
-            dataFilePath = KnativeContext.getInstance().getDataHolder().getSourceRoot().resolve(dataFilePath)
+            dataFilePath = knativeDataHolder.getSourceRoot().resolve(dataFilePath)
                     .normalize();
         }
         String content = new String(KnativeUtils.readFileContent(dataFilePath), StandardCharsets.UTF_8);
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.processors;
+
+import org.ballerinalang.model.tree.AnnotationAttachmentNode;
+import org.ballerinalang.model.tree.FunctionNode;
+import org.ballerinalang.model.tree.ServiceNode;
+import org.ballerinax.knative.exceptions.KnativePluginException;
+import org.ballerinax.knative.models.KnativeDataHolder;
+import org.ballerinax.knative.models.PodAutoscalerModel;
+import org.wso2.ballerinalang.compiler.tree.BLangAnnotationAttachment;
+import org.wso2.ballerinalang.compiler.tree.expressions.BLangRecordLiteral;
+
+import java.util.List;
+
+import static org.ballerinax.knative.KnativeConstants.HPA_CLASS;
+import static org.ballerinax.knative.KnativeConstants.HPA_METRIC_CPU;
+import static org.ballerinax.knative.KnativeConstants.MAIN_FUNCTION_NAME;
+import static org.ballerinax.knative.utils.KnativeUtils.convertRecordFields;
+import static org.ballerinax.knative.utils.KnativeUtils.getIntValue;
+import static org.ballerinax.knative.utils.KnativeUtils.getMap;
+import static org.ballerinax.knative.utils.KnativeUtils.getStringValue;
+import static org.ballerinax.knative.utils.KnativeUtils.getValidName;
+
+/**
+ * Knative Horizontal Pod Autoscaler (HPA) annotation processor.
+ */
+public class KnativeHPAAnnotationProcessor extends AbstractAnnotationProcessor {
+
+    KnativeHPAAnnotationProcessor(KnativeDataHolder knativeDataHolder) {
+        super(knativeDataHolder);
+    }
+
+    @Override
+    public void processAnnotation(ServiceNode serviceNode, AnnotationAttachmentNode attachmentNode) throws
+            KnativePluginException {
+        processHPA(attachmentNode);
+    }
+
+    @Override
+    public void processAnnotation(FunctionNode functionNode, AnnotationAttachmentNode attachmentNode) throws
+            KnativePluginException {
+        if (!MAIN_FUNCTION_NAME.equals(functionNode.getName().getValue())) {
+            throw new KnativePluginException("@knative:HPA{} annotation cannot be attached to a non main function.");
+        }
+        processHPA(attachmentNode);
+    }
+
+    private void processHPA(AnnotationAttachmentNode attachmentNode) throws KnativePluginException {
+        if (null != knativeDataHolder.getPodAutoscalerModel()) {
+            throw new KnativePluginException("only one autoscaling annotation is allowed per module.");
+        }
+        PodAutoscalerModel podAutoscalerModel = new PodAutoscalerModel();
+        podAutoscalerModel.setAutoscalerClass(HPA_CLASS);
+        podAutoscalerModel.setMetric(HPA_METRIC_CPU);
+        List<BLangRecordLiteral.BLangRecordKeyValueField> keyValues =
+            convertRecordFields(((BLangRecordLiteral) ((BLangAnnotationAttachment) attachmentNode).expr).getFields());
+        for (BLangRecordLiteral.BLangRecordKeyValueField keyValue : keyValues) {
+            HPAConfiguration hpaConfiguration = HPAConfiguration.valueOf(keyValue.getKey().toString());
+            switch (hpaConfiguration) {
+                case name:
+                    podAutoscalerModel.setName(getValidName(getStringValue(keyValue.getValue())));
+                    break;
+                case labels:
+                    podAutoscalerModel.setLabels(getMap(keyValue.getValue()));
+                    break;
+                case annotations:
+                    podAutoscalerModel.setAnnotations(getMap(keyValue.getValue()));
+                    break;
+                case metric:
+                    podAutoscalerModel.setMetric(getStringValue(keyValue.getValue()));
+                    break;
+                case target:
+                    podAutoscalerModel.setTarget(getIntValue(keyValue.getValue()));
+                    break;
+                case minReplicas:
+                    podAutoscalerModel.setMinReplicas(getIntValue(keyValue.getValue()));
+                    break;
+                case maxReplicas:
+                    podAutoscalerModel.setMaxReplicas(getIntValue(keyValue.getValue()));
+                    break;
+                default:
+                    break;
+            }
+        }
+        knativeDataHolder.setPodAutoscalerModel(podAutoscalerModel);
+    }
+
+    /**
+     * Enum class for HPA configurations.
+     */
+    private enum HPAConfiguration {
+        name,
+        labels,
+        annotations,
+        metric,
+        target,
+        minReplicas,
+        maxReplicas
+    }
+}
@@ -24,7 +24,7 @@ import org.ballerinalang.model.tree.FunctionNode;
 import org.ballerinalang.model.tree.IdentifierNode;
 import org.ballerinalang.model.tree.ServiceNode;
 import org.ballerinax.knative.exceptions.KnativePluginException;
-import org.ballerinax.knative.models.KnativeContext;
+import org.ballerinax.knative.models.KnativeDataHolder;
 import org.ballerinax.knative.models.SecretModel;
 import org.ballerinax.knative.utils.KnativeUtils;
 import org.wso2.ballerinalang.compiler.tree.BLangAnnotationAttachment;
@@ -54,6 +54,10 @@ import static org.ballerinax.knative.utils.KnativeUtils.isBlank;
  */
 public class KnativeSecretAnnotationProcesser extends AbstractAnnotationProcessor {
 
+    KnativeSecretAnnotationProcesser(KnativeDataHolder knativeDataHolder) {
+        super(knativeDataHolder);
+    }
+
     @Override
     public void processAnnotation(ServiceNode serviceNode, AnnotationAttachmentNode attachmentNode) throws
             KnativePluginException {
@@ -114,7 +118,7 @@ public class KnativeSecretAnnotationProcesser extends AbstractAnnotationProcesso
                 secrets.add(secretModel);
             }
         }
-        KnativeContext.getInstance().getDataHolder().addSecrets(secrets);
+        knativeDataHolder.addSecrets(secrets);
     }
 
     private Map<String, String> getDataForSecret(List<BLangExpression> data) throws KnativePluginException {
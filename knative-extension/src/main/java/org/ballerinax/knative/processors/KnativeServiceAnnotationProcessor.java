@@ -22,11 +22,20 @@ import org.ballerinalang.model.tree.AnnotationAttachmentNode;
 import org.ballerinalang.model.tree.FunctionNode;
 import org.ballerinalang.model.tree.ServiceNode;
 import org.ballerinalang.model.tree.SimpleVariableNode;
+import org.ballerinax.knative.KnativeConstants;
 import org.ballerinax.knative.exceptions.KnativePluginException;
-import org.ballerinax.knative.models.KnativeContext;
+import org.ballerinax.knative.models.AppCdsModel;
+import org.ballerinax.knative.models.ColdStartModel;
+import org.ballerinax.knative.models.KnativeDataHolder;
+import org.ballerinax.knative.models.LazyPullModel;
+import org.ballerinax.knative.models.NodeAffinityModel;
 import org.ballerinax.knative.models.PodTolerationModel;
 import org.ballerinax.knative.models.ProbeModel;
+import org.ballerinax.knative.models.QueueProxyModel;
+import org.ballerinax.knative.models.ResourceModel;
 import org.ballerinax.knative.models.ServiceModel;
+import org.ballerinax.knative.models.TopologySpreadConstraintModel;
+import org.ballerinax.knative.models.TrafficTargetModel;
 import org.ballerinax.knative.utils.KnativeUtils;
 import org.wso2.ballerinalang.compiler.tree.BLangAnnotationAttachment;
 import org.wso2.ballerinalang.compiler.tree.BLangService;
@@ -34,19 +43,45 @@ import org.wso2.ballerinalang.compiler.tree.BLangSimpleVariable;
 import org.wso2.ballerinalang.compiler.tree.expressions.BLangExpression;
 import org.wso2.ballerinalang.compiler.tree.expressions.BLangListConstructorExpr;
 import org.wso2.ballerinalang.compiler.tree.expressions.BLangLiteral;
+import org.wso2.ballerinalang.compiler.tree.expressions.BLangNamedArgsExpression;
 import org.wso2.ballerinalang.compiler.tree.expressions.BLangRecordLiteral;
 import org.wso2.ballerinalang.compiler.tree.expressions.BLangSimpleVarRef;
 import org.wso2.ballerinalang.compiler.tree.expressions.BLangTypeInit;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
+import static org.ballerinax.knative.KnativeConstants.BUILD_MODE_JVM;
+import static org.ballerinax.knative.KnativeConstants.BUILD_MODE_NATIVE;
+import static org.ballerinax.knative.KnativeConstants.DEPENDENCY_WAIT_NONE;
+import static org.ballerinax.knative.KnativeConstants.DEPENDENCY_WAIT_PARALLEL;
+import static org.ballerinax.knative.KnativeConstants.DEPENDENCY_WAIT_SEQUENTIAL;
 import static org.ballerinax.knative.KnativeConstants.DOCKER_CERT_PATH;
 import static org.ballerinax.knative.KnativeConstants.DOCKER_HOST;
+import static org.ballerinax.knative.KnativeConstants.GRPC_MODULE;
+import static org.ballerinax.knative.KnativeConstants.HTTP2_VERSION;
+import static org.ballerinax.knative.KnativeConstants.HTTP_MODULE;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_BUILDER_DOCKER;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_BUILDER_DOCKER_ARCHIVE;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_BUILDER_OCI_LAYOUT;
 import static org.ballerinax.knative.KnativeConstants.KNATIVE_SVC_POSTFIX;
+import static org.ballerinax.knative.KnativeConstants.LISTENER_DEFAULT_TIMEOUT_MILLIS;
 import static org.ballerinax.knative.KnativeConstants.MAIN_FUNCTION_NAME;
+import static org.ballerinax.knative.KnativeConstants.PROBE_TYPE_GRPC;
+import static org.ballerinax.knative.KnativeConstants.PROBE_TYPE_HTTP;
+import static org.ballerinax.knative.KnativeConstants.PROBE_TYPE_TCP;
+import static org.ballerinax.knative.KnativeConstants.PROTOCOL_H2C;
+import static org.ballerinax.knative.KnativeConstants.PROTOCOL_HTTP1;
+import static org.ballerinax.knative.KnativeConstants.RESOURCE_POLICY_NO_CPU_LIMIT;
+import static org.ballerinax.knative.KnativeConstants.RESOURCE_POLICY_REQUESTS_AND_LIMITS;
+import static org.ballerinax.knative.KnativeConstants.SPREAD_NODE;
+import static org.ballerinax.knative.KnativeConstants.SPREAD_ZONE;
+import static org.ballerinax.knative.KnativeConstants.SPREAD_ZONE_AND_NODE;
+import static org.ballerinax.knative.KnativeConstants.VISIBILITY_CLUSTER_LOCAL;
+import static org.ballerinax.knative.KnativeConstants.VISIBILITY_EXTERNAL;
 import static org.ballerinax.knative.utils.KnativeUtils.convertRecordFields;
 import static org.ballerinax.knative.utils.KnativeUtils.getBooleanValue;
 import static org.ballerinax.knative.utils.KnativeUtils.getEnvVarMap;
@@ -63,6 +98,10 @@ import static org.ballerinax.knative.utils.KnativeUtils.isBlank;
  */
 public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcessor {
 
+    KnativeServiceAnnotationProcessor(KnativeDataHolder knativeDataHolder) {
+        super(knativeDataHolder);
+    }
+
     @Override
     public void processAnnotation(FunctionNode functionNode, AnnotationAttachmentNode attachmentNode) throws
             KnativePluginException {
@@ -84,6 +123,8 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
                         //"supported when the service has an anonymous listener");
                 ServiceModel serviceModelAttched = processService(attachmentNode);
                 serviceModelAttched.addPort(serviceModelAttched.getPort());
+                serviceModelAttched.setListenerProtocol(getListenerProtocol(attachedExpr));
+                serviceModelAttched.setListenerTimeout(getListenerTimeout(attachedExpr));
                 if (KnativeUtils.isBlank(serviceModelAttched.getName())) {
                     serviceModelAttched.setName(KnativeUtils.getValidName(serviceNode.getName().getValue())
                             + KNATIVE_SVC_POSTFIX);
@@ -100,6 +141,8 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
         // If service annotation port is empty, then listener port is used for both port and target port of the k8s
         // svc.
         BLangTypeInit bListener = (BLangTypeInit) bService.getAttachedExprs().get(0);
+        serviceModel.setListenerProtocol(getListenerProtocol(bListener));
+        serviceModel.setListenerTimeout(getListenerTimeout(bListener));
         if (serviceModel.getPort() == 8080) {
             if (extractPort(bListener) == 9090 || extractPort(bListener) == 9091 || extractPort(bListener) == 8013
             || extractPort(bListener) == 8012) {
@@ -121,6 +164,8 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
         // If service annotation port is empty, then listener port is used for both port and target port of the k8s
         // svc.
         BLangTypeInit bListener = (BLangTypeInit) ((BLangSimpleVariable) variableNode).expr;
+        serviceModel.setListenerProtocol(getListenerProtocol(bListener));
+        serviceModel.setListenerTimeout(getListenerTimeout(bListener));
         if (serviceModel.getPort() == 8080) {
             serviceModel.addPort(extractPort(bListener));
         }
@@ -180,7 +225,7 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
                     serviceModel.setSingleYAML(getBooleanValue(keyValue.getValue()));
                     break;
                 case namespace:
-                    KnativeContext.getInstance().getDataHolder().setNamespace(getStringValue(keyValue.getValue()));
+                    knativeDataHolder.setNamespace(getStringValue(keyValue.getValue()));
                     break;
                 case replicas:
                     serviceModel.setReplicas(getIntValue(keyValue.getValue()));
@@ -191,6 +236,9 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
                 case readinessProbe:
                     serviceModel.setReadinessProbe(parseProbeConfiguration(keyValue.getValue()));
                     break;
+                case startupProbe:
+                    serviceModel.setStartupProbe(parseProbeConfiguration(keyValue.getValue()));
+                    break;
                 case imagePullPolicy:
                     serviceModel.setImagePullPolicy(getStringValue(keyValue.getValue()));
                     break;
@@ -215,14 +263,142 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
                 case timeoutSeconds:
                     serviceModel.setTimeoutSeconds(getIntValue(keyValue.getValue()));
                     break;
+                case visibility:
+                    String visibility = getStringValue(keyValue.getValue());
+                    if (!VISIBILITY_CLUSTER_LOCAL.equals(visibility) && !VISIBILITY_EXTERNAL.equals(visibility)) {
+                        throw new KnativePluginException("unknown visibility found: " + visibility);
+                    }
+                    serviceModel.setVisibility(visibility);
+                    break;
+                case dependencyWait:
+                    String dependencyWait = getStringValue(keyValue.getValue());
+                    if (!DEPENDENCY_WAIT_NONE.equals(dependencyWait) && !DEPENDENCY_WAIT_PARALLEL.equals(dependencyWait)
+                            && !DEPENDENCY_WAIT_SEQUENTIAL.equals(dependencyWait)) {
+                        throw new KnativePluginException("unknown dependencyWait mode found: " + dependencyWait);
+                    }
+                    serviceModel.setDependencyWait(dependencyWait);
+                    break;
+                case jvm:
+                    String jvmProfile = getStringValue(keyValue.getValue());
+                    if (null == KnativeConstants.JvmProfile.fromValue(jvmProfile)) {
+                        throw new KnativePluginException("unknown jvm profile found: " + jvmProfile);
+                    }
+                    serviceModel.setJvmProfile(jvmProfile);
+                    break;
+                case appCds:
+                    serviceModel.setAppCdsModel(parseAppCdsConfiguration(keyValue.getValue()));
+                    break;
+                case buildMode:
+                    String buildMode = getStringValue(keyValue.getValue());
+                    if (!BUILD_MODE_JVM.equals(buildMode) && !BUILD_MODE_NATIVE.equals(buildMode)) {
+                        throw new KnativePluginException("unknown build mode found: " + buildMode);
+                    }
+                    serviceModel.setBuildMode(buildMode);
+                    break;
+                case layeredImage:
+                    serviceModel.setLayeredImage(getBooleanValue(keyValue.getValue()));
+                    break;
+                case imageBuilder:
+                    String imageBuilder = getStringValue(keyValue.getValue());
+                    if (!IMAGE_BUILDER_DOCKER.equals(imageBuilder) && !IMAGE_BUILDER_OCI_LAYOUT.equals(imageBuilder)
+                            && !IMAGE_BUILDER_DOCKER_ARCHIVE.equals(imageBuilder)) {
+                        throw new KnativePluginException("unknown image builder found: " + imageBuilder);
+                    }
+                    serviceModel.setImageBuilder(imageBuilder);
+                    break;
+                case lazyPull:
+                    serviceModel.setLazyPullModel(parseLazyPullConfiguration(keyValue.getValue()));
+                    break;
+                case responseStartTimeoutSeconds:
+                    serviceModel.setResponseStartTimeoutSeconds(getIntValue(keyValue.getValue()));
+                    break;
+                case idleTimeoutSeconds:
+                    serviceModel.setIdleTimeoutSeconds(getIntValue(keyValue.getValue()));
+                    break;
                 case port:
                     serviceModel.setPort(getIntValue(keyValue.getValue()));
                     break;
+                case coldStart:
+                    serviceModel.setColdStartModel(parseColdStartConfiguration(keyValue.getValue()));
+                    break;
+                case resources:
+                    serviceModel.setResourceModel(parseResourceConfiguration(keyValue.getValue()));
+                    break;
+                case revisionName:
+                    serviceModel.setRevisionName(getValidName(getStringValue(keyValue.getValue())));
+                    break;
+                case traffic:
+                    serviceModel.setTrafficTargets(parseTrafficConfiguration(keyValue.getValue()));
+                    break;
+                case rolloutDuration:
+                    serviceModel.setRolloutDuration(getStringValue(keyValue.getValue()));
+                    break;
+                case dataPath:
+                    String dataPath = getStringValue(keyValue.getValue());
+                    if (null == KnativeConstants.DataPathMode.fromValue(dataPath)) {
+                        throw new KnativePluginException("unknown data path mode found: " + dataPath);
+                    }
+                    serviceModel.setDataPath(dataPath);
+                    break;
+                case queueProxy:
+                    serviceModel.setQueueProxyModel(parseQueueProxyConfiguration(keyValue.getValue()));
+                    break;
+                case nodeAffinity:
+                    serviceModel.setNodeAffinity(parseNodeAffinityConfiguration(keyValue.getValue()));
+                    break;
+                case topologySpreadConstraints:
+                    serviceModel.setTopologySpreadConstraints(parseTopologySpreadConfiguration(keyValue.getValue()));
+                    break;
+                case priorityClassName:
+                    serviceModel.setPriorityClassName(getStringValue(keyValue.getValue()));
+                    break;
+                case spread:
+                    String spread = getStringValue(keyValue.getValue());
+                    if (!SPREAD_ZONE.equals(spread) && !SPREAD_NODE.equals(spread) &&
+                            !SPREAD_ZONE_AND_NODE.equals(spread)) {
+                        throw new KnativePluginException("unknown spread preset found: " + spread);
+                    }
+                    serviceModel.setSpread(spread);
+                    break;
+                case prePullImage:
+                    serviceModel.setPrePullImage(getBooleanValue(keyValue.getValue()));
+                    break;
+                case protocol:
+                    String protocol = getStringValue(keyValue.getValue());
+                    if (!PROTOCOL_HTTP1.equals(protocol) && !PROTOCOL_H2C.equals(protocol)) {
+                        throw new KnativePluginException("unknown protocol found: " + protocol);
+                    }
+                    serviceModel.setProtocol(protocol);
+                    break;
                 default:
                     break;
             }
         }
 
+        if (BUILD_MODE_NATIVE.equals(serviceModel.getBuildMode())) {
+            if (!isBlank(serviceModel.getJvmProfile())) {
+                throw new KnativePluginException("@knative:Service{} jvm profile cannot be used with buildMode \"" +
+                        BUILD_MODE_NATIVE + "\".");
+            }
+            if (null != serviceModel.getAppCdsModel()) {
+                throw new KnativePluginException("@knative:Service{} appCds cannot be used with buildMode \"" +
+                        BUILD_MODE_NATIVE + "\".");
+            }
+        }
+        if (!IMAGE_BUILDER_DOCKER.equals(serviceModel.getImageBuilder())) {
+            // the daemonless builder only assembles layers of files and cannot run build steps.
+            if (BUILD_MODE_NATIVE.equals(serviceModel.getBuildMode()) || null != serviceModel.getAppCdsModel()) {
+                throw new KnativePluginException("@knative:Service{} imageBuilder \"" +
+                        serviceModel.getImageBuilder() + "\" cannot be used with buildMode \"" + BUILD_MODE_NATIVE +
+                        "\" or appCds as they run build steps. use imageBuilder \"" + IMAGE_BUILDER_DOCKER + "\".");
+            }
+        }
+        if (null != serviceModel.getLazyPullModel() &&
+                !IMAGE_BUILDER_OCI_LAYOUT.equals(serviceModel.getImageBuilder())) {
+            // docker load and docker push recompress the layers without the table of contents.
+            throw new KnativePluginException("@knative:Service{} lazyPull requires imageBuilder \"" +
+                    IMAGE_BUILDER_OCI_LAYOUT + "\".");
+        }
         String dockerHost = System.getenv(DOCKER_HOST);
         if (!isBlank(dockerHost)) {
             serviceModel.setDockerHost(dockerHost);
@@ -231,7 +407,7 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
         if (!isBlank(dockerCertPath)) {
             serviceModel.setDockerCertPath(dockerCertPath);
         }
-        KnativeContext.getInstance().getDataHolder().setServiceModel(serviceModel);
+        knativeDataHolder.setServiceModel(serviceModel);
         return serviceModel;
     }
 
@@ -279,6 +455,134 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
         return podTolerationModels;
     }
 
+    /**
+     * Parse node affinity configurations from a record array.
+     *
+     * @param nodeAffinityValues Node affinity configuration records.
+     * @return Node affinity models.
+     * @throws KnativePluginException When an unknown field is found.
+     */
+    private List<NodeAffinityModel> parseNodeAffinityConfiguration(BLangExpression nodeAffinityValues)
+            throws KnativePluginException {
+        List<NodeAffinityModel> nodeAffinityModels = new LinkedList<>();
+        List<BLangExpression> nodeAffinities = ((BLangListConstructorExpr) nodeAffinityValues).exprs;
+        for (BLangExpression nodeAffinityFieldsAsExpression : nodeAffinities) {
+            List<BLangRecordLiteral.BLangRecordKeyValueField> nodeAffinityFields =
+                    convertRecordFields(((BLangRecordLiteral) nodeAffinityFieldsAsExpression).getFields());
+            NodeAffinityModel nodeAffinityModel = new NodeAffinityModel();
+            for (BLangRecordLiteral.BLangRecordKeyValueField nodeAffinityField : nodeAffinityFields) {
+                NodeAffinityConfiguration nodeAffinityFieldName =
+                        NodeAffinityConfiguration.valueOf(nodeAffinityField.getKey().toString());
+                switch (nodeAffinityFieldName) {
+                    case key:
+                        nodeAffinityModel.setKey(getStringValue(nodeAffinityField.getValue()));
+                        break;
+                    case operator:
+                        nodeAffinityModel.setOperator(getStringValue(nodeAffinityField.getValue()));
+                        break;
+                    case values:
+                        List<String> values = new LinkedList<>();
+                        for (BLangExpression value : ((BLangListConstructorExpr) nodeAffinityField.getValue()).exprs) {
+                            values.add(getStringValue(value));
+                        }
+                        nodeAffinityModel.setValues(values);
+                        break;
+                    case required:
+                        nodeAffinityModel.setRequired(getBooleanValue(nodeAffinityField.getValue()));
+                        break;
+                    case weight:
+                        nodeAffinityModel.setWeight(getIntValue(nodeAffinityField.getValue()));
+                        break;
+                    default:
+                        throw new KnativePluginException("unknown node affinity field found: " +
+                                nodeAffinityField.getKey().toString());
+                }
+            }
+            nodeAffinityModels.add(nodeAffinityModel);
+        }
+        return nodeAffinityModels;
+    }
+
+    /**
+     * Parse topology spread constraint configurations from a record array.
+     *
+     * @param topologySpreadValues Topology spread constraint configuration records.
+     * @return Topology spread constraint models.
+     * @throws KnativePluginException When an unknown field is found.
+     */
+    private List<TopologySpreadConstraintModel> parseTopologySpreadConfiguration(BLangExpression topologySpreadValues)
+            throws KnativePluginException {
+        List<TopologySpreadConstraintModel> topologySpreadConstraintModels = new LinkedList<>();
+        List<BLangExpression> topologySpreadConstraints = ((BLangListConstructorExpr) topologySpreadValues).exprs;
+        for (BLangExpression constraintFieldsAsExpression : topologySpreadConstraints) {
+            List<BLangRecordLiteral.BLangRecordKeyValueField> constraintFields =
+                    convertRecordFields(((BLangRecordLiteral) constraintFieldsAsExpression).getFields());
+            TopologySpreadConstraintModel constraintModel = new TopologySpreadConstraintModel();
+            for (BLangRecordLiteral.BLangRecordKeyValueField constraintField : constraintFields) {
+                TopologySpreadConstraintConfiguration constraintFieldName =
+                        TopologySpreadConstraintConfiguration.valueOf(constraintField.getKey().toString());
+                switch (constraintFieldName) {
+                    case topologyKey:
+                        constraintModel.setTopologyKey(getStringValue(constraintField.getValue()));
+                        break;
+                    case maxSkew:
+                        constraintModel.setMaxSkew(getIntValue(constraintField.getValue()));
+                        break;
+                    case whenUnsatisfiable:
+                        constraintModel.setWhenUnsatisfiable(getStringValue(constraintField.getValue()));
+                        break;
+                    default:
+                        throw new KnativePluginException("unknown topology spread constraint field found: " +
+                                constraintField.getKey().toString());
+                }
+            }
+            topologySpreadConstraintModels.add(constraintModel);
+        }
+        return topologySpreadConstraintModels;
+    }
+
+    /**
+     * Parse traffic target configurations from a record array.
+     *
+     * @param trafficValues Traffic target configuration records.
+     * @return Traffic target models.
+     * @throws KnativePluginException When an unknown field is found.
+     */
+    private List<TrafficTargetModel> parseTrafficConfiguration(BLangExpression trafficValues)
+            throws KnativePluginException {
+        List<TrafficTargetModel> trafficTargetModels = new LinkedList<>();
+        List<BLangExpression> trafficTargets = ((BLangListConstructorExpr) trafficValues).exprs;
+        for (BLangExpression trafficTargetFieldsAsExpression : trafficTargets) {
+            List<BLangRecordLiteral.BLangRecordKeyValueField> trafficTargetFields =
+                    convertRecordFields(((BLangRecordLiteral) trafficTargetFieldsAsExpression).getFields());
+            TrafficTargetModel trafficTargetModel = new TrafficTargetModel();
+            for (BLangRecordLiteral.BLangRecordKeyValueField trafficTargetField : trafficTargetFields) {
+                TrafficTargetConfiguration trafficTargetFieldName =
+                        TrafficTargetConfiguration.valueOf(trafficTargetField.getKey().toString());
+                switch (trafficTargetFieldName) {
+                    case revisionName:
+                        trafficTargetModel.setRevisionName(getValidName(getStringValue(trafficTargetField
+                                .getValue())));
+                        break;
+                    case latestRevision:
+                        trafficTargetModel.setLatestRevision(getBooleanValue(trafficTargetField.getValue()));
+                        break;
+                    case percent:
+                        trafficTargetModel.setPercent(getIntValue(trafficTargetField.getValue()));
+                        break;
+                    case tag:
+                        trafficTargetModel.setTag(getStringValue(trafficTargetField.getValue()));
+                        break;
+                    default:
+                        throw new KnativePluginException("unknown traffic target field found: " +
+                                trafficTargetField.getKey().toString());
+                }
+            }
+            trafficTargetModels.add(trafficTargetModel);
+        }
+        return trafficTargetModels;
+    }
+
     /**
      * Parse probe configuration from a record.
      *
@@ -289,7 +593,9 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
     private ProbeModel parseProbeConfiguration(BLangExpression probeValue) throws KnativePluginException {
         if ((probeValue instanceof BLangSimpleVarRef || probeValue instanceof BLangLiteral) &&
                 getBooleanValue(probeValue)) {
-            return new ProbeModel();
+            ProbeModel probeModel = new ProbeModel();
+            probeModel.setProbeType(PROBE_TYPE_TCP);
+            return probeModel;
         } else {
             if (probeValue instanceof BLangRecordLiteral) {
                 List<BLangRecordLiteral.BLangRecordKeyValueField> buildExtensionRecord =
@@ -299,26 +605,268 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
                     ProbeConfiguration probeConfiguration =
                             ProbeConfiguration.valueOf(probeField.getKey().toString());
                     switch (probeConfiguration) {
+                        case probeType:
+                            String probeType = getStringValue(probeField.getValue());
+                            if (!PROBE_TYPE_TCP.equals(probeType) && !PROBE_TYPE_HTTP.equals(probeType) &&
+                                    !PROBE_TYPE_GRPC.equals(probeType)) {
+                                throw new KnativePluginException("unknown probe type found: " + probeType);
+                            }
+                            probeModel.setProbeType(probeType);
+                            break;
                         case port:
                             probeModel.setPort(getIntValue(probeField.getValue()));
                             break;
+                        case path:
+                            probeModel.setPath(getStringValue(probeField.getValue()));
+                            break;
+                        case httpHeaders:
+                            probeModel.setHttpHeaders(getMap(probeField.getValue()));
+                            break;
+                        case grpcService:
+                            probeModel.setGrpcService(getStringValue(probeField.getValue()));
+                            break;
                         case initialDelaySeconds:
                             probeModel.setInitialDelaySeconds(getIntValue(probeField.getValue()));
                             break;
                         case periodSeconds:
                             probeModel.setPeriodSeconds(getIntValue(probeField.getValue()));
                             break;
+                        case timeoutSeconds:
+                            probeModel.setTimeoutSeconds(getIntValue(probeField.getValue()));
+                            break;
+                        case failureThreshold:
+                            probeModel.setFailureThreshold(getIntValue(probeField.getValue()));
+                            break;
                         default:
                             throw new KnativePluginException("unknown probe field found: " +
                                     probeField.getKey().toString());
                     }
                 }
+                if (null == probeModel.getProbeType()) {
+                    probeModel.setProbeType(isBlank(probeModel.getPath()) ? PROBE_TYPE_TCP : PROBE_TYPE_HTTP);
+                }
                 return probeModel;
             }
         }
         return null;
     }
 
+    /**
+     * Parse cold start configuration from a record.
+     *
+     * @param coldStartValue Cold start configuration record.
+     * @return Parsed cold start model.
+     * @throws KnativePluginException When an unknown field or preset is found.
+     */
+    private ColdStartModel parseColdStartConfiguration(BLangExpression coldStartValue) throws KnativePluginException {
+        ColdStartModel coldStartModel = new ColdStartModel();
+        List<BLangRecordLiteral.BLangRecordKeyValueField> coldStartFields =
+                convertRecordFields(((BLangRecordLiteral) coldStartValue).getFields());
+        for (BLangRecordLiteral.BLangRecordKeyValueField coldStartField : coldStartFields) {
+            ColdStartConfiguration coldStartConfiguration =
+                    ColdStartConfiguration.valueOf(coldStartField.getKey().toString());
+            switch (coldStartConfiguration) {
+                case preset:
+                    String preset = getStringValue(coldStartField.getValue());
+                    if (null == KnativeConstants.ColdStartPreset.fromValue(preset)) {
+                        throw new KnativePluginException("unknown cold start preset found: " + preset);
+                    }
+                    coldStartModel.setPreset(preset);
+                    break;
+                case initialScale:
+                    coldStartModel.setInitialScale(getIntValue(coldStartField.getValue()));
+                    break;
+                case activationScale:
+                    coldStartModel.setActivationScale(getIntValue(coldStartField.getValue()));
+                    break;
+                case scaleDownDelay:
+                    coldStartModel.setScaleDownDelay(getStringValue(coldStartField.getValue()));
+                    break;
+                case scaleToZeroPodRetentionPeriod:
+                    coldStartModel.setScaleToZeroPodRetentionPeriod(getStringValue(coldStartField.getValue()));
+                    break;
+                default:
+                    throw new KnativePluginException("unknown cold start field found: " +
+                            coldStartField.getKey().toString());
+            }
+        }
+        return coldStartModel;
+    }
+
+    /**
+     * Parse container resource configuration from a record.
+     *
+     * @param resourceValue Resource configuration record.
+     * @return Resource model.
+     * @throws KnativePluginException When an unknown field or policy is found.
+     */
+    private ResourceModel parseResourceConfiguration(BLangExpression resourceValue) throws KnativePluginException {
+        ResourceModel resourceModel = new ResourceModel();
+        List<BLangRecordLiteral.BLangRecordKeyValueField> resourceFields =
+                convertRecordFields(((BLangRecordLiteral) resourceValue).getFields());
+        for (BLangRecordLiteral.BLangRecordKeyValueField resourceField : resourceFields) {
+            ResourceConfiguration resourceConfiguration =
+                    ResourceConfiguration.valueOf(resourceField.getKey().toString());
+            switch (resourceConfiguration) {
+                case requests:
+                    for (BLangRecordLiteral.BLangRecordKeyValueField requestField : convertRecordFields(
+                            ((BLangRecordLiteral) resourceField.getValue()).getFields())) {
+                        if (ResourceRequirementConfiguration.cpu.name().equals(requestField.getKey().toString())) {
+                            resourceModel.setCpuRequest(getStringValue(requestField.getValue()));
+                        } else {
+                            resourceModel.setMemoryRequest(getStringValue(requestField.getValue()));
+                        }
+                    }
+                    break;
+                case limits:
+                    for (BLangRecordLiteral.BLangRecordKeyValueField limitField : convertRecordFields(
+                            ((BLangRecordLiteral) resourceField.getValue()).getFields())) {
+                        if (ResourceRequirementConfiguration.cpu.name().equals(limitField.getKey().toString())) {
+                            resourceModel.setCpuLimit(getStringValue(limitField.getValue()));
+                        } else {
+                            resourceModel.setMemoryLimit(getStringValue(limitField.getValue()));
+                        }
+                    }
+                    break;
+                case autoSize:
+                    resourceModel.setAutoSize(getBooleanValue(resourceField.getValue()));
+                    break;
+                case policy:
+                    String policy = getStringValue(resourceField.getValue());
+                    if (!RESOURCE_POLICY_REQUESTS_AND_LIMITS.equals(policy) &&
+                            !RESOURCE_POLICY_NO_CPU_LIMIT.equals(policy)) {
+                        throw new KnativePluginException("unknown resource policy found: " + policy);
+                    }
+                    resourceModel.setPolicy(policy);
+                    break;
+                default:
+                    throw new KnativePluginException("unknown resource field found: " +
+                            resourceField.getKey().toString());
+            }
+        }
+        return resourceModel;
+    }
+
+    /**
+     * Parse queue proxy sidecar configuration from a record.
+     *
+     * @param queueProxyValue Queue proxy configuration record.
+     * @return Queue proxy model.
+     * @throws KnativePluginException When an unknown field is found.
+     */
+    private QueueProxyModel parseQueueProxyConfiguration(BLangExpression queueProxyValue)
+            throws KnativePluginException {
+        QueueProxyModel queueProxyModel = new QueueProxyModel();
+        List<BLangRecordLiteral.BLangRecordKeyValueField> queueProxyFields =
+                convertRecordFields(((BLangRecordLiteral) queueProxyValue).getFields());
+        for (BLangRecordLiteral.BLangRecordKeyValueField queueProxyField : queueProxyFields) {
+            QueueProxyConfiguration queueProxyConfiguration =
+                    QueueProxyConfiguration.valueOf(queueProxyField.getKey().toString());
+            switch (queueProxyConfiguration) {
+                case cpuRequest:
+                    queueProxyModel.setCpuRequest(getStringValue(queueProxyField.getValue()));
+                    break;
+                case cpuLimit:
+                    queueProxyModel.setCpuLimit(getStringValue(queueProxyField.getValue()));
+                    break;
+                case memoryRequest:
+                    queueProxyModel.setMemoryRequest(getStringValue(queueProxyField.getValue()));
+                    break;
+                case memoryLimit:
+                    queueProxyModel.setMemoryLimit(getStringValue(queueProxyField.getValue()));
+                    break;
+                case resourcePercentage:
+                    queueProxyModel.setResourcePercentage(getIntValue(queueProxyField.getValue()));
+                    break;
+                default:
+                    throw new KnativePluginException("unknown queue proxy field found: " +
+                            queueProxyField.getKey().toString());
+            }
+        }
+        return queueProxyModel;
+    }
+
+    /**
+     * Parse AppCDS configuration from a record.
+     *
+     * @param appCdsValue AppCDS configuration record.
+     * @return AppCDS model.
+     * @throws KnativePluginException When an unknown field is found or the training time is not positive.
+     */
+    private AppCdsModel parseAppCdsConfiguration(BLangExpression appCdsValue) throws KnativePluginException {
+        AppCdsModel appCdsModel = new AppCdsModel();
+        List<BLangRecordLiteral.BLangRecordKeyValueField> appCdsFields =
+                convertRecordFields(((BLangRecordLiteral) appCdsValue).getFields());
+        for (BLangRecordLiteral.BLangRecordKeyValueField appCdsField : appCdsFields) {
+            AppCdsConfiguration appCdsConfiguration = AppCdsConfiguration.valueOf(appCdsField.getKey().toString());
+            switch (appCdsConfiguration) {
+                case trainingCommand:
+                    appCdsModel.setTrainingCommand(getStringValue(appCdsField.getValue()));
+                    break;
+                case warmUpCommand:
+                    appCdsModel.setWarmUpCommand(getStringValue(appCdsField.getValue()));
+                    break;
+                case trainingSeconds:
+                    appCdsModel.setTrainingSeconds(getIntValue(appCdsField.getValue()));
+                    break;
+                default:
+                    throw new KnativePluginException("unknown appCds field found: " +
+                            appCdsField.getKey().toString());
+            }
+        }
+        if (appCdsModel.getTrainingSeconds() <= 0) {
+            throw new KnativePluginException("@knative:Service{} appCds trainingSeconds should be greater than 0: " +
+                    appCdsModel.getTrainingSeconds());
+        }
+        return appCdsModel;
+    }
+
+    /**
+     * Parse lazy pulling configuration from a record.
+     *
+     * @param lazyPullValue Lazy pulling configuration record.
+     * @return Lazy pulling model.
+     * @throws KnativePluginException When an unknown field is found, the profile time is not positive or a prefetch
+     *                                file is not an absolute path.
+     */
+    private LazyPullModel parseLazyPullConfiguration(BLangExpression lazyPullValue) throws KnativePluginException {
+        LazyPullModel lazyPullModel = new LazyPullModel();
+        List<BLangRecordLiteral.BLangRecordKeyValueField> lazyPullFields =
+                convertRecordFields(((BLangRecordLiteral) lazyPullValue).getFields());
+        for (BLangRecordLiteral.BLangRecordKeyValueField lazyPullField : lazyPullFields) {
+            LazyPullConfiguration lazyPullConfiguration =
+                    LazyPullConfiguration.valueOf(lazyPullField.getKey().toString());
+            switch (lazyPullConfiguration) {
+                case recordProfile:
+                    lazyPullModel.setRecordProfile(getBooleanValue(lazyPullField.getValue()));
+                    break;
+                case profileSeconds:
+                    lazyPullModel.setProfileSeconds(getIntValue(lazyPullField.getValue()));
+                    break;
+                case prefetchFiles:
+                    List<String> prefetchFiles = new ArrayList<>();
+                    for (BLangExpression prefetchFile : ((BLangListConstructorExpr) lazyPullField.getValue()).exprs) {
+                        String path = getStringValue(prefetchFile);
+                        if (!path.startsWith("/")) {
+                            throw new KnativePluginException("@knative:Service{} lazyPull prefetchFiles should be " +
+                                    "absolute paths in the image: " + path);
+                        }
+                        prefetchFiles.add(path);
+                    }
+                    lazyPullModel.setPrefetchFiles(prefetchFiles);
+                    break;
+                default:
+                    throw new KnativePluginException("unknown lazyPull field found: " +
+                            lazyPullField.getKey().toString());
+            }
+        }
+        if (lazyPullModel.getProfileSeconds() <= 0) {
+            throw new KnativePluginException("@knative:Service{} lazyPull profileSeconds should be greater than 0: " +
+                    lazyPullModel.getProfileSeconds());
+        }
+        return lazyPullModel;
+    }
+
     private Set<String> getDependsOn(BLangRecordLiteral.BLangRecordKeyValueField keyValue) {
         Set<String> dependsOnList = new HashSet<>();
         List<BLangExpression> configAnnotation = ((BLangListConstructorExpr) keyValue.valueExpr).exprs;
@@ -337,6 +885,104 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
         }
     }
 
+    /**
+     * Get the protocol served by a listener. gRPC listeners and http listeners configured with http version 2.0 are
+     * served over h2c.
+     *
+     * @param listener Listener expression the service is attached to.
+     * @return "h2c", "http1" or null when the protocol cannot be detected.
+     */
+    private String getListenerProtocol(BLangExpression listener) {
+        String moduleName = getListenerModule(listener);
+        if (GRPC_MODULE.equals(moduleName)) {
+            return PROTOCOL_H2C;
+        }
+        if (!HTTP_MODULE.equals(moduleName)) {
+            return null;
+        }
+        List<BLangRecordLiteral.BLangRecordKeyValueField> configFields = getListenerConfig(listener);
+        if (null == configFields) {
+            return null;
+        }
+        for (BLangRecordLiteral.BLangRecordKeyValueField configField : configFields) {
+            if ("httpVersion".equals(configField.getKey().toString())) {
+                try {
+                    return HTTP2_VERSION.equals(getStringValue(configField.getValue())) ? PROTOCOL_H2C : PROTOCOL_HTTP1;
+                } catch (KnativePluginException e) {
+                    // http version is not a compile time constant.
+                    return null;
+                }
+            }
+        }
+        return PROTOCOL_HTTP1;
+    }
+
+    /**
+     * Get the idle timeout of an http listener.
+     *
+     * @param listener Listener expression the service is attached to.
+     * @return Timeout in milliseconds or -1 when the timeout cannot be detected.
+     */
+    private long getListenerTimeout(BLangExpression listener) {
+        if (!HTTP_MODULE.equals(getListenerModule(listener))) {
+            return -1;
+        }
+        List<BLangRecordLiteral.BLangRecordKeyValueField> configFields = getListenerConfig(listener);
+        if (null == configFields) {
+            return -1;
+        }
+        for (BLangRecordLiteral.BLangRecordKeyValueField configField : configFields) {
+            if ("timeoutInMillis".equals(configField.getKey().toString())) {
+                try {
+                    return Long.parseLong(getStringValue(configField.getValue()));
+                } catch (KnativePluginException | NumberFormatException e) {
+                    // timeout is not a compile time constant.
+                    return -1;
+                }
+            }
+        }
+        return LISTENER_DEFAULT_TIMEOUT_MILLIS;
+    }
+
+    private String getListenerModule(BLangExpression listener) {
+        if (null == listener.type || null == listener.type.tsymbol || null == listener.type.tsymbol.pkgID) {
+            return null;
+        }
+        return listener.type.tsymbol.pkgID.name.getValue();
+    }
+
+    /**
+     * Get the configuration fields passed to a listener.
+     *
+     * @param listener Listener expression the service is attached to.
+     * @return Configuration fields, an empty list when no configuration is passed or null when the configuration
+     * cannot be read at compile time.
+     */
+    private List<BLangRecordLiteral.BLangRecordKeyValueField> getListenerConfig(BLangExpression listener) {
+        if (!(listener instanceof BLangTypeInit)) {
+            return null;
+        }
+        List<BLangExpression> args = ((BLangTypeInit) listener).argsExpr;
+        List<BLangRecordLiteral.BLangRecordKeyValueField> configFields = new LinkedList<>();
+        for (int i = 1; i < args.size(); i++) {
+            BLangExpression config = args.get(i);
+            if (config instanceof BLangNamedArgsExpression) {
+                config = ((BLangNamedArgsExpression) config).expr;
+            }
+            if (!(config instanceof BLangRecordLiteral)) {
+                return null;
+            }
+            for (BLangRecordLiteral.RecordField field : ((BLangRecordLiteral) config).getFields()) {
+                if (!(field instanceof BLangRecordLiteral.BLangRecordKeyValueField)) {
+                    // spread or variable name fields cannot be read at compile time.
+                    return null;
+                }
+                configFields.add((BLangRecordLiteral.BLangRecordKeyValueField) field);
+            }
+        }
+        return configFields;
+    }
+
     /**
      * Enum class for DeploymentConfiguration.
      */
@@ -361,6 +1007,7 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
         replicas,
         livenessProbe,
         readinessProbe,
+        startupProbe,
         imagePullPolicy,
         env,
         podAnnotations,
@@ -369,13 +1016,103 @@ public class KnativeServiceAnnotationProcessor extends AbstractAnnotationProcess
         dependsOn,
         imagePullSecrets,
         containerConcurrency,
-        timeoutSeconds
+        timeoutSeconds,
+        coldStart,
+        resources,
+        revisionName,
+        traffic,
+        rolloutDuration,
+        dataPath,
+        queueProxy,
+        nodeAffinity,
+        topologySpreadConstraints,
+        priorityClassName,
+        spread,
+        prePullImage,
+        protocol,
+        responseStartTimeoutSeconds,
+        idleTimeoutSeconds,
+        visibility,
+        dependencyWait,
+        jvm,
+        appCds,
+        buildMode,
+        layeredImage,
+        imageBuilder,
+        lazyPull
     }
 
     private enum ProbeConfiguration {
+        probeType,
         port,
+        path,
+        httpHeaders,
+        grpcService,
         initialDelaySeconds,
-        periodSeconds
+        periodSeconds,
+        timeoutSeconds,
+        failureThreshold
+    }
+
+    private enum ColdStartConfiguration {
+        preset,
+        initialScale,
+        activationScale,
+        scaleDownDelay,
+        scaleToZeroPodRetentionPeriod
+    }
+
+    private enum NodeAffinityConfiguration {
+        key,
+        operator,
+        values,
+        required,
+        weight
+    }
+
+    private enum TopologySpreadConstraintConfiguration {
+        topologyKey,
+        maxSkew,
+        whenUnsatisfiable
+    }
+
+    private enum TrafficTargetConfiguration {
+        revisionName,
+        latestRevision,
+        percent,
+        tag
+    }
+
+    private enum AppCdsConfiguration {
+        trainingCommand,
+        warmUpCommand,
+        trainingSeconds
+    }
+
+    private enum LazyPullConfiguration {
+        recordProfile,
+        profileSeconds,
+        prefetchFiles
+    }
+
+    private enum QueueProxyConfiguration {
+        cpuRequest,
+        cpuLimit,
+        memoryRequest,
+        memoryLimit,
+        resourcePercentage
+    }
+
+    private enum ResourceConfiguration {
+        requests,
+        limits,
+        autoSize,
+        policy
+    }
+
+    private enum ResourceRequirementConfiguration {
+        cpu,
+        memory
     }
 
     private enum PodTolerationConfiguration {
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.ballerinax.knative.KnativeConstants.ARTIFACT_MANIFEST_FILE;
+
+/**
+ * Hashes of the artifacts written to an output directory by the last build. Only the artifacts whose content changed
+ * are written again and the artifacts that are no longer generated are removed, so the files that did not change keep
+ * their modification time.
+ */
+public class ArtifactManifest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path outputDir;
+    private final Map<String, String> hashes = new TreeMap<>();
+
+    private ArtifactManifest(Path outputDir) {
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * Load the artifact manifest of an output directory. A missing or unreadable manifest is an empty manifest.
+     *
+     * @param outputDir Artifact output directory
+     * @return Artifact manifest
+     */
+    public static ArtifactManifest load(Path outputDir) {
+        ArtifactManifest manifest = new ArtifactManifest(outputDir);
+        Path manifestFile = outputDir.resolve(ARTIFACT_MANIFEST_FILE);
+        if (!Files.exists(manifestFile)) {
+            return manifest;
+        }
+        try {
+            JsonNode files = manifest.mapper.readTree(Files.readAllBytes(manifestFile)).path("files");
+            files.fields().forEachRemaining(file -> manifest.hashes.put(file.getKey(), file.getValue().asText()));
+        } catch (IOException e) {
+            // every artifact is written again and the manifest is replaced.
+            manifest.hashes.clear();
+        }
+        return manifest;
+    }
+
+    /**
+     * Write the artifacts that changed since the last build and remove the artifacts that are no longer generated.
+     *
+     * @param artifacts Content of the artifacts by file path
+     * @return Number of artifacts written
+     * @throws IOException If an artifact cannot be written or removed.
+     */
+    public int write(Map<Path, String> artifacts) throws IOException {
+        Map<String, String> previousHashes = new TreeMap<>(hashes);
+        hashes.clear();
+        int written = 0;
+        for (Map.Entry<Path, String> artifact : artifacts.entrySet()) {
+            Path file = artifact.getKey().toAbsolutePath().normalize();
+            String name = outputDir.toAbsolutePath().normalize().relativize(file).toString().replace('\\', '/');
+            byte[] content = artifact.getValue().getBytes(StandardCharsets.UTF_8);
+            String hash = DigestUtils.toHex(DigestUtils.newDigest().digest(content));
+            boolean unchanged = hash.equals(previousHashes.remove(name)) && Files.exists(file) &&
+                    Files.size(file) == content.length;
+            if (!unchanged) {
+                writeAtomically(file, content);
+                written++;
+            }
+            hashes.put(name, hash);
+        }
+        for (String name : previousHashes.keySet()) {
+            delete(outputDir.resolve(name));
+        }
+        ObjectNode manifest = mapper.createObjectNode();
+        ObjectNode files = manifest.putObject("files");
+        hashes.forEach(files::put);
+        writeAtomically(outputDir.resolve(ARTIFACT_MANIFEST_FILE),
+                mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(manifest));
+        return written;
+    }
+
+    /**
+     * Remove the artifacts of the last build and the manifest.
+     *
+     * @throws IOException If an artifact cannot be removed.
+     */
+    public void clean() throws IOException {
+        for (String name : hashes.keySet()) {
+            delete(outputDir.resolve(name));
+        }
+        hashes.clear();
+        delete(outputDir.resolve(ARTIFACT_MANIFEST_FILE));
+    }
+
+    /**
+     * Write a file through a temporary file in the same directory, so a reader sees either the old or the new content.
+     *
+     * @param file    File to write
+     * @param content Content of the file
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeAtomically(Path file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tempFile = Files.createTempFile(file.getParent(), "." + file.getFileName(), ".tmp");
+        try {
+            Files.write(tempFile, content);
+            move(tempFile, file);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Replace a file with a temporary file of the same directory, atomically where the file system supports it.
+     *
+     * @param tempFile Temporary file
+     * @param file     File to replace
+     * @throws IOException If the file cannot be replaced.
+     */
+    static void move(Path tempFile, Path file) throws IOException {
+        try {
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Delete a file and the directories it leaves empty up to the output directory.
+     *
+     * @param file File to delete
+     * @throws IOException If the file cannot be deleted.
+     */
+    private void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        Path root = outputDir.toAbsolutePath().normalize();
+        Path dir = file.toAbsolutePath().normalize().getParent();
+        try {
+            while (null != dir && dir.startsWith(root) && !dir.equals(root) && Files.isDirectory(dir)) {
+                Files.delete(dir);
+                dir = dir.getParent();
+            }
+        } catch (DirectoryNotEmptyException e) {
+            // the directory still has other artifacts.
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.utils;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.ballerinax.knative.KnativeConstants.CONFIG_MAP_FILE_POSTFIX;
+import static org.ballerinax.knative.KnativeConstants.IMAGE_PRE_PULL_FILE_POSTFIX;
+import static org.ballerinax.knative.KnativeConstants.KNATIVE_SVC_FILE_POSTFIX;
+import static org.ballerinax.knative.KnativeConstants.RESOURCE_QUOTA_FILE_POSTFIX;
+import static org.ballerinax.knative.KnativeConstants.SECRET_FILE_POSTFIX;
+import static org.ballerinax.knative.KnativeConstants.YAML;
+
+/**
+ * Collects the serialized artifacts of a module in memory. The documents are grouped into a single yaml file or into
+ * a yaml file per kind, and the files are written once all artifacts are generated. Handlers running in parallel can
+ * add documents; the documents are ordered by kind, so the files do not depend on which handler completes first.
+ */
+public class ArtifactSink {
+
+    private static final List<String> KIND_ORDER = Arrays.asList(SECRET_FILE_POSTFIX, RESOURCE_QUOTA_FILE_POSTFIX,
+            CONFIG_MAP_FILE_POSTFIX, KNATIVE_SVC_FILE_POSTFIX, IMAGE_PRE_PULL_FILE_POSTFIX);
+
+    private final Path outputDir;
+    private final String artifactName;
+    private final boolean singleYAML;
+    private final Map<String, StringBuilder> documents = new TreeMap<>(Comparator
+            .comparingInt((String kind) -> KIND_ORDER.contains(kind) ? KIND_ORDER.indexOf(kind) : KIND_ORDER.size())
+            .thenComparing(Comparator.naturalOrder()));
+
+    /**
+     * Create an artifact sink.
+     *
+     * @param outputDir    Artifact output directory
+     * @param artifactName Name of the yaml files without the kind postfix and the extension
+     * @param singleYAML   Whether all documents are written to a single yaml file
+     */
+    public ArtifactSink(Path outputDir, String artifactName, boolean singleYAML) {
+        this.outputDir = outputDir;
+        this.artifactName = artifactName;
+        this.singleYAML = singleYAML;
+    }
+
+    /**
+     * Add a yaml document. The documents of a kind are kept in the order they are added.
+     *
+     * @param filePostfix Postfix of the yaml file of the kind when a yaml file is written per kind
+     * @param document    Yaml document
+     */
+    public synchronized void add(String filePostfix, String document) {
+        documents.computeIfAbsent(filePostfix, kind -> new StringBuilder()).append(document);
+    }
+
+    /**
+     * Get the content of the yaml files.
+     *
+     * @return Content of the yaml files by file path
+     */
+    public synchronized Map<Path, String> getArtifacts() {
+        Map<Path, StringBuilder> artifacts = new LinkedHashMap<>();
+        documents.forEach((kind, content) -> artifacts.computeIfAbsent(
+                outputDir.resolve(artifactName + (singleYAML ? "" : kind) + YAML), file -> new StringBuilder())
+                .append(content));
+        Map<Path, String> contents = new LinkedHashMap<>();
+        artifacts.forEach((file, content) -> contents.put(file, content.toString()));
+        return contents;
+    }
+}
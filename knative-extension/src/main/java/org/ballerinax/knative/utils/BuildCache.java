@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fingerprint of the inputs of the last image build. The content hashes of the input files are kept with their size
+ * and modification time, so an unchanged file is not read again to compute the fingerprint of the next build.
+ */
+public class BuildCache {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path cacheFile;
+    private final Map<String, FileHash> fileHashes = new HashMap<>();
+    private final Map<String, FileHash> usedFileHashes = new TreeMap<>();
+    private String fingerprint;
+    private boolean pushed;
+
+    private BuildCache(Path cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Load the build cache. A missing or unreadable cache file is an empty cache.
+     *
+     * @param cacheFile Cache file
+     * @return Build cache
+     */
+    public static BuildCache load(Path cacheFile) {
+        BuildCache buildCache = new BuildCache(cacheFile);
+        if (!Files.exists(cacheFile)) {
+            return buildCache;
+        }
+        try {
+            JsonNode cache = buildCache.mapper.readTree(Files.readAllBytes(cacheFile));
+            buildCache.fingerprint = cache.path("fingerprint").asText(null);
+            buildCache.pushed = cache.path("pushed").asBoolean(false);
+            cache.path("files").fields().forEachRemaining(file -> {
+                FileHash fileHash = new FileHash();
+                fileHash.size = file.getValue().path("size").asLong();
+                fileHash.modified = file.getValue().path("modified").asLong();
+                fileHash.hash = file.getValue().path("sha256").asText();
+                buildCache.fileHashes.put(file.getKey(), fileHash);
+            });
+        } catch (IOException e) {
+            // the image is rebuilt and the cache is written again.
+            buildCache.fingerprint = null;
+            buildCache.fileHashes.clear();
+        }
+        return buildCache;
+    }
+
+    /**
+     * Compute the fingerprint of the build inputs.
+     *
+     * @param values Input values by name
+     * @param files  Input files by name
+     * @return Fingerprint
+     * @throws IOException If an input file cannot be read.
+     */
+    public String fingerprint(Map<String, String> values, Map<String, Path> files) throws IOException {
+        MessageDigest digest = DigestUtils.newDigest();
+        for (Map.Entry<String, String> value : new TreeMap<>(values).entrySet()) {
+            update(digest, value.getKey());
+            update(digest, String.valueOf(value.getValue()));
+        }
+        for (Map.Entry<String, Path> file : new TreeMap<>(files).entrySet()) {
+            update(digest, file.getKey());
+            update(digest, hash(file.getValue()));
+        }
+        return "sha256:" + DigestUtils.toHex(digest.digest());
+    }
+
+    /**
+     * Check whether the last build had the given fingerprint.
+     *
+     * @param fingerprint Fingerprint of the build inputs
+     * @return true if the last build had the fingerprint
+     */
+    public boolean isBuilt(String fingerprint) {
+        return fingerprint.equals(this.fingerprint);
+    }
+
+    public boolean isPushed() {
+        return pushed;
+    }
+
+    /**
+     * Save the fingerprint and the hashes of the files of this build.
+     *
+     * @param fingerprint Fingerprint of the build inputs
+     * @param pushed      Whether the image was pushed
+     * @throws IOException If the cache file cannot be written.
+     */
+    public void save(String fingerprint, boolean pushed) throws IOException {
+        this.fingerprint = fingerprint;
+        this.pushed = pushed;
+        ObjectNode cache = mapper.createObjectNode();
+        cache.put("fingerprint", fingerprint);
+        cache.put("pushed", pushed);
+        ObjectNode files = cache.putObject("files");
+        for (Map.Entry<String, FileHash> file : usedFileHashes.entrySet()) {
+            files.putObject(file.getKey())
+                    .put("size", file.getValue().size)
+                    .put("modified", file.getValue().modified)
+                    .put("sha256", file.getValue().hash);
+        }
+        Files.createDirectories(cacheFile.getParent());
+        Files.write(cacheFile, mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(cache));
+    }
+
+    private String hash(Path file) throws IOException {
+        String key = file.toAbsolutePath().normalize().toString();
+        long size = Files.size(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        FileHash fileHash = fileHashes.get(key);
+        if (null == fileHash || fileHash.size != size || fileHash.modified != modified) {
+            fileHash = new FileHash();
+            fileHash.size = size;
+            fileHash.modified = modified;
+            fileHash.hash = DigestUtils.toHex(DigestUtils.digest(file));
+            fileHashes.put(key, fileHash);
+        }
+        usedFileHashes.put(key, fileHash);
+        return fileHash.hash;
+    }
+
+    private void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // length prefixed so that adjacent values cannot be shifted into each other.
+        digest.update(String.valueOf(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    /**
+     * Content hash of a file with the size and modification time it was computed for.
+     */
+    private static class FileHash {
+        private long size;
+        private long modified;
+        private String hash;
+    }
+}
@@ -0,0 +1,620 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static org.ballerinax.knative.utils.TarWriter.TAR_BLOCK;
+
+/**
+ * Converts an uncompressed tar layer to an eStargz layer. Every file chunk starts a gzip member so that a lazy
+ * pulling snapshotter can fetch a single file with a range request, the table of contents is appended as the
+ * {@code stargz.index.json} entry and the footer points to it. Prefetch files are moved to the start of the layer
+ * before the prefetch landmark so that they are fetched in one request when the container starts. The layer is still
+ * a valid gzip compressed tar for registries and runtimes that do not pull lazily.
+ */
+final class EstargzConverter {
+
+    static final String TOC_DIGEST_ANNOTATION = "containerd.io/snapshot/stargz/toc.digest";
+    static final String UNCOMPRESSED_SIZE_ANNOTATION = "io.containers.estargz.uncompressed-size";
+
+    private static final String TOC_NAME = "stargz.index.json";
+    private static final String PREFETCH_LANDMARK = ".prefetch.landmark";
+    private static final String NO_PREFETCH_LANDMARK = ".no.prefetch.landmark";
+    private static final byte LANDMARK_CONTENT = 0xf;
+    private static final long CHUNK_SIZE = 4L * 1024 * 1024;
+    private static final int FOOTER_SIZE = 51;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<String> prefetchFiles;
+
+    /**
+     * Create a converter.
+     *
+     * @param prefetchFiles Absolute paths of the files to fetch first in the order they are accessed. A path that
+     *                      starts with {@code **}{@code /} matches every file that ends with the rest of the path.
+     */
+    EstargzConverter(List<String> prefetchFiles) {
+        this.prefetchFiles = prefetchFiles;
+    }
+
+    /**
+     * Convert a tar file.
+     *
+     * @param tarFile   Uncompressed tar file
+     * @param layerFile eStargz layer file to write
+     * @return Digests and sizes of the layer
+     * @throws IOException If the tar file cannot be read, has an entry type that cannot be indexed or the layer
+     *                     cannot be written.
+     */
+    Layer convert(Path tarFile, Path layerFile) throws IOException {
+        List<Entry> entries = readEntries(tarFile);
+        List<Entry> ordered = order(entries);
+        Layer layer = new Layer();
+        ArrayNode tocEntries = mapper.createArrayNode();
+        try (FileChannel channel = FileChannel.open(tarFile, StandardOpenOption.READ);
+             MemberOutputStream out = new MemberOutputStream(Files.newOutputStream(layerFile))) {
+            for (Entry entry : ordered) {
+                writeEntry(channel, out, entry, tocEntries);
+            }
+
+            ObjectNode toc = mapper.createObjectNode();
+            toc.put("version", 1);
+            toc.set("entries", tocEntries);
+            byte[] tocJson = mapper.writeValueAsBytes(toc);
+            out.closeMember();
+            long tocOffset = out.compressedSize();
+            ByteArrayOutputStream tocEntry = new ByteArrayOutputStream();
+            TarWriter tar = new TarWriter(tocEntry);
+            tar.writeFile(TOC_NAME, tocJson);
+            tar.finish();
+            out.write(tocEntry.toByteArray());
+            out.closeMember();
+            out.writeRaw(footer(tocOffset));
+            layer.tocDigest = "sha256:" + DigestUtils.toHex(DigestUtils.newDigest().digest(tocJson));
+            layer.diffId = "sha256:" + DigestUtils.toHex(out.uncompressedDigest.digest());
+            layer.uncompressedSize = out.uncompressedSize;
+        }
+        layer.size = Files.size(layerFile);
+        layer.digest = "sha256:" + DigestUtils.toHex(DigestUtils.digest(layerFile));
+        return layer;
+    }
+
+    /**
+     * Read the entries of a tar file. Pax and GNU long name headers are kept with the entry they describe and
+     * global pax headers are kept as entries that are not moved.
+     *
+     * @param tarFile Tar file
+     * @return Entries in the order of the tar file
+     * @throws IOException If the tar file cannot be read or has an entry type that cannot be indexed.
+     */
+    private List<Entry> readEntries(Path tarFile) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(tarFile), 64 * 1024)) {
+            byte[] block = new byte[TAR_BLOCK];
+            long position = 0;
+            long entryStart = -1;
+            Map<String, String> pax = new HashMap<>();
+            while (readBlock(in, block)) {
+                long blockStart = position;
+                position += TAR_BLOCK;
+                if (isZero(block)) {
+                    break;
+                }
+                if (entryStart == -1) {
+                    entryStart = blockStart;
+                }
+                char type = (char) block[156];
+                long size = parseNumber(block, 124, 12);
+                if (type == 'x' || type == 'L' || type == 'K') {
+                    byte[] data = readData(in, size);
+                    position += padded(size);
+                    if (type == 'x') {
+                        pax.putAll(parsePax(data));
+                    } else {
+                        pax.put(type == 'L' ? "path" : "linkpath", cString(data, 0, data.length));
+                    }
+                    continue;
+                }
+                Entry entry = new Entry();
+                entry.index = entries.size();
+                entry.start = entryStart;
+                entry.headerEnd = position;
+                entry.size = pax.containsKey("size") ? Long.parseLong(pax.get("size")) : size;
+                if (type == 'g') {
+                    entry.global = true;
+                } else {
+                    entry.type = entryType(type);
+                    String name = pax.containsKey("path") ? pax.get("path") : ustarName(block);
+                    entry.name = cleanName(name);
+                    entry.linkName = pax.containsKey("linkpath") ? pax.get("linkpath") :
+                            cString(block, 157, 100);
+                    entry.mode = parseNumber(block, 100, 8) & 07777;
+                    entry.uid = pax.containsKey("uid") ? Long.parseLong(pax.get("uid")) : parseNumber(block, 108, 8);
+                    entry.gid = pax.containsKey("gid") ? Long.parseLong(pax.get("gid")) : parseNumber(block, 116, 8);
+                    entry.devMajor = parseNumber(block, 329, 8);
+                    entry.devMinor = parseNumber(block, 337, 8);
+                }
+                skip(in, padded(entry.size));
+                position += padded(entry.size);
+                entry.end = position;
+                entries.add(entry);
+                entryStart = -1;
+                pax.clear();
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Order the entries with the prefetch files and their parent directories first followed by the prefetch
+     * landmark. A layer without prefetch files starts with the no prefetch landmark.
+     *
+     * @param entries Entries in the order of the tar file
+     * @return Entries in the order of the layer
+     */
+    private List<Entry> order(List<Entry> entries) {
+        List<Entry> prefetch = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (!entry.global && "reg".equals(entry.type)) {
+                entry.priority = priority(entry.name);
+                if (entry.priority != -1) {
+                    prefetch.add(entry);
+                }
+            }
+        }
+        prefetch.sort(Comparator.comparingInt((Entry entry) -> entry.priority).thenComparingInt(entry -> entry.index));
+        Map<String, Entry> dirs = new HashMap<>();
+        for (Entry entry : entries) {
+            if (!entry.global && "dir".equals(entry.type)) {
+                dirs.put(entry.name, entry);
+            }
+        }
+        Set<Entry> ordered = new LinkedHashSet<>();
+        for (Entry entry : entries) {
+            if (entry.global) {
+                ordered.add(entry);
+            }
+        }
+        if (prefetch.isEmpty()) {
+            ordered.add(landmark(NO_PREFETCH_LANDMARK));
+        }
+        for (Entry entry : prefetch) {
+            for (int i = entry.name.indexOf('/'); i != -1; i = entry.name.indexOf('/', i + 1)) {
+                Entry dir = dirs.get(entry.name.substring(0, i));
+                if (null != dir) {
+                    ordered.add(dir);
+                }
+            }
+            ordered.add(entry);
+        }
+        if (!prefetch.isEmpty()) {
+            ordered.add(landmark(PREFETCH_LANDMARK));
+        }
+        ordered.addAll(entries);
+        return new ArrayList<>(ordered);
+    }
+
+    private int priority(String name) {
+        for (int i = 0; i < prefetchFiles.size(); i++) {
+            String prefetchFile = prefetchFiles.get(i);
+            if (prefetchFile.startsWith("**/") ? name.endsWith(prefetchFile.substring(2)) ||
+                    name.equals(prefetchFile.substring(3)) : name.equals(cleanName(prefetchFile))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Entry landmark(String name) {
+        Entry entry = new Entry();
+        entry.index = -1;
+        entry.name = name;
+        entry.type = "reg";
+        entry.size = 1;
+        entry.mode = 0644;
+        entry.content = new byte[]{LANDMARK_CONTENT};
+        return entry;
+    }
+
+    /**
+     * Write an entry. The tar header is written to the current gzip member and every chunk of a regular file starts
+     * a new gzip member at the offset recorded in the table of contents.
+     */
+    private void writeEntry(FileChannel channel, MemberOutputStream out, Entry entry, ArrayNode tocEntries)
+            throws IOException {
+        if (null != entry.content) {
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            new TarWriter(header).writeHeader(entry.name, entry.size, (int) entry.mode, '0');
+            out.write(header.toByteArray());
+        } else {
+            copy(channel, entry.start, entry.headerEnd - entry.start, out);
+        }
+        if (entry.global) {
+            copy(channel, entry.headerEnd, entry.end - entry.headerEnd, out);
+            return;
+        }
+        ObjectNode tocEntry = tocEntries.objectNode();
+        tocEntry.put("name", entry.name);
+        tocEntry.put("type", entry.type);
+        if ("reg".equals(entry.type)) {
+            tocEntry.put("size", entry.size);
+        }
+        if ("symlink".equals(entry.type) || "hardlink".equals(entry.type)) {
+            tocEntry.put("linkName", "hardlink".equals(entry.type) ? cleanName(entry.linkName) : entry.linkName);
+        }
+        tocEntry.put("mode", entry.mode);
+        tocEntry.put("uid", entry.uid);
+        tocEntry.put("gid", entry.gid);
+        if ("char".equals(entry.type) || "block".equals(entry.type)) {
+            tocEntry.put("devMajor", entry.devMajor);
+            tocEntry.put("devMinor", entry.devMinor);
+        }
+        if (!"reg".equals(entry.type) || entry.size == 0) {
+            if (!entry.name.isEmpty()) {
+                tocEntries.add(tocEntry);
+            }
+            copy(channel, entry.headerEnd, entry.end - entry.headerEnd, out);
+            return;
+        }
+        MessageDigest fileDigest = DigestUtils.newDigest();
+        long written = 0;
+        ObjectNode chunkEntry = tocEntry;
+        while (written < entry.size) {
+            out.closeMember();
+            long chunkSize = CHUNK_SIZE;
+            long remaining = entry.size - written;
+            if (remaining < chunkSize) {
+                chunkSize = remaining;
+            } else {
+                chunkEntry.put("chunkSize", chunkSize);
+            }
+            chunkEntry.put("offset", out.compressedSize());
+            if (written > 0) {
+                chunkEntry.put("chunkOffset", written);
+            }
+            MessageDigest chunkDigest = DigestUtils.newDigest();
+            if (null != entry.content) {
+                out.write(entry.content);
+                chunkDigest.update(entry.content);
+                fileDigest.update(entry.content);
+            } else {
+                copy(channel, entry.headerEnd + written, chunkSize, out, chunkDigest, fileDigest);
+            }
+            byte[] chunkHash = chunkDigest.digest();
+            chunkEntry.put("chunkDigest", "sha256:" + DigestUtils.toHex(chunkHash));
+            tocEntries.add(chunkEntry);
+            written += chunkSize;
+            chunkEntry = tocEntries.objectNode();
+            chunkEntry.put("name", entry.name);
+            chunkEntry.put("type", "chunk");
+        }
+        out.write(new byte[(int) (padded(entry.size) - entry.size)]);
+        // the digest of the whole file is only known once every chunk is written.
+        tocEntry.put("digest", "sha256:" + DigestUtils.toHex(fileDigest.digest()));
+    }
+
+    private void copy(FileChannel channel, long position, long length, MemberOutputStream out,
+                      MessageDigest... digests) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long remaining = length;
+        long current = position;
+        while (remaining > 0) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), remaining));
+            int read = channel.read(buffer, current);
+            if (read == -1) {
+                throw new IOException("unexpected end of tar file");
+            }
+            out.write(buffer.array(), 0, read);
+            for (MessageDigest digest : digests) {
+                digest.update(buffer.array(), 0, read);
+            }
+            current += read;
+            remaining -= read;
+        }
+    }
+
+    /**
+     * Footer of the layer. An empty gzip member with the offset of the table of contents in the extra field.
+     *
+     * @param tocOffset Offset of the gzip member of the table of contents
+     * @return Footer bytes
+     */
+    private static byte[] footer(long tocOffset) {
+        byte[] subfield = String.format("%016xSTARGZ", tocOffset).getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        // gzip header with the FEXTRA flag, no modification time and an unknown OS.
+        footer.put(new byte[]{0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff});
+        footer.putShort((short) (subfield.length + 4));
+        footer.put((byte) 'S').put((byte) 'G').putShort((short) subfield.length).put(subfield);
+        // final stored deflate block without data, the CRC and the size of the empty content.
+        footer.put(new byte[]{1, 0, 0, (byte) 0xff, (byte) 0xff});
+        footer.putInt(0).putInt(0);
+        return footer.array();
+    }
+
+    private static String entryType(char type) throws IOException {
+        switch (type) {
+            case '0':
+            case '\0':
+            case '7':
+                return "reg";
+            case '1':
+                return "hardlink";
+            case '2':
+                return "symlink";
+            case '3':
+                return "char";
+            case '4':
+                return "block";
+            case '5':
+                return "dir";
+            case '6':
+                return "fifo";
+            default:
+                throw new IOException("unsupported tar entry type: " + type);
+        }
+    }
+
+    private static String ustarName(byte[] block) {
+        String name = cString(block, 0, 100);
+        String magic = cString(block, 257, 5);
+        String prefix = "ustar".equals(magic) ? cString(block, 345, 155) : "";
+        return prefix.isEmpty() ? name : prefix + "/" + name;
+    }
+
+    private static String cleanName(String name) {
+        String cleanName = name.replace('\\', '/');
+        while (cleanName.startsWith("./") || cleanName.startsWith("/")) {
+            cleanName = cleanName.substring(cleanName.indexOf('/') + 1);
+        }
+        while (cleanName.endsWith("/")) {
+            cleanName = cleanName.substring(0, cleanName.length() - 1);
+        }
+        return ".".equals(cleanName) ? "" : cleanName;
+    }
+
+    private static Map<String, String> parsePax(byte[] data) {
+        Map<String, String> records = new HashMap<>();
+        int position = 0;
+        while (position < data.length) {
+            int space = position;
+            while (space < data.length && data[space] != ' ') {
+                space++;
+            }
+            if (space == data.length) {
+                break;
+            }
+            int length = Integer.parseInt(new String(data, position, space - position, StandardCharsets.UTF_8));
+            if (length <= 0 || position + length > data.length) {
+                break;
+            }
+            String record = new String(data, space + 1, position + length - space - 2, StandardCharsets.UTF_8);
+            int separator = record.indexOf('=');
+            if (separator != -1) {
+                records.put(record.substring(0, separator), record.substring(separator + 1));
+            }
+            position += length;
+        }
+        return records;
+    }
+
+    private static long parseNumber(byte[] block, int offset, int length) {
+        if ((block[offset] & 0x80) != 0) {
+            // base-256 encoding of large numbers.
+            long value = block[offset] & 0x7f;
+            for (int i = offset + 1; i < offset + length; i++) {
+                value = (value << 8) | (block[i] & 0xff);
+            }
+            return value;
+        }
+        String octal = cString(block, offset, length).trim();
+        return octal.isEmpty() ? 0 : Long.parseLong(octal, 8);
+    }
+
+    private static String cString(byte[] block, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && block[end] != 0) {
+            end++;
+        }
+        return new String(block, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isZero(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long padded(long size) {
+        return (size + TAR_BLOCK - 1) / TAR_BLOCK * TAR_BLOCK;
+    }
+
+    private static boolean readBlock(InputStream in, byte[] block) throws IOException {
+        int offset = 0;
+        while (offset < block.length) {
+            int read = in.read(block, offset, block.length - offset);
+            if (read == -1) {
+                return false;
+            }
+            offset += read;
+        }
+        return true;
+    }
+
+    private static byte[] readData(InputStream in, long size) throws IOException {
+        byte[] data = new byte[(int) size];
+        int offset = 0;
+        while (offset < data.length) {
+            int read = in.read(data, offset, data.length - offset);
+            if (read == -1) {
+                throw new IOException("unexpected end of tar file");
+            }
+            offset += read;
+        }
+        skip(in, padded(size) - size);
+        return data;
+    }
+
+    private static void skip(InputStream in, long length) throws IOException {
+        long remaining = length;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                if (in.read() == -1) {
+                    throw new IOException("unexpected end of tar file");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * Digests and sizes of an eStargz layer.
+     */
+    static final class Layer {
+        String digest;
+        String diffId;
+        String tocDigest;
+        long size;
+        long uncompressedSize;
+    }
+
+    /**
+     * Tar entry with the range of its headers and content in the tar file.
+     */
+    private static final class Entry {
+        private int index;
+        private int priority = -1;
+        private boolean global;
+        private long start;
+        private long headerEnd;
+        private long end;
+        private long size;
+        private String name;
+        private String type;
+        private String linkName;
+        private long mode;
+        private long uid;
+        private long gid;
+        private long devMajor;
+        private long devMinor;
+        private byte[] content;
+    }
+
+    /**
+     * Output stream of concatenated gzip members. The uncompressed content is digested for the diff id of the layer.
+     */
+    private static final class MemberOutputStream extends FilterOutputStream {
+        private final MessageDigest uncompressedDigest = DigestUtils.newDigest();
+        private long uncompressedSize;
+        private long compressedSize;
+        private GZIPOutputStream member;
+
+        MemberOutputStream(OutputStream out) {
+            super(new BufferedOutputStream(out, 64 * 1024));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (null == member) {
+                member = new GZIPOutputStream(new CountingOutputStream(), 64 * 1024);
+            }
+            member.write(b, off, len);
+            uncompressedDigest.update(b, off, len);
+            uncompressedSize += len;
+        }
+
+        void closeMember() throws IOException {
+            if (null != member) {
+                member.finish();
+                member = null;
+            }
+        }
+
+        void writeRaw(byte[] bytes) throws IOException {
+            out.write(bytes);
+            compressedSize += bytes.length;
+        }
+
+        long compressedSize() {
+            return compressedSize;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeMember();
+            super.close();
+        }
+
+        /**
+         * Counts the compressed bytes of the gzip members without closing the layer file.
+         */
+        private final class CountingOutputStream extends OutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                compressedSize++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                compressedSize += len;
+            }
+        }
+    }
+}
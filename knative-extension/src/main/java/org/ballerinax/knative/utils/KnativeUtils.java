@@ -18,24 +18,36 @@
 
 package org.ballerinax.knative.utils;
 
+import io.fabric8.kubernetes.api.model.Affinity;
+import io.fabric8.kubernetes.api.model.AffinityBuilder;
 import io.fabric8.kubernetes.api.model.ConfigMapKeySelector;
 import io.fabric8.kubernetes.api.model.ConfigMapKeySelectorBuilder;
 import io.fabric8.kubernetes.api.model.EnvVar;
 import io.fabric8.kubernetes.api.model.EnvVarBuilder;
 import io.fabric8.kubernetes.api.model.EnvVarSource;
 import io.fabric8.kubernetes.api.model.EnvVarSourceBuilder;
+import io.fabric8.kubernetes.api.model.LocalObjectReference;
+import io.fabric8.kubernetes.api.model.LocalObjectReferenceBuilder;
+import io.fabric8.kubernetes.api.model.NodeAffinityBuilder;
+import io.fabric8.kubernetes.api.model.NodeSelectorRequirement;
+import io.fabric8.kubernetes.api.model.NodeSelectorRequirementBuilder;
 import io.fabric8.kubernetes.api.model.ObjectFieldSelector;
 import io.fabric8.kubernetes.api.model.ObjectFieldSelectorBuilder;
+import io.fabric8.kubernetes.api.model.PreferredSchedulingTerm;
+import io.fabric8.kubernetes.api.model.PreferredSchedulingTermBuilder;
 import io.fabric8.kubernetes.api.model.ResourceFieldSelector;
 import io.fabric8.kubernetes.api.model.ResourceFieldSelectorBuilder;
 import io.fabric8.kubernetes.api.model.SecretKeySelector;
 import io.fabric8.kubernetes.api.model.SecretKeySelectorBuilder;
+import io.fabric8.kubernetes.api.model.Toleration;
+import io.fabric8.kubernetes.api.model.TolerationBuilder;
 import org.ballerinalang.model.tree.NodeKind;
 import org.ballerinax.docker.generator.models.CopyFileModel;
 import org.ballerinax.knative.exceptions.KnativePluginException;
 import org.ballerinax.knative.models.EnvVarValueModel;
-import org.ballerinax.knative.models.KnativeContext;
-import org.ballerinax.knative.models.KnativeDataHolder;
+import org.ballerinax.knative.models.NodeAffinityModel;
+import org.ballerinax.knative.models.PodTolerationModel;
+import org.ballerinax.knative.models.ServiceModel;
 import org.wso2.ballerinalang.compiler.semantics.model.symbols.BConstantSymbol;
 import org.wso2.ballerinalang.compiler.semantics.model.symbols.BSymbol;
 import org.wso2.ballerinalang.compiler.semantics.model.types.BFiniteType;
@@ -48,10 +60,8 @@ import org.wso2.ballerinalang.compiler.tree.expressions.BLangSimpleVarRef;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -61,11 +71,11 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import static org.ballerinax.docker.generator.utils.DockerGenUtils.extractJarName;
-import static org.ballerinax.knative.KnativeConstants.KNATIVE;
-import static org.ballerinax.knative.KnativeConstants.YAML;
+import static org.ballerinax.docker.generator.DockerGenConstants.REGISTRY_SEPARATOR;
 
 /**
  * Util methods used for artifact generation.
@@ -73,42 +83,8 @@ import static org.ballerinax.knative.KnativeConstants.YAML;
 public class KnativeUtils {
 
     private static final PrintStream ERR = System.err;
-    private static final PrintStream OUT = System.out;
-
-    /**
-     * Write content to a File. Create the required directories if they don't not exists.
-     *
-     * @param context context of the file
-     * @throws IOException If an error occurs when writing to a file
-     */
-    public static void writeToFile(String context) throws IOException {
-        KnativeDataHolder dataHolder = KnativeContext.getInstance().getDataHolder();
-        writeToFile(dataHolder.getK8sArtifactOutputPath().resolve(KNATIVE), context);
-    }
-
-    /**
-     * Write content to a File. Create the required directories if they don't not exists.
-     *
-     * @param outputDir Artifact output path.
-     * @param context   Context of the file
-     * @throws IOException If an error occurs when writing to a file
-     */
-    public static void writeToFile(Path outputDir, String context) throws IOException {
-        KnativeDataHolder dataHolder = KnativeContext.getInstance().getDataHolder();
-        // Priority given for job, then deployment.
-        Path artifactFileName = outputDir.resolve(extractJarName(dataHolder.getUberJarPath()) + YAML);
-
-        File newFile = artifactFileName.toFile();
-        // append if file exists
-        if (newFile.exists()) {
-            Files.write(artifactFileName, context.getBytes(StandardCharsets.UTF_8),
-                    StandardOpenOption.APPEND);
-            return;
-        }
-        //create required directories
-        newFile.getParentFile().mkdirs();
-        Files.write(artifactFileName, context.getBytes(StandardCharsets.UTF_8));
-    }
+    private static final PrintStream OUT = TaskOutput.OUT;
+    private static final Pattern DURATION_PATTERN = Pattern.compile("^(?:(\\d+)h)?(?:(\\d+)m)?(?:(\\d+)s)?$");
 
     /**
      * Read contents of a File.
@@ -139,6 +115,15 @@ public class KnativeUtils {
         ERR.println("error [k8s plugin]: " + msg);
     }
 
+    /**
+     * Prints a Warning message.
+     *
+     * @param msg message to be printed
+     */
+    public static void printWarning(String msg) {
+        OUT.println("warning [k8s plugin]: " + msg);
+    }
+
     /**
      * Prints an Instruction message.
      *
@@ -279,6 +264,32 @@ public class KnativeUtils {
         throw new KnativePluginException("unable to parse value: " + expr.toString());
     }
 
+    /**
+     * Convert a duration such as "60s", "2m" or "1h30m" to seconds.
+     *
+     * @param duration Duration value.
+     * @return Duration in seconds.
+     * @throws KnativePluginException When the duration cannot be parsed.
+     */
+    public static long getDurationInSeconds(String duration) throws KnativePluginException {
+        Matcher matcher = DURATION_PATTERN.matcher(isBlank(duration) ? "" : duration.trim());
+        if (isBlank(duration) || !matcher.matches()) {
+            throw new KnativePluginException("invalid duration: " + duration + ". expected a value such as " +
+                    "\"60s\", \"2m\" or \"1h30m\".");
+        }
+        long seconds = 0;
+        if (null != matcher.group(1)) {
+            seconds += Long.parseLong(matcher.group(1)) * 3600;
+        }
+        if (null != matcher.group(2)) {
+            seconds += Long.parseLong(matcher.group(2)) * 60;
+        }
+        if (null != matcher.group(3)) {
+            seconds += Long.parseLong(matcher.group(3));
+        }
+        return seconds;
+    }
+
     /**
      * Returns valid kubernetes name.
      *
@@ -426,6 +437,125 @@ public class KnativeUtils {
         return externalFiles;
     }
 
+    /**
+     * Get the docker image name of the service prefixed with the registry.
+     *
+     * @param serviceModel Service model
+     * @return Docker image name
+     */
+    public static String getDeploymentImageName(ServiceModel serviceModel) {
+        String dockerRegistry = serviceModel.getRegistry();
+        String deploymentImageName = serviceModel.getImage();
+        if (null != dockerRegistry && !"".equals(dockerRegistry)) {
+            deploymentImageName = dockerRegistry + REGISTRY_SEPARATOR + deploymentImageName;
+        }
+        return deploymentImageName;
+    }
+
+    /**
+     * Get a list of pod tolerations.
+     *
+     * @param podTolerationModels Pod toleration models
+     * @return List of tolerations or null if no tolerations are set
+     */
+    public static List<Toleration> populatePodTolerations(List<PodTolerationModel> podTolerationModels) {
+        if (null == podTolerationModels || podTolerationModels.isEmpty()) {
+            return null;
+        }
+        List<Toleration> tolerations = new ArrayList<>();
+        for (PodTolerationModel podTolerationModel : podTolerationModels) {
+            // tolerationSeconds is only allowed with the NoExecute effect.
+            boolean noExecute = "NoExecute".equals(podTolerationModel.getEffect());
+            tolerations.add(new TolerationBuilder()
+                    .withKey(podTolerationModel.getKey())
+                    .withOperator(podTolerationModel.getOperator())
+                    .withValue(podTolerationModel.getValue())
+                    .withEffect(podTolerationModel.getEffect())
+                    .withTolerationSeconds(noExecute && podTolerationModel.getTolerationSeconds() > 0 ?
+                            (long) podTolerationModel.getTolerationSeconds() : null)
+                    .build());
+        }
+        return tolerations;
+    }
+
+    /**
+     * Get a list of image pull secret references.
+     *
+     * @param serviceModel Service model
+     * @return List of image pull secret references or null if no secrets are set
+     */
+    public static List<LocalObjectReference> populateImagePullSecrets(ServiceModel serviceModel) {
+        if (null == serviceModel.getImagePullSecrets() || serviceModel.getImagePullSecrets().isEmpty()) {
+            return null;
+        }
+        List<LocalObjectReference> imagePullSecrets = new ArrayList<>();
+        for (String imagePullSecret : serviceModel.getImagePullSecrets()) {
+            imagePullSecrets.add(new LocalObjectReferenceBuilder().withName(imagePullSecret).build());
+        }
+        return imagePullSecrets;
+    }
+
+    /**
+     * Get the node affinity of pods. Required terms are combined into a single node selector term.
+     *
+     * @param nodeAffinityModels Node affinity models
+     * @return Affinity or null if no node affinity is set
+     * @throws KnativePluginException If a node affinity is invalid.
+     */
+    public static Affinity populateNodeAffinity(List<NodeAffinityModel> nodeAffinityModels) throws KnativePluginException {
+        if (null == nodeAffinityModels || nodeAffinityModels.isEmpty()) {
+            return null;
+        }
+        List<NodeSelectorRequirement> requiredExpressions = new ArrayList<>();
+        List<PreferredSchedulingTerm> preferredTerms = new ArrayList<>();
+        for (NodeAffinityModel nodeAffinityModel : nodeAffinityModels) {
+            String operator = nodeAffinityModel.getOperator();
+            boolean hasValues = null != nodeAffinityModel.getValues() && !nodeAffinityModel.getValues().isEmpty();
+            if (("Exists".equals(operator) || "DoesNotExist".equals(operator)) == hasValues) {
+                throw new KnativePluginException("@knative:Service{} nodeAffinity " + nodeAffinityModel.getKey() +
+                        " values are required with In, NotIn, Gt and Lt operators and not allowed otherwise");
+            }
+            NodeSelectorRequirement requirement = new NodeSelectorRequirementBuilder()
+                    .withKey(nodeAffinityModel.getKey())
+                    .withOperator(operator)
+                    .withValues(hasValues ? nodeAffinityModel.getValues() : null)
+                    .build();
+            if (nodeAffinityModel.isRequired()) {
+                if (nodeAffinityModel.getWeight() != -1) {
+                    throw new KnativePluginException("@knative:Service{} nodeAffinity " + nodeAffinityModel.getKey() +
+                            " weight is only allowed when required is false");
+                }
+                requiredExpressions.add(requirement);
+                continue;
+            }
+            int weight = nodeAffinityModel.getWeight() == -1 ? 1 : nodeAffinityModel.getWeight();
+            if (weight < 1 || weight > 100) {
+                throw new KnativePluginException("@knative:Service{} nodeAffinity " + nodeAffinityModel.getKey() +
+                        " weight should be between 1 and 100: " + weight);
+            }
+            preferredTerms.add(new PreferredSchedulingTermBuilder()
+                    .withWeight(weight)
+                    .withNewPreference()
+                    .withMatchExpressions(requirement)
+                    .endPreference()
+                    .build());
+        }
+        NodeAffinityBuilder nodeAffinityBuilder = new NodeAffinityBuilder();
+        if (!requiredExpressions.isEmpty()) {
+            nodeAffinityBuilder.withNewRequiredDuringSchedulingIgnoredDuringExecution()
+                    .addNewNodeSelectorTerm()
+                    .withMatchExpressions(requiredExpressions)
+                    .endNodeSelectorTerm()
+                    .endRequiredDuringSchedulingIgnoredDuringExecution();
+        }
+        if (!preferredTerms.isEmpty()) {
+            nodeAffinityBuilder.withPreferredDuringSchedulingIgnoredDuringExecution(preferredTerms);
+        }
+        return new AffinityBuilder()
+                .withNodeAffinity(nodeAffinityBuilder.build())
+                .build();
+    }
+
     /**
      * Get a list of environment variables.
      *
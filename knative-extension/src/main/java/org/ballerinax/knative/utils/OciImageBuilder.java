@@ -0,0 +1,690 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.ballerinax.knative.exceptions.KnativePluginException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds container images without a docker daemon. The base image manifest, config and layers are pulled from the
+ * registry once and cached by digest, the layers of the image are written as gzip compressed tar files in parallel
+ * and the image is written as an OCI image layout directory or as a tarball for {@code docker load}.
+ */
+public class OciImageBuilder {
+
+    private static final String OCI_MANIFEST = "application/vnd.oci.image.manifest.v1+json";
+    private static final String OCI_INDEX = "application/vnd.oci.image.index.v1+json";
+    private static final String OCI_CONFIG = "application/vnd.oci.image.config.v1+json";
+    private static final String OCI_LAYER = "application/vnd.oci.image.layer.v1.tar";
+    private static final String OCI_LAYER_GZIP = "application/vnd.oci.image.layer.v1.tar+gzip";
+    private static final String DOCKER_MANIFEST = "application/vnd.docker.distribution.manifest.v2+json";
+    private static final String DOCKER_MANIFEST_LIST = "application/vnd.docker.distribution.manifest.list.v2+json";
+    private static final String DOCKER_LAYER_GZIP = "application/vnd.docker.image.rootfs.diff.tar.gzip";
+    private static final String DOCKER_HUB_REGISTRY = "registry-1.docker.io";
+    private static final String DEFAULT_OS = "linux";
+    private static final String DEFAULT_ARCHITECTURE = "amd64";
+    private static final String CREATED = "1970-01-01T00:00:00Z";
+    private static final Pattern AUTH_PARAM = Pattern.compile("(\\w+)=\"([^\"]*)\"");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path cacheDir;
+    private final String username;
+    private final String password;
+    private final Map<String, Map<String, Path>> layers = new LinkedHashMap<>();
+    private final Map<String, String> env = new LinkedHashMap<>();
+    private final Set<Integer> ports = new TreeSet<>();
+    private List<String> cmd;
+    private String workingDir;
+    private List<String> prefetchFiles;
+    private String bearerToken;
+
+    /**
+     * Create an image builder.
+     *
+     * @param cacheDir Directory of the cached base image manifests and blobs
+     * @param username Username of the base image registry or null to pull anonymously
+     * @param password Password of the base image registry
+     */
+    public OciImageBuilder(Path cacheDir, String username, String password) {
+        this.cacheDir = cacheDir;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Add a layer of files. Layers are applied in the order they are added.
+     *
+     * @param name  Name of the layer, recorded in the image history
+     * @param files Files of the layer by their absolute path in the image
+     */
+    public void addLayer(String name, Map<String, Path> files) {
+        if (!files.isEmpty()) {
+            this.layers.put(name, new TreeMap<>(files));
+        }
+    }
+
+    public void addEnv(String name, String value) {
+        this.env.put(name, value);
+    }
+
+    public void addPorts(Set<Integer> ports) {
+        this.ports.addAll(ports);
+    }
+
+    public void setCmd(List<String> cmd) {
+        this.cmd = cmd;
+    }
+
+    public void setWorkingDir(String workingDir) {
+        this.workingDir = workingDir;
+    }
+
+    /**
+     * Write the layers of the image and the base image as eStargz layers that can be pulled lazily. The prefetch
+     * files are moved to the start of each layer so that they are fetched first when the container starts.
+     *
+     * @param prefetchFiles Absolute paths of the files in the order they are accessed. A path that starts with
+     *                      {@code **}{@code /} matches every file that ends with the rest of the path.
+     */
+    public void setPrefetchFiles(List<String> prefetchFiles) {
+        this.prefetchFiles = prefetchFiles;
+    }
+
+    /**
+     * Build the image on top of the base image and write it as an OCI image layout directory.
+     *
+     * @param baseImage Base image name
+     * @param imageName Image name with tag
+     * @param layoutDir OCI image layout directory
+     * @throws KnativePluginException If the base image cannot be pulled or the image cannot be written.
+     */
+    public void writeImageLayout(String baseImage, String imageName, Path layoutDir) throws KnativePluginException {
+        try {
+            Image image = build(baseImage, layoutDir.resolveSibling(layoutDir.getFileName() + ".tmp"));
+            Path blobsDir = layoutDir.resolve("blobs").resolve("sha256");
+            Files.createDirectories(blobsDir);
+            for (Blob blob : image.blobs) {
+                Files.copy(blob.file, blobsDir.resolve(hex(blob.digest)), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.write(blobsDir.resolve(hex(image.configDigest)), image.config);
+            Files.write(blobsDir.resolve(hex(image.manifestDigest)), image.manifest);
+            Files.write(layoutDir.resolve("oci-layout"), "{\"imageLayoutVersion\":\"1.0.0\"}"
+                    .getBytes(StandardCharsets.UTF_8));
+            ObjectNode index = mapper.createObjectNode();
+            index.put("schemaVersion", 2);
+            index.put("mediaType", OCI_INDEX);
+            ObjectNode descriptor = index.putArray("manifests").addObject();
+            descriptor.put("mediaType", OCI_MANIFEST);
+            descriptor.put("digest", image.manifestDigest);
+            descriptor.put("size", image.manifest.length);
+            descriptor.putObject("annotations").put("org.opencontainers.image.ref.name", imageName);
+            Files.write(layoutDir.resolve("index.json"), mapper.writeValueAsBytes(index));
+            deleteWorkDir(image.workDir);
+        } catch (IOException e) {
+            throw new KnativePluginException("unable to write the OCI image layout: " + layoutDir + ": " +
+                    e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Build the image on top of the base image and write it as a tarball that can be loaded with
+     * {@code docker load}.
+     *
+     * @param baseImage Base image name
+     * @param imageName Image name with tag
+     * @param tarball   Tarball path
+     * @throws KnativePluginException If the base image cannot be pulled or the image cannot be written.
+     */
+    public void writeDockerArchive(String baseImage, String imageName, Path tarball) throws KnativePluginException {
+        try {
+            Image image = build(baseImage, tarball.resolveSibling(tarball.getFileName() + ".tmp"));
+            ObjectNode manifest = mapper.createObjectNode();
+            manifest.put("Config", hex(image.configDigest) + ".json");
+            manifest.putArray("RepoTags").add(imageName);
+            ArrayNode layerFiles = manifest.putArray("Layers");
+            try (OutputStream out = Files.newOutputStream(tarball)) {
+                TarWriter tar = new TarWriter(out);
+                tar.writeFile(hex(image.configDigest) + ".json", image.config);
+                for (Blob blob : image.blobs) {
+                    String layerFile = hex(blob.digest) + ".tar.gz";
+                    layerFiles.add(layerFile);
+                    tar.writeFile(layerFile, blob.file);
+                }
+                ArrayNode manifests = mapper.createArrayNode();
+                manifests.add(manifest);
+                tar.writeFile("manifest.json", mapper.writeValueAsBytes(manifests));
+                tar.finish();
+            }
+            deleteWorkDir(image.workDir);
+        } catch (IOException e) {
+            throw new KnativePluginException("unable to write the image tarball: " + tarball + ": " +
+                    e.getMessage(), e);
+        }
+    }
+
+    private Image build(String baseImage, Path workDir) throws IOException, KnativePluginException {
+        deleteWorkDir(workDir);
+        Files.createDirectories(workDir);
+        Image image = new Image();
+        image.workDir = workDir;
+        JsonNode baseManifest = getBaseManifest(baseImage);
+        ImageReference reference = new ImageReference(baseImage);
+        JsonNode configDescriptor = baseManifest.path("config");
+        ObjectNode config = (ObjectNode) mapper.readTree(Files.readAllBytes(getBlob(reference,
+                configDescriptor.path("digest").asText())));
+        JsonNode baseDiffIds = config.path("rootfs").path("diff_ids");
+        List<Callable<Blob>> layerTasks = new ArrayList<>();
+        int index = 0;
+        for (JsonNode layer : baseManifest.path("layers")) {
+            Blob blob = new Blob();
+            blob.digest = layer.path("digest").asText();
+            blob.size = layer.path("size").asLong();
+            blob.mediaType = DOCKER_LAYER_GZIP.equals(layer.path("mediaType").asText()) ? OCI_LAYER_GZIP :
+                    layer.path("mediaType").asText();
+            blob.diffId = baseDiffIds.path(index).asText();
+            blob.file = getBlob(reference, blob.digest);
+            Path tarFile = workDir.resolve("base-" + index++ + ".tar");
+            layerTasks.add(null == prefetchFiles ? () -> blob : () -> convertBaseLayer(blob, tarFile));
+        }
+        for (Map<String, Path> files : layers.values()) {
+            Path layerFile = workDir.resolve("layer-" + index++ + ".tar.gz");
+            layerTasks.add(() -> writeLayer(files, layerFile));
+        }
+
+        // compress and convert the layers in parallel.
+        image.blobs.addAll(runTasks(layerTasks));
+        List<Blob> imageLayers = image.blobs.subList(image.blobs.size() - layers.size(), image.blobs.size());
+
+        ObjectNode containerConfig = config.has("config") && config.get("config").isObject() ?
+                (ObjectNode) config.get("config") : config.putObject("config");
+        Map<String, String> imageEnv = new LinkedHashMap<>();
+        for (JsonNode envVar : containerConfig.path("Env")) {
+            String value = envVar.asText();
+            int separator = value.indexOf('=');
+            imageEnv.put(separator == -1 ? value : value.substring(0, separator),
+                    separator == -1 ? "" : value.substring(separator + 1));
+        }
+        imageEnv.putAll(env);
+        ArrayNode envNode = containerConfig.putArray("Env");
+        imageEnv.forEach((name, value) -> envNode.add(name + "=" + value));
+        if (null != cmd) {
+            ArrayNode cmdNode = containerConfig.putArray("Cmd");
+            cmd.forEach(cmdNode::add);
+        }
+        if (null != workingDir) {
+            containerConfig.put("WorkingDir", workingDir);
+        }
+        if (!ports.isEmpty()) {
+            ObjectNode exposedPorts = containerConfig.has("ExposedPorts") &&
+                    containerConfig.get("ExposedPorts").isObject() ?
+                    (ObjectNode) containerConfig.get("ExposedPorts") : containerConfig.putObject("ExposedPorts");
+            ports.forEach(port -> exposedPorts.putObject(port + "/tcp"));
+        }
+        ObjectNode rootfs = config.has("rootfs") ? (ObjectNode) config.get("rootfs") : config.putObject("rootfs");
+        rootfs.put("type", "layers");
+        ArrayNode diffIds = rootfs.putArray("diff_ids");
+        image.blobs.forEach(blob -> diffIds.add(blob.diffId));
+        ArrayNode history = config.has("history") ? (ArrayNode) config.get("history") : config.putArray("history");
+        List<String> layerNames = new ArrayList<>(layers.keySet());
+        for (int i = 0; i < imageLayers.size(); i++) {
+            history.addObject().put("created", CREATED).put("created_by", "knative: " + layerNames.get(i));
+        }
+        config.put("created", CREATED);
+        image.config = mapper.writeValueAsBytes(config);
+        image.configDigest = sha256(image.config);
+
+        ObjectNode manifest = mapper.createObjectNode();
+        manifest.put("schemaVersion", 2);
+        manifest.put("mediaType", OCI_MANIFEST);
+        manifest.putObject("config")
+                .put("mediaType", OCI_CONFIG)
+                .put("digest", image.configDigest)
+                .put("size", image.config.length);
+        ArrayNode manifestLayers = manifest.putArray("layers");
+        for (Blob blob : image.blobs) {
+            ObjectNode layer = manifestLayers.addObject()
+                    .put("mediaType", blob.mediaType)
+                    .put("digest", blob.digest)
+                    .put("size", blob.size);
+            if (!blob.annotations.isEmpty()) {
+                ObjectNode annotations = layer.putObject("annotations");
+                blob.annotations.forEach(annotations::put);
+            }
+        }
+        image.manifest = mapper.writeValueAsBytes(manifest);
+        image.manifestDigest = sha256(image.manifest);
+        return image;
+    }
+
+    private List<Blob> runTasks(List<Callable<Blob>> tasks) throws IOException {
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(tasks.size(),
+                Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<Blob>> futures = new ArrayList<>();
+            for (Callable<Blob> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            List<Blob> blobs = new ArrayList<>();
+            for (Future<Blob> future : futures) {
+                blobs.add(future.get());
+            }
+            return blobs;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while writing image layers", e);
+        } catch (ExecutionException e) {
+            throw new IOException("unable to write image layer: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Write a layer as a gzip compressed tar file, or as an eStargz layer if prefetch files are set. The files are
+     * written in a deterministic order with fixed timestamps and owners so that an unchanged layer has the same digest
+     * on every build.
+     *
+     * @param files     Files of the layer by their absolute path in the image
+     * @param layerFile Layer file to write
+     * @return Layer blob
+     * @throws IOException If the layer cannot be written.
+     */
+    private Blob writeLayer(Map<String, Path> files, Path layerFile) throws IOException {
+        if (null != prefetchFiles) {
+            Path tarFile = layerFile.resolveSibling(layerFile.getFileName() + ".tar");
+            try (OutputStream tarOut = new BufferedOutputStream(Files.newOutputStream(tarFile), 64 * 1024)) {
+                writeTar(files, tarOut);
+            }
+            return convertLayer(tarFile, layerFile);
+        }
+        MessageDigest compressedDigest = DigestUtils.newDigest();
+        MessageDigest uncompressedDigest = DigestUtils.newDigest();
+        try (OutputStream fileOut = Files.newOutputStream(layerFile);
+             DigestOutputStream compressedOut = new DigestOutputStream(fileOut, compressedDigest);
+             GZIPOutputStream gzipOut = new GZIPOutputStream(compressedOut, 64 * 1024);
+             DigestOutputStream tarOut = new DigestOutputStream(gzipOut, uncompressedDigest)) {
+            writeTar(files, tarOut);
+        }
+        Blob blob = new Blob();
+        blob.file = layerFile;
+        blob.mediaType = OCI_LAYER_GZIP;
+        blob.digest = "sha256:" + DigestUtils.toHex(compressedDigest.digest());
+        blob.diffId = "sha256:" + DigestUtils.toHex(uncompressedDigest.digest());
+        blob.size = Files.size(layerFile);
+        return blob;
+    }
+
+    private void writeTar(Map<String, Path> files, OutputStream out) throws IOException {
+        TarWriter tar = new TarWriter(out);
+        Set<String> dirs = new TreeSet<>();
+        for (String target : files.keySet()) {
+            String path = stripRoot(target);
+            for (int i = path.indexOf('/'); i != -1; i = path.indexOf('/', i + 1)) {
+                dirs.add(path.substring(0, i + 1));
+            }
+        }
+        for (String dir : dirs) {
+            tar.writeDirectory(dir);
+        }
+        for (Map.Entry<String, Path> file : files.entrySet()) {
+            tar.writeFile(stripRoot(file.getKey()), file.getValue());
+        }
+        tar.finish();
+    }
+
+    /**
+     * Convert a base image layer to an eStargz layer. Converted layers are cached by the digest of the layer and the
+     * prefetch files. Layers that are not gzip compressed or uncompressed tar files, or that have entries that cannot
+     * be indexed, are used as they are.
+     *
+     * @param base    Base image layer
+     * @param tarFile Temporary file for the uncompressed layer
+     * @return Converted layer
+     * @throws IOException If the layer cannot be read or written.
+     */
+    private Blob convertBaseLayer(Blob base, Path tarFile) throws IOException {
+        if (!OCI_LAYER_GZIP.equals(base.mediaType) && !OCI_LAYER.equals(base.mediaType)) {
+            return base;
+        }
+        Path estargzDir = cacheDir.resolve("estargz");
+        String key = hex(base.digest) + "-" + hex(sha256(String.join("\n", prefetchFiles)
+                .getBytes(StandardCharsets.UTF_8)));
+        Path cachedLayer = estargzDir.resolve(key + ".tar.gz");
+        Path cachedMetadata = estargzDir.resolve(key + ".json");
+        if (Files.exists(cachedLayer) && Files.exists(cachedMetadata)) {
+            JsonNode metadata = mapper.readTree(Files.readAllBytes(cachedMetadata));
+            Blob blob = new Blob();
+            blob.file = cachedLayer;
+            blob.mediaType = OCI_LAYER_GZIP;
+            blob.digest = metadata.path("digest").asText();
+            blob.diffId = metadata.path("diffId").asText();
+            blob.size = metadata.path("size").asLong();
+            metadata.path("annotations").fields().forEachRemaining(annotation ->
+                    blob.annotations.put(annotation.getKey(), annotation.getValue().asText()));
+            return blob;
+        }
+        Files.createDirectories(estargzDir);
+        try (InputStream in = OCI_LAYER_GZIP.equals(base.mediaType) ?
+                new GZIPInputStream(Files.newInputStream(base.file), 64 * 1024) : Files.newInputStream(base.file)) {
+            Files.copy(in, tarFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        // modules built in parallel can convert the same layer, each through its own temporary file.
+        Path layerFile = Files.createTempFile(estargzDir, "." + key, ".tmp");
+        Blob blob;
+        try {
+            blob = convertLayer(tarFile, layerFile);
+        } catch (IOException e) {
+            // the layer is still pulled, only not lazily.
+            Files.deleteIfExists(tarFile);
+            Files.deleteIfExists(layerFile);
+            return base;
+        }
+        ArtifactManifest.move(layerFile, cachedLayer);
+        blob.file = cachedLayer;
+        ObjectNode metadata = mapper.createObjectNode()
+                .put("digest", blob.digest)
+                .put("diffId", blob.diffId)
+                .put("size", blob.size);
+        ObjectNode annotations = metadata.putObject("annotations");
+        blob.annotations.forEach(annotations::put);
+        ArtifactManifest.writeAtomically(cachedMetadata, mapper.writeValueAsBytes(metadata));
+        return blob;
+    }
+
+    private Blob convertLayer(Path tarFile, Path layerFile) throws IOException {
+        try {
+            EstargzConverter.Layer layer = new EstargzConverter(prefetchFiles).convert(tarFile, layerFile);
+            Blob blob = new Blob();
+            blob.file = layerFile;
+            blob.mediaType = OCI_LAYER_GZIP;
+            blob.digest = layer.digest;
+            blob.diffId = layer.diffId;
+            blob.size = layer.size;
+            blob.annotations.put(EstargzConverter.TOC_DIGEST_ANNOTATION, layer.tocDigest);
+            blob.annotations.put(EstargzConverter.UNCOMPRESSED_SIZE_ANNOTATION,
+                    String.valueOf(layer.uncompressedSize));
+            return blob;
+        } finally {
+            Files.deleteIfExists(tarFile);
+        }
+    }
+
+    /**
+     * Get the manifest of the base image for the default platform. The manifest is read from the cache and pulled
+     * from the registry only if it is not cached.
+     *
+     * @param baseImage Base image name
+     * @return Image manifest
+     * @throws IOException If the manifest cannot be pulled.
+     */
+    private JsonNode getBaseManifest(String baseImage) throws IOException {
+        ImageReference reference = new ImageReference(baseImage);
+        Path cachedManifest = cacheDir.resolve("manifests").resolve(reference.registry)
+                .resolve(reference.repository).resolve(reference.reference.replace(':', '_') + ".json");
+        if (Files.exists(cachedManifest)) {
+            return mapper.readTree(Files.readAllBytes(cachedManifest));
+        }
+        JsonNode manifest = mapper.readTree(get(reference, "manifests/" + reference.reference,
+                String.join(", ", OCI_INDEX, OCI_MANIFEST, DOCKER_MANIFEST_LIST, DOCKER_MANIFEST)));
+        if (manifest.has("manifests")) {
+            String digest = null;
+            for (JsonNode platformManifest : manifest.get("manifests")) {
+                JsonNode platform = platformManifest.path("platform");
+                if (null == digest || (DEFAULT_OS.equals(platform.path("os").asText()) &&
+                        DEFAULT_ARCHITECTURE.equals(platform.path("architecture").asText()))) {
+                    digest = platformManifest.path("digest").asText();
+                }
+            }
+            if (null == digest) {
+                throw new IOException("base image " + baseImage + " has no manifests");
+            }
+            manifest = mapper.readTree(get(reference, "manifests/" + digest, String.join(", ", OCI_MANIFEST,
+                    DOCKER_MANIFEST)));
+        }
+        if (!manifest.has("config") || !manifest.has("layers")) {
+            throw new IOException("unsupported manifest of base image " + baseImage);
+        }
+        ArtifactManifest.writeAtomically(cachedManifest, mapper.writeValueAsBytes(manifest));
+        return manifest;
+    }
+
+    private Path getBlob(ImageReference reference, String digest) throws IOException {
+        Path blobFile = cacheDir.resolve("blobs").resolve("sha256").resolve(hex(digest));
+        if (Files.exists(blobFile)) {
+            return blobFile;
+        }
+        Files.createDirectories(blobFile.getParent());
+        Path downloadFile = Files.createTempFile(blobFile.getParent(), "." + blobFile.getFileName(), ".download");
+        MessageDigest messageDigest = DigestUtils.newDigest();
+        try {
+            try (InputStream in = open(reference, "blobs/" + digest, "*/*");
+                 OutputStream out = new DigestOutputStream(Files.newOutputStream(downloadFile), messageDigest)) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (!digest.equals("sha256:" + DigestUtils.toHex(messageDigest.digest()))) {
+                throw new IOException("digest mismatch of blob " + digest);
+            }
+            ArtifactManifest.move(downloadFile, blobFile);
+        } finally {
+            Files.deleteIfExists(downloadFile);
+        }
+        return blobFile;
+    }
+
+    private byte[] get(ImageReference reference, String path, String accept) throws IOException {
+        try (InputStream in = open(reference, path, accept)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Open a registry API path. A bearer token is requested when the registry asks for one and redirects to blob
+     * storage are followed without the registry credentials.
+     *
+     * @param reference Image reference
+     * @param path      API path relative to the repository
+     * @param accept    Accepted media types
+     * @return Response stream
+     * @throws IOException If the request fails.
+     */
+    private InputStream open(ImageReference reference, String path, String accept) throws IOException {
+        String scheme = reference.registry.startsWith("localhost") || reference.registry.startsWith("127.0.0.1") ?
+                "http" : "https";
+        URL url = new URL(scheme + "://" + reference.registry + "/v2/" + reference.repository + "/" + path);
+        for (int attempt = 0; attempt < 5; attempt++) {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setInstanceFollowRedirects(false);
+            connection.setRequestProperty("Accept", accept);
+            if (null != bearerToken && url.getHost().equals(reference.host())) {
+                connection.setRequestProperty("Authorization", "Bearer " + bearerToken);
+            }
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_OK) {
+                return connection.getInputStream();
+            }
+            connection.disconnect();
+            if (status >= 300 && status < 400 && null != connection.getHeaderField("Location")) {
+                url = new URL(url, connection.getHeaderField("Location"));
+            } else if (status == HttpURLConnection.HTTP_UNAUTHORIZED && null == bearerToken &&
+                    null != connection.getHeaderField("WWW-Authenticate")) {
+                bearerToken = requestToken(connection.getHeaderField("WWW-Authenticate"));
+            } else {
+                throw new IOException("registry responded with " + status + " for " + url);
+            }
+        }
+        throw new IOException("too many redirects for " + url);
+    }
+
+    private String requestToken(String challenge) throws IOException {
+        Map<String, String> params = new LinkedHashMap<>();
+        Matcher matcher = AUTH_PARAM.matcher(challenge);
+        while (matcher.find()) {
+            params.put(matcher.group(1), matcher.group(2));
+        }
+        String realm = params.remove("realm");
+        if (null == realm) {
+            throw new IOException("unsupported registry authentication: " + challenge);
+        }
+        StringBuilder tokenUrl = new StringBuilder(realm);
+        char separator = realm.contains("?") ? '&' : '?';
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            tokenUrl.append(separator).append(param.getKey()).append('=')
+                    .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8.name()));
+            separator = '&';
+        }
+        HttpURLConnection connection = (HttpURLConnection) new URL(tokenUrl.toString()).openConnection();
+        if (!KnativeUtils.isBlank(username)) {
+            connection.setRequestProperty("Authorization", "Basic " + Base64.getEncoder().encodeToString(
+                    (username + ":" + password).getBytes(StandardCharsets.UTF_8)));
+        }
+        if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            throw new IOException("unable to get a registry token from " + realm + ": " +
+                    connection.getResponseCode());
+        }
+        try (InputStream in = connection.getInputStream()) {
+            JsonNode token = mapper.readTree(in);
+            return token.has("token") ? token.get("token").asText() : token.path("access_token").asText();
+        }
+    }
+
+    private void deleteWorkDir(Path workDir) throws IOException {
+        if (!Files.exists(workDir)) {
+            return;
+        }
+        List<Path> paths = new ArrayList<>();
+        Files.walk(workDir).forEach(paths::add);
+        Collections.reverse(paths);
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static String stripRoot(String target) {
+        String path = target.replace('\\', '/');
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        return path;
+    }
+
+    private static String hex(String digest) {
+        return digest.substring(digest.indexOf(':') + 1);
+    }
+
+    private static String sha256(byte[] content) {
+        return "sha256:" + DigestUtils.toHex(DigestUtils.newDigest().digest(content));
+    }
+
+    /**
+     * Image manifest, config and the blobs of the layers.
+     */
+    private static class Image {
+        private final List<Blob> blobs = new ArrayList<>();
+        private Path workDir;
+        private byte[] config;
+        private String configDigest;
+        private byte[] manifest;
+        private String manifestDigest;
+    }
+
+    /**
+     * Compressed layer.
+     */
+    private static class Blob {
+        private final Map<String, String> annotations = new LinkedHashMap<>();
+        private Path file;
+        private String mediaType;
+        private String digest;
+        private String diffId;
+        private long size;
+    }
+
+    /**
+     * Registry, repository and tag or digest of an image.
+     */
+    private static class ImageReference {
+        private final String registry;
+        private final String repository;
+        private final String reference;
+
+        ImageReference(String image) {
+            DockerImageName imageName = new DockerImageName(image);
+            this.registry = imageName.hasRegistry() && !"docker.io".equals(imageName.getRegistry()) ?
+                    imageName.getRegistry() : DOCKER_HUB_REGISTRY;
+            String repositoryName = imageName.getRepository();
+            this.repository = DOCKER_HUB_REGISTRY.equals(this.registry) && !repositoryName.contains("/") ?
+                    "library/" + repositoryName : repositoryName;
+            this.reference = null != imageName.getDigest() ? imageName.getDigest() : imageName.getTag();
+        }
+
+        String host() {
+            int port = registry.indexOf(':');
+            return port == -1 ? registry : registry.substring(0, port);
+        }
+    }
+}
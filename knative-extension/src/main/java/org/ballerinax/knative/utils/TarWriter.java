@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Minimal ustar writer with pax headers for long paths, fixed timestamps and owners.
+ */
+final class TarWriter {
+
+    static final int TAR_BLOCK = 512;
+
+    private final OutputStream out;
+
+    TarWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    void writeDirectory(String name) throws IOException {
+        writeHeader(name, 0, 0755, '5');
+    }
+
+    void writeFile(String name, Path file) throws IOException {
+        long size = Files.size(file);
+        writeHeader(name, size, Files.isExecutable(file) ? 0755 : 0644, '0');
+        Files.copy(file, out);
+        pad(size);
+    }
+
+    void writeFile(String name, byte[] content) throws IOException {
+        writeHeader(name, content.length, 0644, '0');
+        out.write(content);
+        pad(content.length);
+    }
+
+    void finish() throws IOException {
+        out.write(new byte[TAR_BLOCK * 2]);
+        out.flush();
+    }
+
+    private void pad(long size) throws IOException {
+        int remainder = (int) (size % TAR_BLOCK);
+        if (remainder != 0) {
+            out.write(new byte[TAR_BLOCK - remainder]);
+        }
+    }
+
+    void writeHeader(String name, long size, int mode, char type) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > 100) {
+            // long paths are written as a pax extended header before the entry.
+            int recordLength = (" path=" + name + "\n").getBytes(StandardCharsets.UTF_8).length;
+            int digits = String.valueOf(recordLength).length();
+            if (String.valueOf(recordLength + digits).length() > digits) {
+                digits++;
+            }
+            byte[] record = ((recordLength + digits) + " path=" + name + "\n").getBytes(StandardCharsets.UTF_8);
+            writeHeaderBlock("PaxHeader".getBytes(StandardCharsets.US_ASCII), record.length, 0644, 'x');
+            out.write(record);
+            pad(record.length);
+            nameBytes = Arrays.copyOf(nameBytes, 100);
+        }
+        writeHeaderBlock(nameBytes, size, mode, type);
+    }
+
+    private void writeHeaderBlock(byte[] nameBytes, long size, int mode, char type) throws IOException {
+        byte[] header = new byte[TAR_BLOCK];
+        System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        putOctal(header, 100, 8, mode);
+        putOctal(header, 108, 8, 0);
+        putOctal(header, 116, 8, 0);
+        putOctal(header, 124, 12, size);
+        putOctal(header, 136, 12, 0);
+        header[156] = (byte) type;
+        byte[] magic = "ustar\u000000".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(magic, 0, header, 257, magic.length);
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        putOctal(header, 148, 7, checksum);
+        out.write(header);
+    }
+
+    private void putOctal(byte[] header, int offset, int length, long value) {
+        String octal = String.format("%0" + (length - 1) + "o", value);
+        byte[] bytes = octal.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+        header[offset + length - 1] = 0;
+    }
+}
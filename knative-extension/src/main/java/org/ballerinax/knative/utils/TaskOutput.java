@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.knative.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Console output of the plugin. Tasks that run in parallel print to their own buffer, which is printed once the tasks
+ * before it are complete, so the output stays in the order of the tasks.
+ */
+public class TaskOutput extends OutputStream {
+
+    private static final PrintStream CONSOLE = System.out;
+    private static final InheritableThreadLocal<Buffer> TARGET = new InheritableThreadLocal<>();
+    public static final PrintStream OUT = new PrintStream(new TaskOutput(), true);
+
+    private TaskOutput() {
+    }
+
+    /**
+     * Get the buffer the output of the current thread is printed to.
+     *
+     * @return Buffer of the task or null if the output is printed to the console
+     */
+    public static Buffer getRoute() {
+        return TARGET.get();
+    }
+
+    /**
+     * Print the output of the current thread and the threads it starts to a buffer.
+     *
+     * @param buffer Buffer of the task or null to print to the console
+     */
+    public static void route(Buffer buffer) {
+        if (null == buffer) {
+            TARGET.remove();
+        } else {
+            TARGET.set(buffer);
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        Buffer buffer = TARGET.get();
+        if (null == buffer) {
+            CONSOLE.write(b);
+        } else {
+            buffer.write(b);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        Buffer buffer = TARGET.get();
+        if (null == buffer) {
+            CONSOLE.write(b, off, len);
+        } else {
+            buffer.write(b, off, len);
+        }
+    }
+
+    @Override
+    public void flush() {
+        CONSOLE.flush();
+    }
+
+    /**
+     * Output of a task. The output is kept until the buffer is live and printed as it is written afterwards. A buffer
+     * created by a task that prints to a buffer prints to the buffer of that task.
+     */
+    public static class Buffer {
+
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private final Buffer parent = TARGET.get();
+        private boolean live;
+
+        synchronized void write(int b) {
+            if (!live) {
+                pending.write(b);
+            } else if (null == parent) {
+                CONSOLE.write(b);
+            } else {
+                parent.write(b);
+            }
+        }
+
+        synchronized void write(byte[] b, int off, int len) {
+            if (!live) {
+                pending.write(b, off, len);
+            } else if (null == parent) {
+                CONSOLE.write(b, off, len);
+            } else {
+                parent.write(b, off, len);
+            }
+        }
+
+        /**
+         * Print the kept output and the output written afterwards to the console or the buffer of the parent task.
+         */
+        public synchronized void goLive() {
+            live = true;
+            write(pending.toByteArray(), 0, pending.size());
+            CONSOLE.flush();
+            pending.reset();
+        }
+
+        /**
+         * Get the output kept until the buffer is live.
+         *
+         * @return Kept output
+         */
+        @Override
+        public synchronized String toString() {
+            return new String(pending.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+# Launcher of the AppCDS image. The variables above are set by the knative extension.
+# The archive options are added to JAVA_TOOL_OPTIONS only when the training run created the archive, so the service
+# starts as before without it. Options that are already set, such as those of the jvm profile, are not added again.
+
+if [ -f "$ARCHIVE" ]; then
+    for option in $ARCHIVE_OPTIONS; do
+        case " $JAVA_TOOL_OPTIONS " in
+            *" $option "*) ;;
+            *) JAVA_TOOL_OPTIONS="${JAVA_TOOL_OPTIONS:+$JAVA_TOOL_OPTIONS }$option" ;;
+        esac
+    done
+    export JAVA_TOOL_OPTIONS
+fi
+exec "$@"
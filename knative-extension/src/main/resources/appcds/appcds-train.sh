@@ -0,0 +1,62 @@
+# Training run of the AppCDS stage. The variables above are set by the knative extension.
+# The service is started with -XX:ArchiveClassesAtExit, warmed up and stopped, which dumps the classes loaded during
+# the run to the archive. The time until the service port accepts connections is then measured with and without
+# the archive. The stage never fails the build. If the JDK cannot create the archive the image works as before.
+
+now_ms() {
+    awk '{ printf "%d", $1 * 1000 }' /proc/uptime
+}
+
+# Wait until the service port accepts connections. Falls back to waiting for the training time when nc is missing.
+wait_for_port() {
+    if [ "$PORT" -le 0 ] || ! command -v nc > /dev/null 2>&1; then
+        sleep "$TRAINING_SECONDS"
+        return 1
+    fi
+    deadline=$(( $(now_ms) + TRAINING_SECONDS * 1000 ))
+    while [ "$(now_ms)" -lt "$deadline" ]; do
+        if nc -z 127.0.0.1 "$PORT" > /dev/null 2>&1; then
+            return 0
+        fi
+        sleep 0.05
+    done
+    return 1
+}
+
+stop_service() {
+    kill -TERM "$1" > /dev/null 2>&1
+    wait "$1" > /dev/null 2>&1
+}
+
+# Start the service with the given JVM options. Sets pid and the time until its port accepts connections as startup.
+run_service() {
+    start=$(now_ms)
+    JAVA_TOOL_OPTIONS="$1" sh -c "exec $TRAINING_COMMAND" > /dev/null 2>&1 &
+    pid=$!
+    if wait_for_port; then
+        startup=$(( $(now_ms) - start ))
+    else
+        startup=-1
+    fi
+}
+
+run_service "-XX:+IgnoreUnrecognizedVMOptions -XX:ArchiveClassesAtExit=$ARCHIVE"
+startup_without=$startup
+if [ -n "$WARM_UP_COMMAND" ]; then
+    sh -c "$WARM_UP_COMMAND" > /dev/null 2>&1
+fi
+stop_service "$pid"
+
+if [ ! -f "$ARCHIVE" ]; then
+    echo "appcds archive not created. the image is built without it."
+    exit 0
+fi
+
+run_service "$ARCHIVE_OPTIONS"
+stop_service "$pid"
+startup_with=$startup
+if [ "$startup_without" -ge 0 ] && [ "$startup_with" -ge 0 ]; then
+    echo "appcds startup: ${startup_without}ms -> ${startup_with}ms"
+else
+    echo "appcds archive created. startup time is not measured as the service port is not reachable."
+fi
@@ -0,0 +1,20 @@
+# Tracing run of the native image build. The variables above are set by the knative extension.
+# The service is started with the native image agent, which records the reflection, resource, proxy and JNI access
+# of the ballerina runtime into the configuration directory, and is stopped once the port accepts connections or the
+# tracing time is over. The run never fails the build. The native image is then built with the recorded and the
+# bundled configuration.
+
+elapsed=0
+eval "$TRACE_COMMAND" &
+pid=$!
+while [ "$elapsed" -lt "$TRACE_SECONDS" ] && kill -0 "$pid" > /dev/null 2>&1; do
+    if [ "$PORT" -gt 0 ] && command -v nc > /dev/null 2>&1 && nc -z 127.0.0.1 "$PORT" > /dev/null 2>&1; then
+        break
+    fi
+    sleep 1
+    elapsed=$((elapsed + 1))
+done
+kill -TERM "$pid" > /dev/null 2>&1
+wait "$pid" > /dev/null 2>&1
+echo "native image tracing run finished in ${elapsed}s"
+exit 0
@@ -0,0 +1,58 @@
+// Copyright (c) 2020 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/http;
+import ballerina/log;
+import ballerinax/knative;
+
+@knative:Service {
+    containerConcurrency: 50,
+    dataPath: knative:DATA_PATH_DIRECT,
+    spread: knative:SPREAD_ZONE_AND_NODE,
+    podTolerations: [
+        {
+            key: "dedicated",
+            value: "knative",
+            effect: knative:TOLERATION_EFFECT_NO_SCHEDULE
+        }
+    ],
+    podAnnotations: {
+        "sidecar.istio.io/inject": "false"
+    }
+}
+@knative:Autoscaling {
+    metric: knative:KPA_METRIC_CONCURRENCY,
+    target: 40,
+    targetUtilizationPercentage: 70,
+    window: "60s",
+    panicWindowPercentage: 10,
+    panicThresholdPercentage: 200,
+    minScale: 1,
+    maxScale: 10
+}
+@http:ServiceConfig {
+    basePath: "/helloWorld"
+}
+service helloWorld on new http:Listener(8080) {
+    resource function sayHello(http:Caller outboundEP, http:Request request) {
+        http:Response response = new;
+        response.setTextPayload("Hello, World from service helloWorld ! \n");
+        var responseResult = outboundEP->respond(response);
+        if (responseResult is error) {
+            log:printError("error responding back to client.", responseResult);
+        }
+    }
+}